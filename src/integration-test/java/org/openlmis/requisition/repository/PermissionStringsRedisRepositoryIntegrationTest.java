@@ -0,0 +1,73 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.openlmis.requisition.repository.custom.PermissionStringsRedisRepository;
+import org.openlmis.requisition.repository.custom.PermissionStringsRedisRepository.Entry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class PermissionStringsRedisRepositoryIntegrationTest {
+
+  private UUID userId = UUID.randomUUID();
+
+  @Autowired
+  private PermissionStringsRedisRepository redisRepository;
+
+  @Test
+  public void shouldSaveAndFindPermissionStrings() {
+    List<String> permissionStrings = Arrays.asList(
+        "REQUISITION_VIEW|" + UUID.randomUUID() + "|" + UUID.randomUUID(),
+        "REQUISITION_CREATE|" + UUID.randomUUID() + "|" + UUID.randomUUID());
+
+    redisRepository.save(userId, new Entry(permissionStrings, "etag", 100L), 60);
+
+    Entry found = redisRepository.findByUserId(userId);
+
+    assertEquals(permissionStrings, found.getPermissionStrings());
+    assertEquals("etag", found.getEtag());
+    assertEquals(100L, found.getValidatedAt());
+  }
+
+  @Test
+  public void shouldSaveEmptyPermissionStringsWithoutEtag() {
+    redisRepository.save(userId, new Entry(Collections.emptyList(), null, 100L), 60);
+
+    Entry found = redisRepository.findByUserId(userId);
+
+    assertEquals(Collections.emptyList(), found.getPermissionStrings());
+    assertNull(found.getEtag());
+  }
+
+  @Test
+  public void shouldReturnNullIfUserWasNotSaved() {
+    assertNull(redisRepository.findByUserId(UUID.randomUUID()));
+  }
+}
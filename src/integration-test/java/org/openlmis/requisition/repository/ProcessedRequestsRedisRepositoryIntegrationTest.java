@@ -24,6 +24,7 @@ import java.util.UUID;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.openlmis.requisition.repository.custom.ProcessedRequestsRedisRepository;
+import org.openlmis.requisition.repository.custom.ProcessedRequestsRedisRepository.ClaimResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
@@ -73,4 +74,24 @@ public class ProcessedRequestsRedisRepositoryIntegrationTest {
     redisRepository.addOrUpdate(idempotencyKey1, resource2);
     assertEquals(resource2, redisRepository.findByIdempotencyKey(idempotencyKey1));
   }
+
+  @Test
+  public void shouldClaimIdempotencyKeyOnlyOnce() {
+    assertTrue(redisRepository.claim(idempotencyKey1).isClaimed());
+    assertTrue(redisRepository.exists(idempotencyKey1));
+
+    ClaimResult second = redisRepository.claim(idempotencyKey1);
+    assertFalse(second.isClaimed());
+    assertFalse(second.isProcessed());
+  }
+
+  @Test
+  public void shouldReturnResourceOfProcessedIdempotencyKey() {
+    redisRepository.claim(idempotencyKey1);
+    redisRepository.addOrUpdate(idempotencyKey1, resource1);
+
+    ClaimResult claim = redisRepository.claim(idempotencyKey1);
+    assertFalse(claim.isClaimed());
+    assertEquals(resource1, claim.getResourceId());
+  }
 }
@@ -22,6 +22,7 @@ import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.hasSize;
@@ -41,10 +42,12 @@ import static org.openlmis.requisition.domain.requisition.RequisitionStatus.SKIP
 import static org.openlmis.requisition.domain.requisition.RequisitionStatus.SUBMITTED;
 
 import com.google.common.collect.Sets;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -62,6 +65,7 @@ import org.openlmis.requisition.domain.RequisitionTemplateColumn;
 import org.openlmis.requisition.domain.RequisitionTemplateColumnDataBuilder;
 import org.openlmis.requisition.domain.RequisitionTemplateDataBuilder;
 import org.openlmis.requisition.domain.requisition.Requisition;
+import org.openlmis.requisition.domain.requisition.RequisitionCompletionCount;
 import org.openlmis.requisition.domain.requisition.RequisitionDataBuilder;
 import org.openlmis.requisition.domain.requisition.RequisitionLineItem;
 import org.openlmis.requisition.domain.requisition.RequisitionLineItemDataBuilder;
@@ -73,6 +77,7 @@ import org.openlmis.requisition.domain.requisition.StockAdjustmentDataBuilder;
 import org.openlmis.requisition.dto.OrderableDto;
 import org.openlmis.requisition.dto.VersionIdentityDto;
 import org.openlmis.requisition.repository.custom.DefaultRequisitionSearchParams;
+import org.openlmis.requisition.repository.custom.RequisitionSearchCursor;
 import org.openlmis.requisition.repository.custom.RequisitionSearchParams;
 import org.openlmis.requisition.testutils.AvailableRequisitionColumnDataBuilder;
 import org.openlmis.requisition.testutils.DefaultRequisitionSearchParamsDataBuilder;
@@ -333,6 +338,79 @@ public class RequisitionRepositoryIntegrationTest
     receivedRequisitions.forEach(requisition -> assertFalse(requisition.getEmergency()));
   }
 
+  @Test
+  public void shouldIgnorePageNumberWhenSearchingAfterCursor() {
+    Page<Requisition> first = repository.searchRequisitions(
+        new DefaultRequisitionSearchParamsDataBuilder().withSkipCount(true).build(),
+        userPermissionStrings, programNodePairs, PageRequest.of(0, 2));
+
+    RequisitionSearchParams searchParams = new DefaultRequisitionSearchParamsDataBuilder()
+        .withCursor(RequisitionSearchCursor.of(first.getContent().get(1)))
+        .withSkipCount(true)
+        .build();
+
+    Page<Requisition> next = repository.searchRequisitions(searchParams,
+        userPermissionStrings, programNodePairs, PageRequest.of(3, 2));
+
+    assertEquals(2, next.getNumberOfElements());
+    assertEquals(0, next.getNumber());
+    assertEquals(3, next.getTotalElements());
+    assertTrue(next.hasNext());
+  }
+
+  @Test
+  public void shouldSearchRequisitionsPageAfterCursor() {
+    Pageable firstPage = PageRequest.of(0, 2);
+    Page<Requisition> first = repository.searchRequisitions(
+        new DefaultRequisitionSearchParamsDataBuilder().withSkipCount(true).build(),
+        userPermissionStrings, programNodePairs, firstPage);
+
+    assertEquals(2, first.getNumberOfElements());
+    assertTrue(first.hasNext());
+
+    Requisition last = first.getContent().get(1);
+    RequisitionSearchParams searchParams = new DefaultRequisitionSearchParamsDataBuilder()
+        .withCursor(RequisitionSearchCursor.of(last))
+        .withSkipCount(true)
+        .build();
+
+    List<Requisition> found = new ArrayList<>(first.getContent());
+    Page<Requisition> next = repository
+        .searchRequisitions(searchParams, userPermissionStrings, programNodePairs, firstPage);
+    found.addAll(next.getContent());
+
+    Requisition nextLast = next.getContent().get(next.getNumberOfElements() - 1);
+    searchParams = new DefaultRequisitionSearchParamsDataBuilder()
+        .withCursor(RequisitionSearchCursor.of(nextLast))
+        .withSkipCount(true)
+        .build();
+
+    Page<Requisition> rest = repository
+        .searchRequisitions(searchParams, userPermissionStrings, programNodePairs, firstPage);
+    found.addAll(rest.getContent());
+
+    assertEquals(2, next.getNumberOfElements());
+    assertTrue(next.hasNext());
+    assertEquals(1, rest.getNumberOfElements());
+    assertFalse(rest.hasNext());
+    assertThat(found.stream().map(Requisition::getId).collect(Collectors.toSet()),
+        hasSize(5));
+  }
+
+  @Test
+  public void shouldEstimateTotalIfCountIsSkipped() {
+    RequisitionSearchParams searchParams = new DefaultRequisitionSearchParamsDataBuilder()
+        .withSkipCount(true)
+        .build();
+
+    Page<Requisition> page = repository.searchRequisitions(searchParams,
+        userPermissionStrings, programNodePairs, PageRequest.of(1, 2));
+
+    assertEquals(2, page.getNumberOfElements());
+    assertTrue(page.hasNext());
+    assertEquals(5, page.getTotalElements());
+  }
+
   @Test
   public void testSearchRequisitionsByPeriodAndEmergencyFlag() {
     requisitions.forEach(requisition -> {
@@ -349,6 +427,41 @@ public class RequisitionRepositoryIntegrationTest
     });
   }
 
+  @Test
+  public void shouldFindRegularRequisitionsForAllGivenPeriods() {
+    UUID facilityId = UUID.randomUUID();
+    UUID programId = UUID.randomUUID();
+    List<Requisition> regular = new ArrayList<>();
+
+    for (int count = 0; count < 3; ++count) {
+      Requisition requisition = generateInstance(facilityId, programId, UUID.randomUUID());
+      requisition.setEmergency(false);
+      regular.add(repository.save(requisition));
+    }
+
+    Requisition emergency = generateInstance(facilityId, programId,
+        regular.get(0).getProcessingPeriodId());
+    emergency.setEmergency(true);
+    repository.save(emergency);
+
+    List<Requisition> found = repository.findRegularRequisitions(
+        asList(regular.get(0).getProcessingPeriodId(), regular.get(1).getProcessingPeriodId()),
+        facilityId, programId);
+
+    assertThat(found.stream().map(Requisition::getId).collect(Collectors.toList()),
+        containsInAnyOrder(regular.get(0).getId(), regular.get(1).getId()));
+  }
+
+  @Test
+  public void shouldNotFindRegularRequisitionsIfPeriodsAreEmpty() {
+    Requisition requisition = requisitions.get(0);
+
+    List<Requisition> found = repository.findRegularRequisitions(emptySet(),
+        requisition.getFacilityId(), requisition.getProgramId());
+
+    assertThat(found, hasSize(0));
+  }
+
   @Test
   public void testSearchRequisitionIdStatusPairsByPeriodAndEmergencyFlag() {
     requisitions.forEach(requisition -> {
@@ -929,7 +1042,7 @@ public class RequisitionRepositoryIntegrationTest
         requisitionToCopy.getFacilityId(), requisitionToCopy.getProgramId(),
         requisitionToCopy.getProcessingPeriodId(), requisitionToCopy.getSupervisoryNodeId(),
         requisitionToCopy.getEmergency(), null, null, null, null,
-        EnumSet.of(requisitionToCopy.getStatus()));
+        EnumSet.of(requisitionToCopy.getStatus()), null, false);
 
     List<Requisition> receivedRequisitions = repository
         .searchRequisitions(searchParams, userPermissionStrings, programNodePairs, pageRequest)
@@ -1129,6 +1242,73 @@ public class RequisitionRepositoryIntegrationTest
     assertThat(result, is(false));
   }
 
+  @Test
+  public void shouldCountRequisitionCompletionsByPeriodAndFacility() {
+    // given
+    UUID programId = UUID.randomUUID();
+    UUID facilityId = UUID.randomUUID();
+    UUID otherFacilityId = UUID.randomUUID();
+    UUID currentPeriodId = UUID.randomUUID();
+    UUID previousPeriodId = UUID.randomUUID();
+
+    generateRegularRequisition(facilityId, programId, currentPeriodId, true);
+    generateRegularRequisition(otherFacilityId, programId, currentPeriodId, false);
+    generateRegularRequisition(facilityId, programId, previousPeriodId, true);
+    generateRegularRequisition(facilityId, UUID.randomUUID(), currentPeriodId, true);
+
+    Requisition emergency = generateInstance(otherFacilityId, programId, currentPeriodId);
+    emergency.setEmergency(true);
+    repository.save(emergency);
+
+    Map<UUID, ZonedDateTime> deadlines = new HashMap<>();
+    deadlines.put(currentPeriodId, ZonedDateTime.now().plusDays(1));
+    deadlines.put(previousPeriodId, ZonedDateTime.now().minusDays(1));
+
+    // when
+    List<RequisitionCompletionCount> counts =
+        repository.countRequisitionCompletions(programId, deadlines);
+
+    // then
+    assertThat(counts, hasSize(3));
+    assertThat(counts, hasItem(
+        new RequisitionCompletionCount(currentPeriodId, facilityId, 1, 0, 0)));
+    assertThat(counts, hasItem(
+        new RequisitionCompletionCount(currentPeriodId, otherFacilityId, 0, 0, 1)));
+    assertThat(counts, hasItem(
+        new RequisitionCompletionCount(previousPeriodId, facilityId, 0, 1, 0)));
+  }
+
+  @Test
+  public void shouldNotCountRequisitionCompletionsIfNoPeriodsGiven() {
+    assertThat(repository.countRequisitionCompletions(UUID.randomUUID(), emptyMap()),
+        hasSize(0));
+  }
+
+  @Test
+  public void shouldFindFacilityIdsWithRequisitions() {
+    // given
+    UUID programId = UUID.randomUUID();
+    UUID periodId = UUID.randomUUID();
+    UUID facilityWithRnR = UUID.randomUUID();
+    final UUID facilityWithoutApprovedRnR = UUID.randomUUID();
+    final UUID facilityWithoutRnR = UUID.randomUUID();
+
+    Requisition approved = generateInstance(facilityWithRnR, programId, periodId);
+    approved.setStatus(APPROVED);
+    repository.save(approved);
+
+    repository.save(generateInstance(facilityWithoutApprovedRnR, programId, periodId));
+    repository.save(generateInstance(facilityWithoutRnR, UUID.randomUUID(), periodId));
+
+    // when
+    Set<UUID> result = repository.findFacilityIdsWithRequisitions(
+        asList(facilityWithRnR, facilityWithoutApprovedRnR, facilityWithoutRnR),
+        programId, periodId, EnumSet.of(APPROVED, RELEASED));
+
+    // then
+    assertEquals(singleton(facilityWithRnR), result);
+  }
+
   private RequisitionLineItem generateLineItem(Requisition requisition) {
     RequisitionLineItem item = new RequisitionLineItemDataBuilder()
         .withRequisition(requisition)
@@ -1152,6 +1332,22 @@ public class RequisitionRepositoryIntegrationTest
         Collections.singletonMap(RequisitionLineItem.BEGINNING_BALANCE, column)));
   }
 
+  private void generateRegularRequisition(UUID facility, UUID program, UUID period,
+      boolean approved) {
+    Requisition requisition = generateInstance(facility, program, period);
+    requisition.setEmergency(false);
+
+    if (approved) {
+      requisition.setStatus(APPROVED);
+      requisition.getStatusChanges().add(new StatusChangeDataBuilder()
+          .withRequisition(requisition)
+          .withStatus(APPROVED)
+          .buildAsNew());
+    }
+
+    repository.save(requisition);
+  }
+
   private Requisition generateRequisition(RequisitionStatus status) {
     return generateRequisition(status, UUID.randomUUID(), UUID.randomUUID());
   }
@@ -0,0 +1,75 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.repository;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import org.junit.Test;
+import org.openlmis.requisition.domain.requisition.RequisitionDataBuilder;
+import org.openlmis.requisition.domain.requisition.StatusChangeNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class StatusChangeNotificationRepositoryIntegrationTest
+    extends BaseCrudRepositoryIntegrationTest<StatusChangeNotification> {
+
+  @Autowired
+  private StatusChangeNotificationRepository repository;
+
+  private ZonedDateTime now = ZonedDateTime.now();
+
+  StatusChangeNotificationRepository getRepository() {
+    return this.repository;
+  }
+
+  StatusChangeNotification generateInstance() {
+    return newNotification(now);
+  }
+
+  @Test
+  public void shouldLockDueNotificationsOldestFirst() {
+    final StatusChangeNotification later = repository.save(newNotification(now.minusMinutes(1)));
+    final StatusChangeNotification earlier = repository.save(newNotification(now.minusMinutes(2)));
+    repository.save(newNotification(now.plusMinutes(1)));
+
+    StatusChangeNotification givenUp = newNotification(now.minusMinutes(3));
+    givenUp.failed("error", null);
+    repository.save(givenUp);
+
+    assertThat(repository.lockDue(now, 10), contains(earlier, later));
+    assertThat(repository.lockDue(now, 1), contains(earlier));
+  }
+
+  @Test
+  public void shouldCountPendingNotifications() {
+    StatusChangeNotification givenUp = generateInstance();
+    givenUp.failed("error", null);
+    repository.save(givenUp);
+
+    StatusChangeNotification pending = repository.save(generateInstance());
+
+    assertThat(repository.countByNextAttemptDateIsNotNull(), is(1L));
+    assertThat(repository.findFirstByNextAttemptDateIsNotNullOrderByCreatedDate(), is(pending));
+  }
+
+  private StatusChangeNotification newNotification(ZonedDateTime nextAttemptDate) {
+    return StatusChangeNotification.newStatusChangeNotification(
+        new RequisitionDataBuilder().build(), Locale.ENGLISH, nextAttemptDate);
+  }
+}
@@ -20,6 +20,7 @@ import static org.hamcrest.Matchers.isA;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 import javax.persistence.EntityManager;
@@ -111,6 +112,21 @@ public class StatusMessageRepositoryIntegrationTest
     assertEquals(statusMessage, foundStatusMessages.get(0));
   }
 
+  @Test
+  public void shouldFindByRequisitionIds() {
+    //given
+    StatusMessage statusMessage = this.generateInstance();
+    repository.save(statusMessage);
+
+    //when
+    List<StatusMessage> foundStatusMessages = repository.findByRequisitionIdIn(
+        Arrays.asList(requisition.getId(), UUID.randomUUID()));
+
+    //then
+    assertThat(foundStatusMessages.size(), is(1));
+    assertEquals(statusMessage, foundStatusMessages.get(0));
+  }
+
   @Test
   @Commit
   public void shouldFailToSaveWithDuplicateStatusChange() {
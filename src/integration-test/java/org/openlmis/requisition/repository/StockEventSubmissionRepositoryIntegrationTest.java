@@ -0,0 +1,74 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.repository;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import org.junit.Test;
+import org.openlmis.requisition.domain.requisition.StockEventSubmission;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class StockEventSubmissionRepositoryIntegrationTest
+    extends BaseCrudRepositoryIntegrationTest<StockEventSubmission> {
+
+  @Autowired
+  private StockEventSubmissionRepository repository;
+
+  private ZonedDateTime now = ZonedDateTime.now();
+
+  StockEventSubmissionRepository getRepository() {
+    return this.repository;
+  }
+
+  StockEventSubmission generateInstance() {
+    return newSubmission(now);
+  }
+
+  @Test
+  public void shouldLockDueSubmissionsOldestFirst() {
+    final StockEventSubmission later = repository.save(newSubmission(now.minusMinutes(1)));
+    final StockEventSubmission earlier = repository.save(newSubmission(now.minusMinutes(2)));
+    repository.save(newSubmission(now.plusMinutes(1)));
+
+    StockEventSubmission givenUp = newSubmission(now.minusMinutes(3));
+    givenUp.failed("error", null);
+    repository.save(givenUp);
+
+    assertThat(repository.lockDue(now, 10), contains(earlier, later));
+    assertThat(repository.lockDue(now, 1), contains(earlier));
+  }
+
+  @Test
+  public void shouldCountPendingSubmissions() {
+    StockEventSubmission givenUp = generateInstance();
+    givenUp.failed("error", null);
+    repository.save(givenUp);
+
+    StockEventSubmission pending = repository.save(generateInstance());
+
+    assertThat(repository.countByNextAttemptDateIsNotNull(), is(1L));
+    assertThat(repository.findFirstByNextAttemptDateIsNotNullOrderByCreatedDate(), is(pending));
+  }
+
+  private StockEventSubmission newSubmission(ZonedDateTime nextAttemptDate) {
+    return StockEventSubmission.newStockEventSubmission(UUID.randomUUID(), "{}",
+        nextAttemptDate);
+  }
+}
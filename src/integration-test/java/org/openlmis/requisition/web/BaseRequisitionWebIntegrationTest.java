@@ -59,6 +59,7 @@ import org.openlmis.requisition.dto.VersionIdentityDto;
 import org.openlmis.requisition.dto.stockmanagement.StockEventDto;
 import org.openlmis.requisition.exception.ValidationMessageException;
 import org.openlmis.requisition.i18n.MessageKeys;
+import org.openlmis.requisition.service.stockmanagement.StockEventBatchResult;
 import org.openlmis.requisition.testutils.ApprovedProductDtoDataBuilder;
 import org.openlmis.requisition.testutils.DtoGenerator;
 import org.openlmis.requisition.testutils.FacilityDtoDataBuilder;
@@ -100,6 +101,8 @@ public abstract class BaseRequisitionWebIntegrationTest extends BaseWebIntegrati
     when(stockEventBuilder.fromRequisition(any(), any(), anyMap()))
         .thenReturn(new StockEventDto());
     doNothing().when(stockEventStockManagementService).submit(any(StockEventDto.class));
+    when(stockEventStockManagementService.submitAll(anyMapOf(UUID.class, StockEventDto.class)))
+        .thenReturn(new StockEventBatchResult());
   }
 
   void mockRepositorySaveAnswer() {
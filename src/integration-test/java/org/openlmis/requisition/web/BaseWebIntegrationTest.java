@@ -90,6 +90,7 @@ import org.openlmis.requisition.service.referencedata.SupplyLineReferenceDataSer
 import org.openlmis.requisition.service.referencedata.TogglzReferenceDataService;
 import org.openlmis.requisition.service.referencedata.UserFulfillmentFacilitiesReferenceDataService;
 import org.openlmis.requisition.service.referencedata.UserReferenceDataService;
+import org.openlmis.requisition.service.stockmanagement.StockEventOutbox;
 import org.openlmis.requisition.service.stockmanagement.StockEventStockManagementService;
 import org.openlmis.requisition.service.stockmanagement.ValidReasonStockmanagementService;
 import org.openlmis.requisition.settings.service.ConfigurationSettingService;
@@ -175,6 +176,9 @@ public abstract class BaseWebIntegrationTest {
   @MockBean
   StockEventStockManagementService stockEventStockManagementService;
 
+  @MockBean
+  StockEventOutbox stockEventOutbox;
+
   @MockBean
   TogglzReferenceDataService togglzReferenceDataService;
 
@@ -17,6 +17,7 @@ package org.openlmis.requisition.web;
 
 import static java.util.Collections.singletonList;
 import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItems;
@@ -28,9 +29,11 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyList;
 import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyMapOf;
 import static org.mockito.Matchers.anySet;
 import static org.mockito.Matchers.anySetOf;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
@@ -76,6 +79,7 @@ import org.openlmis.requisition.dto.ReleasableRequisitionBatchDto;
 import org.openlmis.requisition.dto.ReleasableRequisitionDto;
 import org.openlmis.requisition.dto.UserDto;
 import org.openlmis.requisition.dto.VersionIdentityDto;
+import org.openlmis.requisition.dto.stockmanagement.StockEventDto;
 import org.openlmis.requisition.errorhandling.ValidationResult;
 import org.openlmis.requisition.exception.ValidationMessageException;
 import org.openlmis.requisition.i18n.MessageKeys;
@@ -303,6 +307,28 @@ public class BatchRequisitionControllerIntegrationTest extends BaseRequisitionWe
         "some-key");
   }
 
+  @Test
+  public void shouldRecordStockEventsOfApprovedRequisitionsInOutbox() throws IOException {
+    mockRequisitionValidatonsAndStubRepository();
+    doAnswer(invocation -> {
+      invocation.getArgument(3, Requisition.class).setStatus(RequisitionStatus.APPROVED);
+      return null;
+    }).when(requisitionService).doApprove(any(), any(UserDto.class), anyMap(),
+        any(Requisition.class), anyList());
+
+    Response response = post(APPROVE_ALL, requisitionIds);
+    checkResponseBody(response);
+
+    ArgumentCaptor<Map<UUID, StockEventDto>> stockEvents = ArgumentCaptor.forClass(Map.class);
+    verify(stockEventOutbox).add(stockEvents.capture());
+    assertThat(stockEvents.getValue().keySet(),
+        containsInAnyOrder(requisitionIds.toArray(new UUID[0])));
+
+    // stock events are sent after the approvals have been committed
+    verify(stockEventStockManagementService, never())
+        .submitAll(anyMapOf(UUID.class, StockEventDto.class));
+  }
+
   // PUT /api/requisitions?saveAll
 
   @Test
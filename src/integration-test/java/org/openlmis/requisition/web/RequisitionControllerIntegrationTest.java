@@ -99,6 +99,8 @@ import org.openlmis.requisition.errorhandling.ValidationResult;
 import org.openlmis.requisition.exception.ValidationMessageException;
 import org.openlmis.requisition.i18n.MessageKeys;
 import org.openlmis.requisition.i18n.MessageService;
+import org.openlmis.requisition.repository.custom.ProcessedRequestsRedisRepository.ClaimResult;
+import org.openlmis.requisition.repository.custom.RequisitionSearchCursor;
 import org.openlmis.requisition.repository.custom.RequisitionSearchParams;
 import org.openlmis.requisition.service.DataRetrievalException;
 import org.openlmis.requisition.service.PageDto;
@@ -153,6 +155,7 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
   private static final String SUGGESTED_PERIOD = "suggestedPeriod";
   private static final String EMERGENCY = "emergency";
   private static final String MESSAGE = "message";
+  private static final String MESSAGE_KEY = "messageKey";
   private static final String REQUISITION_STATUS = "requisitionStatus";
   private static final String SUPERVISORY_NODE = "supervisoryNode";
   private static final String PROCESSING_PERIOD = "processingPeriod";
@@ -192,7 +195,8 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
 
     mockSearchSupervisoryNodeByProgramAndFacility();
 
-    when(processedRequestsRedisRepository.exists(any())).thenReturn(false);
+    when(processedRequestsRedisRepository.claim(any()))
+        .thenReturn(ClaimResult.claimed());
 
     when(approvedProductReferenceDataService.getApprovedProducts(anyUuid(), anyUuid()))
         .thenReturn(new ApproveProductsAggregator(emptyList(), UUID.randomUUID()));
@@ -225,6 +229,58 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
     assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
   }
 
+  @Test
+  public void shouldReturnNotModifiedIfRequisitionVersionMatches() {
+    // given
+    Requisition requisition = generateRequisition(RequisitionStatus.INITIATED);
+    doReturn(ValidationResult.success())
+        .when(permissionService).canViewRequisition(requisition);
+    String etag = ETagResource.buildWeakETag(requisition.getVersion());
+
+    // when
+    restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .header(HttpHeaders.IF_NONE_MATCH, etag)
+        .contentType(MediaType.APPLICATION_JSON_VALUE)
+        .pathParam("id", requisition.getId())
+        .when()
+        .get(ID_URL)
+        .then()
+        .statusCode(304)
+        .header(HttpHeaders.ETAG, etag);
+
+    // then
+    verify(orderableReferenceDataService, never()).findByIdentities(any());
+    verify(facilityReferenceDataService, never()).findOne(any(UUID.class));
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  @Test
+  public void shouldGetChosenRequisitionIfVersionDoesNotMatch() {
+    // given
+    mockFacility();
+    Requisition requisition = generateRequisition(RequisitionStatus.INITIATED);
+    doReturn(ValidationResult.success())
+        .when(permissionService).canViewRequisition(requisition);
+    String etag = ETagResource.buildWeakETag(requisition.getVersion());
+
+    // when
+    restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .header(HttpHeaders.IF_NONE_MATCH, "W/0")
+        .contentType(MediaType.APPLICATION_JSON_VALUE)
+        .pathParam("id", requisition.getId())
+        .when()
+        .get(ID_URL)
+        .then()
+        .statusCode(200)
+        .header(HttpHeaders.ETAG, etag)
+        .body("id", is(requisition.getId().toString()));
+
+    // then
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
   @Test
   public void shouldNotGetChosenRequisitionWhenUserHasNoRightForView() {
     // given
@@ -489,6 +545,100 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
     assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
   }
 
+  @Test
+  public void shouldReturnLinkToNextPageIfRequisitionsAreSortedByCreatedDate() {
+    // given
+    List<Requisition> requisitions = generateRequisitions(RequisitionStatus.SUBMITTED);
+    Pageable pageable = PageRequest.of(0, 1);
+
+    given(requisitionService.searchRequisitions(any(), any(Pageable.class)))
+        .willReturn(Pagination.getPage(requisitions, pageable, 2));
+
+    String cursor = RequisitionSearchCursor.of(requisitions.get(0)).encode();
+
+    // when
+    restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .queryParam(SIZE, 1)
+        .when()
+        .get(SEARCH_URL)
+        .then()
+        .statusCode(200)
+        .header(HttpHeaders.LINK, containsString("cursor=" + cursor))
+        .header(HttpHeaders.LINK, containsString("rel=\"next\""));
+
+    // then
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  @Test
+  public void shouldReturnFirstPageIfSearchContinuesFromCursor() {
+    // given
+    List<Requisition> requisitions = generateRequisitions(RequisitionStatus.SUBMITTED);
+    Pageable pageable = PageRequest.of(0, 1);
+
+    given(requisitionService.searchRequisitions(any(), any(Pageable.class)))
+        .willReturn(Pagination.getPage(requisitions, pageable, 2));
+
+    String cursor = RequisitionSearchCursor.of(generateRequisition()).encode();
+
+    // when
+    PageDto resultPage = restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .queryParam("cursor", cursor)
+        .queryParam(PAGE, 5)
+        .queryParam(SIZE, 1)
+        .when()
+        .get(SEARCH_URL)
+        .then()
+        .statusCode(200)
+        .extract().as(PageDto.class);
+
+    // then
+    assertEquals(0, resultPage.getNumber());
+    assertEquals(2, resultPage.getTotalElements());
+    assertEquals(1, resultPage.getContent().size());
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  @Test
+  public void shouldRejectSearchWithInvalidCursor() {
+    // when
+    restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .queryParam("cursor", "invalid")
+        .when()
+        .get(SEARCH_URL)
+        .then()
+        .statusCode(400)
+        .body(MESSAGE_KEY, equalTo(MessageKeys.ERROR_SEARCH_INVALID_CURSOR));
+
+    // then
+    verify(requisitionService, never()).searchRequisitions(any(), any(Pageable.class));
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  @Test
+  public void shouldRejectSearchWithCursorIfSortIsNotSupported() {
+    // given
+    String cursor = RequisitionSearchCursor.of(generateRequisition()).encode();
+
+    // when
+    restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .queryParam("cursor", cursor)
+        .queryParam("sort", "emergency")
+        .when()
+        .get(SEARCH_URL)
+        .then()
+        .statusCode(400)
+        .body(MESSAGE_KEY, equalTo(MessageKeys.ERROR_SEARCH_CURSOR_SORT_NOT_SUPPORTED));
+
+    // then
+    verify(requisitionService, never()).searchRequisitions(any(), any(Pageable.class));
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
   // POST /api/requisitions/{id}/submit
 
   @Test
@@ -549,7 +699,7 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
         .header(HttpHeaders.LOCATION, BASE_URL + RESOURCE_URL + '/' + requisition.getId())
         .extract().as(BasicRequisitionDto.class);
 
-    verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, null);
+    verify(processedRequestsRedisRepository, times(1)).claim(key);
     verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, requisition.getId());
 
     assertEquals(requisition.getId(), result.getId());
@@ -570,7 +720,8 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
     mockExternalServiceCalls();
     mockValidationSuccess();
 
-    when(processedRequestsRedisRepository.exists(any())).thenReturn(true);
+    when(processedRequestsRedisRepository.claim(any()))
+        .thenReturn(ClaimResult.alreadyClaimed(null));
 
     restAssured.given()
         .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
@@ -586,6 +737,33 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
     assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
   }
 
+  @Test
+  public void shouldRedirectSubmitToRequisitionIfIdempotencyKeyWasProcessed() {
+    Requisition requisition = spyRequisitionAndStubRepository(RequisitionStatus.INITIATED);
+
+    doReturn(ValidationResult.success())
+        .when(permissionService).canSubmitRequisition(requisition);
+
+    when(processedRequestsRedisRepository.claim(any()))
+        .thenReturn(ClaimResult.alreadyClaimed(requisition.getId()));
+
+    restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .header(IDEMPOTENCY_KEY_HEADER, key)
+        .contentType(MediaType.APPLICATION_JSON_VALUE)
+        .pathParam("id", requisition.getId())
+        .redirects().follow(false)
+        .when()
+        .post(SUBMIT_URL)
+        .then()
+        .statusCode(303)
+        .header(HttpHeaders.LOCATION, BASE_URL + RESOURCE_URL + '/' + requisition.getId())
+        .body(MESSAGE, equalTo(getMessage(MessageKeys.IDEMPOTENCY_KEY_ALREADY_USED)));
+
+    verify(requisition, never()).submit(any(), anyUuid(), anyBoolean());
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
   @Test
   public void shouldNotSubmitRequisitionWithIdempotencyKeyInWrongFormat() {
     Requisition requisition = spyRequisitionAndStubRepository(RequisitionStatus.INITIATED);
@@ -761,7 +939,7 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
         .header(HttpHeaders.LOCATION, BASE_URL + RESOURCE_URL + '/' + requisition.getId())
         .statusCode(200);
 
-    verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, null);
+    verify(processedRequestsRedisRepository, times(1)).claim(key);
     verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, requisition.getId());
 
     assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
@@ -775,7 +953,8 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
     mockValidationSuccess();
     given(requisitionRepository.findById(requisition.getId())).willReturn(Optional.of(requisition));
 
-    when(processedRequestsRedisRepository.exists(any())).thenReturn(true);
+    when(processedRequestsRedisRepository.claim(any()))
+        .thenReturn(ClaimResult.alreadyClaimed(null));
 
     restAssured.given()
         .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
@@ -938,7 +1117,7 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
         .header(HttpHeaders.LOCATION, BASE_URL + RESOURCE_URL + '/' + requisition.getId())
         .statusCode(200);
 
-    verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, null);
+    verify(processedRequestsRedisRepository, times(1)).claim(key);
     verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, requisition.getId());
 
     assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
@@ -952,7 +1131,8 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
     doReturn(ValidationResult.success())
         .when(permissionService).canApproveRequisition(requisition);
 
-    when(processedRequestsRedisRepository.exists(any())).thenReturn(true);
+    when(processedRequestsRedisRepository.claim(any()))
+        .thenReturn(ClaimResult.alreadyClaimed(null));
 
     restAssured.given()
         .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
@@ -1119,7 +1299,7 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
         .header(HttpHeaders.LOCATION, BASE_URL + RESOURCE_URL + '/' + requisition.getId())
         .statusCode(200);
 
-    verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, null);
+    verify(processedRequestsRedisRepository, times(1)).claim(key);
     verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, requisition.getId());
 
     verify(requisition, atLeastOnce())
@@ -1141,7 +1321,8 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
         .canAuthorizeRequisition(requisition);
     mockValidationSuccess();
 
-    when(processedRequestsRedisRepository.exists(any())).thenReturn(true);
+    when(processedRequestsRedisRepository.claim(any()))
+        .thenReturn(ClaimResult.alreadyClaimed(null));
 
     restAssured.given()
         .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
@@ -1461,7 +1642,7 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
             eq(stockAdjustmentReasons), eq(requisition.getTemplate()),
             any(ApproveProductsAggregator.class));
 
-    verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, null);
+    verify(processedRequestsRedisRepository, times(1)).claim(key);
     verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, requisition.getId());
 
     assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
@@ -1487,7 +1668,8 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
             any(ApproveProductsAggregator.class));
     mockValidationSuccess();
 
-    when(processedRequestsRedisRepository.exists(any())).thenReturn(true);
+    when(processedRequestsRedisRepository.claim(any()))
+        .thenReturn(ClaimResult.alreadyClaimed(null));
 
     // when
     restAssured.given()
@@ -1581,7 +1763,7 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
         .header(HttpHeaders.LOCATION, BASE_URL + RESOURCE_URL + '/' + requisition.getId())
         .statusCode(200);
 
-    verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, null);
+    verify(processedRequestsRedisRepository, times(1)).claim(key);
     verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, requisition.getId());
 
     assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
@@ -1601,7 +1783,8 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
     mockExternalServiceCalls();
     mockValidationSuccess();
 
-    when(processedRequestsRedisRepository.exists(any())).thenReturn(true);
+    when(processedRequestsRedisRepository.claim(any()))
+        .thenReturn(ClaimResult.alreadyClaimed(null));
 
     UUID requisitionId = requisition.getId();
 
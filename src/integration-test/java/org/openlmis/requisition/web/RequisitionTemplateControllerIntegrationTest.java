@@ -50,6 +50,8 @@ import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.dto.RequisitionTemplateDto;
 import org.openlmis.requisition.errorhandling.ValidationResult;
 import org.openlmis.requisition.i18n.MessageKeys;
+import org.openlmis.requisition.service.RequisitionTemplateCache;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -63,6 +65,9 @@ public class RequisitionTemplateControllerIntegrationTest extends BaseWebIntegra
   private static final String RESOURCE_URL = "/api/requisitionTemplates";
   private static final String ID_URL = RESOURCE_URL + "/{id}";
 
+  @MockBean
+  private RequisitionTemplateCache requisitionTemplateCache;
+
   private RequisitionTemplate template;
   private RequisitionTemplateDto templateDto;
 
@@ -180,6 +185,7 @@ public class RequisitionTemplateControllerIntegrationTest extends BaseWebIntegra
 
     // then
     verify(requisitionTemplateRepository, atLeastOnce()).save(any(RequisitionTemplate.class));
+    verify(requisitionTemplateCache).evictAll();
     assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
   }
 
@@ -358,6 +364,7 @@ public class RequisitionTemplateControllerIntegrationTest extends BaseWebIntegra
     assertEquals(templateDto.getFacilityTypeIds(), result.getFacilityTypeIds());
     verify(requisitionTemplateRepository).save(any(RequisitionTemplate.class));
     verify(requisitionTemplateRepository, never()).saveAndFlush(any(RequisitionTemplate.class));
+    verify(requisitionTemplateCache).evictAll();
     assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
   }
 
@@ -405,6 +412,7 @@ public class RequisitionTemplateControllerIntegrationTest extends BaseWebIntegra
 
     // then
     verify(requisitionTemplateRepository, atLeastOnce()).delete(template);
+    verify(requisitionTemplateCache).evictAll();
     assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
   }
 
@@ -448,6 +456,7 @@ public class RequisitionTemplateControllerIntegrationTest extends BaseWebIntegra
 
     // then
     verify(requisitionTemplateRepository, never()).delete(template);
+    verify(requisitionTemplateCache, never()).evictAll();
     assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
   }
 
@@ -69,6 +69,7 @@ import org.openlmis.requisition.dto.RequisitionLineItemV2Dto;
 import org.openlmis.requisition.dto.RequisitionV2Dto;
 import org.openlmis.requisition.dto.VersionIdentityDto;
 import org.openlmis.requisition.errorhandling.ValidationResult;
+import org.openlmis.requisition.repository.custom.ProcessedRequestsRedisRepository.ClaimResult;
 import org.openlmis.requisition.service.referencedata.ApproveProductsAggregator;
 import org.openlmis.requisition.testutils.ApprovedProductDtoDataBuilder;
 import org.openlmis.requisition.testutils.OrderableDtoDataBuilder;
@@ -113,7 +114,8 @@ public class RequisitionV2ControllerIntegrationTest extends BaseRequisitionWebIn
 
     mockSearchSupervisoryNodeByProgramAndFacility();
 
-    when(processedRequestsRedisRepository.exists(any())).thenReturn(false);
+    when(processedRequestsRedisRepository.claim(any()))
+        .thenReturn(ClaimResult.claimed());
 
     ReflectionTestUtils.setField(controller, BaseRequisitionController.class,
         "baseUrl", BASE_URL, String.class);
@@ -256,7 +258,8 @@ public class RequisitionV2ControllerIntegrationTest extends BaseRequisitionWebIn
             any(ApproveProductsAggregator.class));
     mockValidationSuccess();
 
-    when(processedRequestsRedisRepository.exists(any())).thenReturn(true);
+    when(processedRequestsRedisRepository.claim(any()))
+        .thenReturn(ClaimResult.alreadyClaimed(null));
 
     // when
     restAssured.given()
@@ -305,6 +308,30 @@ public class RequisitionV2ControllerIntegrationTest extends BaseRequisitionWebIn
     assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
   }
 
+  @Test
+  public void shouldReturnNotModifiedIfRequisitionVersionMatches() {
+    // given
+    Requisition requisition = generateRequisition(RequisitionStatus.INITIATED);
+    doReturn(ValidationResult.success())
+        .when(permissionService)
+        .canViewRequisition(requisition);
+
+    // when
+    restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .header(HttpHeaders.IF_NONE_MATCH, "W/1")
+        .contentType(MediaType.APPLICATION_JSON_VALUE)
+        .pathParam("id", requisition.getId())
+        .when()
+        .get(ID_URL)
+        .then()
+        .statusCode(HttpStatus.NOT_MODIFIED.value())
+        .header(HttpHeaders.ETAG, "W/1");
+
+    // then
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
   @Test
   public void shouldNotGetRequisitionForUnauthorizedRequest() {
     restAssured.given()
@@ -554,7 +581,8 @@ public class RequisitionV2ControllerIntegrationTest extends BaseRequisitionWebIn
     RequisitionV2Dto requisitionDto = generateRequisitionDto(requisition);
     requisitionDto.setModifiedDate(requisition.getModifiedDate().minusDays(4));
 
-    when(processedRequestsRedisRepository.exists(any())).thenReturn(true);
+    when(processedRequestsRedisRepository.claim(any()))
+        .thenReturn(ClaimResult.alreadyClaimed(null));
 
     // when
     restAssured.given()
@@ -0,0 +1,144 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.domain;
+
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_COLUMN_NOT_IN_TEMPLATE;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.openlmis.requisition.exception.ValidationMessageException;
+import org.openlmis.requisition.utils.Message;
+
+/**
+ * Immutable snapshot of the requisition template columns used while requisition line items are
+ * calculated and validated. Every column gets a position; the display flag and the source of
+ * columns are kept in bit sets and the option and tag of columns in arrays, so checking a column
+ * does not have to copy or walk the template columns.
+ */
+public final class CompiledRequisitionTemplate {
+  private final Map<String, Integer> indexes;
+  private final String[] names;
+  private final SourceType[] sources;
+  private final AvailableRequisitionColumnOption[] options;
+  private final String[] tags;
+  private final BitSet displayed;
+  private final Map<SourceType, BitSet> columnsBySource;
+
+  CompiledRequisitionTemplate(Map<String, RequisitionTemplateColumn> columns) {
+    int size = columns.size();
+
+    indexes = new HashMap<>(size * 2);
+    names = new String[size];
+    sources = new SourceType[size];
+    options = new AvailableRequisitionColumnOption[size];
+    tags = new String[size];
+    displayed = new BitSet(size);
+    columnsBySource = new EnumMap<>(SourceType.class);
+
+    for (SourceType source : SourceType.values()) {
+      columnsBySource.put(source, new BitSet(size));
+    }
+
+    int index = 0;
+    for (Map.Entry<String, RequisitionTemplateColumn> entry : columns.entrySet()) {
+      RequisitionTemplateColumn column = entry.getValue();
+
+      indexes.put(entry.getKey(), index);
+      names[index] = entry.getKey();
+      sources[index] = column.getSource();
+      options[index] = column.getOption();
+      tags[index] = column.getTag();
+      displayed.set(index, Boolean.TRUE.equals(column.getIsDisplayed()));
+
+      if (null != column.getSource()) {
+        columnsBySource.get(column.getSource()).set(index);
+      }
+
+      ++index;
+    }
+  }
+
+  public boolean isColumnInTemplate(String name) {
+    return indexes.containsKey(name);
+  }
+
+  public boolean isColumnDisplayed(String name) {
+    return displayed.get(indexOf(name));
+  }
+
+  public boolean isColumnInTemplateAndDisplayed(String name) {
+    Integer index = indexes.get(name);
+    return null != index && displayed.get(index);
+  }
+
+  public boolean isColumnSource(String name, SourceType source) {
+    return columnsBySource.get(source).get(indexOf(name));
+  }
+
+  public SourceType getColumnSource(String name) {
+    return sources[indexOf(name)];
+  }
+
+  public AvailableRequisitionColumnOption getColumnOption(String name) {
+    return options[indexOf(name)];
+  }
+
+  public String getColumnTag(String name) {
+    return tags[indexOf(name)];
+  }
+
+  /**
+   * Returns names of the columns that are not displayed.
+   */
+  public List<String> getHiddenColumnNames() {
+    BitSet hidden = (BitSet) displayed.clone();
+    hidden.flip(0, names.length);
+
+    return getNames(hidden);
+  }
+
+  /**
+   * Returns names of the columns with the given source.
+   */
+  public List<String> getColumnNames(SourceType source) {
+    return getNames(columnsBySource.get(source));
+  }
+
+  private List<String> getNames(BitSet columns) {
+    List<String> result = new ArrayList<>(columns.cardinality());
+
+    for (int index = columns.nextSetBit(0); index >= 0; index = columns.nextSetBit(index + 1)) {
+      result.add(names[index]);
+    }
+
+    return Collections.unmodifiableList(result);
+  }
+
+  private int indexOf(String name) {
+    Integer index = indexes.get(name);
+
+    if (null == index) {
+      throw new ValidationMessageException(new Message(ERROR_COLUMN_NOT_IN_TEMPLATE, name));
+    }
+
+    return index;
+  }
+}
@@ -64,7 +64,7 @@ import org.openlmis.requisition.utils.Message;
 @Table(name = "requisition_templates")
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper = false, exclude = {"programId", "facilityTypeIds",
-    "requisitionReportOnly"})
+    "requisitionReportOnly", "compiled"})
 public class RequisitionTemplate extends BaseTimestampedEntity {
   public static final String SOURCE = "Source ";
   public static final String OPTION = "Option ";
@@ -138,6 +138,10 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
   @Column(nullable = false)
   private boolean patientsTabEnabled = false;
 
+  @Transient
+  @DiffIgnore
+  private volatile CompiledRequisitionTemplate compiled;
+
   RequisitionTemplate(UUID id) {
     this(id, null, false, null, null, null, false);
   }
@@ -184,6 +188,8 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
     this.populateStockOnHandFromStockCards = source.populateStockOnHandFromStockCards;
     this.name = source.name;
     this.archived = source.archived;
+    this.requisitionReportingOnly = source.requisitionReportingOnly;
+    this.patientsTabEnabled = source.patientsTabEnabled;
     this.programId = source.programId;
     this.rejectionReasonWindowVisible = source.rejectionReasonWindowVisible;
 
@@ -219,9 +225,27 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
         this, requisitionReportOnly));
   }
 
+  /**
+   * Returns compiled view of the template columns. The view is created once and reused until
+   * columns of this template are changed.
+   */
+  public CompiledRequisitionTemplate compile() {
+    CompiledRequisitionTemplate result = compiled;
+
+    if (null == result) {
+      if (columnsMap == null) {
+        throw new ValidationMessageException(new Message(ERROR_COLUMNS_MAP_IS_NULL));
+      }
+
+      result = new CompiledRequisitionTemplate(columnsMap);
+      compiled = result;
+    }
+
+    return result;
+  }
+
   public boolean isColumnFromPreviousRequisition(String name) {
-    RequisitionTemplateColumn column = findColumn(name);
-    return SourceType.PREVIOUS_REQUISITION.equals(column.getSource());
+    return compile().isColumnSource(name, SourceType.PREVIOUS_REQUISITION);
   }
 
 
@@ -232,9 +256,7 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
    * @return return true if column is displayed
    */
   public boolean isColumnDisplayed(String name) {
-    RequisitionTemplateColumn column = findColumn(name);
-
-    return column.getIsDisplayed();
+    return compile().isColumnDisplayed(name);
   }
 
   /**
@@ -244,9 +266,7 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
    * @return return true if column is calculated
    */
   public boolean isColumnCalculated(String name) {
-    RequisitionTemplateColumn column = findColumn(name);
-
-    return SourceType.CALCULATED.equals(column.getSource());
+    return compile().isColumnSource(name, SourceType.CALCULATED);
   }
 
   /**
@@ -256,9 +276,7 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
    * @return return true if column is stock based
    */
   public boolean isColumnStockBased(String name) {
-    RequisitionTemplateColumn column = findColumn(name);
-
-    return SourceType.STOCK_CARDS.equals(column.getSource());
+    return compile().isColumnSource(name, SourceType.STOCK_CARDS);
   }
 
   /**
@@ -268,9 +286,7 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
    * @return return true if column is calculated
    */
   public boolean isColumnUserInput(String name) {
-    RequisitionTemplateColumn column = findColumn(name);
-
-    return SourceType.USER_INPUT.equals(column.getSource());
+    return compile().isColumnSource(name, SourceType.USER_INPUT);
   }
 
   /**
@@ -294,6 +310,7 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
     if (column.getColumnDefinition().getCanChangeOrder()) {
       column.setDisplayOrder(newDisplayOrder);
     }
+    columnsChanged();
   }
 
   /**
@@ -308,6 +325,7 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
         column.setDisplayOrder(1);
       }
       column.setIsDisplayed(display);
+      columnsChanged();
     }
   }
 
@@ -319,6 +337,7 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
   public void changeColumnLabel(String key, String name) {
     RequisitionTemplateColumn column = columnsMap.get(key);
     column.setLabel(name);
+    columnsChanged();
   }
 
   /**
@@ -341,6 +360,7 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
           source.toString(), key));
     }
     column.setSource(source);
+    columnsChanged();
   }
 
   /**
@@ -363,6 +383,7 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
           option.getOptionName(), key));
     }
     column.setOption(option);
+    columnsChanged();
   }
 
   /**
@@ -392,7 +413,7 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
    * @return return true if column is defined in the template.
    */
   public boolean isColumnInTemplate(String columnName) {
-    return getRequisitionTemplateColumn(columnName) != null;
+    return compile().isColumnInTemplate(columnName);
   }
 
 
@@ -403,11 +424,12 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
    * @return return true if column is defined in the template and displayed.
    */
   public boolean isColumnInTemplateAndDisplayed(String columnName) {
-    return isColumnInTemplate(columnName) && isColumnDisplayed(columnName);
+    return compile().isColumnInTemplateAndDisplayed(columnName);
   }
 
   /**
-   * Finds a column by column name or throws exception.
+   * Finds a column by column name or throws exception. The returned column can be changed, so
+   * the compiled view of the template is created again on the next use.
    *
    * @param name name of requisition column.
    * @return {c@link RequisitionTemplateColumn} if found column with the given name.
@@ -417,9 +439,24 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
     if (column == null) {
       throw new ValidationMessageException(new Message(ERROR_COLUMN_NOT_IN_TEMPLATE, name));
     }
+    columnsChanged();
     return column;
   }
 
+  /**
+   * Returns option of the column with the given name.
+   */
+  public AvailableRequisitionColumnOption getColumnOption(String name) {
+    return compile().getColumnOption(name);
+  }
+
+  /**
+   * Returns tag of the column with the given name.
+   */
+  public String getColumnTag(String name) {
+    return compile().getColumnTag(name);
+  }
+
   /**
    * Archives the given template.
    */
@@ -440,6 +477,7 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
         entry.getValue().setIsDisplayed(false);
       }
     }
+    columnsChanged();
   }
 
   /**
@@ -551,6 +589,11 @@ public class RequisitionTemplate extends BaseTimestampedEntity {
 
   private void addColumns(Map<String, RequisitionTemplateColumn> columnsMap) {
     columnsMap.forEach(this.columnsMap::put);
+    columnsChanged();
+  }
+
+  private void columnsChanged() {
+    compiled = null;
   }
 
   private void moveDownAllColumnsBelowIndex(int beginIndex) {
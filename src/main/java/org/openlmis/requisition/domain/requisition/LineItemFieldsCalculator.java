@@ -32,7 +32,6 @@ import org.joda.money.CurrencyUnit;
 import org.joda.money.Money;
 import org.openlmis.requisition.domain.AvailableRequisitionColumnOption;
 import org.openlmis.requisition.domain.RequisitionTemplate;
-import org.openlmis.requisition.domain.RequisitionTemplateColumn;
 import org.openlmis.requisition.dto.ProcessingPeriodDto;
 import org.openlmis.requisition.dto.ProgramOrderableDto;
 import org.openlmis.requisition.dto.stockmanagement.StockCardRangeSummaryDto;
@@ -230,9 +229,8 @@ public final class LineItemFieldsCalculator {
    */
   public static int calculateMaximumStockQuantity(RequisitionLineItem line,
       RequisitionTemplate template, Double maxPeriodsOfStockValue) {
-    RequisitionTemplateColumn column = template
-        .findColumn(RequisitionLineItem.MAXIMUM_STOCK_QUANTITY);
-    AvailableRequisitionColumnOption option = column.getOption();
+    AvailableRequisitionColumnOption option = template
+        .getColumnOption(RequisitionLineItem.MAXIMUM_STOCK_QUANTITY);
     String optionName = null != option
         ? defaultIfBlank(option.getOptionName(), DEFAULT)
         : DEFAULT;
@@ -320,10 +318,9 @@ public final class LineItemFieldsCalculator {
    */
   public static Integer calculateStockBasedTotalConsumedQuantity(RequisitionTemplate template,
       StockCardRangeSummaryDto summaryDto, UUID orderableId) {
-    RequisitionTemplateColumn column = template.findColumn(TOTAL_CONSUMED_QUANTITY);
     int value = 0;
     if (null != summaryDto) {
-      value = summaryDto.getTagAmount(column.getTag());
+      value = summaryDto.getTagAmount(template.getColumnTag(TOTAL_CONSUMED_QUANTITY));
       if (value > 0) {
         throw new ValidationMessageException(new Message(
             MessageKeys.ERROR_VALIDATION_NON_NEGATIVE_NUMBER, TOTAL_CONSUMED_QUANTITY,
@@ -338,10 +335,9 @@ public final class LineItemFieldsCalculator {
    */
   public static Integer calculateStockBasedTotalReceivedQuantity(RequisitionTemplate template,
       StockCardRangeSummaryDto summaryDto, UUID orderableId) {
-    RequisitionTemplateColumn column = template.findColumn(TOTAL_RECEIVED_QUANTITY);
     int value = 0;
     if (null != summaryDto) {
-      value = summaryDto.getTagAmount(column.getTag());
+      value = summaryDto.getTagAmount(template.getColumnTag(TOTAL_RECEIVED_QUANTITY));
       if (value < 0) {
         throw new ValidationMessageException(new Message(
             MessageKeys.ERROR_VALIDATION_NON_POSITIVE_NUMBER, TOTAL_RECEIVED_QUANTITY,
@@ -368,10 +364,9 @@ public final class LineItemFieldsCalculator {
    */
   public static Integer calculateStockBasedTotalLossesAndAdjustments(RequisitionTemplate template,
       StockCardRangeSummaryDto summaryDto) {
-    RequisitionTemplateColumn column = template.findColumn(TOTAL_LOSSES_AND_ADJUSTMENTS);
     int value = 0;
     if (null != summaryDto) {
-      value = summaryDto.getTagAmount(column.getTag());
+      value = summaryDto.getTagAmount(template.getColumnTag(TOTAL_LOSSES_AND_ADJUSTMENTS));
     }
     return value;
   }
@@ -38,7 +38,6 @@ import static org.openlmis.requisition.i18n.MessageKeys.ERROR_SKIP_FAILED_WRONG_
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
-import java.lang.reflect.InvocationTargetException;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -73,12 +72,12 @@ import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import javax.persistence.PrePersist;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import javax.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.apache.commons.beanutils.PropertyUtils;
 import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Type;
 import org.javers.core.metamodel.annotation.DiffIgnore;
@@ -149,8 +148,6 @@ public class Requisition extends BaseTimestampedEntity {
       orphanRemoval = true)
   @BatchSize(size = LINE_ITEMS_BATCH_SIZE)
   @DiffIgnore
-  @Getter
-  @Setter
   private List<RequisitionLineItem> requisitionLineItems;
 
   @Version
@@ -275,6 +272,10 @@ public class Requisition extends BaseTimestampedEntity {
   @Setter
   private String patientsData;
 
+  @Transient
+  @DiffIgnore
+  private RequisitionLineItemIndex lineItemIndex;
+
   /**
    * Constructor.
    *
@@ -307,7 +308,7 @@ public class Requisition extends BaseTimestampedEntity {
         original.reportOnly, original.numberOfMonthsInPeriod, original.supervisoryNodeId,
         original.previousRequisitions, original.availableProducts,
         original.datePhysicalStockCountCompleted, null,
-        null, new ExtraDataEntity(), original.patientsData);
+        null, new ExtraDataEntity(), original.patientsData, null);
 
     setId(original.getId());
 
@@ -507,9 +508,14 @@ public class Requisition extends BaseTimestampedEntity {
       List<StockCardRangeSummaryDto> stockCardRangeSummaries,
       List<StockCardRangeSummaryDto> stockCardRangeSummariesToAverage,
       List<ProcessingPeriodDto> periods) {
-    this.requisitionLineItems = new ArrayList<>();
+    setRequisitionLineItems(new ArrayList<>());
 
     if (isNotTrue(emergency)) {
+      Map<UUID, StockCardRangeSummaryDto> summaries =
+          groupStockCardRangeSummaries(stockCardRangeSummaries);
+      Map<UUID, StockCardRangeSummaryDto> summariesToAverage =
+          groupStockCardRangeSummaries(stockCardRangeSummariesToAverage);
+
       for (ApprovedProductDto product : fullSupplyProducts) {
         UUID orderableId = product.getOrderable().getId();
 
@@ -524,10 +530,8 @@ public class Requisition extends BaseTimestampedEntity {
             ? stockData.getBeginningBalance(orderableId)
             : 0);
 
-        StockCardRangeSummaryDto summary = findStockCardRangeSummary(
-            stockCardRangeSummaries, lineItem.getOrderable().getId());
-        StockCardRangeSummaryDto summaryToAverage = findStockCardRangeSummary(
-            stockCardRangeSummariesToAverage, lineItem.getOrderable().getId());
+        StockCardRangeSummaryDto summary = summaries.get(orderableId);
+        StockCardRangeSummaryDto summaryToAverage = summariesToAverage.get(orderableId);
 
         lineItem.calculateAndSetStockBasedTotalReceivedQuantity(template, summary);
         lineItem.calculateAndSetStockBasedTotalStockoutDays(summary, numberOfMonthsInPeriod);
@@ -544,7 +548,7 @@ public class Requisition extends BaseTimestampedEntity {
   private void initiateLineItems(Collection<ApprovedProductDto> fullSupplyProducts,
       Map<UUID, Integer> idealStockAmounts, ProofOfDeliveryDto proofOfDelivery,
       Profiler profiler) {
-    this.requisitionLineItems = new ArrayList<>();
+    setRequisitionLineItems(new ArrayList<>());
 
     if (isNotTrue(emergency)) {
       for (ApprovedProductDto product : fullSupplyProducts) {
@@ -818,11 +822,51 @@ public class Requisition extends BaseTimestampedEntity {
 
     VersionEntityReference arg = new VersionEntityReference(productId, productVersionId);
 
-    return requisitionLineItems
-        .stream()
-        .filter(e -> Objects.equals(arg, e.getOrderable()))
-        .findFirst()
-        .orElse(null);
+    return getLineItemIndex().findByOrderable(arg);
+  }
+
+  /**
+   * Finds RequisitionLineItem with the given id.
+   *
+   * @param lineItemId requisition line item id
+   * @return RequisitionLineItem with the given id; otherwise null;
+   */
+  public RequisitionLineItem findLineById(UUID lineItemId) {
+    if (null == requisitionLineItems || null == lineItemId) {
+      return null;
+    }
+
+    return getLineItemIndex().findById(lineItemId);
+  }
+
+  /**
+   * Returns line items of this requisition. The returned list can't be modified; line items are
+   * added or replaced only through this class, so that they can be found by id and by product.
+   */
+  public List<RequisitionLineItem> getRequisitionLineItems() {
+    return null == requisitionLineItems
+        ? null
+        : Collections.unmodifiableList(requisitionLineItems);
+  }
+
+  /**
+   * Replaces line items of this requisition.
+   */
+  public void setRequisitionLineItems(List<RequisitionLineItem> requisitionLineItems) {
+    this.requisitionLineItems = requisitionLineItems;
+    lineItemIndex = null;
+  }
+
+  /**
+   * Adds the given line item to this requisition.
+   */
+  public void addLineItem(RequisitionLineItem lineItem) {
+    if (null == requisitionLineItems) {
+      requisitionLineItems = new ArrayList<>();
+    }
+
+    requisitionLineItems.add(lineItem);
+    lineItemIndex = null;
   }
 
   public void setDraftStatusMessage(String draftStatusMessage) {
@@ -1020,18 +1064,11 @@ public class Requisition extends BaseTimestampedEntity {
         .stream()
         .collect(
             HashMap::new,
-            (map, line) -> map.put(line.getOrderable(), getColumnValue(line, columnName)),
+            (map, line) -> map.put(line.getOrderable(),
+                RequisitionLineItemAccessors.getValue(line, columnName)),
             HashMap::putAll);
   }
 
-  private static Object getColumnValue(RequisitionLineItem lineItem, String columnName) {
-    try {
-      return PropertyUtils.getProperty(lineItem, columnName);
-    } catch (IllegalAccessException | NoSuchMethodException | InvocationTargetException exp) {
-      throw new IllegalStateException(exp);
-    }
-  }
-
   private void prepareRequisitionForApproval(UUID user) {
     populateApprovedQuantity();
     getSkippedRequisitionLineItems().forEach(RequisitionLineItem::resetData);
@@ -1109,17 +1146,13 @@ public class Requisition extends BaseTimestampedEntity {
     }
 
     if (null == requisitionLineItems) {
-      requisitionLineItems = new ArrayList<>();
+      setRequisitionLineItems(new ArrayList<>());
     }
 
     List<RequisitionLineItem> updatedList = new ArrayList<>();
 
     for (RequisitionLineItem item : newLineItems) {
-      RequisitionLineItem existing = requisitionLineItems
-          .stream()
-          .filter(l -> l.getId().equals(item.getId()))
-          .findFirst()
-          .orElse(null);
+      RequisitionLineItem existing = findLineById(item.getId());
 
       if (null == existing) {
         item.setRequisition(this);
@@ -1133,15 +1166,22 @@ public class Requisition extends BaseTimestampedEntity {
 
     requisitionLineItems.clear();
     requisitionLineItems.addAll(updatedList);
+    lineItemIndex = null;
   }
 
-  private StockCardRangeSummaryDto findStockCardRangeSummary(
-      List<StockCardRangeSummaryDto> stockCardRangeSummaryDtos, UUID orderableId) {
+  private RequisitionLineItemIndex getLineItemIndex() {
+    if (null == lineItemIndex) {
+      lineItemIndex = new RequisitionLineItemIndex(requisitionLineItems);
+    }
+
+    return lineItemIndex;
+  }
+
+  private Map<UUID, StockCardRangeSummaryDto> groupStockCardRangeSummaries(
+      List<StockCardRangeSummaryDto> stockCardRangeSummaryDtos) {
     return stockCardRangeSummaryDtos
         .stream()
-        .filter(range -> range.getOrderable().getId().equals(orderableId))
-        .findFirst()
-        .orElse(null);
+        .collect(toMap(range -> range.getOrderable().getId(), identity(), (one, two) -> one));
   }
 
   public Map<String, Object> getExtraData() {
@@ -106,7 +106,7 @@ public final class RequisitionBuilder {
             .map(ApprovedProductReference::getFacilityTypeApprovedProduct)
             .ifPresent(item::setFacilityTypeApprovedProduct);
 
-        requisition.getRequisitionLineItems().add(item);
+        requisition.addLineItem(item);
       }
     }
     requisition.setNumberOfMonthsInPeriod(processingPeriodDto.getDurationInMonths());
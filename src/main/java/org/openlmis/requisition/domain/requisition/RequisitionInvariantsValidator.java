@@ -32,19 +32,16 @@ import static org.openlmis.requisition.i18n.MessageKeys.ERROR_STOCK_BASED_VALUE_
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_VALUE_MUST_BE_ENTERED;
 import static org.springframework.util.CollectionUtils.isEmpty;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
-import org.apache.commons.beanutils.PropertyUtils;
 import org.openlmis.requisition.domain.BaseEntity;
-import org.openlmis.requisition.domain.RequisitionTemplate;
-import org.openlmis.requisition.domain.RequisitionTemplateColumn;
+import org.openlmis.requisition.domain.CompiledRequisitionTemplate;
+import org.openlmis.requisition.domain.SourceType;
 import org.openlmis.requisition.dto.OrderableDto;
 import org.openlmis.requisition.dto.VersionIdentityDto;
 import org.openlmis.requisition.utils.Message;
@@ -159,13 +156,10 @@ class RequisitionInvariantsValidator
   }
 
   private void validateRegularLineItemStockFields(Map<String, Message> errors) {
-    RequisitionTemplate template = requisitionToUpdate.getTemplate();
-    Map<String, RequisitionTemplateColumn> columns = template.viewColumns();
+    CompiledRequisitionTemplate template = requisitionToUpdate.getTemplate().compile();
 
-    for (Entry<String, RequisitionTemplateColumn> column : columns.entrySet()) {
-      if (column.getValue().getSource().isStockSource()) {
-        validateRegularLineItemStockField(errors, column.getKey());
-      }
+    for (String columnName : template.getColumnNames(SourceType.STOCK_CARDS)) {
+      validateRegularLineItemStockField(errors, columnName);
     }
   }
 
@@ -178,7 +172,7 @@ class RequisitionInvariantsValidator
         .forEach(line -> {
 
           Object currentValue = columnValues.get(line.getOrderable());
-          Object newValue = getColumnValue(line, columnName);
+          Object newValue = RequisitionLineItemAccessors.getValue(line, columnName);
 
           if (isColumnValueChanged(columnName, currentValue, newValue)) {
             errors.put(
@@ -205,14 +199,6 @@ class RequisitionInvariantsValidator
     }
   }
 
-  private Object getColumnValue(RequisitionLineItem lineItem, String columnName) {
-    try {
-      return PropertyUtils.getProperty(lineItem, columnName);
-    } catch (IllegalAccessException | NoSuchMethodException | InvocationTargetException exp) {
-      throw new IllegalStateException(exp);
-    }
-  }
-
   private void rejectIfValueChanged(Map<String, Message> errors, Object value,
       Object savedValue, String field) {
     if (value != null && savedValue != null && !savedValue.equals(value)) {
@@ -0,0 +1,157 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.domain.requisition;
+
+import static com.google.common.primitives.Primitives.wrap;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Compiled accessors of {@link RequisitionLineItem} properties keyed by the property name (the
+ * name of a requisition template column). The accessors are created once, when this class is
+ * loaded, so reading or clearing a column value by its name does not introspect and reflect on
+ * the line item every time.
+ */
+public final class RequisitionLineItemAccessors {
+  private static final Map<String, Function<RequisitionLineItem, Object>> GETTERS;
+  private static final Map<String, BiConsumer<RequisitionLineItem, Object>> SETTERS;
+
+  static {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    Map<String, Function<RequisitionLineItem, Object>> getters = new HashMap<>();
+    Map<String, BiConsumer<RequisitionLineItem, Object>> setters = new HashMap<>();
+
+    for (PropertyDescriptor descriptor : getPropertyDescriptors()) {
+      Method readMethod = descriptor.getReadMethod();
+      Method writeMethod = descriptor.getWriteMethod();
+
+      if (null != readMethod && Object.class != readMethod.getDeclaringClass()) {
+        getters.put(descriptor.getName(), createGetter(lookup, readMethod));
+      }
+
+      if (null != writeMethod) {
+        setters.put(descriptor.getName(), createSetter(lookup, writeMethod));
+      }
+    }
+
+    GETTERS = Collections.unmodifiableMap(getters);
+    SETTERS = Collections.unmodifiableMap(setters);
+  }
+
+  private RequisitionLineItemAccessors() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Returns value of the given property of the line item.
+   *
+   * @throws IllegalArgumentException if the line item does not have a readable property with
+   *                                  the given name
+   */
+  public static Object getValue(RequisitionLineItem lineItem, String property) {
+    Function<RequisitionLineItem, Object> getter = GETTERS.get(property);
+
+    if (null == getter) {
+      throw new IllegalArgumentException(
+          "Property >" + property + "< of line item is not readable");
+    }
+
+    return getter.apply(lineItem);
+  }
+
+  /**
+   * Sets value of the given property of the line item.
+   *
+   * @throws IllegalArgumentException if the line item does not have a writable property with
+   *                                  the given name
+   */
+  public static void setValue(RequisitionLineItem lineItem, String property, Object value) {
+    BiConsumer<RequisitionLineItem, Object> setter = SETTERS.get(property);
+
+    if (null == setter) {
+      throw new IllegalArgumentException(
+          "Property >" + property + "< of line item is not writable");
+    }
+
+    setter.accept(lineItem, value);
+  }
+
+  public static boolean isReadable(String property) {
+    return GETTERS.containsKey(property);
+  }
+
+  public static boolean isWritable(String property) {
+    return SETTERS.containsKey(property);
+  }
+
+  private static PropertyDescriptor[] getPropertyDescriptors() {
+    try {
+      return Introspector
+          .getBeanInfo(RequisitionLineItem.class)
+          .getPropertyDescriptors();
+    } catch (IntrospectionException exp) {
+      throw new IllegalStateException(exp);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Function<RequisitionLineItem, Object> createGetter(MethodHandles.Lookup lookup,
+      Method method) {
+    try {
+      MethodHandle handle = lookup.unreflect(method);
+      CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+          MethodType.methodType(Function.class),
+          MethodType.methodType(Object.class, Object.class),
+          handle,
+          MethodType.methodType(wrap(method.getReturnType()), RequisitionLineItem.class));
+
+      return (Function<RequisitionLineItem, Object>) site.getTarget().invoke();
+    } catch (Throwable exp) {
+      throw new IllegalStateException("Could not create getter for " + method, exp);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static BiConsumer<RequisitionLineItem, Object> createSetter(
+      MethodHandles.Lookup lookup, Method method) {
+    try {
+      MethodHandle handle = lookup.unreflect(method);
+      CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+          MethodType.methodType(BiConsumer.class),
+          MethodType.methodType(void.class, Object.class, Object.class),
+          handle,
+          MethodType.methodType(void.class, RequisitionLineItem.class,
+              wrap(method.getParameterTypes()[0])));
+
+      return (BiConsumer<RequisitionLineItem, Object>) site.getTarget().invoke();
+    } catch (Throwable exp) {
+      throw new IllegalStateException("Could not create setter for " + method, exp);
+    }
+  }
+}
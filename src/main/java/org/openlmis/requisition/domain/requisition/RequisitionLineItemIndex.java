@@ -0,0 +1,69 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.domain.requisition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Lookup of requisition line items by id and by orderable. The index is a snapshot of the given
+ * list; it has to be dropped when line items are added or removed.
+ */
+final class RequisitionLineItemIndex {
+  private final Map<UUID, RequisitionLineItem> byId;
+  private final Map<VersionEntityReference, RequisitionLineItem> byOrderable;
+  private final List<RequisitionLineItem> lineItemsWithoutId = new ArrayList<>();
+
+  RequisitionLineItemIndex(List<RequisitionLineItem> lineItems) {
+    this.byId = new HashMap<>(lineItems.size() * 2);
+    this.byOrderable = new HashMap<>(lineItems.size() * 2);
+
+    for (RequisitionLineItem lineItem : lineItems) {
+      if (null == lineItem.getId()) {
+        lineItemsWithoutId.add(lineItem);
+      } else {
+        byId.putIfAbsent(lineItem.getId(), lineItem);
+      }
+
+      byOrderable.putIfAbsent(lineItem.getOrderable(), lineItem);
+    }
+  }
+
+  /**
+   * Finds the line item with the given id. Ids are assigned when a line item is saved, so line
+   * items that did not have an id when the index was built are checked one by one.
+   */
+  RequisitionLineItem findById(UUID id) {
+    RequisitionLineItem lineItem = byId.get(id);
+
+    if (null == lineItem) {
+      for (RequisitionLineItem withoutId : lineItemsWithoutId) {
+        if (id.equals(withoutId.getId())) {
+          return withoutId;
+        }
+      }
+    }
+
+    return lineItem;
+  }
+
+  RequisitionLineItem findByOrderable(VersionEntityReference orderable) {
+    return byOrderable.get(orderable);
+  }
+}
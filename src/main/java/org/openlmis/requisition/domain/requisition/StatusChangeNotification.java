@@ -0,0 +1,102 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.domain.requisition;
+
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
+import org.openlmis.requisition.domain.BaseTimestampedEntity;
+
+/**
+ * Pending notification about a requisition status change. It is saved in the same transaction
+ * as the status change and removed once the notifications have been sent. The status and the
+ * supervisory node are recorded, because the requisition can move on before the notification
+ * is sent.
+ */
+@Entity
+@Table(name = "status_change_notifications")
+@NoArgsConstructor
+@Getter
+public class StatusChangeNotification extends BaseTimestampedEntity {
+
+  @Column(nullable = false)
+  @Type(type = UUID_TYPE)
+  private UUID requisitionId;
+
+  @Column(nullable = false)
+  @Enumerated(EnumType.STRING)
+  private RequisitionStatus status;
+
+  @Type(type = UUID_TYPE)
+  private UUID supervisoryNodeId;
+
+  private String locale;
+
+  @Column(nullable = false)
+  private int attempts;
+
+  @Column(columnDefinition = "timestamp with time zone")
+  private ZonedDateTime nextAttemptDate;
+
+  @Column(columnDefinition = TEXT_COLUMN_DEFINITION)
+  private String lastError;
+
+  /**
+   * Creates a notification about the current status of the given requisition that is due
+   * immediately.
+   */
+  public static StatusChangeNotification newStatusChangeNotification(Requisition requisition,
+      Locale locale, ZonedDateTime now) {
+    StatusChangeNotification notification = new StatusChangeNotification();
+    notification.requisitionId = requisition.getId();
+    notification.status = requisition.getStatus();
+    notification.supervisoryNodeId = requisition.getSupervisoryNodeId();
+    notification.locale = null == locale ? null : locale.toLanguageTag();
+    notification.nextAttemptDate = now;
+
+    return notification;
+  }
+
+  public Locale getLocale() {
+    return null == locale ? Locale.getDefault() : Locale.forLanguageTag(locale);
+  }
+
+  /**
+   * Postpones the next attempt, so that other dispatchers do not pick the notification while it
+   * is being sent.
+   */
+  public void lease(ZonedDateTime until) {
+    this.nextAttemptDate = until;
+  }
+
+  /**
+   * Records a failed attempt. A null retry date means that there will be no more attempts; the
+   * notification is kept with its last error.
+   */
+  public void failed(String error, ZonedDateTime retryDate) {
+    this.attempts++;
+    this.lastError = error;
+    this.nextAttemptDate = retryDate;
+  }
+}
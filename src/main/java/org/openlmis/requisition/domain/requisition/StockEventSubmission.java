@@ -0,0 +1,85 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.domain.requisition;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
+import org.openlmis.requisition.domain.BaseTimestampedEntity;
+
+/**
+ * Stock event of an approved requisition that has not been sent to the stock management service
+ * yet. It is saved in the same transaction as the approval and removed once the stock event has
+ * been created, so the event is not sent for an approval that was rolled back.
+ */
+@Entity
+@Table(name = "stock_event_submissions")
+@NoArgsConstructor
+@Getter
+public class StockEventSubmission extends BaseTimestampedEntity {
+
+  @Column(nullable = false)
+  @Type(type = UUID_TYPE)
+  private UUID requisitionId;
+
+  @Column(nullable = false, columnDefinition = TEXT_COLUMN_DEFINITION)
+  private String stockEvent;
+
+  @Column(nullable = false)
+  private int attempts;
+
+  @Column(columnDefinition = "timestamp with time zone")
+  private ZonedDateTime nextAttemptDate;
+
+  @Column(columnDefinition = TEXT_COLUMN_DEFINITION)
+  private String lastError;
+
+  /**
+   * Creates a submission of the given stock event (in JSON) that is due immediately.
+   */
+  public static StockEventSubmission newStockEventSubmission(UUID requisitionId,
+      String stockEvent, ZonedDateTime now) {
+    StockEventSubmission submission = new StockEventSubmission();
+    submission.requisitionId = requisitionId;
+    submission.stockEvent = stockEvent;
+    submission.nextAttemptDate = now;
+
+    return submission;
+  }
+
+  /**
+   * Postpones the next attempt, so that other dispatchers do not pick the submission while it
+   * is being sent.
+   */
+  public void lease(ZonedDateTime until) {
+    this.nextAttemptDate = until;
+  }
+
+  /**
+   * Records a failed attempt. A null retry date means that there will be no more attempts; the
+   * submission is kept with its last error.
+   */
+  public void failed(String error, ZonedDateTime retryDate) {
+    this.attempts++;
+    this.lastError = error;
+    this.nextAttemptDate = retryDate;
+  }
+}
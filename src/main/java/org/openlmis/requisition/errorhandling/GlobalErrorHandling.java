@@ -23,6 +23,7 @@ import static org.openlmis.requisition.i18n.MessageKeys.ERROR_TEMPLATE_ASSIGNMEN
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_TEMPLATE_NAME_DUPLICATION;
 import static org.openlmis.requisition.i18n.MessageKeys.VERSION_MISMATCH;
 
+import java.net.URI;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
@@ -32,6 +33,7 @@ import org.openlmis.requisition.dto.LocalizedMessageDto;
 import org.openlmis.requisition.exception.AuthenticationMessageException;
 import org.openlmis.requisition.exception.ExternalApiException;
 import org.openlmis.requisition.exception.IdempotencyKeyException;
+import org.openlmis.requisition.exception.IdempotencyKeyProcessedException;
 import org.openlmis.requisition.exception.ServerException;
 import org.openlmis.requisition.exception.ValidationMessageException;
 import org.openlmis.requisition.exception.VersionMismatchException;
@@ -40,6 +42,7 @@ import org.openlmis.requisition.utils.Message;
 import org.openlmis.requisition.web.PermissionMessageException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.orm.jpa.JpaSystemException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -194,6 +197,20 @@ public class GlobalErrorHandling extends AbstractErrorHandling {
     return getLocalizedMessage(ex);
   }
 
+  /**
+   * Handles a repeated request whose Idempotency Key has already been processed by redirecting
+   * the client to the resource created or changed by the first request.
+   */
+  @ExceptionHandler(IdempotencyKeyProcessedException.class)
+  @ResponseBody
+  public ResponseEntity<Message.LocalizedMessage> handleProcessedIdempotencyKey(
+      IdempotencyKeyProcessedException ex) {
+    return ResponseEntity
+        .status(HttpStatus.SEE_OTHER)
+        .location(URI.create(ex.getLocation()))
+        .body(getLocalizedMessage(ex));
+  }
+
   @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
   @ResponseStatus(HttpStatus.CONFLICT)
   @ResponseBody
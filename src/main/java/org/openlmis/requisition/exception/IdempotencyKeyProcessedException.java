@@ -0,0 +1,35 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.exception;
+
+import lombok.Getter;
+import org.openlmis.requisition.utils.Message;
+
+/**
+ * Signals that the request with the sent Idempotency Key has already been processed and the client
+ * should be redirected to the resource it created or changed.
+ */
+@Getter
+public class IdempotencyKeyProcessedException extends IdempotencyKeyException {
+  private static final long serialVersionUID = 4315230726485132913L;
+
+  private final String location;
+
+  public IdempotencyKeyProcessedException(Message message, String location) {
+    super(message);
+    this.location = location;
+  }
+}
@@ -264,6 +264,10 @@ public abstract class MessageKeys {
       ERROR_PREFIX + ".validation.params.requisitionStatus.notValidStatus";
   public static final String ERROR_SEARCH_INVALID_PARAMS =
       ERROR_PREFIX + ".search.invalidParams";
+  public static final String ERROR_SEARCH_INVALID_CURSOR =
+      ERROR_PREFIX + ".search.invalidCursor";
+  public static final String ERROR_SEARCH_CURSOR_SORT_NOT_SUPPORTED =
+      ERROR_PREFIX + ".search.cursor.sortNotSupported";
   public static final String ERROR_INVALID_DATE_FORMAT =
       ERROR_PREFIX + ".validation.invalidDateFormat";
   public static final String ERROR_INVALID_BOOLEAN_FORMAT =
@@ -305,6 +309,10 @@ public abstract class MessageKeys {
 
   public static final String ERROR_SERVICE_REQUIRED = ERROR_PREFIX + ".service.required";
   public static final String ERROR_SERVICE_OCCURED = ERROR_PREFIX + ".service.errorOccured";
+  public static final String ERROR_REMOTE_LOOKUP_TIMEOUT = ERROR_PREFIX
+      + ".remoteLookup.timeout";
+  public static final String ERROR_REMOTE_LOOKUP_FAILED = ERROR_PREFIX
+      + ".remoteLookup.failed";
 
   public static final String LINE_ITEM_SUPPLIED_BY_OTHER_PARTNER =
       SERVICE_PREFIX + ".lineItem.suppliedByOtherPartner";
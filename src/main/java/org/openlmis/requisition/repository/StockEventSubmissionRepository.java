@@ -0,0 +1,47 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.openlmis.requisition.domain.requisition.StockEventSubmission;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface StockEventSubmissionRepository
+    extends PagingAndSortingRepository<StockEventSubmission, UUID> {
+
+  /**
+   * Locks submissions that are due at the given time, oldest first. Rows locked by other
+   * transactions are skipped, so several instances of the service can dispatch at once.
+   */
+  @Query(value = "SELECT s.*"
+      + " FROM requisition.stock_event_submissions s"
+      + " WHERE s.nextattemptdate <= :now"
+      + " ORDER BY s.nextattemptdate"
+      + " LIMIT :limit"
+      + " FOR UPDATE SKIP LOCKED",
+      nativeQuery = true)
+  List<StockEventSubmission> lockDue(@Param("now") ZonedDateTime now,
+      @Param("limit") int limit);
+
+  long countByNextAttemptDateIsNotNull();
+
+  StockEventSubmission findFirstByNextAttemptDateIsNotNullOrderByCreatedDate();
+
+}
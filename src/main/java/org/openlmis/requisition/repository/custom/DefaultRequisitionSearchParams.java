@@ -46,4 +46,7 @@ public final class DefaultRequisitionSearchParams implements RequisitionSearchPa
   private ZonedDateTime modifiedDateTo;
 
   private Set<RequisitionStatus> requisitionStatuses;
+
+  private RequisitionSearchCursor cursor;
+  private boolean skipCount;
 }
@@ -16,6 +16,9 @@
 package org.openlmis.requisition.repository.custom;
 
 import java.util.UUID;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 
 public interface ProcessedRequestsRedisRepository {
 
@@ -24,4 +27,32 @@ public interface ProcessedRequestsRedisRepository {
   UUID findByIdempotencyKey(UUID resourceId);
 
   void addOrUpdate(UUID key, UUID resourceId);
+
+  /**
+   * Claims the given idempotency key in a single atomic operation. The key is stored (and starts
+   * to expire) only if it has not been stored before.
+   *
+   * @param idempotencyKey the key to claim
+   * @return the result of the claim with the resource id of an already processed request
+   */
+  ClaimResult claim(UUID idempotencyKey);
+
+  @Getter
+  @AllArgsConstructor(access = AccessLevel.PRIVATE)
+  final class ClaimResult {
+    private final boolean claimed;
+    private final UUID resourceId;
+
+    public static ClaimResult claimed() {
+      return new ClaimResult(true, null);
+    }
+
+    public static ClaimResult alreadyClaimed(UUID resourceId) {
+      return new ClaimResult(false, resourceId);
+    }
+
+    public boolean isProcessed() {
+      return null != resourceId;
+    }
+  }
 }
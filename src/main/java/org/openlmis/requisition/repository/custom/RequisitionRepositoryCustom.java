@@ -15,13 +15,17 @@
 
 package org.openlmis.requisition.repository.custom;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import org.apache.commons.lang3.tuple.Pair;
 import org.openlmis.requisition.domain.requisition.Requisition;
+import org.openlmis.requisition.domain.requisition.RequisitionCompletionCount;
 import org.openlmis.requisition.domain.requisition.RequisitionPeriod;
+import org.openlmis.requisition.domain.requisition.RequisitionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -34,7 +38,8 @@ public interface RequisitionRepositoryCustom {
   List<Requisition> searchRequisitions(UUID processingPeriod,
       UUID facility, UUID program, Boolean emergency);
 
-  Optional<Requisition> findRegularRequisition(UUID processingPeriod, UUID facility, UUID program);
+  List<Requisition> findRegularRequisitions(Collection<UUID> processingPeriods, UUID facility,
+      UUID program);
 
   List<RequisitionPeriod> searchRequisitionIdAndStatusPairs(UUID facility, UUID program,
       Boolean emergency);
@@ -44,4 +49,10 @@ public interface RequisitionRepositoryCustom {
 
   Page<Requisition> searchApprovableRequisitionsByProgramSupervisoryNodePairs(
       Set<Pair<UUID, UUID>> programNodePairs, Pageable pageable);
+
+  List<RequisitionCompletionCount> countRequisitionCompletions(UUID program,
+      Map<UUID, ZonedDateTime> periodDeadlines);
+
+  Set<UUID> findFacilityIdsWithRequisitions(Collection<UUID> facilityIds, UUID program,
+      UUID processingPeriod, Collection<RequisitionStatus> statuses);
 }
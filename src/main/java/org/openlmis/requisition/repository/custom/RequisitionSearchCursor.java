@@ -0,0 +1,115 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.repository.custom;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.openlmis.requisition.domain.requisition.Requisition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+
+/**
+ * Position in the requisition search results used by keyset pagination. The next page contains
+ * requisitions that come after the (createdDate, id) pair of the last requisition of the previous
+ * page, so it can be found through the index instead of skipping all previous rows.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public final class RequisitionSearchCursor {
+  public static final String SORT_PROPERTY = "createdDate";
+
+  private static final String SEPARATOR = ",";
+
+  private final ZonedDateTime createdDate;
+  private final UUID id;
+
+  /**
+   * Creates a cursor that points right after the given requisition.
+   */
+  public static RequisitionSearchCursor of(Requisition requisition) {
+    return new RequisitionSearchCursor(requisition.getCreatedDate(), requisition.getId());
+  }
+
+  /**
+   * Reads the cursor from its string representation created by {@link #encode()}.
+   *
+   * @throws IllegalArgumentException if the value is not a valid cursor
+   */
+  public static RequisitionSearchCursor decode(String value) {
+    String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+    String[] parts = decoded.split(SEPARATOR);
+
+    if (parts.length != 2) {
+      throw new IllegalArgumentException("Invalid requisition search cursor: " + value);
+    }
+
+    try {
+      return new RequisitionSearchCursor(
+          ZonedDateTime.ofInstant(Instant.parse(parts[0]), ZoneOffset.UTC),
+          UUID.fromString(parts[1]));
+    } catch (DateTimeParseException exp) {
+      throw new IllegalArgumentException("Invalid requisition search cursor: " + value, exp);
+    }
+  }
+
+  /**
+   * Checks if requisitions sorted in the given way can be paginated with a cursor. Only the
+   * default order and a single order by the created date are supported.
+   */
+  public static boolean supports(Sort sort) {
+    if (null == sort || sort.isUnsorted()) {
+      return true;
+    }
+
+    Iterator<Sort.Order> orders = sort.iterator();
+    Sort.Order order = orders.next();
+
+    return SORT_PROPERTY.equals(order.getProperty()) && !orders.hasNext();
+  }
+
+  /**
+   * Returns the direction of the given sort that is supported by cursors. The default order is
+   * ascending.
+   */
+  public static Direction getDirection(Sort sort) {
+    if (null == sort || sort.isUnsorted()) {
+      return Direction.ASC;
+    }
+
+    return sort.iterator().next().getDirection();
+  }
+
+  /**
+   * Returns URL safe string representation of the cursor.
+   */
+  public String encode() {
+    String value = createdDate.toInstant() + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -43,4 +43,16 @@ public interface RequisitionSearchParams {
 
   Set<RequisitionStatus> getRequisitionStatuses();
 
+  /**
+   * Returns the position after which the requested page starts (keyset pagination) or null if
+   * the page number should be used instead.
+   */
+  RequisitionSearchCursor getCursor();
+
+  /**
+   * Returns true if the total number of matching requisitions does not have to be counted. The
+   * total is then estimated from the returned page.
+   */
+  boolean isSkipCount();
+
 }
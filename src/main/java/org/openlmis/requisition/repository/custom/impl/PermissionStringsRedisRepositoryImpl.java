@@ -0,0 +1,84 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.repository.custom.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import org.apache.commons.lang3.StringUtils;
+import org.openlmis.requisition.repository.custom.PermissionStringsRedisRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class PermissionStringsRedisRepositoryImpl implements PermissionStringsRedisRepository {
+
+  private static final String KEY_PREFIX = "PERMISSION_STRINGS:";
+  private static final String PERMISSION_STRINGS = "permissionStrings";
+  private static final String ETAG = "etag";
+  private static final String VALIDATED_AT = "validatedAt";
+  private static final String SEPARATOR = "\n";
+
+  private RedisTemplate<String, String> redisTemplate;
+  private HashOperations<String, String, String> hashOperations;
+
+  @Autowired
+  public PermissionStringsRedisRepositoryImpl(RedisTemplate<String, String> redisTemplate) {
+    this.redisTemplate = redisTemplate;
+  }
+
+  @PostConstruct
+  private void init() {
+    hashOperations = redisTemplate.opsForHash();
+  }
+
+  @Override
+  public Entry findByUserId(UUID userId) {
+    Map<String, String> hash = hashOperations.entries(KEY_PREFIX + userId);
+
+    if (null == hash || !hash.containsKey(VALIDATED_AT)) {
+      return null;
+    }
+
+    String permissionStrings = hash.get(PERMISSION_STRINGS);
+
+    return new Entry(
+        StringUtils.isEmpty(permissionStrings)
+            ? Collections.emptyList()
+            : Arrays.asList(permissionStrings.split(SEPARATOR)),
+        StringUtils.defaultIfEmpty(hash.get(ETAG), null),
+        Long.parseLong(hash.get(VALIDATED_AT)));
+  }
+
+  @Override
+  public void save(UUID userId, Entry entry, long ttlSeconds) {
+    final String key = KEY_PREFIX + userId;
+
+    Map<String, String> hash = new HashMap<>();
+    hash.put(PERMISSION_STRINGS, String.join(SEPARATOR, entry.getPermissionStrings()));
+    hash.put(ETAG, StringUtils.defaultString(entry.getEtag()));
+    hash.put(VALIDATED_AT, String.valueOf(entry.getValidatedAt()));
+
+    hashOperations.putAll(key, hash);
+    redisTemplate.expire(key, ttlSeconds, TimeUnit.SECONDS);
+  }
+}
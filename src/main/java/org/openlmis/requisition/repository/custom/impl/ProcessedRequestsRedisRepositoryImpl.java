@@ -15,14 +15,17 @@
 
 package org.openlmis.requisition.repository.custom.impl;
 
+import java.util.Collections;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
 import org.apache.commons.lang3.StringUtils;
 import org.openlmis.requisition.repository.custom.ProcessedRequestsRedisRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -30,9 +33,27 @@ public class ProcessedRequestsRedisRepositoryImpl implements ProcessedRequestsRe
 
   private static final String HASH_KEY = "PROCESSED_REQUESTS";
 
+  // stores the field and sets the expiry only if the key has not been claimed yet; returns nil
+  // for a successful claim, otherwise the stored resource id (empty while still in progress)
+  private static final RedisScript<String> CLAIM_SCRIPT = new DefaultRedisScript<>(
+      "if redis.call('HSETNX', KEYS[1], ARGV[1], '') == 1 then "
+          + "redis.call('EXPIRE', KEYS[1], ARGV[2]) "
+          + "return false "
+          + "end "
+          + "return redis.call('HGET', KEYS[1], ARGV[1])",
+      String.class);
+
+  private static final RedisScript<Long> PUT_SCRIPT = new DefaultRedisScript<>(
+      "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2]) "
+          + "return redis.call('EXPIRE', KEYS[1], ARGV[3])",
+      Long.class);
+
   private RedisTemplate<String, String> redisTemplate;
   private HashOperations hashOperations;
 
+  @Value("${idempotencyKey.retentionSeconds}")
+  private long retentionSeconds;
+
   @Autowired
   public ProcessedRequestsRedisRepositoryImpl(RedisTemplate<String, String> redisTemplate) {
     this.redisTemplate = redisTemplate;
@@ -57,8 +78,22 @@ public class ProcessedRequestsRedisRepositoryImpl implements ProcessedRequestsRe
 
   @Override
   public void addOrUpdate(UUID key, UUID resourceId) {
-    hashOperations.put(key.toString(), HASH_KEY, resourceId == null
-        ? StringUtils.EMPTY : resourceId.toString());
-    redisTemplate.expire(key.toString(), 24, TimeUnit.HOURS);
+    redisTemplate.execute(PUT_SCRIPT, Collections.singletonList(key.toString()), HASH_KEY,
+        resourceId == null ? StringUtils.EMPTY : resourceId.toString(),
+        String.valueOf(retentionSeconds));
+  }
+
+  @Override
+  public ClaimResult claim(UUID idempotencyKey) {
+    String resource = redisTemplate.execute(CLAIM_SCRIPT,
+        Collections.singletonList(idempotencyKey.toString()), HASH_KEY,
+        String.valueOf(retentionSeconds));
+
+    if (null == resource) {
+      return ClaimResult.claimed();
+    }
+
+    return ClaimResult.alreadyClaimed(
+        StringUtils.isBlank(resource) ? null : UUID.fromString(resource));
   }
 }
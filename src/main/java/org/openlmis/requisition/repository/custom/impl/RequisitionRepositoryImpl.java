@@ -19,19 +19,22 @@ import static java.util.stream.Collectors.toList;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.Iterables;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Expression;
@@ -52,12 +55,14 @@ import org.hibernate.type.PostgresUUIDType;
 import org.hibernate.type.ZonedDateTimeType;
 import org.openlmis.requisition.domain.BaseEntity;
 import org.openlmis.requisition.domain.requisition.Requisition;
+import org.openlmis.requisition.domain.requisition.RequisitionCompletionCount;
 import org.openlmis.requisition.domain.requisition.RequisitionPeriod;
 import org.openlmis.requisition.domain.requisition.RequisitionPermissionString;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
 import org.openlmis.requisition.domain.requisition.StatusChange;
 import org.openlmis.requisition.repository.StatusChangeRepository;
 import org.openlmis.requisition.repository.custom.RequisitionRepositoryCustom;
+import org.openlmis.requisition.repository.custom.RequisitionSearchCursor;
 import org.openlmis.requisition.repository.custom.RequisitionSearchParams;
 import org.openlmis.requisition.utils.Pagination;
 import org.slf4j.ext.XLogger;
@@ -65,6 +70,7 @@ import org.slf4j.ext.XLoggerFactory;
 import org.slf4j.profiler.Profiler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
@@ -92,6 +98,24 @@ public class RequisitionRepositoryImpl
   private static final String SELECT_COUNT_APPROVED_SQL = "SELECT DISTINCT COUNT(*)"
       + FROM;
 
+  private static final String COUNT_COMPLETIONS_SQL = "SELECT"
+      + " req.period_id AS period_id, req.facility_id AS facility_id,"
+      + " COUNT(CASE WHEN req.approved_date < req.deadline THEN 1 END) AS on_time,"
+      + " COUNT(CASE WHEN req.approved_date >= req.deadline THEN 1 END) AS late,"
+      + " COUNT(CASE WHEN req.approved_date IS NULL THEN 1 END) AS missed"
+      + " FROM (SELECT r.id, r.processingperiodid AS period_id, r.facilityid AS facility_id,"
+      + " d.deadline AS deadline, MIN(s.createddate) AS approved_date"
+      + " FROM requisition.requisitions r"
+      + " INNER JOIN (VALUES %s) AS d (period_id, deadline) ON d.period_id = r.processingperiodid"
+      + " LEFT JOIN requisition.status_changes s"
+      + " ON r.id = s.requisitionid AND s.status = 'APPROVED'"
+      + " WHERE r.programid = '%s' AND r.emergency = false"
+      + " GROUP BY r.id, r.processingperiodid, r.facilityid, d.deadline) req"
+      + " GROUP BY req.period_id, req.facility_id";
+
+  // keeps the number of bind parameters of a single query far below the database limit
+  private static final int FACILITY_IDS_BATCH_SIZE = 1000;
+
   private static final String FACILITY_ID = "facilityId";
   private static final String PROGRAM_ID = "programId";
   private static final String EMERGENCY = "emergency";
@@ -101,6 +125,7 @@ public class RequisitionRepositoryImpl
   private static final String SUPERVISORY_NODE_ID = "supervisoryNodeId";
   private static final String AUTHORIZED_DATE = "authorizedDate";
   private static final String MODIFIED_DATE = "modifiedDate";
+  private static final String ID = "id";
 
   @PersistenceContext
   private EntityManager entityManager;
@@ -123,22 +148,50 @@ public class RequisitionRepositoryImpl
       Pageable pageable) {
     CriteriaBuilder builder = getCriteriaBuilder();
 
-    CriteriaQuery<Long> countQuery = builder.createQuery(Long.class);
-    countQuery = prepareQuery(builder, countQuery, params,
-        userPermissionStrings, programNodePairs, true, pageable);
+    if (!params.isSkipCount() || null == pageable) {
+      CriteriaQuery<Long> countQuery = builder.createQuery(Long.class);
+      countQuery = prepareQuery(builder, countQuery, params,
+          userPermissionStrings, programNodePairs, true, pageable);
 
-    Long count = countEntities(countQuery);
+      Long count = countEntities(countQuery);
 
-    if (isZeroEntities(count)) {
-      return Pagination.getPage(Collections.emptyList(), pageable, count);
+      if (isZeroEntities(count)) {
+        return Pagination.getPage(Collections.emptyList(), pageable, count);
+      }
+
+      CriteriaQuery<Requisition> requisitionQuery = builder.createQuery(Requisition.class);
+      requisitionQuery = prepareQuery(builder, requisitionQuery, params,
+          userPermissionStrings, programNodePairs, false, pageable);
+
+      List<Requisition> requisitions = getEntities(requisitionQuery, pageable);
+      return Pagination.getPage(requisitions, pageable, count);
     }
 
     CriteriaQuery<Requisition> requisitionQuery = builder.createQuery(Requisition.class);
     requisitionQuery = prepareQuery(builder, requisitionQuery, params,
         userPermissionStrings, programNodePairs, false, pageable);
 
-    List<Requisition> requisitions = getEntities(requisitionQuery, pageable);
-    return Pagination.getPage(requisitions, pageable, count);
+    // one more row than requested tells if there is a next page without counting all of them
+    int pageSize = pageable.getPageSize();
+    TypedQuery<Requisition> query = entityManager
+        .createQuery(requisitionQuery)
+        .setMaxResults(pageSize < Integer.MAX_VALUE ? pageSize + 1 : pageSize);
+
+    // the cursor replaces the offset, so the page number is ignored
+    Pageable page = null == params.getCursor()
+        ? pageable
+        : PageRequest.of(0, pageSize, pageable.getSort());
+    query.setFirstResult(Math.toIntExact(page.getOffset()));
+
+    List<Requisition> requisitions = query.getResultList();
+    boolean hasNext = requisitions.size() > pageSize;
+
+    if (hasNext) {
+      requisitions = new ArrayList<>(requisitions.subList(0, pageSize));
+    }
+
+    long estimatedCount = page.getOffset() + requisitions.size() + (hasNext ? 1 : 0);
+    return Pagination.getPage(requisitions, page, estimatedCount);
   }
 
 
@@ -171,14 +224,19 @@ public class RequisitionRepositoryImpl
   }
 
   /**
-   * Method returns Requisition with matched parameters.
+   * Method returns regular requisitions of the given facility and program for all of the given
+   * processing periods in a single query.
    *
-   * @param processingPeriod ProcessingPeriod of searched Requisition.
-   * @return Requisition with matched parameters.
+   * @param processingPeriods ProcessingPeriods of searched Requisitions.
+   * @return List of Requisitions with matched parameters.
    */
   @Override
-  public Optional<Requisition> findRegularRequisition(UUID processingPeriod,
+  public List<Requisition> findRegularRequisitions(Collection<UUID> processingPeriods,
       UUID facility, UUID program) {
+    if (processingPeriods.isEmpty()) {
+      return Collections.emptyList();
+    }
+
     CriteriaBuilder builder = getCriteriaBuilder();
 
     CriteriaQuery<Requisition> query = builder.createQuery(Requisition.class);
@@ -186,20 +244,18 @@ public class RequisitionRepositoryImpl
 
     Predicate predicate = builder.conjunction();
     predicate = addEqualFilter(predicate, builder, root, EMERGENCY, false);
-    predicate = addEqualFilter(predicate, builder, root, PROCESSING_PERIOD_ID, processingPeriod);
+    predicate = addInFilter(predicate, builder, root, PROCESSING_PERIOD_ID, processingPeriods);
     predicate = addEqualFilter(predicate, builder, root, FACILITY_ID, facility);
     predicate = addEqualFilter(predicate, builder, root, PROGRAM_ID, program);
 
     query.where(predicate);
 
-    List<Requisition> requisitions = entityManager.createQuery(query)
+    // There is always maximum one regular requisition for given period, facility and program
+    return entityManager.createQuery(query)
         .setHint(QueryHints.HINT_READONLY, true)
         .setHint("javax.persistence.fetchgraph",
             entityManager.getEntityGraph("graph.Requisition"))
         .getResultList();
-
-    // There is always maximum one regular requisition for given period, facility and program
-    return requisitions.stream().findFirst();
   }
 
   /**
@@ -354,20 +410,140 @@ public class RequisitionRepositoryImpl
     return page;
   }
 
+  /**
+   * Counts regular requisitions of the given program that were approved on time, approved late
+   * or were not approved at all. Counts are grouped by processing period and facility and are
+   * computed by the database in a single query, so only facilities that have at least one
+   * requisition for the given periods are returned.
+   *
+   * @param program         program UUID
+   * @param periodDeadlines processing period UUIDs with the moment since which an approval of
+   *                        a requisition for the period is considered late
+   * @return List of completion counts, one per period and facility.
+   */
+  @Override
+  public List<RequisitionCompletionCount> countRequisitionCompletions(UUID program,
+      Map<UUID, ZonedDateTime> periodDeadlines) {
+    XLOGGER.entry(program, periodDeadlines);
+
+    if (periodDeadlines.isEmpty()) {
+      XLOGGER.exit(Collections.emptyList());
+      return Collections.emptyList();
+    }
+
+    Profiler profiler = new Profiler("COUNT_REQUISITION_COMPLETIONS");
+    profiler.setLogger(XLOGGER);
+
+    profiler.start("PREPARE_QUERY");
+    String deadlines = periodDeadlines
+        .entrySet()
+        .stream()
+        .map(entry -> String.format("(CAST('%s' AS uuid), CAST('%s' AS timestamptz))",
+            entry.getKey(), entry.getValue().toInstant()))
+        .collect(Collectors.joining(","));
+
+    Query query = entityManager
+        .createNativeQuery(String.format(COUNT_COMPLETIONS_SQL, deadlines, program));
+
+    NativeQuery<?> sql = query.unwrap(NativeQuery.class);
+    sql.addScalar("period_id", PostgresUUIDType.INSTANCE);
+    sql.addScalar("facility_id", PostgresUUIDType.INSTANCE);
+    sql.addScalar("on_time", LongType.INSTANCE);
+    sql.addScalar("late", LongType.INSTANCE);
+    sql.addScalar("missed", LongType.INSTANCE);
+
+    profiler.start("EXECUTE_QUERY");
+    // hibernate always returns a list of array of objects
+    @SuppressWarnings("unchecked")
+    List<Object[]> list = Collections.checkedList(query.getResultList(), Object[].class);
+
+    profiler.start("CONVERT_RESULTS");
+    List<RequisitionCompletionCount> counts = list
+        .stream()
+        .map(values -> new RequisitionCompletionCount((UUID) values[0], (UUID) values[1],
+            (Long) values[2], (Long) values[3], (Long) values[4]))
+        .collect(toList());
+
+    XLOGGER.exit(counts);
+    profiler.stop().log();
+
+    return counts;
+  }
+
+  /**
+   * Finds which of the given facilities have at least one requisition with one of the given
+   * statuses for the given program and processing period. Only facility ids are selected, so no
+   * requisition is loaded into the persistence context.
+   *
+   * @param facilityIds      UUIDs of facilities that should be checked
+   * @param program          program UUID
+   * @param processingPeriod processing period UUID
+   * @param statuses         requisition statuses that should be taken into account
+   * @return Set of UUIDs of facilities that have matching requisitions.
+   */
+  @Override
+  public Set<UUID> findFacilityIdsWithRequisitions(Collection<UUID> facilityIds, UUID program,
+      UUID processingPeriod, Collection<RequisitionStatus> statuses) {
+    XLOGGER.entry(facilityIds, program, processingPeriod, statuses);
+
+    Profiler profiler = new Profiler("FIND_FACILITY_IDS_WITH_REQUISITIONS");
+    profiler.setLogger(XLOGGER);
+
+    Set<UUID> result = new HashSet<>();
+
+    if (!facilityIds.isEmpty() && !statuses.isEmpty()) {
+      CriteriaBuilder builder = getCriteriaBuilder();
+
+      for (List<UUID> batch : Iterables.partition(facilityIds, FACILITY_IDS_BATCH_SIZE)) {
+        profiler.start("PREPARE_QUERY");
+        CriteriaQuery<UUID> query = builder.createQuery(UUID.class);
+        Root<Requisition> root = query.from(Requisition.class);
+        query.select(root.get(FACILITY_ID)).distinct(true);
+
+        Predicate predicate = builder.conjunction();
+        predicate = addEqualFilter(predicate, builder, root, PROGRAM_ID, program);
+        predicate = addEqualFilter(predicate, builder, root,
+            PROCESSING_PERIOD_ID, processingPeriod);
+        predicate = addInFilter(predicate, builder, root, STATUS, statuses);
+        predicate = addInFilter(predicate, builder, root, FACILITY_ID, batch);
+        query.where(predicate);
+
+        profiler.start("EXECUTE_QUERY");
+        result.addAll(entityManager.createQuery(query).getResultList());
+      }
+    }
+
+    XLOGGER.exit(result);
+    profiler.stop().log();
+
+    return result;
+  }
+
   private <T> CriteriaQuery<T> prepareQuery(CriteriaBuilder builder, CriteriaQuery<T> query,
       RequisitionSearchParams params, List<String> userPermissionStrings,
       Set<Pair<UUID, UUID>> programNodePairs, boolean count, Pageable pageable) {
 
     Root<Requisition> root = query.from(Requisition.class);
 
+    Sort sort = null == pageable ? Sort.unsorted() : pageable.getSort();
+    boolean keyset = !count && RequisitionSearchCursor.supports(sort);
+
     if (count) {
       CriteriaQuery<Long> countQuery = (CriteriaQuery<Long>) query;
       query = (CriteriaQuery<T>) countQuery.select(builder.count(root));
+    } else if (keyset) {
+      addCursorOrder(builder, query, root, sort);
     } else {
       query.orderBy(builder.asc(root.get(CREATED_DATE)));
     }
 
     Predicate predicate = builder.conjunction();
+
+    if (keyset && null != params.getCursor()) {
+      predicate = builder.and(predicate,
+          createCursorPredicate(builder, root, params.getCursor(), sort));
+    }
+
     predicate = addEqualFilter(predicate, builder, root, FACILITY_ID, params.getFacility());
     predicate = addEqualFilter(predicate, builder, root, PROGRAM_ID, params.getProgram());
     predicate = addEqualFilter(predicate, builder, root,
@@ -395,13 +571,43 @@ public class RequisitionRepositoryImpl
 
     query.distinct(true);
 
-    if (!count && pageable != null && !pageable.getSort().isEmpty()) {
+    if (!count && !keyset && !sort.isEmpty()) {
       query = addSortProperties(builder, query, root, pageable);
     }
 
     return query;
   }
 
+  private void addCursorOrder(CriteriaBuilder builder, CriteriaQuery<?> query,
+      Root<Requisition> root, Sort sort) {
+    // the id makes the order stable, so pages can continue from a cursor
+    if (RequisitionSearchCursor.getDirection(sort).isAscending()) {
+      query.orderBy(builder.asc(root.get(CREATED_DATE)), builder.asc(root.get(ID)));
+    } else {
+      query.orderBy(builder.desc(root.get(CREATED_DATE)), builder.desc(root.get(ID)));
+    }
+  }
+
+  private Predicate createCursorPredicate(CriteriaBuilder builder, Root<Requisition> root,
+      RequisitionSearchCursor cursor, Sort sort) {
+    Path<ZonedDateTime> createdDate = root.get(CREATED_DATE);
+    Path<UUID> id = root.get(ID);
+
+    if (RequisitionSearchCursor.getDirection(sort).isAscending()) {
+      return builder.or(
+          builder.greaterThan(createdDate, cursor.getCreatedDate()),
+          builder.and(
+              builder.equal(createdDate, cursor.getCreatedDate()),
+              builder.greaterThan(id, cursor.getId())));
+    }
+
+    return builder.or(
+        builder.lessThan(createdDate, cursor.getCreatedDate()),
+        builder.and(
+            builder.equal(createdDate, cursor.getCreatedDate()),
+            builder.lessThan(id, cursor.getId())));
+  }
+
   private Predicate createPermissionPredicate(CriteriaBuilder builder, Root<Requisition> root,
       Predicate predicate, List<String> userPermissionStrings,
       Set<Pair<UUID, UUID>> programNodePairs) {
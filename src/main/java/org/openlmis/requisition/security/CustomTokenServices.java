@@ -15,22 +15,111 @@
 
 package org.openlmis.requisition.security;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
 import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.AccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.DefaultAccessTokenConverter;
 import org.springframework.security.oauth2.provider.token.RemoteTokenServices;
 
+/**
+ * Checks access tokens with the auth service. Successfully checked tokens are cached (by their
+ * SHA-256 hash) until they expire or for the configured maximum time, whichever comes first.
+ * Tokens are revoked in the auth service, which does not tell other services about it, so a
+ * revoked token can still be accepted until its cache entry expires.
+ */
 public class CustomTokenServices extends RemoteTokenServices {
 
+  private static final ThreadLocal<Long> EXPIRATION = new ThreadLocal<>();
+
   private int invalidTokenRetryLimit;
+  private long maxAgeMillis;
+
+  private Cache<String, CachedAuthentication> authentications;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
 
   public CustomTokenServices(int invalidTokenRetryLimit) {
+    this(invalidTokenRetryLimit, 0, 0);
+  }
+
+  /**
+   * Creates token services that cache checked tokens.
+   *
+   * @param invalidTokenRetryLimit number of retries when the token is reported as invalid
+   * @param cacheMaxSize           maximum number of cached tokens, 0 disables the cache
+   * @param cacheMaxAgeSeconds     maximum number of seconds a checked token is cached for
+   */
+  public CustomTokenServices(int invalidTokenRetryLimit, long cacheMaxSize,
+      long cacheMaxAgeSeconds) {
     super();
     this.invalidTokenRetryLimit = invalidTokenRetryLimit;
+    this.maxAgeMillis = TimeUnit.SECONDS.toMillis(cacheMaxAgeSeconds);
+
+    if (cacheMaxSize > 0 && cacheMaxAgeSeconds > 0) {
+      this.authentications = CacheBuilder
+          .newBuilder()
+          .maximumSize(cacheMaxSize)
+          .expireAfterWrite(cacheMaxAgeSeconds, TimeUnit.SECONDS)
+          .recordStats()
+          .build();
+    }
+
+    super.setAccessTokenConverter(recordExpiration(new DefaultAccessTokenConverter()));
+  }
+
+  @Override
+  public void setAccessTokenConverter(AccessTokenConverter accessTokenConverter) {
+    super.setAccessTokenConverter(recordExpiration(accessTokenConverter));
   }
 
   @Override
   public OAuth2Authentication loadAuthentication(String accessToken) {
-    return loadAuthentication(accessToken, 0);
+    if (null == authentications) {
+      return loadAuthentication(accessToken, 0);
+    }
+
+    String key = hash(accessToken);
+    long now = System.currentTimeMillis();
+    CachedAuthentication cached = authentications.getIfPresent(key);
+
+    if (null != cached && cached.expiresAt > now) {
+      hits.incrementAndGet();
+      return copy(cached.authentication);
+    }
+
+    misses.incrementAndGet();
+
+    OAuth2Authentication authentication;
+    Long expiration;
+
+    try {
+      authentication = loadAuthentication(accessToken, 0);
+      expiration = EXPIRATION.get();
+    } finally {
+      EXPIRATION.remove();
+    }
+
+    long expiresAt = null == expiration
+        ? now + maxAgeMillis
+        : Math.min(now + maxAgeMillis, TimeUnit.SECONDS.toMillis(expiration));
+
+    if (expiresAt > now) {
+      authentications.put(key, new CachedAuthentication(authentication, expiresAt));
+    }
+
+    return copy(authentication);
   }
 
   private OAuth2Authentication loadAuthentication(String accessToken, int attempt) {
@@ -46,4 +135,81 @@ public class CustomTokenServices extends RemoteTokenServices {
       }
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Returns size, hit, miss and eviction counts of the token cache.
+   */
+  public Statistics getStatistics() {
+    return null == authentications
+        ? new Statistics(0, hits.get(), misses.get(), 0)
+        : new Statistics(authentications.size(), hits.get(), misses.get(),
+            authentications.stats().evictionCount());
+  }
+
+  /**
+   * Logs statistics of the token cache.
+   */
+  @Scheduled(fixedRateString = "${auth.tokenCache.statisticsLogIntervalMillis}")
+  public void logStatistics() {
+    if (null != authentications && logger.isDebugEnabled()) {
+      logger.debug("Token cache: " + getStatistics());
+    }
+  }
+
+  private AccessTokenConverter recordExpiration(AccessTokenConverter accessTokenConverter) {
+    return new ExpirationRecordingConverter(accessTokenConverter);
+  }
+
+  private String hash(String accessToken) {
+    return Hashing.sha256().hashString(accessToken, StandardCharsets.UTF_8).toString();
+  }
+
+  // the authentication manager modifies the returned object (details, authenticated flag)
+  private OAuth2Authentication copy(OAuth2Authentication authentication) {
+    return new OAuth2Authentication(authentication.getOAuth2Request(),
+        authentication.getUserAuthentication());
+  }
+
+  @AllArgsConstructor
+  private static final class CachedAuthentication {
+    private final OAuth2Authentication authentication;
+    private final long expiresAt;
+  }
+
+  @Getter
+  @ToString
+  @AllArgsConstructor
+  public static final class Statistics {
+    private final long size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+  }
+
+  /**
+   * Remembers the expiration time from the check token response, so the cached token does not
+   * outlive it.
+   */
+  @AllArgsConstructor
+  private static final class ExpirationRecordingConverter implements AccessTokenConverter {
+    private final AccessTokenConverter delegate;
+
+    @Override
+    public Map<String, ?> convertAccessToken(OAuth2AccessToken token,
+        OAuth2Authentication authentication) {
+      return delegate.convertAccessToken(token, authentication);
+    }
+
+    @Override
+    public OAuth2AccessToken extractAccessToken(String value, Map<String, ?> map) {
+      return delegate.extractAccessToken(value, map);
+    }
+
+    @Override
+    public OAuth2Authentication extractAuthentication(Map<String, ?> map) {
+      Object expiration = map.get(EXP);
+      EXPIRATION.set(expiration instanceof Number ? ((Number) expiration).longValue() : null);
+      return delegate.extractAuthentication(map);
+    }
+  }
+}
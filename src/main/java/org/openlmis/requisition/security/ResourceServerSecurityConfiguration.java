@@ -110,6 +110,9 @@ public class ResourceServerSecurityConfiguration implements ResourceServerConfig
    * @param checkTokenUrl url to check tokens against
    * @param clientId      client's id
    * @param clientSecret  client's secret
+   * @param invalidTokenRetryLimit  number of retries when a token is reported as invalid
+   * @param tokenCacheMaxSize       maximum number of cached tokens
+   * @param tokenCacheMaxAgeSeconds maximum number of seconds a checked token is cached for
    * @return token services
    */
   @Bean
@@ -118,8 +121,11 @@ public class ResourceServerSecurityConfiguration implements ResourceServerConfig
       @Value("${auth.server.url}") String checkTokenUrl,
       @Value("${auth.server.clientId}") String clientId,
       @Value("${auth.server.clientSecret}") String clientSecret,
-      @Value("${auth.server.invalidToken.retryLimit}") int invalidTokenRetryLimit) {
-    final RemoteTokenServices remoteTokenServices = new CustomTokenServices(invalidTokenRetryLimit);
+      @Value("${auth.server.invalidToken.retryLimit}") int invalidTokenRetryLimit,
+      @Value("${auth.tokenCache.maxSize}") long tokenCacheMaxSize,
+      @Value("${auth.tokenCache.maxAgeSeconds}") long tokenCacheMaxAgeSeconds) {
+    final RemoteTokenServices remoteTokenServices = new CustomTokenServices(
+        invalidTokenRetryLimit, tokenCacheMaxSize, tokenCacheMaxAgeSeconds);
     remoteTokenServices.setCheckTokenEndpointUrl(checkTokenUrl);
     remoteTokenServices.setClientId(clientId);
     remoteTokenServices.setClientSecret(clientSecret);
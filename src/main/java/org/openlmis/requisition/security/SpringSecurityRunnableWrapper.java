@@ -28,14 +28,22 @@ public class SpringSecurityRunnableWrapper implements Runnable {
   }
 
   /**
-   * Sets context and run delegate.
+   * Sets context and run delegate. The context that was set on the current thread before is
+   * restored afterwards, so the wrapper can be safely executed by the calling thread as well
+   * (for example when a bounded executor rejects the task and the caller runs it).
    */
   public void run() {
+    SecurityContext previous = SecurityContextHolder.getContext();
+
     try {
       SecurityContextHolder.setContext(context);
       delegate.run();
     } finally {
-      SecurityContextHolder.clearContext();
+      if (null == previous.getAuthentication()) {
+        SecurityContextHolder.clearContext();
+      } else {
+        SecurityContextHolder.setContext(previous);
+      }
     }
   }
 }
\ No newline at end of file
@@ -52,7 +52,7 @@ import org.openlmis.requisition.dto.ProcessingPeriodDto;
 import org.openlmis.requisition.dto.ProgramDto;
 import org.openlmis.requisition.dto.RightDto;
 import org.openlmis.requisition.dto.UserDto;
-import org.openlmis.requisition.service.notification.NotificationService;
+import org.openlmis.requisition.service.notification.NotificationBatch;
 import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
 import org.openlmis.requisition.service.referencedata.PeriodReferenceDataService;
 import org.openlmis.requisition.service.referencedata.ProgramReferenceDataService;
@@ -70,6 +70,7 @@ public class ApprovalNotifier extends BaseNotifier {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ApprovalNotifier.class);
   static final String NOTIFICATION_TAG = "requisition-actionRequired";
+  private static final String APPROVERS = "approvers";
 
   @Autowired
   private ProgramReferenceDataService programReferenceDataService;
@@ -77,9 +78,6 @@ public class ApprovalNotifier extends BaseNotifier {
   @Autowired
   private PeriodReferenceDataService periodReferenceDataService;
 
-  @Autowired
-  private NotificationService notificationService;
-
   @Autowired
   private SupervisingUsersReferenceDataService supervisingUsersReferenceDataService;
 
@@ -104,12 +102,26 @@ public class ApprovalNotifier extends BaseNotifier {
    * @param requisition requisition that was converted
    */
   public void notifyApprovers(Requisition requisition, Locale locale) {
-    Collection<UserDto> approvers = getApprovers(requisition);
+    NotificationBatch batch = new NotificationBatch();
+    notifyApprovers(requisition, locale, batch);
+    send(batch);
+  }
+
+  /**
+   * Adds notifications for approvers of the given requisition to the batch.
+   *
+   * @param requisition requisition that waits for approval
+   * @param batch       batch that shares reference data and collects the notifications
+   */
+  public void notifyApprovers(Requisition requisition, Locale locale, NotificationBatch batch) {
+    Collection<UserDto> approvers = getApprovers(requisition, batch);
     String reqType = getMessage(getEmergencyKey(requisition), locale);
-    ProcessingPeriodDto period =
-        periodReferenceDataService.findOne(requisition.getProcessingPeriodId());
-    ProgramDto program = programReferenceDataService.findOne(requisition.getProgramId());
-    FacilityDto facility = facilityReferenceDataService.findOne(requisition.getFacilityId());
+    ProcessingPeriodDto period = batch.lookup(PERIOD, requisition.getProcessingPeriodId(),
+        () -> periodReferenceDataService.findOne(requisition.getProcessingPeriodId()));
+    ProgramDto program = batch.lookup(PROGRAM, requisition.getProgramId(),
+        () -> programReferenceDataService.findOne(requisition.getProgramId()));
+    FacilityDto facility = batch.lookup(FACILITY, requisition.getFacilityId(),
+        () -> facilityReferenceDataService.findOne(requisition.getFacilityId()));
 
     List<StatusChange> statusChanges = requisition.getStatusChanges();
     if (statusChanges == null) {
@@ -141,7 +153,7 @@ public class ApprovalNotifier extends BaseNotifier {
 
     for (UserDto approver : approvers) {
       valuesMap.put("approver", approver.getUsername());
-      notificationService.notify(approver, subject,
+      batch.add(approver, subject,
           sub.replace(emailContent), sub.replace(smsContent), NOTIFICATION_TAG);
     }
   }
@@ -160,10 +172,14 @@ public class ApprovalNotifier extends BaseNotifier {
     return valuesMap;
   }
 
-  private Collection<UserDto> getApprovers(Requisition requisition) {
-    RightDto right = rightReferenceDataService.findRight(PermissionService.REQUISITION_APPROVE);
-    return supervisingUsersReferenceDataService
-        .findAll(requisition.getSupervisoryNodeId(), right.getId(), requisition.getProgramId());
+  private Collection<UserDto> getApprovers(Requisition requisition, NotificationBatch batch) {
+    RightDto right = batch.lookup(RIGHT, PermissionService.REQUISITION_APPROVE,
+        () -> rightReferenceDataService.findRight(PermissionService.REQUISITION_APPROVE));
+    List<Object> key = Arrays.asList(requisition.getSupervisoryNodeId(), right.getId(),
+        requisition.getProgramId());
+
+    return batch.lookup(APPROVERS, key, () -> supervisingUsersReferenceDataService
+        .findAll(requisition.getSupervisoryNodeId(), right.getId(), requisition.getProgramId()));
   }
 
   /**
@@ -27,13 +27,16 @@ import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.UUID;
 import org.apache.commons.lang.text.StrSubstitutor;
 import org.openlmis.requisition.domain.BaseTimestampedEntity;
 import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
+import org.openlmis.requisition.dto.FacilityDto;
+import org.openlmis.requisition.dto.ProcessingPeriodDto;
+import org.openlmis.requisition.dto.ProgramDto;
+import org.openlmis.requisition.dto.RightDto;
 import org.openlmis.requisition.dto.UserDto;
-import org.openlmis.requisition.service.notification.NotificationService;
+import org.openlmis.requisition.service.notification.NotificationBatch;
 import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
 import org.openlmis.requisition.service.referencedata.PeriodReferenceDataService;
 import org.openlmis.requisition.service.referencedata.ProgramReferenceDataService;
@@ -48,6 +51,7 @@ import org.springframework.stereotype.Component;
 public class ApprovedRequisitionNotifier extends BaseNotifier {
   
   static final String NOTIFICATION_TAG = "requisition-requisitionApproved";
+  private static final String CLERKS = "clerks";
 
   @Autowired
   private UserReferenceDataService userReferenceDataService;
@@ -55,9 +59,6 @@ public class ApprovedRequisitionNotifier extends BaseNotifier {
   @Autowired
   private FacilityReferenceDataService facilityReferenceDataService;
 
-  @Autowired
-  private NotificationService notificationService;
-
   @Autowired
   private AuthenticationHelper authenticationHelper;
 
@@ -80,6 +81,19 @@ public class ApprovedRequisitionNotifier extends BaseNotifier {
    * @param requisition  the requisition to notify the clerks for
    */
   public void notifyClerks(Requisition requisition, Locale locale) {
+    NotificationBatch batch = new NotificationBatch();
+    notifyClerks(requisition, locale, batch);
+    send(batch);
+  }
+
+  /**
+   * Adds notifications for all the clerks that can convert the given approved requisition to
+   * order to the batch.
+   *
+   * @param requisition the requisition to notify the clerks for
+   * @param batch       batch that shares reference data and collects the notifications
+   */
+  public void notifyClerks(Requisition requisition, Locale locale, NotificationBatch batch) {
     String subject = getMessage(REQUISITION_EMAIL_REQUISITION_APPROVED_SUBJECT, locale);
     String emailContent = getMessage(REQUISITION_EMAIL_REQUISITION_APPROVED_CONTENT, locale);
     String smsContent = getMessage(REQUISITION_SMS_REQUISITION_APPROVED_CONTENT, locale);
@@ -87,14 +101,14 @@ public class ApprovedRequisitionNotifier extends BaseNotifier {
     Map<String, String> messageParams = new HashMap<>();
     messageParams.put("requisitionType", getRequisitionType(requisition, locale));
     messageParams.put("finalApprovalDate", getFinalApprovalDate(requisition));
-    messageParams.put("facility", getFacilityName(requisition));
+    messageParams.put("facility", getFacilityName(requisition, batch));
     messageParams.put("url", getConvertToOrderUrl());
-    messageParams.put("program", getProgram(requisition));
-    messageParams.put("period", getPeriod(requisition));
+    messageParams.put("program", getProgram(requisition, batch));
+    messageParams.put("period", getPeriod(requisition, batch));
 
-    for (UserDto user : getClerks(requisition)) {
+    for (UserDto user : getClerks(requisition, batch)) {
       messageParams.put("user", user.getUsername());
-      notificationService.notify(user, subject,
+      batch.add(user, subject,
           new StrSubstitutor(messageParams).replace(emailContent),
           new StrSubstitutor(messageParams).replace(smsContent), NOTIFICATION_TAG);
     }
@@ -120,28 +134,36 @@ public class ApprovedRequisitionNotifier extends BaseNotifier {
     return approvedDate.format(getDateTimeFormatter());
   }
 
-  private String getFacilityName(Requisition requisition) {
-    return facilityReferenceDataService.findOne(requisition.getFacilityId()).getName();
+  private String getFacilityName(Requisition requisition, NotificationBatch batch) {
+    FacilityDto facility = batch.lookup(FACILITY, requisition.getFacilityId(),
+        () -> facilityReferenceDataService.findOne(requisition.getFacilityId()));
+    return facility.getName();
   }
 
-  private String getProgram(Requisition requisition) {
-    return programReferenceDataService.findOne(requisition.getProgramId()).getName();
+  private String getProgram(Requisition requisition, NotificationBatch batch) {
+    ProgramDto program = batch.lookup(PROGRAM, requisition.getProgramId(),
+        () -> programReferenceDataService.findOne(requisition.getProgramId()));
+    return program.getName();
   }
 
-  private String getPeriod(Requisition requisition) {
-    return periodReferenceDataService.findOne(requisition.getProcessingPeriodId()).getName();
+  private String getPeriod(Requisition requisition, NotificationBatch batch) {
+    ProcessingPeriodDto period = batch.lookup(PERIOD, requisition.getProcessingPeriodId(),
+        () -> periodReferenceDataService.findOne(requisition.getProcessingPeriodId()));
+    return period.getName();
   }
 
-  private Set<UserDto> getClerks(Requisition requisition) {
-    UUID rightId = authenticationHelper.getRight(PermissionService.ORDERS_EDIT).getId();
+  private Set<UserDto> getClerks(Requisition requisition, NotificationBatch batch) {
+    RightDto right = batch.lookup(RIGHT, PermissionService.ORDERS_EDIT,
+        () -> authenticationHelper.getRight(PermissionService.ORDERS_EDIT));
     Set<UserDto> users = new HashSet<>();
 
     requisitionForConvertBuilder.getAvailableSupplyingDepots(requisition.getId())
-        .forEach(warehouse -> users.addAll(userReferenceDataService.findUsers(
-            rightId,
-            null,
-            null,
-            warehouse.getId())));
+        .forEach(warehouse -> users.addAll(batch.lookup(CLERKS, warehouse.getId(),
+            () -> userReferenceDataService.findUsers(
+                right.getId(),
+                null,
+                null,
+                warehouse.getId()))));
 
     return new HashSet<>(users);
   }
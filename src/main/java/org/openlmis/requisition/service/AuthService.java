@@ -19,6 +19,7 @@ import static org.openlmis.requisition.utils.RequestHelper.createUri;
 
 import java.util.Map;
 import org.apache.commons.codec.binary.Base64;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -28,7 +29,6 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestOperations;
-import org.springframework.web.client.RestTemplate;
 
 @Service
 public class AuthService {
@@ -43,7 +43,7 @@ public class AuthService {
   @Value("${auth.server.authorizationUrl}")
   private String authorizationUrl;
 
-  private RestOperations restTemplate = new RestTemplate();
+  private RestOperations restTemplate;
 
   /**
    * Retrieves access token from the auth service.
@@ -78,6 +78,11 @@ public class AuthService {
     // Intentionally blank
   }
 
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("auth");
+  }
+
   void setRestTemplate(RestOperations restTemplate) {
     this.restTemplate = restTemplate;
   }
@@ -21,10 +21,12 @@ import static org.openlmis.requisition.utils.RequestHelper.createEntity;
 import static org.openlmis.requisition.utils.RequestHelper.createUri;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Type;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.openlmis.requisition.dto.ResultDto;
@@ -45,16 +47,19 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestOperations;
-import org.springframework.web.client.RestTemplate;
 
 @SuppressWarnings("PMD.TooManyMethods")
 public abstract class BaseCommunicationService<T> {
   protected final Logger logger = LoggerFactory.getLogger(getClass());
 
-  protected RestOperations restTemplate = new RestTemplate();
+  protected RestOperations restTemplate;
 
   protected AuthService authService;
 
+  protected ResponseCache responseCache;
+
+  protected RequestCoalescer requestCoalescer;
+
   @Value("${request.maxUrlLength}")
   private int maxUrlLength;
 
@@ -68,6 +73,20 @@ public abstract class BaseCommunicationService<T> {
 
   protected abstract String getServiceName();
 
+  /**
+   * Returns the name of the HTTP client used for calls to the service, which determines its
+   * timeouts (see {@link HttpClientFactory}).
+   */
+  protected abstract String getClientName();
+
+  /**
+   * Returns the name of the local cache used for GET requests of this service. Responses are
+   * not cached if this method returns null or if the cache is disabled for the name.
+   */
+  protected String getCacheName() {
+    return null;
+  }
+
   /**
    * Return one object from service.
    *
@@ -105,11 +124,16 @@ public abstract class BaseCommunicationService<T> {
         .setAll(parameters);
 
     try {
-      return runWithTokenRetry(() -> restTemplate.exchange(
-              createUri(url, params),
+      if (isResponseCacheEnabled(getCacheName())) {
+        return getCached(createUri(url, params), type);
+      }
+
+      URI uri = createUri(url, params);
+      return runWithTokenRetry(() -> coalesce(uri, null, type, () -> restTemplate.exchange(
+              uri,
               HttpMethod.GET,
               createEntity(authService.obtainAccessToken()),
-              type)).getBody();
+              type))).getBody();
     } catch (HttpStatusCodeException ex) {
       // rest template will handle 404 as an exception, instead of returning null
       if (HttpStatus.NOT_FOUND == ex.getStatusCode()) {
@@ -236,12 +260,15 @@ public abstract class BaseCommunicationService<T> {
         .init()
         .setAll(parameters);
 
-    ResponseEntity<ResultDto<P>> response = runWithTokenRetry(() -> restTemplate.exchange(
-        createUri(url, params),
-        HttpMethod.GET,
-        createEntity(authService.obtainAccessToken()),
-        new DynamicResultDtoTypeReference<>(type)
-    ));
+    URI uri = createUri(url, params);
+    DynamicResultDtoTypeReference<P> resultType = new DynamicResultDtoTypeReference<>(type);
+    ResponseEntity<ResultDto<P>> response = runWithTokenRetry(() -> coalesce(
+        uri, null, resultType.getType(), () -> restTemplate.exchange(
+            uri,
+            HttpMethod.GET,
+            createEntity(authService.obtainAccessToken()),
+            resultType
+        )));
 
     return response.getBody();
   }
@@ -252,9 +279,20 @@ public abstract class BaseCommunicationService<T> {
     HttpEntity<Object> entity = RequestHelper
         .createEntity(payload, authService.obtainAccessToken());
     List<E[]> arrays = new ArrayList<>();
+    boolean cached = HttpMethod.GET == method && null == payload
+        && isResponseCacheEnabled(getCacheName());
+
+    boolean coalesced = HttpMethod.GET == method && null == payload;
 
     for (URI uri : RequestHelper.splitRequest(url, parameters, maxUrlLength)) {
-      arrays.add(restTemplate.exchange(uri, method, entity, type).getBody());
+      if (cached) {
+        arrays.add(getCached(uri, type));
+      } else if (coalesced) {
+        arrays.add(coalesce(uri, null, type,
+            () -> restTemplate.exchange(uri, method, entity, type)).getBody());
+      } else {
+        arrays.add(restTemplate.exchange(uri, method, entity, type).getBody());
+      }
     }
 
     E[] body = Merger
@@ -276,8 +314,13 @@ public abstract class BaseCommunicationService<T> {
         new DynamicPageTypeReference<>(type);
     List<PageDto<E>> pages = new ArrayList<>();
 
+    boolean coalesced = HttpMethod.GET == method && null == payload;
+
     for (URI uri : RequestHelper.splitRequest(url, parameters, maxUrlLength)) {
-      pages.add(restTemplate.exchange(uri, method, entity, parameterizedType).getBody());
+      pages.add(coalesced
+          ? coalesce(uri, null, parameterizedType.getType(),
+              () -> restTemplate.exchange(uri, method, entity, parameterizedType)).getBody()
+          : restTemplate.exchange(uri, method, entity, parameterizedType).getBody());
     }
 
     PageDto<E> body = Merger
@@ -288,6 +331,39 @@ public abstract class BaseCommunicationService<T> {
     return new ResponseEntity<>(body, HttpStatus.OK);
   }
 
+  protected boolean isResponseCacheEnabled(String cacheName) {
+    return null != responseCache && responseCache.isEnabled(cacheName);
+  }
+
+  /**
+   * Executes GET request for the given URI through the local response cache. Stale entries are
+   * revalidated with a conditional request.
+   */
+  private <P> P getCached(URI uri, Class<P> type) {
+    return responseCache.get(getCacheName(), uri.toString(), type, etag -> {
+      ResponseEntity<byte[]> response = runWithTokenRetry(() -> coalesce(
+          uri, etag, byte[].class, () -> restTemplate.exchange(
+              uri, HttpMethod.GET,
+              RequestHelper.createEntity(
+                  addAuthHeader(RequestHeaders.init().setIfNoneMatch(etag))),
+              byte[].class)));
+
+      return new ServiceResponse<>(response.getBody(), response.getHeaders(),
+          HttpStatus.NOT_MODIFIED != response.getStatusCode());
+    });
+  }
+
+  /**
+   * Executes GET request through the request coalescer (if there is one), so concurrent
+   * identical requests share one call.
+   */
+  private <P> ResponseEntity<P> coalesce(URI uri, String etag, Type type,
+      Supplier<ResponseEntity<P>> request) {
+    return null == requestCoalescer
+        ? request.get()
+        : requestCoalescer.get(uri, etag, type, request);
+  }
+
   protected <P> ResponseEntity<P> runWithTokenRetry(HttpTask<P> task) {
     try {
       return task.run();
@@ -354,6 +430,21 @@ public abstract class BaseCommunicationService<T> {
     this.authService = authService;
   }
 
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate(getClientName());
+  }
+
+  @Autowired(required = false)
+  public void setResponseCache(ResponseCache responseCache) {
+    this.responseCache = responseCache;
+  }
+
+  @Autowired(required = false)
+  public void setRequestCoalescer(RequestCoalescer requestCoalescer) {
+    this.requestCoalescer = requestCoalescer;
+  }
+
   void setRestTemplate(RestOperations template) {
     this.restTemplate = template;
   }
@@ -25,15 +25,26 @@ import java.time.format.FormatStyle;
 import java.util.Locale;
 import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.i18n.MessageService;
+import org.openlmis.requisition.service.notification.NotificationBatch;
+import org.openlmis.requisition.service.notification.NotificationService;
 import org.openlmis.requisition.utils.Message;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.i18n.LocaleContextHolder;
 
 public class BaseNotifier {
+  // types of reference data looked up once per notification batch
+  protected static final String PERIOD = "period";
+  protected static final String PROGRAM = "program";
+  protected static final String FACILITY = "facility";
+  protected static final String USER = "user";
+  protected static final String RIGHT = "right";
 
   @Autowired
   protected MessageService messageService;
 
+  @Autowired
+  protected NotificationService notificationService;
+
   protected String getMessage(String key, Locale locale) {
     return messageService
         .localize(new Message(key), locale)
@@ -54,6 +65,16 @@ public class BaseNotifier {
     return DateTimeFormatter.ofPattern(datePattern);
   }
 
+  /**
+   * Sends messages of the given batch one by one.
+   */
+  protected void send(NotificationBatch batch) {
+    for (NotificationBatch.Message message : batch.getMessages()) {
+      notificationService.notify(message.getRecipient(), message.getSubject(),
+          message.getEmailContent(), message.getSmsContent(), message.getTag());
+    }
+  }
+
   protected String getEmergencyKey(Requisition requisition) {
     return requisition.getEmergency()
         ? REQUISITION_TYPE_EMERGENCY : REQUISITION_TYPE_REGULAR;
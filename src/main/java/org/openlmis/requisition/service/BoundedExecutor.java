@@ -0,0 +1,204 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.openlmis.requisition.security.SpringSecurityRunnableWrapper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Bounded pool of worker threads for outbound calls to other services. The number of threads
+ * does not depend on how many calls are submitted at once. When all threads are busy and the
+ * queue is full, the call is executed by the submitting thread, which slows down the producer
+ * instead of rejecting the call. The security context of the submitting thread is propagated to
+ * the workers.
+ *
+ * <p>Cancelling a returned future with {@code mayInterruptIfRunning} interrupts the worker that
+ * runs the task. That stops waiting for a pooled connection, but not a blocking socket read; a
+ * remote call that has already been sent ends at the read timeout of its HTTP client.
+ */
+public class BoundedExecutor {
+  private final ThreadPoolExecutor executor;
+
+  private final AtomicLong submitted = new AtomicLong();
+  private final AtomicLong completed = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong callerRuns = new AtomicLong();
+  private final AtomicLong totalWaitMillis = new AtomicLong();
+  private final AtomicLong totalRunMillis = new AtomicLong();
+  private final AtomicLong maxWaitMillis = new AtomicLong();
+  private final AtomicLong maxRunMillis = new AtomicLong();
+
+  /**
+   * Creates the worker pool.
+   *
+   * @param threadNamePrefix prefix of names of the worker threads
+   * @param poolSize         number of worker threads
+   * @param queueCapacity    number of tasks waiting for a worker before the caller runs them
+   */
+  public BoundedExecutor(String threadNamePrefix, int poolSize, int queueCapacity) {
+    executor = new ThreadPoolExecutor(poolSize, poolSize,
+        60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity),
+        new CustomizableThreadFactory(threadNamePrefix),
+        (task, pool) -> {
+          callerRuns.incrementAndGet();
+          new ThreadPoolExecutor.CallerRunsPolicy().rejectedExecution(task, pool);
+        });
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Runs the given task on one of the worker threads.
+   *
+   * @param task the call to another service.
+   * @return future that is completed with the result of the task.
+   */
+  public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+    submitted.incrementAndGet();
+
+    Task<T> future = new Task<>(task, System.currentTimeMillis());
+    executor.execute(new SpringSecurityRunnableWrapper(SecurityContextHolder.getContext(),
+        future));
+
+    return future;
+  }
+
+  /**
+   * Stops the worker pool. Tasks that have already been submitted are still executed.
+   */
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  /**
+   * Returns the current queue depth and the latency statistics of executed tasks.
+   */
+  public Statistics getStatistics() {
+    long finished = completed.get();
+
+    return new Statistics(executor.getQueue().size(), executor.getActiveCount(),
+        submitted.get(), finished, failed.get(), callerRuns.get(),
+        average(totalWaitMillis.get(), finished), maxWaitMillis.get(),
+        average(totalRunMillis.get(), finished), maxRunMillis.get());
+  }
+
+  private void record(AtomicLong total, AtomicLong max, long millis) {
+    total.addAndGet(millis);
+    max.accumulateAndGet(millis, Math::max);
+  }
+
+  private long average(long total, long count) {
+    return 0 == count ? 0 : total / count;
+  }
+
+  /**
+   * Future of a submitted task that interrupts the worker when it is cancelled.
+   */
+  private final class Task<T> extends CompletableFuture<T> implements Runnable {
+    private final Supplier<T> supplier;
+    private final long submittedAt;
+    private Thread runner;
+
+    Task(Supplier<T> supplier, long submittedAt) {
+      this.supplier = supplier;
+      this.submittedAt = submittedAt;
+    }
+
+    @Override
+    public void run() {
+      long startedAt = System.currentTimeMillis();
+      record(totalWaitMillis, maxWaitMillis, startedAt - submittedAt);
+
+      boolean started = start();
+      T result = null;
+      Throwable failure = null;
+
+      try {
+        if (started) {
+          result = supplier.get();
+        }
+      } catch (Throwable ex) {
+        // an error must complete the future too, otherwise callers wait until their timeout
+        failed.incrementAndGet();
+        failure = ex;
+      } finally {
+        finish();
+        record(totalRunMillis, maxRunMillis, System.currentTimeMillis() - startedAt);
+        completed.incrementAndGet();
+      }
+
+      // the statistics include the task once its caller sees the result
+      if (null != failure) {
+        completeExceptionally(failure);
+      } else if (started) {
+        complete(result);
+      }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+      synchronized (this) {
+        if (cancelled && mayInterruptIfRunning && null != runner) {
+          runner.interrupt();
+        }
+      }
+
+      return cancelled;
+    }
+
+    private synchronized boolean start() {
+      runner = Thread.currentThread();
+      return !isDone();
+    }
+
+    // the worker is not interrupted once it has left the task, and an interrupt of a cancelled
+    // task does not leak to the next one (or to the caller that ran it)
+    private synchronized void finish() {
+      runner = null;
+
+      if (isCancelled()) {
+        Thread.interrupted();
+      }
+    }
+  }
+
+  @Getter
+  @ToString
+  @AllArgsConstructor
+  public static final class Statistics {
+    private final int queueDepth;
+    private final int activeThreads;
+    private final long submitted;
+    private final long completed;
+    private final long failed;
+    private final long callerRuns;
+    private final long averageWaitMillis;
+    private final long maxWaitMillis;
+    private final long averageRunMillis;
+    private final long maxRunMillis;
+  }
+}
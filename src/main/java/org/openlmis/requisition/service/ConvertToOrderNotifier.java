@@ -22,13 +22,14 @@ import static org.openlmis.requisition.i18n.MessageKeys.REQUISITION_SMS_CONVERT_
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.UUID;
 import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
 import org.openlmis.requisition.domain.requisition.StatusChange;
 import org.openlmis.requisition.dto.ProcessingPeriodDto;
 import org.openlmis.requisition.dto.ProgramDto;
 import org.openlmis.requisition.dto.UserDto;
-import org.openlmis.requisition.service.notification.NotificationService;
+import org.openlmis.requisition.service.notification.NotificationBatch;
 import org.openlmis.requisition.service.referencedata.PeriodReferenceDataService;
 import org.openlmis.requisition.service.referencedata.ProgramReferenceDataService;
 import org.openlmis.requisition.service.referencedata.UserReferenceDataService;
@@ -49,9 +50,6 @@ public class ConvertToOrderNotifier extends BaseNotifier {
   @Autowired
   private PeriodReferenceDataService periodReferenceDataService;
 
-  @Autowired
-  private NotificationService notificationService;
-
   @Autowired
   private UserReferenceDataService userReferenceDataService;
 
@@ -61,9 +59,23 @@ public class ConvertToOrderNotifier extends BaseNotifier {
    *
    */
   public void notifyConvertToOrder(Requisition requisition, Locale locale) {
-    ProgramDto program = programReferenceDataService.findOne(requisition.getProgramId());
-    ProcessingPeriodDto period = periodReferenceDataService.findOne(
-        requisition.getProcessingPeriodId());
+    NotificationBatch batch = new NotificationBatch();
+    notifyConvertToOrder(requisition, locale, batch);
+    send(batch);
+  }
+
+  /**
+   * Adds a notification for the creator of the given converted requisition to the batch.
+   *
+   * @param requisition requisition that was converted
+   * @param batch       batch that shares reference data and collects the notifications
+   */
+  public void notifyConvertToOrder(Requisition requisition, Locale locale,
+      NotificationBatch batch) {
+    ProgramDto program = batch.lookup(PROGRAM, requisition.getProgramId(),
+        () -> programReferenceDataService.findOne(requisition.getProgramId()));
+    ProcessingPeriodDto period = batch.lookup(PERIOD, requisition.getProcessingPeriodId(),
+        () -> periodReferenceDataService.findOne(requisition.getProcessingPeriodId()));
 
     List<StatusChange> statusChanges = requisition.getStatusChanges();
     if (statusChanges == null) {
@@ -79,7 +91,9 @@ public class ConvertToOrderNotifier extends BaseNotifier {
       return;
     }
 
-    UserDto initiator = userReferenceDataService.findOne(initiateAuditEntry.get().getAuthorId());
+    UUID initiatorId = initiateAuditEntry.get().getAuthorId();
+    UserDto initiator = batch.lookup(USER, initiatorId,
+        () -> userReferenceDataService.findOne(initiatorId));
 
     String subject = getMessage(REQUISITION_EMAIL_CONVERT_TO_ORDER_SUBJECT, locale);
     String emailContent = getMessage(REQUISITION_EMAIL_CONVERT_TO_ORDER_CONTENT, locale,
@@ -87,6 +101,6 @@ public class ConvertToOrderNotifier extends BaseNotifier {
     String smsContent = getMessage(REQUISITION_SMS_CONVERT_TO_ORDER_CONTENT, locale,
         program.getName(), period.getName());
 
-    notificationService.notify(initiator, subject, emailContent, smsContent, NOTIFICATION_TAG);
+    batch.add(initiator, subject, emailContent, smsContent, NOTIFICATION_TAG);
   }
 }
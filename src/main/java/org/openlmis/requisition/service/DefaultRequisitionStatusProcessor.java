@@ -16,8 +16,11 @@
 package org.openlmis.requisition.service;
 
 import java.util.Locale;
+import java.util.Map;
 import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
+import org.openlmis.requisition.service.notification.NotificationBatch;
+import org.openlmis.requisition.service.notification.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -36,24 +39,45 @@ public class DefaultRequisitionStatusProcessor implements RequisitionStatusProce
   @Autowired
   private ApprovedRequisitionNotifier approvedRequisitionNotifier;
 
+  @Autowired
+  private NotificationService notificationService;
+
   /**
-   * Process requisition status change.
+   * Process requisition status change. If a notification could not be sent, the error is thrown
+   * after the other notifications have been sent.
    * @param requisition a requisition that has just changed its status
    */
   @Override
   public void statusChange(Requisition requisition, Locale locale) {
+    NotificationBatch batch = new NotificationBatch();
+    statusChange(requisition, locale, batch);
+
+    Map<NotificationBatch.Message, RuntimeException> failures = notificationService.notify(batch);
+
+    if (!failures.isEmpty()) {
+      throw failures.values().iterator().next();
+    }
+  }
+
+  /**
+   * Adds notifications about requisition status change to the given batch.
+   * @param requisition a requisition that has just changed its status
+   * @param batch       batch that shares reference data and collects the notifications
+   */
+  public void statusChange(Requisition requisition, Locale locale, NotificationBatch batch) {
     if (requisition.getStatus() == RequisitionStatus.RELEASED) {
-      convertToOrderNotifier.notifyConvertToOrder(requisition, locale);
-    } else if (!requisition.isPreAuthorize()) {
-      requisitionStatusNotifier.notifyStatusChanged(requisition, locale);
+      convertToOrderNotifier.notifyConvertToOrder(requisition, locale, batch);
+    } else if (!requisition.isPreAuthorize()
+        || requisition.getStatus() == RequisitionStatus.REJECTED) {
+      requisitionStatusNotifier.notifyStatusChanged(requisition, locale, batch);
     }
 
     if (requisition.isApprovable()) {
-      approvalNotifier.notifyApprovers(requisition, locale);
+      approvalNotifier.notifyApprovers(requisition, locale, batch);
     }
 
     if (requisition.getStatus() == RequisitionStatus.APPROVED) {
-      approvedRequisitionNotifier.notifyClerks(requisition, locale);
+      approvedRequisitionNotifier.notifyClerks(requisition, locale, batch);
     }
   }
 
@@ -0,0 +1,196 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Creates {@link RestTemplate}s for calls to other services. All of them share one pool of
+ * persistent connections, so a connection to the gateway is reused by following requests. Every
+ * client (usually one per downstream service) has its own timeouts read from the
+ * {@code http.client.<name>.connectTimeoutMillis} and {@code http.client.<name>.readTimeoutMillis}
+ * properties, with the {@code http.client.*} values as defaults. Responses are requested and
+ * decompressed with gzip; request bodies are compressed only for clients with the
+ * {@code http.client.<name>.compressRequests} property, because the receiving service has to
+ * support it.
+ */
+@Component
+public class HttpClientFactory {
+  private static final Logger LOGGER = LoggerFactory.getLogger(HttpClientFactory.class);
+  private static final String PREFIX = "http.client.";
+  private static final int MIN_COMPRESSED_REQUEST_SIZE = 1024;
+
+  @Autowired
+  private Environment environment;
+
+  @Value("${http.client.maxConnections}")
+  private int maxConnections;
+
+  @Value("${http.client.maxConnectionsPerRoute}")
+  private int maxConnectionsPerRoute;
+
+  @Value("${http.client.keepAliveSeconds}")
+  private long keepAliveSeconds;
+
+  @Value("${http.client.connectionRequestTimeoutMillis}")
+  private int connectionRequestTimeoutMillis;
+
+  @Value("${http.client.connectTimeoutMillis}")
+  private int connectTimeoutMillis;
+
+  @Value("${http.client.readTimeoutMillis}")
+  private int readTimeoutMillis;
+
+  @Value("${http.client.compressRequests}")
+  private boolean compressRequests;
+
+  private PoolingHttpClientConnectionManager connectionManager;
+  private CloseableHttpClient httpClient;
+
+  /**
+   * Creates the connection pool and the HTTP client that uses it.
+   */
+  @PostConstruct
+  public void init() {
+    connectionManager = new PoolingHttpClientConnectionManager(
+        keepAliveSeconds, TimeUnit.SECONDS);
+    connectionManager.setMaxTotal(maxConnections);
+    connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+
+    // connections are kept alive for at most keepAliveSeconds, even if the server allows more
+    httpClient = HttpClientBuilder
+        .create()
+        .setConnectionManager(connectionManager)
+        .setKeepAliveStrategy((response, context) -> TimeUnit.SECONDS.toMillis(keepAliveSeconds))
+        .evictExpiredConnections()
+        .evictIdleConnections(keepAliveSeconds, TimeUnit.SECONDS)
+        .useSystemProperties()
+        .build();
+  }
+
+  /**
+   * Closes pooled connections when the application is shut down.
+   */
+  @PreDestroy
+  public void shutdown() throws IOException {
+    httpClient.close();
+  }
+
+  /**
+   * Creates a template for calls of the given client, for example {@code referencedata}.
+   */
+  public RestTemplate createRestTemplate(String clientName) {
+    HttpComponentsClientHttpRequestFactory requestFactory =
+        new HttpComponentsClientHttpRequestFactory(httpClient);
+    requestFactory.setConnectionRequestTimeout(connectionRequestTimeoutMillis);
+    requestFactory.setConnectTimeout(
+        getProperty(clientName, "connectTimeoutMillis", Integer.class, connectTimeoutMillis));
+    requestFactory.setReadTimeout(
+        getProperty(clientName, "readTimeoutMillis", Integer.class, readTimeoutMillis));
+
+    RestTemplate restTemplate = new RestTemplate(requestFactory);
+
+    if (getProperty(clientName, "compressRequests", Boolean.class, compressRequests)) {
+      restTemplate.getInterceptors().add(new GzipRequestInterceptor());
+    }
+
+    return restTemplate;
+  }
+
+  /**
+   * Returns the current usage of the connection pool.
+   */
+  public Statistics getStatistics() {
+    PoolStats stats = connectionManager.getTotalStats();
+    return new Statistics(stats.getLeased(), stats.getAvailable(), stats.getPending(),
+        stats.getMax(), connectionManager.getRoutes().size());
+  }
+
+  /**
+   * Logs usage of the connection pool.
+   */
+  @Scheduled(fixedRateString = "${http.client.statisticsLogIntervalMillis}")
+  public void logStatistics() {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("HTTP client connection pool: {}", getStatistics());
+    }
+  }
+
+  private <P> P getProperty(String clientName, String name, Class<P> type, P defaultValue) {
+    return environment.getProperty(PREFIX + clientName + "." + name, type, defaultValue);
+  }
+
+  static final class GzipRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+        ClientHttpRequestExecution execution) throws IOException {
+      HttpHeaders headers = request.getHeaders();
+
+      if (body.length < MIN_COMPRESSED_REQUEST_SIZE
+          || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+        return execution.execute(request, body);
+      }
+
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+      try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+        gzip.write(body);
+      }
+
+      byte[] compressedBody = compressed.toByteArray();
+      headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+      headers.setContentLength(compressedBody.length);
+      return execution.execute(request, compressedBody);
+    }
+  }
+
+  @Getter
+  @ToString
+  @AllArgsConstructor
+  public static final class Statistics {
+    private final int leased;
+    private final int available;
+    private final int pending;
+    private final int max;
+    private final int routes;
+  }
+}
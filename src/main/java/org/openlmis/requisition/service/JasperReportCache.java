@@ -0,0 +1,154 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+import javax.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import net.sf.jasperreports.engine.JasperReport;
+import org.openlmis.requisition.domain.JasperTemplate;
+import org.openlmis.requisition.domain.RequisitionTemplate;
+import org.openlmis.requisition.exception.JasperReportViewException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-memory cache of compiled Jasper reports. Compiling a JRXML file or deserializing
+ * a stored template is expensive, while a compiled {@link JasperReport} can be filled by many
+ * threads at once, so it is kept and reused until the source it was created from changes.
+ */
+@Component
+public class JasperReportCache {
+
+  private Cache<UUID, Entry> templateReports;
+  private Cache<String, JasperReport> resourceReports;
+  private Cache<String, JasperReport> lineSubreports;
+
+  @Value("${jasperReportCache.maxSize}")
+  private long maxSize;
+
+  /**
+   * Creates cache regions with the configured maximum size.
+   */
+  @PostConstruct
+  public void init() {
+    templateReports = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    resourceReports = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    lineSubreports = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+  }
+
+  /**
+   * Returns the compiled report of the given Jasper template. The report is loaded again when
+   * there is no entry for the template id or the stored template data has changed.
+   *
+   * @param template Jasper template stored in the database.
+   * @param loader   loads the compiled report from the template data.
+   */
+  public JasperReport getTemplateReport(JasperTemplate template, Loader loader)
+      throws JasperReportViewException {
+    if (null == template.getId()) {
+      return loader.load();
+    }
+
+    String stamp = getStamp(template);
+    Entry entry = templateReports.getIfPresent(template.getId());
+
+    if (null != entry && entry.stamp.equals(stamp)) {
+      return entry.report;
+    }
+
+    JasperReport report = loader.load();
+    templateReports.put(template.getId(), new Entry(stamp, report));
+
+    return report;
+  }
+
+  /**
+   * Returns the compiled report of a JRXML file that is a part of the service resources. Those
+   * files do not change while the service is running.
+   *
+   * @param url    location of the JRXML file.
+   * @param loader compiles the JRXML file.
+   */
+  public JasperReport getResourceReport(String url, Loader loader)
+      throws JasperReportViewException {
+    return get(resourceReports, url, loader);
+  }
+
+  /**
+   * Returns the compiled requisition line subreport customized for the given requisition
+   * template and the columns that are printed for a requisition status.
+   *
+   * @param template requisition template the subreport is customized for.
+   * @param columns  names of printed columns, in the print order.
+   * @param loader   customizes and compiles the subreport.
+   */
+  public JasperReport getLineSubreport(RequisitionTemplate template, Collection<String> columns,
+      Loader loader) throws JasperReportViewException {
+    if (null == template.getId()) {
+      return loader.load();
+    }
+
+    ZonedDateTime modifiedDate = template.getModifiedDate();
+    String key = template.getId() + "|"
+        + (null == modifiedDate ? null : modifiedDate.toInstant()) + "|"
+        + String.join(",", columns);
+
+    return get(lineSubreports, key, loader);
+  }
+
+  /**
+   * Removes the compiled report of the given Jasper template.
+   */
+  public void evictTemplateReport(UUID templateId) {
+    if (null != templateId) {
+      templateReports.invalidate(templateId);
+    }
+  }
+
+  private JasperReport get(Cache<String, JasperReport> cache, String key, Loader loader)
+      throws JasperReportViewException {
+    JasperReport report = cache.getIfPresent(key);
+
+    if (null == report) {
+      report = loader.load();
+      cache.put(key, report);
+    }
+
+    return report;
+  }
+
+  private String getStamp(JasperTemplate template) {
+    byte[] data = template.getData();
+    return null == data ? "" : data.length + ":" + Arrays.hashCode(data);
+  }
+
+  @FunctionalInterface
+  public interface Loader {
+    JasperReport load() throws JasperReportViewException;
+  }
+
+  @AllArgsConstructor
+  private static final class Entry {
+    private final String stamp;
+    private final JasperReport report;
+  }
+}
@@ -25,7 +25,9 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.io.OutputStream;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
@@ -43,6 +45,7 @@ import javax.sql.DataSource;
 import net.sf.jasperreports.engine.JRBand;
 import net.sf.jasperreports.engine.JRDataSource;
 import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRParameter;
 import net.sf.jasperreports.engine.JasperCompileManager;
 import net.sf.jasperreports.engine.JasperExportManager;
 import net.sf.jasperreports.engine.JasperFillManager;
@@ -50,6 +53,9 @@ import net.sf.jasperreports.engine.JasperPrint;
 import net.sf.jasperreports.engine.JasperReport;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
 import net.sf.jasperreports.engine.design.JasperDesign;
+import net.sf.jasperreports.engine.fill.JRAbstractLRUVirtualizer;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
 import net.sf.jasperreports.engine.xml.JRXmlLoader;
 import org.openlmis.requisition.domain.JasperTemplate;
 import org.openlmis.requisition.domain.RequisitionTemplate;
@@ -66,26 +72,26 @@ import org.openlmis.requisition.dto.RequisitionReportDto;
 import org.openlmis.requisition.dto.TimelinessReportFacilityDto;
 import org.openlmis.requisition.exception.JasperReportViewException;
 import org.openlmis.requisition.exception.ValidationMessageException;
-import org.openlmis.requisition.repository.custom.DefaultRequisitionSearchParams;
-import org.openlmis.requisition.repository.custom.RequisitionSearchParams;
+import org.openlmis.requisition.repository.RequisitionRepository;
 import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
 import org.openlmis.requisition.service.referencedata.GeographicZoneReferenceDataService;
 import org.openlmis.requisition.service.referencedata.PeriodReferenceDataService;
 import org.openlmis.requisition.service.referencedata.ProgramReferenceDataService;
 import org.openlmis.requisition.utils.Message;
-import org.openlmis.requisition.utils.Pagination;
 import org.openlmis.requisition.utils.ReportUtils;
 import org.openlmis.requisition.web.ReportingRateReportDtoBuilder;
 import org.openlmis.requisition.web.RequisitionReportDtoBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 @Service
 @SuppressWarnings({"PMD.TooManyMethods"})
 public class JasperReportsViewService {
   private static final String DATASOURCE = "datasource";
+  private static final String FORMAT = "format";
+  private static final int VIRTUALIZER_BLOCK_SIZE = 4096;
+  private static final int VIRTUALIZER_MIN_GROW_COUNT = 100;
   private static final String REQUISITION_REPORT_DIR = "/jasperTemplates/requisition.jrxml";
   private static final String REQUISITION_LINE_REPORT_DIR =
       "/jasperTemplates/requisitionLines.jrxml";
@@ -109,11 +115,14 @@ public class JasperReportsViewService {
   private GeographicZoneReferenceDataService geographicZoneReferenceDataService;
 
   @Autowired
-  private RequisitionService requisitionService;
+  private RequisitionRepository requisitionRepository;
 
   @Autowired
   private ReportingRateReportDtoBuilder reportingRateReportDtoBuilder;
 
+  @Autowired
+  private JasperReportCache jasperReportCache;
+
   @Value("${dateFormat}")
   private String dateFormat;
 
@@ -129,6 +138,15 @@ public class JasperReportsViewService {
   @Value("${currencyLocale}")
   private String currencyLocale;
 
+  @Value("${reports.virtualizer.enabled}")
+  private boolean virtualizerEnabled;
+
+  @Value("${reports.virtualizer.maxPages}")
+  private int virtualizerMaxPages;
+
+  @Value("${reports.virtualizer.directory}")
+  private String virtualizerDirectory;
+
   /**
    * Generate Jasper Report.
    *
@@ -142,6 +160,19 @@ public class JasperReportsViewService {
     return fillAndExportReport(getReportFromTemplateData(jasperTemplate), params);
   }
 
+  /**
+   * Generate Jasper Report and write it directly to the given stream.
+   *
+   * @param jasperTemplate template that will be used to generate the report
+   * @param params report parameters
+   * @param outputStream stream the report is written to
+   * @throws JasperReportViewException if there will be any problem with generating the report.
+   */
+  public void generateReport(JasperTemplate jasperTemplate, Map<String, Object> params,
+      OutputStream outputStream) throws JasperReportViewException {
+    fillAndExportReport(getReportFromTemplateData(jasperTemplate), params, outputStream);
+  }
+
   /**
    * Generate Jasper Reporting Rate Report.
    *
@@ -153,6 +184,26 @@ public class JasperReportsViewService {
   public byte[] generateReportingRateReport(JasperTemplate jasperTemplate,
       Map<String, Object> params)
       throws JasperReportViewException {
+    return fillAndExportReport(prepareReportingRateReport(jasperTemplate, params), params);
+  }
+
+  /**
+   * Generate Jasper Reporting Rate Report and write it directly to the given stream.
+   *
+   * @param jasperTemplate template that will be used to generate the report
+   * @param params report parameters
+   * @param outputStream stream the report is written to
+   * @throws JasperReportViewException if there will be any problem with generating the report.
+   */
+  public void generateReportingRateReport(JasperTemplate jasperTemplate,
+      Map<String, Object> params, OutputStream outputStream)
+      throws JasperReportViewException {
+    fillAndExportReport(prepareReportingRateReport(jasperTemplate, params), params,
+        outputStream);
+  }
+
+  private JasperReport prepareReportingRateReport(JasperTemplate jasperTemplate,
+      Map<String, Object> params) throws JasperReportViewException {
 
     UUID programId = (UUID) processParameter(params, "Program", true, UUID.class);
     ProgramDto program = programReferenceDataService.findOne(programId);
@@ -178,7 +229,7 @@ public class JasperReportsViewService {
     params.put("dateFormat", dateFormat);
     params.put("decimalFormat", createDecimalFormat());
 
-    return fillAndExportReport(getReportFromTemplateData(jasperTemplate), params);
+    return getReportFromTemplateData(jasperTemplate);
   }
 
   /**
@@ -194,8 +245,7 @@ public class JasperReportsViewService {
     RequisitionTemplate template = requisition.getTemplate();
 
     Map<String, Object> params = ReportUtils.createParametersMap();
-    params.put("subreport", createCustomizedRequisitionLineSubreport(template,
-        requisition.getStatus()));
+    params.put("subreport", getRequisitionLineSubreport(template, requisition.getStatus()));
     params.put(DATASOURCE, Collections.singletonList(reportDto));
     params.put("template", template);
     params.put("dateFormat", dateFormat);
@@ -203,7 +253,10 @@ public class JasperReportsViewService {
     params.put("currencyDecimalFormat",
         NumberFormat.getCurrencyInstance(getLocaleFromService()));
 
-    return fillAndExportReport(compileReportFromTemplateUrl(REQUISITION_REPORT_DIR), params);
+    JasperReport report = jasperReportCache.getResourceReport(REQUISITION_REPORT_DIR,
+        () -> compileReportFromTemplateUrl(REQUISITION_REPORT_DIR));
+
+    return fillAndExportReport(report, params);
   }
 
   /**
@@ -217,6 +270,26 @@ public class JasperReportsViewService {
   public byte[] generateTimelinessReport(JasperTemplate jasperTemplate,
       Map<String, Object> parameters)
       throws JasperReportViewException {
+    return fillAndExportReport(prepareTimelinessReport(jasperTemplate, parameters), parameters);
+  }
+
+  /**
+   * Generate Jasper Timeliness Report and write it directly to the given stream.
+   *
+   * @param jasperTemplate template that will be used to generate the report
+   * @param parameters report parameters
+   * @param outputStream stream the report is written to
+   * @throws JasperReportViewException if there will be any problem with generating the report.
+   */
+  public void generateTimelinessReport(JasperTemplate jasperTemplate,
+      Map<String, Object> parameters, OutputStream outputStream)
+      throws JasperReportViewException {
+    fillAndExportReport(prepareTimelinessReport(jasperTemplate, parameters), parameters,
+        outputStream);
+  }
+
+  private JasperReport prepareTimelinessReport(JasperTemplate jasperTemplate,
+      Map<String, Object> parameters) throws JasperReportViewException {
     ProgramDto program = programReferenceDataService.findOne(
         UUID.fromString(parameters.get("program").toString())
     );
@@ -236,24 +309,29 @@ public class JasperReportsViewService {
     parameters.put("period", period);
     parameters.put("district", district);
 
-    return fillAndExportReport(getReportFromTemplateData(jasperTemplate), parameters);
+    return getReportFromTemplateData(jasperTemplate);
   }
 
-  private JasperDesign createCustomizedRequisitionLineSubreport(RequisitionTemplate template,
-                                                                RequisitionStatus requisitionStatus)
-      throws JasperReportViewException {
+  private JasperReport getRequisitionLineSubreport(RequisitionTemplate template,
+      RequisitionStatus requisitionStatus) throws JasperReportViewException {
+    Map<String, RequisitionTemplateColumn> columns =
+        ReportUtils.getSortedTemplateColumnsForPrint(template.viewColumns(), requisitionStatus);
+
+    return jasperReportCache.getLineSubreport(template, columns.keySet(),
+        () -> compileCustomizedRequisitionLineSubreport(columns));
+  }
+
+  private JasperReport compileCustomizedRequisitionLineSubreport(
+      Map<String, RequisitionTemplateColumn> columns) throws JasperReportViewException {
     try (InputStream inputStream = getClass().getResourceAsStream(REQUISITION_LINE_REPORT_DIR)) {
       JasperDesign design = JRXmlLoader.load(inputStream);
       JRBand detail = design.getDetailSection().getBands()[0];
       JRBand header = design.getColumnHeader();
 
-      Map<String, RequisitionTemplateColumn> columns =
-          ReportUtils.getSortedTemplateColumnsForPrint(template.viewColumns(), requisitionStatus);
-
       ReportUtils.customizeBandWithTemplateFields(detail, columns, design.getPageWidth(), 9);
       ReportUtils.customizeBandWithTemplateFields(header, columns, design.getPageWidth(), 9);
 
-      return design;
+      return JasperCompileManager.compileReport(design);
     } catch (IOException err) {
       throw new JasperReportViewException(err, ERROR_IO, err.getMessage());
     } catch (JRException err) {
@@ -270,16 +348,9 @@ public class JasperReportsViewService {
     byte[] bytes;
 
     try {
-      JasperPrint jasperPrint;
-      if (params.containsKey(DATASOURCE)) {
-        jasperPrint = fillJasperReport(compiledReport, params,
-            new JRBeanCollectionDataSource((List) params.get(DATASOURCE)));
-      } else {
-        jasperPrint = fillJasperReport(compiledReport, params,
-            replicationDataSource.getConnection());
-      }
+      JasperPrint jasperPrint = fillReport(compiledReport, params);
 
-      String format = (String) params.get("format");
+      String format = (String) params.get(FORMAT);
       if ("csv".equals(format)) {
         bytes = exportJasperReportToCsv(jasperPrint);
       } else if ("xls".equals(format)) {
@@ -296,6 +367,71 @@ public class JasperReportsViewService {
     return bytes;
   }
 
+  /**
+   * Fill in a compiled report and export it directly to the given stream. When the virtualizer
+   * is enabled, filled pages above the configured limit are swapped to a temporary file, so the
+   * memory used does not depend on the size of the report.
+   */
+  void fillAndExportReport(JasperReport compiledReport, Map<String, Object> params,
+      OutputStream outputStream) throws JasperReportViewException {
+    JRAbstractLRUVirtualizer virtualizer = createVirtualizer();
+
+    try {
+      if (null != virtualizer) {
+        params.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+      }
+
+      JasperPrint jasperPrint = fillReport(compiledReport, params);
+
+      if (null != virtualizer) {
+        // no more pages will be added, the remaining ones are only read by the exporter
+        virtualizer.setReadOnly(true);
+      }
+
+      String format = (String) params.get(FORMAT);
+      if ("csv".equals(format)) {
+        exportJasperReportToCsv(jasperPrint, outputStream);
+      } else if ("xls".equals(format)) {
+        exportJasperReportToXls(jasperPrint, outputStream);
+      } else if ("html".equals(format)) {
+        exportJasperReportToHtml(jasperPrint, outputStream);
+      } else {
+        exportJasperReportToPdf(jasperPrint, outputStream);
+      }
+
+      outputStream.flush();
+    } catch (Exception e) {
+      throw new JasperReportViewException(e, ERROR_JASPER_FILE_FORMAT, e.getMessage());
+    } finally {
+      if (null != virtualizer) {
+        virtualizer.cleanup();
+        params.remove(JRParameter.REPORT_VIRTUALIZER);
+      }
+    }
+  }
+
+  private JasperPrint fillReport(JasperReport compiledReport, Map<String, Object> params)
+      throws JRException, SQLException {
+    if (params.containsKey(DATASOURCE)) {
+      return fillJasperReport(compiledReport, params,
+          new JRBeanCollectionDataSource((List) params.get(DATASOURCE)));
+    }
+
+    try (Connection connection = replicationDataSource.getConnection()) {
+      return fillJasperReport(compiledReport, params, connection);
+    }
+  }
+
+  JRAbstractLRUVirtualizer createVirtualizer() {
+    if (!virtualizerEnabled) {
+      return null;
+    }
+
+    JRSwapFile swapFile = new JRSwapFile(virtualizerDirectory, VIRTUALIZER_BLOCK_SIZE,
+        VIRTUALIZER_MIN_GROW_COUNT);
+    return new JRSwapFileVirtualizer(virtualizerMaxPages, swapFile, true);
+  }
+
   /**
    * Return a compiled report from a Jasper template URL string.
    */
@@ -316,6 +452,12 @@ public class JasperReportsViewService {
    */
   private JasperReport getReportFromTemplateData(JasperTemplate jasperTemplate)
       throws JasperReportViewException {
+    return jasperReportCache.getTemplateReport(jasperTemplate,
+        () -> readReportFromTemplateData(jasperTemplate));
+  }
+
+  private JasperReport readReportFromTemplateData(JasperTemplate jasperTemplate)
+      throws JasperReportViewException {
 
     try (ObjectInputStream inputStream = createObjectInputStream(jasperTemplate)) {
 
@@ -340,26 +482,22 @@ public class JasperReportsViewService {
       facilities.addAll(facilityReferenceDataService.findAll());
     }
 
+    Set<UUID> activeFacilityIds = facilities
+        .stream()
+        .filter(MinimalFacilityDto::getActive)
+        .map(MinimalFacilityDto::getId)
+        .collect(Collectors.toSet());
+
+    Set<UUID> facilityIdsWithRnR = requisitionRepository.findFacilityIdsWithRequisitions(
+        activeFacilityIds, program.getId(), processingPeriod.getId(), validStatuses);
+
     List<TimelinessReportFacilityDto> facilitiesMissingRnR = new ArrayList<>();
     // find active facilities that are missing R&R
     for (MinimalFacilityDto facility : facilities) {
-      if (facility.getActive()) {
-        RequisitionSearchParams params = new DefaultRequisitionSearchParams(
-            facility.getId(), program.getId(), processingPeriod.getId(),
-            null, null, null, null, null, null, validStatuses);
-
-        PageRequest pageRequest = PageRequest.of(Pagination.DEFAULT_PAGE_NUMBER,
-            Pagination.NO_PAGINATION);
-
-        List<Requisition> requisitions = requisitionService
-            .searchRequisitions(params, pageRequest)
-            .getContent();
-
-        if (requisitions.isEmpty()) {
-          TimelinessReportFacilityDto timelinessFacility = new TimelinessReportFacilityDto();
-          facility.export(timelinessFacility);
-          facilitiesMissingRnR.add(timelinessFacility);
-        }
+      if (facility.getActive() && !facilityIdsWithRnR.contains(facility.getId())) {
+        TimelinessReportFacilityDto timelinessFacility = new TimelinessReportFacilityDto();
+        facility.export(timelinessFacility);
+        facilitiesMissingRnR.add(timelinessFacility);
       }
     }
 
@@ -431,18 +569,38 @@ public class JasperReportsViewService {
     return new JasperCsvExporter(jasperPrint).exportReport();
   }
 
+  void exportJasperReportToCsv(JasperPrint jasperPrint, OutputStream outputStream)
+      throws JRException {
+    new JasperCsvExporter(jasperPrint).exportReport(outputStream);
+  }
+
   byte[] exportJasperReportToXls(JasperPrint jasperPrint) throws JRException {
     return new JasperXlsExporter(jasperPrint).exportReport();
   }
 
+  void exportJasperReportToXls(JasperPrint jasperPrint, OutputStream outputStream)
+      throws JRException {
+    new JasperXlsExporter(jasperPrint).exportReport(outputStream);
+  }
+
   byte[] exportJasperReportToHtml(JasperPrint jasperPrint) throws JRException {
     return new JasperHtmlExporter(jasperPrint).exportReport();
   }
 
+  void exportJasperReportToHtml(JasperPrint jasperPrint, OutputStream outputStream)
+      throws JRException {
+    new JasperHtmlExporter(jasperPrint).exportReport(outputStream);
+  }
+
   byte[] exportJasperReportToPdf(JasperPrint jasperPrint) throws JRException {
     return JasperExportManager.exportReportToPdf(jasperPrint);
   }
 
+  void exportJasperReportToPdf(JasperPrint jasperPrint, OutputStream outputStream)
+      throws JRException {
+    JasperExportManager.exportReportToPdfStream(jasperPrint, outputStream);
+  }
+
   protected Locale getLocaleFromService() {
     return new Locale(defaultLocale, currencyLocale);
   }
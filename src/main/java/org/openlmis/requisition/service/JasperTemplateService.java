@@ -64,6 +64,9 @@ public class JasperTemplateService {
   @Autowired
   private JasperTemplateRepository jasperTemplateRepository;
 
+  @Autowired
+  private JasperReportCache jasperReportCache;
+
   public JasperTemplate getByName(String name) {
     return jasperTemplateRepository.findByName(name);
   }
@@ -97,6 +100,7 @@ public class JasperTemplateService {
    */
   public void saveWithParameters(JasperTemplate jasperTemplate) {
     jasperTemplateRepository.save(jasperTemplate);
+    jasperReportCache.evictTemplateReport(jasperTemplate.getId());
   }
 
   /**
@@ -24,7 +24,12 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import org.openlmis.requisition.domain.requisition.Requisition;
@@ -127,55 +132,61 @@ public class PeriodService {
     List<RequisitionPeriod> requisitionIdStatusList = requisitionRepository
         .searchRequisitionIdAndStatusPairs(facility, program, emergency);
 
-    profiler.start("BUILD_REQUISITION_PERIOD_DTOS");
-    List<RequisitionPeriodDto> periodDtos = periods.stream()
-        .map(RequisitionPeriodDto::newInstance)
-        .collect(Collectors.toList());
-
     List<RequisitionPeriodDto> requisitionPeriods = new ArrayList<>();
     if (emergency) {
       profiler.start("GET_PERIODS_FOR_EMERGENCY_REQUISITIONS");
-      periods.forEach(period -> requisitionPeriods.add(RequisitionPeriodDto.newInstance(period)));
-      List<RequisitionPeriod> preAuthorizeRequisitionsPeriods = requisitionIdStatusList.stream()
-          .filter(requisitionPeriod ->  requisitionPeriod.getRequisitionStatus().isPreAuthorize())
-          .collect(Collectors.toList());
-
-      preAuthorizeRequisitionsPeriods.forEach(preauthorizeRequisitionPeriod -> periods
-          .forEach(period -> {
-            RequisitionPeriodDto additionalPeriod = RequisitionPeriodDto.newInstance(period);
-            additionalPeriod.setRequisitionStatus(
-                preauthorizeRequisitionPeriod.getRequisitionStatus());
-            additionalPeriod.setRequisitionId(
-                preauthorizeRequisitionPeriod.getRequisitionId());
-            requisitionPeriods.add(additionalPeriod);
-          })
-      );
+      Map<UUID, ProcessingPeriodDto> periodsById = new LinkedHashMap<>();
+      periods.forEach(period -> {
+        requisitionPeriods.add(RequisitionPeriodDto.newInstance(period));
+        periodsById.putIfAbsent(period.getId(), period);
+      });
+      ProcessingPeriodDto currentPeriod = periodsById.values().stream().findFirst().orElse(null);
+
+      // every pre-authorize emergency requisition is listed once more so that it can be
+      // continued, while the plain period still allows to initiate a new one. A requisition of
+      // a period that is no longer current is listed with the current period.
+      requisitionIdStatusList
+          .stream()
+          .filter(requisitionPeriod -> requisitionPeriod.getRequisitionStatus().isPreAuthorize())
+          .forEach(requisitionPeriod -> {
+            ProcessingPeriodDto period = periodsById
+                .getOrDefault(requisitionPeriod.getPeriodId(), currentPeriod);
+
+            if (null != period) {
+              RequisitionPeriodDto additionalPeriod = RequisitionPeriodDto.newInstance(period);
+              setRequisitionPeriodStatusAndId(additionalPeriod, requisitionPeriod);
+              requisitionPeriods.add(additionalPeriod);
+            }
+          });
     } else {
-      requisitionPeriods.addAll(periodDtos);
+      profiler.start("GROUP_REQUISITION_PERIODS_BY_PERIOD");
+      Set<UUID> postAuthorizePeriodIds = new HashSet<>();
+      Map<UUID, RequisitionPeriod> requisitionPeriodsByPeriodId = new HashMap<>();
 
-      profiler.start("GET_POSTAUTHORIZE_PERIODS_FOR_REGULAR_REQUISITIONS");
-      List<RequisitionPeriod> postAuthorizeRequisitionsPeriods = requisitionIdStatusList.stream()
-          .filter(requisitionPeriod ->  !requisitionPeriod.getRequisitionStatus().isPreAuthorize())
-          .collect(Collectors.toList());
+      for (RequisitionPeriod requisitionPeriod : requisitionIdStatusList) {
+        if (!requisitionPeriod.getRequisitionStatus().isPreAuthorize()) {
+          postAuthorizePeriodIds.add(requisitionPeriod.getPeriodId());
+        }
 
-      profiler.start("REMOVE_POSTAUTHORIZE_PERIODS_FROM_REQUISITION_PERIODS");
-      postAuthorizeRequisitionsPeriods.forEach(postAuthorizeRequisitionPeriod -> requisitionPeriods
-            .stream()
-            .filter(period -> period.getId().equals(postAuthorizeRequisitionPeriod.getPeriodId()))
-            .findFirst()
-            .ifPresent(requisitionPeriods::remove)
-      );
+        requisitionPeriodsByPeriodId.putIfAbsent(requisitionPeriod.getPeriodId(),
+            requisitionPeriod);
+      }
 
-      profiler.start("SET_REQUISITION_ID_AND_STATUS_FOR_REQUISITION_PERIODS");
-      requisitionPeriods.forEach(requisitionPeriodDto -> requisitionIdStatusList
-          .stream()
-          .filter(requisitionPeriod ->
-              requisitionPeriod.getPeriodId().equals(requisitionPeriodDto.getId()))
-          .findFirst()
-          .ifPresent(requisitionPeriod -> setRequisitionPeriodStatusAndId(
-              requisitionPeriodDto, requisitionPeriod)
-          )
-      );
+      profiler.start("BUILD_REQUISITION_PERIOD_DTOS");
+      for (ProcessingPeriodDto period : periods) {
+        if (postAuthorizePeriodIds.contains(period.getId())) {
+          continue;
+        }
+
+        RequisitionPeriodDto requisitionPeriodDto = RequisitionPeriodDto.newInstance(period);
+        RequisitionPeriod requisitionPeriod = requisitionPeriodsByPeriodId.get(period.getId());
+
+        if (null != requisitionPeriod) {
+          setRequisitionPeriodStatusAndId(requisitionPeriodDto, requisitionPeriod);
+        }
+
+        requisitionPeriods.add(requisitionPeriodDto);
+      }
     }
 
     profiler.stop().log();
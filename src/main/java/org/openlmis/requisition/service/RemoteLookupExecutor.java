@@ -0,0 +1,121 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_REMOTE_LOOKUP_FAILED;
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_REMOTE_LOOKUP_TIMEOUT;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.openlmis.requisition.exception.ServerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs independent remote lookups (reference data, stock management, fulfillment) concurrently
+ * on a {@link BoundedExecutor}. If the async mode is disabled, every lookup is executed
+ * immediately in the submitting thread.
+ */
+@Component
+public class RemoteLookupExecutor {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RemoteLookupExecutor.class);
+
+  @Value("${remoteLookups.async.enabled}")
+  private boolean asyncEnabled;
+
+  @Value("${remoteLookups.async.poolSize}")
+  private int poolSize;
+
+  @Value("${remoteLookups.async.queueCapacity}")
+  private int queueCapacity;
+
+  @Value("${remoteLookups.async.timeoutSeconds}")
+  private long timeoutSeconds;
+
+  private BoundedExecutor executor;
+
+  /**
+   * Creates the worker pool if the async mode is enabled.
+   */
+  @PostConstruct
+  public void init() {
+    if (asyncEnabled) {
+      executor = new BoundedExecutor("remote-lookup-", poolSize, queueCapacity);
+      LOGGER.info("Remote lookups will be executed asynchronously with {} threads", poolSize);
+    }
+  }
+
+  /**
+   * Stops the worker pool when the application is shut down.
+   */
+  @PreDestroy
+  public void shutdown() {
+    if (null != executor) {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Starts the given lookup. The returned future should be passed to
+   * {@link #join(CompletableFuture)} to retrieve the result.
+   *
+   * @param lookup the remote call to execute.
+   * @return future with the result of the lookup.
+   */
+  public <T> CompletableFuture<T> submit(Supplier<T> lookup) {
+    if (null == executor) {
+      return CompletableFuture.completedFuture(lookup.get());
+    }
+
+    return executor.supplyAsync(lookup);
+  }
+
+  /**
+   * Waits for the result of the given lookup. Runtime exceptions thrown by the lookup are
+   * rethrown as they are, so they are handled in the same way as for synchronous calls.
+   *
+   * @param future future returned by {@link #submit(Supplier)}.
+   * @return result of the lookup.
+   * @throws ServerException if the lookup did not finish before the timeout. The lookup is
+   *     cancelled then; a remote call that is already waiting for the response ends at the read
+   *     timeout of its HTTP client.
+   */
+  public <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.get(timeoutSeconds, TimeUnit.SECONDS);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+
+      throw new ServerException(ex, ERROR_REMOTE_LOOKUP_FAILED);
+    } catch (TimeoutException ex) {
+      future.cancel(true);
+      throw new ServerException(ex, ERROR_REMOTE_LOOKUP_TIMEOUT, timeoutSeconds);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new ServerException(ex, ERROR_REMOTE_LOOKUP_FAILED);
+    }
+  }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shares one outbound GET request between concurrent callers that ask for the same URI (with the
+ * same If-None-Match value and response type). The first caller executes the request; callers
+ * that arrive while it is in flight wait for its response, at most for the configured timeout,
+ * after which they execute the request themselves. A completed request is forgotten, so later
+ * callers always get a fresh response. Every waiting caller gets its own copy of the response
+ * body.
+ */
+@Component
+public class RequestCoalescer {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RequestCoalescer.class);
+
+  private final ConcurrentMap<List<Object>, CompletableFuture<ResponseEntity<?>>> inFlight =
+      new ConcurrentHashMap<>();
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  @Value("${requestCoalescing.enabled}")
+  private boolean enabled;
+
+  @Value("${requestCoalescing.timeoutMillis}")
+  private long timeoutMillis;
+
+  private final AtomicLong executed = new AtomicLong();
+  private final AtomicLong coalesced = new AtomicLong();
+  private final AtomicLong timedOut = new AtomicLong();
+
+  /**
+   * Executes the given GET request, or waits for the response of an identical request that is
+   * already in flight.
+   *
+   * @param uri     URI of the request.
+   * @param etag    value of the If-None-Match header of the request (can be {@code null}).
+   * @param type    type of the response body.
+   * @param request executes the request.
+   */
+  public <P> ResponseEntity<P> get(URI uri, String etag, Type type,
+      Supplier<ResponseEntity<P>> request) {
+    if (!enabled) {
+      return request.get();
+    }
+
+    JavaType javaType = objectMapper.getTypeFactory().constructType(type);
+    List<Object> key = Arrays.asList(HttpMethod.GET, uri, etag, javaType);
+    CompletableFuture<ResponseEntity<?>> own = new CompletableFuture<>();
+    CompletableFuture<ResponseEntity<?>> shared = inFlight.putIfAbsent(key, own);
+
+    if (null == shared) {
+      return execute(key, own, request);
+    }
+
+    coalesced.incrementAndGet();
+    return await(shared, javaType, request);
+  }
+
+  /**
+   * Returns the number of executed, coalesced and timed out requests.
+   */
+  public Statistics getStatistics() {
+    return new Statistics(inFlight.size(), executed.get(), coalesced.get(), timedOut.get());
+  }
+
+  /**
+   * Logs request coalescing statistics.
+   */
+  @Scheduled(fixedRateString = "${requestCoalescing.statisticsLogIntervalMillis}")
+  public void logStatistics() {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Request coalescing: {}", getStatistics());
+    }
+  }
+
+  private <P> ResponseEntity<P> execute(List<Object> key,
+      CompletableFuture<ResponseEntity<?>> own, Supplier<ResponseEntity<P>> request) {
+    executed.incrementAndGet();
+
+    try {
+      ResponseEntity<P> response = request.get();
+      own.complete(response);
+      return response;
+    } catch (RuntimeException ex) {
+      own.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      inFlight.remove(key, own);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <P> ResponseEntity<P> await(CompletableFuture<ResponseEntity<?>> shared,
+      JavaType type, Supplier<ResponseEntity<P>> request) {
+    ResponseEntity<?> response;
+
+    try {
+      response = shared.get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      timedOut.incrementAndGet();
+      return request.get();
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw new IllegalStateException(ex);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(ex);
+    }
+
+    try {
+      return new ResponseEntity<>((P) copy(response.getBody(), type), response.getHeaders(),
+          response.getStatusCode());
+    } catch (IOException ex) {
+      LOGGER.debug("Shared response of type {} could not be copied", type, ex);
+      return request.get();
+    }
+  }
+
+  private Object copy(Object body, JavaType type) throws IOException {
+    if (null == body) {
+      return null;
+    }
+
+    if (body instanceof byte[]) {
+      return ((byte[]) body).clone();
+    }
+
+    return objectMapper.readValue(objectMapper.writeValueAsBytes(body), type);
+  }
+
+  @Getter
+  @ToString
+  @AllArgsConstructor
+  public static final class Statistics {
+    private final int inFlight;
+    private final long executed;
+    private final long coalesced;
+    private final long timedOut;
+  }
+}
@@ -47,9 +47,10 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
@@ -60,6 +61,7 @@ import org.openlmis.requisition.domain.requisition.ApprovedProductReference;
 import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.domain.requisition.RequisitionBuilder;
 import org.openlmis.requisition.domain.requisition.RequisitionLineItem;
+import org.openlmis.requisition.domain.requisition.RequisitionPeriod;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
 import org.openlmis.requisition.domain.requisition.StatusChange;
 import org.openlmis.requisition.domain.requisition.StatusMessage;
@@ -186,6 +188,9 @@ public class RequisitionService {
   @Autowired
   private FacilitySupportsProgramHelper facilitySupportsProgramHelper;
 
+  @Autowired
+  private RemoteLookupExecutor remoteLookupExecutor;
+
   /**
    * Initiated given requisition if possible.
    *
@@ -221,81 +226,107 @@ public class RequisitionService {
       numberOfPreviousPeriodsToAverage--;
     }
 
-    profiler.start("FIND_STOCK_ON_HANDS");
-    Map<UUID, Integer> orderableSoh = stockOnHandRetrieverBuilderFactory
+    profiler.start("START_REMOTE_LOOKUPS");
+    final CompletableFuture<Map<UUID, Integer>> orderableSohFuture = remoteLookupExecutor
+        .submit(() -> stockOnHandRetrieverBuilderFactory
             .getInstance(requisitionTemplate, RequisitionLineItem.STOCK_ON_HAND)
             .forProgram(program.getId())
             .forFacility(facility.getId())
             .forProducts(approvedProducts)
             .asOfDate(period.getEndDate())
             .build()
-            .get();
+            .get());
 
-    profiler.start("FIND_BEGINNING_BALANCES");
-    Map<UUID, Integer> orderableBeginning = stockOnHandRetrieverBuilderFactory
+    final CompletableFuture<Map<UUID, Integer>> orderableBeginningFuture = remoteLookupExecutor
+        .submit(() -> stockOnHandRetrieverBuilderFactory
             .getInstance(requisitionTemplate, RequisitionLineItem.BEGINNING_BALANCE)
             .forProgram(program.getId())
             .forFacility(facility.getId())
             .forProducts(approvedProducts)
             .asOfDate(period.getStartDate().minusDays(1))
             .build()
-            .get();
-
-    final StockData stockData = new StockData(orderableSoh, orderableBeginning);
+            .get());
 
-    profiler.start("FIND_IDEAL_STOCK_AMOUNTS");
-    final Map<UUID, Integer> idealStockAmounts = idealStockAmountReferenceDataService
+    final CompletableFuture<Map<UUID, Integer>> idealStockAmountsFuture = remoteLookupExecutor
+        .submit(() -> idealStockAmountReferenceDataService
             .search(requisition.getFacilityId(), requisition.getProcessingPeriodId())
             .stream()
-            .collect(toMap(isa -> isa.getCommodityType().getId(), IdealStockAmountDto::getAmount));
+            .collect(toMap(isa -> isa.getCommodityType().getId(), IdealStockAmountDto::getAmount)));
+
+    final CompletableFuture<UserDto> currentUserFuture = remoteLookupExecutor
+        .submit(authenticationHelper::getCurrentUser);
 
+    CompletableFuture<List<StockCardRangeSummaryDto>> stockCardRangeSummariesFuture = null;
+    CompletableFuture<Pair<List<ProcessingPeriodDto>, List<StockCardRangeSummaryDto>>>
+        previousPeriodsFuture = null;
+    if (requisitionTemplate.isPopulateStockOnHandFromStockCards()) {
+      stockCardRangeSummariesFuture = remoteLookupExecutor
+          .submit(() -> stockCardRangeSummaryStockManagementService
+              .search(program.getId(), facility.getId(),
+                  approvedProducts.getOrderableIdentities(), null,
+                  period.getStartDate(), period.getEndDate()));
+
+      int periodsToAverage = numberOfPreviousPeriodsToAverage;
+      previousPeriodsFuture = remoteLookupExecutor
+          .submit(() -> findPreviousPeriodsWithRangeSummaries(program, facility, period,
+              periodsToAverage, approvedProducts));
+    }
+
+    // previous requisitions are loaded from the database so it has to be done in this thread
     profiler.start("GET_PREV_REQUISITIONS_FOR_AVERAGING");
     List<Requisition> previousRequisitions =
             getRecentRegularRequisitions(requisition,
                     Math.max(numberOfPreviousPeriodsToAverage, 1));
 
+    CompletableFuture<ProofOfDeliveryDto> podFuture = null;
+    if (!emergency && !isEmpty(previousRequisitions)) {
+      Requisition previousRequisition = previousRequisitions.get(0);
+      podFuture = remoteLookupExecutor
+          .submit(() -> proofOfDeliveryService.get(previousRequisition));
+    }
+
+    profiler.start("JOIN_STOCK_ON_HANDS");
+    Map<UUID, Integer> orderableSoh = remoteLookupExecutor.join(orderableSohFuture);
+
+    profiler.start("JOIN_BEGINNING_BALANCES");
+    Map<UUID, Integer> orderableBeginning = remoteLookupExecutor.join(orderableBeginningFuture);
+
+    final StockData stockData = new StockData(orderableSoh, orderableBeginning);
+
+    profiler.start("JOIN_IDEAL_STOCK_AMOUNTS");
+    final Map<UUID, Integer> idealStockAmounts = remoteLookupExecutor
+        .join(idealStockAmountsFuture);
+
     List<StockCardRangeSummaryDto> stockCardRangeSummaryDtos = null;
     List<StockCardRangeSummaryDto> stockCardRangeSummariesToAverage = null;
     List<ProcessingPeriodDto> previousPeriods = null;
     if (requisitionTemplate.isPopulateStockOnHandFromStockCards()) {
-      stockCardRangeSummaryDtos =
-              stockCardRangeSummaryStockManagementService
-                      .search(program.getId(), facility.getId(),
-                              approvedProducts.getOrderableIdentities(), null,
-                              period.getStartDate(), period.getEndDate());
-
-      profiler.start("GET_PREVIOUS_PERIODS");
-      previousPeriods = periodService
-              .findPreviousPeriods(period, numberOfPreviousPeriodsToAverage);
-
-      profiler.start("FIND_IDEAL_STOCK_AMOUNTS_FOR_AVERAGE");
-      if (previousPeriods.size() > 1) {
-        stockCardRangeSummariesToAverage =
-                stockCardRangeSummaryStockManagementService
-                        .search(program.getId(), facility.getId(),
-                                approvedProducts.getOrderableIdentities(), null,
-                                previousPeriods.get(previousPeriods.size() - 1).getStartDate(),
-                                period.getEndDate());
-      } else {
-        stockCardRangeSummariesToAverage = stockCardRangeSummaryDtos;
-      }
+      profiler.start("JOIN_STOCK_CARD_RANGE_SUMMARIES");
+      stockCardRangeSummaryDtos = remoteLookupExecutor.join(stockCardRangeSummariesFuture);
+
+      profiler.start("JOIN_PREVIOUS_PERIODS");
+      Pair<List<ProcessingPeriodDto>, List<StockCardRangeSummaryDto>> previousPeriodsResult =
+          remoteLookupExecutor.join(previousPeriodsFuture);
+      previousPeriods = previousPeriodsResult.getLeft();
+      stockCardRangeSummariesToAverage = null == previousPeriodsResult.getRight()
+          ? stockCardRangeSummaryDtos
+          : previousPeriodsResult.getRight();
 
       previousPeriods.add(period);
     } else if (numberOfPreviousPeriodsToAverage > previousRequisitions.size()) {
       numberOfPreviousPeriodsToAverage = previousRequisitions.size();
     }
 
-    profiler.start("GET_POD");
-    ProofOfDeliveryDto pod = null;
+    profiler.start("JOIN_POD");
+    ProofOfDeliveryDto pod = null == podFuture ? null : remoteLookupExecutor.join(podFuture);
 
-    if (!emergency && !isEmpty(previousRequisitions)) {
-      pod = proofOfDeliveryService.get(previousRequisitions.get(0));
-    }
+    profiler.start("JOIN_CURRENT_USER");
+    UUID currentUserId = remoteLookupExecutor.join(currentUserFuture).getId();
 
     profiler.start("INITIATE");
     requisition.initiate(requisitionTemplate, approvedProducts.getFullSupplyProducts(),
             previousRequisitions, numberOfPreviousPeriodsToAverage, pod, idealStockAmounts,
-            authenticationHelper.getCurrentUser().getId(), stockData, stockCardRangeSummaryDtos,
+            currentUserId, stockData, stockCardRangeSummaryDtos,
             stockCardRangeSummariesToAverage, previousPeriods);
 
     profiler.start("SET_AVAILABLE_PRODUCTS");
@@ -712,15 +743,15 @@ public class RequisitionService {
   }
 
   /**
-   * Building Orders list.
+   * Building Orders list. Reference data of all requisitions is retrieved at once and the
+   * requisitions are saved together.
    */
   @Transactional(propagation = Propagation.REQUIRES_NEW)
   public List<OrderDto> buildOrders(List<Requisition> releasedRequisitions, UserDto user) {
-    List<OrderDto> orders = new ArrayList<>();
-    for (Requisition requisition : releasedRequisitions) {
-      orders.add(orderDtoBuilder.build(requisition, user));
+    List<OrderDto> orders = orderDtoBuilder.build(releasedRequisitions, user);
 
-      requisitionRepository.save(requisition);
+    requisitionRepository.saveAll(releasedRequisitions);
+    for (Requisition requisition : releasedRequisitions) {
       requisitionStatusProcessor.statusChange(requisition, LocaleContextHolder.getLocale());
     }
     return orders;
@@ -736,8 +767,9 @@ public class RequisitionService {
     profiler.start("RELEASE_REQUISITIONS_WITHOUT_ORDER");
     List<Requisition> releasedRequisitions = releaseRequisitionsWithoutOrder(list);
 
+    profiler.start("SAVE_REQUISITIONS");
+    requisitionRepository.saveAll(releasedRequisitions);
     for (Requisition requisition : releasedRequisitions) {
-      requisitionRepository.save(requisition);
       requisitionStatusProcessor.statusChange(requisition, LocaleContextHolder.getLocale());
     }
     profiler.stop().log();
@@ -786,21 +818,22 @@ public class RequisitionService {
   }
 
   private boolean isRequisitionNewest(Requisition requisition) {
-    Requisition recentRequisition = findRecentRegularRequisition(
+    UUID recentRequisitionId = findRecentRegularRequisitionId(
             requisition.getProgramId(), requisition.getFacilityId()
     );
-    return null == recentRequisition || requisition.getId().equals(recentRequisition.getId());
+    return null == recentRequisitionId || requisition.getId().equals(recentRequisitionId);
   }
 
   /**
-   * Returns requisition associated with the most recent period for given program and facility.
+   * Returns id of the requisition associated with the most recent period for given program and
+   * facility. Only ids and periods of the regular requisitions are loaded, with a single query.
    *
    * @param programId  Program for Requisition
    * @param facilityId Facility for Requisition
-   * @return Requisition.
+   * @return Requisition id.
    */
-  private Requisition findRecentRegularRequisition(UUID programId, UUID facilityId) {
-    Requisition result = null;
+  private UUID findRecentRegularRequisitionId(UUID programId, UUID facilityId) {
+    UUID result = null;
     Collection<ProcessingPeriodDto> periods =
             periodService.searchByProgramAndFacility(programId, facilityId);
 
@@ -813,14 +846,19 @@ public class RequisitionService {
               .collect(toList());
     }
 
-    if (periods != null) {
+    if (periods != null && !periods.isEmpty()) {
+      // There is always maximum one regular requisition for given period, facility and program
+      Map<UUID, UUID> requisitionIdsByPeriod = requisitionRepository
+          .searchRequisitionIdAndStatusPairs(facilityId, programId, false)
+          .stream()
+          .collect(toMap(RequisitionPeriod::getPeriodId, RequisitionPeriod::getRequisitionId,
+              (first, second) -> first));
+
       for (ProcessingPeriodDto dto : periods) {
-        // There is always maximum one regular requisition for given period, facility and program
-        List<Requisition> requisitions = requisitionRepository.searchRequisitions(
-                dto.getId(), facilityId, programId, false);
+        UUID requisitionId = requisitionIdsByPeriod.get(dto.getId());
 
-        if (!requisitions.isEmpty()) {
-          result = requisitions.get(0);
+        if (null != requisitionId) {
+          result = requisitionId;
         } else {
           break;
         }
@@ -853,25 +891,61 @@ public class RequisitionService {
     return requisition.getTemplate().isColumnInTemplateAndDisplayed(APPROVED_QUANTITY);
   }
 
+  /**
+   * Finds previous periods and, if there is more than one, stock card range summaries for the
+   * whole averaging range. The right value of the returned pair is null when the range
+   * summaries of the current period should be used for averaging.
+   */
+  private Pair<List<ProcessingPeriodDto>, List<StockCardRangeSummaryDto>>
+      findPreviousPeriodsWithRangeSummaries(ProgramDto program, FacilityDto facility,
+      ProcessingPeriodDto period, int numberOfPreviousPeriodsToAverage,
+      ApproveProductsAggregator approvedProducts) {
+    List<ProcessingPeriodDto> previousPeriods = periodService
+        .findPreviousPeriods(period, numberOfPreviousPeriodsToAverage);
+
+    List<StockCardRangeSummaryDto> stockCardRangeSummariesToAverage = null;
+    if (previousPeriods.size() > 1) {
+      stockCardRangeSummariesToAverage = stockCardRangeSummaryStockManagementService
+          .search(program.getId(), facility.getId(),
+              approvedProducts.getOrderableIdentities(), null,
+              previousPeriods.get(previousPeriods.size() - 1).getStartDate(),
+              period.getEndDate());
+    }
+
+    return new ImmutablePair<>(previousPeriods, stockCardRangeSummariesToAverage);
+  }
+
   private List<Requisition> getRecentRegularRequisitions(Requisition requisition, int amount) {
     List<ProcessingPeriodDto> previousPeriods =
             periodService.findPreviousPeriods(requisition.getProcessingPeriodId(), amount);
 
+    if (previousPeriods.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    Set<UUID> periodIds = previousPeriods
+        .stream()
+        .map(ProcessingPeriodDto::getId)
+        .collect(toSet());
+
+    Map<UUID, Requisition> requisitionsByPeriod = requisitionRepository
+        .findRegularRequisitions(periodIds, requisition.getFacilityId(),
+            requisition.getProgramId())
+        .stream()
+        .collect(toMap(Requisition::getProcessingPeriodId, Function.identity(),
+            (first, second) -> first));
+
     List<Requisition> recentRequisitions = new ArrayList<>();
     for (ProcessingPeriodDto period : previousPeriods) {
-      Optional<Requisition> requisitionByPeriod =
-          getRegularRequisitionByPeriod(requisition, period);
-      requisitionByPeriod.ifPresent(recentRequisitions::add);
+      Requisition requisitionByPeriod = requisitionsByPeriod.get(period.getId());
+
+      if (null != requisitionByPeriod) {
+        recentRequisitions.add(requisitionByPeriod);
+      }
     }
     return recentRequisitions;
   }
 
-  private Optional<Requisition> getRegularRequisitionByPeriod(Requisition requisition,
-                                                           ProcessingPeriodDto period) {
-    return requisitionRepository.findRegularRequisition(
-            period.getId(), requisition.getFacilityId(), requisition.getProgramId());
-  }
-
   private void saveRejectionReason(Requisition requisition, List<RejectionDto> rejections) {
 
     if (rejections == null || rejections.isEmpty()) {
@@ -36,7 +36,7 @@ import org.openlmis.requisition.dto.FacilityDto;
 import org.openlmis.requisition.dto.ProcessingPeriodDto;
 import org.openlmis.requisition.dto.ProgramDto;
 import org.openlmis.requisition.dto.UserDto;
-import org.openlmis.requisition.service.notification.NotificationService;
+import org.openlmis.requisition.service.notification.NotificationBatch;
 import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
 import org.openlmis.requisition.service.referencedata.PeriodReferenceDataService;
 import org.openlmis.requisition.service.referencedata.ProgramReferenceDataService;
@@ -62,9 +62,6 @@ public class RequisitionStatusNotifier extends BaseNotifier {
   @Autowired
   private FacilityReferenceDataService facilityReferenceDataService;
 
-  @Autowired
-  private NotificationService notificationService;
-
   @Autowired
   private UserReferenceDataService userReferenceDataService;
 
@@ -80,7 +77,19 @@ public class RequisitionStatusNotifier extends BaseNotifier {
    * @param requisition a requisition that has just changed its status
    */
   public void notifyStatusChanged(Requisition requisition, Locale locale) {
+    NotificationBatch batch = new NotificationBatch();
+    notifyStatusChanged(requisition, locale, batch);
+    send(batch);
+  }
 
+  /**
+   * Adds a notification about the status change of the given requisition to the batch.
+   *
+   * @param requisition a requisition that has just changed its status
+   * @param batch       batch that shares reference data and collects the notifications
+   */
+  public void notifyStatusChanged(Requisition requisition, Locale locale,
+      NotificationBatch batch) {
     List<StatusChange> statusChanges = requisition.getStatusChanges();
     if (statusChanges == null) {
       LOGGER.error("Could not find status changes for requisition {} to "
@@ -88,7 +97,7 @@ public class RequisitionStatusNotifier extends BaseNotifier {
       return;
     }
 
-    UserDto initiator = getInitiator(statusChanges, requisition.getId());
+    UserDto initiator = getInitiator(statusChanges, requisition.getId(), batch);
 
     Optional<StatusChange> submitAuditEntry = getSubmitAuditEntry(requisition, statusChanges);
     if (!submitAuditEntry.isPresent()) {
@@ -106,11 +115,11 @@ public class RequisitionStatusNotifier extends BaseNotifier {
     valuesMap.put("requisitionType", getMessage(getEmergencyKey(requisition), locale));
     valuesMap.put("submittedDate", submitAuditEntry.get().getCreatedDate()
         .format(dateTimeFormatter));
-    valuesMap.put("programName", getProgram(requisition).getName());
-    valuesMap.put("periodName", getPeriod(requisition).getName());
-    valuesMap.put("facilityName", getFacility(requisition).getName());
+    valuesMap.put("programName", getProgram(requisition, batch).getName());
+    valuesMap.put("periodName", getPeriod(requisition, batch).getName());
+    valuesMap.put("facilityName", getFacility(requisition, batch).getName());
     valuesMap.put("requisitionStatus", requisition.getStatus().toString());
-    valuesMap.put("author", getAuthor(currentAuditEntry.get()).getUsername());
+    valuesMap.put("author", getAuthor(currentAuditEntry.get(), batch).getUsername());
     valuesMap.put("changeDate", currentAuditEntry.get().getCreatedDate().format(
         dateTimeFormatter));
     valuesMap.put("requisitionUrl", getRequisitionUrl(requisition));
@@ -121,18 +130,19 @@ public class RequisitionStatusNotifier extends BaseNotifier {
 
     StrSubstitutor sub = new StrSubstitutor(valuesMap);
 
-    notificationService.notify(initiator, subject, sub.replace(emailContent),
+    batch.add(initiator, subject, sub.replace(emailContent),
         sub.replace(smsContent), NOTIFICATION_TAG);
   }
 
-  private UserDto getInitiator(List<StatusChange> statusChanges, UUID requisitionId) {
+  private UserDto getInitiator(List<StatusChange> statusChanges, UUID requisitionId,
+      NotificationBatch batch) {
     UUID initiatorId = getInitiatorId(statusChanges);
     if (initiatorId == null) {
       LOGGER.warn("Could not find initiator for requisition %s to notify "
           + "for requisition status change.", requisitionId);
       return null;
     }
-    return userReferenceDataService.findOne(initiatorId);
+    return getUser(initiatorId, batch);
   }
 
   private UUID getInitiatorId(List<StatusChange> statusChanges) {
@@ -175,20 +185,26 @@ public class RequisitionStatusNotifier extends BaseNotifier {
     return currentAuditEntry;
   }
 
-  private ProgramDto getProgram(Requisition requisition) {
-    return programReferenceDataService.findOne(requisition.getProgramId());
+  private ProgramDto getProgram(Requisition requisition, NotificationBatch batch) {
+    return batch.lookup(PROGRAM, requisition.getProgramId(),
+        () -> programReferenceDataService.findOne(requisition.getProgramId()));
+  }
+
+  private ProcessingPeriodDto getPeriod(Requisition requisition, NotificationBatch batch) {
+    return batch.lookup(PERIOD, requisition.getProcessingPeriodId(),
+        () -> periodReferenceDataService.findOne(requisition.getProcessingPeriodId()));
   }
 
-  private ProcessingPeriodDto getPeriod(Requisition requisition) {
-    return periodReferenceDataService.findOne(
-        requisition.getProcessingPeriodId());
+  private FacilityDto getFacility(Requisition requisition, NotificationBatch batch) {
+    return batch.lookup(FACILITY, requisition.getFacilityId(),
+        () -> facilityReferenceDataService.findOne(requisition.getFacilityId()));
   }
 
-  private FacilityDto getFacility(Requisition requisition) {
-    return facilityReferenceDataService.findOne(requisition.getFacilityId());
+  private UserDto getAuthor(StatusChange currentAuditEntry, NotificationBatch batch) {
+    return getUser(currentAuditEntry.getAuthorId(), batch);
   }
 
-  private UserDto getAuthor(StatusChange currentAuditEntry) {
-    return userReferenceDataService.findOne(currentAuditEntry.getAuthorId());
+  private UserDto getUser(UUID userId, NotificationBatch batch) {
+    return batch.lookup(USER, userId, () -> userReferenceDataService.findOne(userId));
   }
 }
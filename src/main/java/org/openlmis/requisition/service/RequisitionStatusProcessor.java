@@ -17,7 +17,6 @@ package org.openlmis.requisition.service;
 
 import java.util.Locale;
 import org.openlmis.requisition.domain.requisition.Requisition;
-import org.springframework.scheduling.annotation.Async;
 
 public interface RequisitionStatusProcessor {
 
@@ -26,6 +25,5 @@ public interface RequisitionStatusProcessor {
    *
    * @param requisition a requisition that has just changed its status
    */
-  @Async
   void statusChange(Requisition requisition, Locale locale);
 }
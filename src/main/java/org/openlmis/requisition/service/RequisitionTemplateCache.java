@@ -0,0 +1,164 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import org.hibernate.Hibernate;
+import org.openlmis.requisition.domain.AvailableRequisitionColumn;
+import org.openlmis.requisition.domain.RequisitionTemplate;
+import org.openlmis.requisition.domain.RequisitionTemplateColumn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded in-memory cache of requisition templates used to initiate requisitions, keyed by
+ * program, facility type and the report only flag. Entries are snapshots detached from the
+ * persistence context and each caller receives its own copy, so changes made to a template of
+ * one requisition never reach the cached snapshot. The whole cache is cleared when a template is
+ * created, updated or deleted; other instances of the service are notified through a Redis
+ * channel.
+ */
+@Component
+public class RequisitionTemplateCache implements MessageListener {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RequisitionTemplateCache.class);
+
+  static final String CHANNEL = "requisition:requisitionTemplates:evict";
+
+  private final AtomicLong generation = new AtomicLong();
+
+  private Cache<String, RequisitionTemplate> templates;
+
+  @Autowired
+  private RedisTemplate<String, String> redisTemplate;
+
+  @Autowired
+  private RedisMessageListenerContainer listenerContainer;
+
+  @Value("${requisitionTemplateCache.maxSize}")
+  private long maxSize;
+
+  @Value("${requisitionTemplateCache.ttlSeconds}")
+  private long ttlSeconds;
+
+  /**
+   * Creates the cache and subscribes to eviction messages from other instances.
+   */
+  @PostConstruct
+  public void init() {
+    templates = CacheBuilder
+        .newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+        .build();
+    listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+  }
+
+  /**
+   * Returns a copy of the template for the given program, facility type and report only flag.
+   * The template is loaded when it is not in the cache. A template loaded while the cache was
+   * being cleared is returned but not kept, as it could have been read before the change.
+   *
+   * @param loader loads the template from the database; exceptions are not cached.
+   */
+  public RequisitionTemplate get(UUID programId, UUID facilityTypeId, boolean reportOnly,
+      Supplier<RequisitionTemplate> loader) {
+    String key = programId + "|" + facilityTypeId + "|" + reportOnly;
+    RequisitionTemplate snapshot = templates.getIfPresent(key);
+
+    if (null == snapshot) {
+      long loadedGeneration = generation.get();
+      snapshot = snapshot(loader.get());
+      templates.put(key, snapshot);
+
+      if (loadedGeneration != generation.get()) {
+        templates.invalidate(key);
+      }
+    }
+
+    return new RequisitionTemplate(snapshot);
+  }
+
+  /**
+   * Clears the cache of this and other instances of the service. Inside a transaction this
+   * happens after commit, so the changed template is not loaded again in its old state.
+   */
+  public void evictAll() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+              evictAndPublish();
+            }
+          });
+    } else {
+      evictAndPublish();
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    LOGGER.debug("Received requisition template eviction message");
+    evictLocally();
+  }
+
+  private void evictAndPublish() {
+    evictLocally();
+
+    try {
+      redisTemplate.convertAndSend(CHANNEL, String.valueOf(generation.get()));
+    } catch (DataAccessException ex) {
+      LOGGER.warn("Could not notify other instances about changed requisition templates; "
+          + "they will notice the change in at most {} seconds", ttlSeconds, ex);
+    }
+  }
+
+  private void evictLocally() {
+    generation.incrementAndGet();
+    templates.invalidateAll();
+  }
+
+  private RequisitionTemplate snapshot(RequisitionTemplate template) {
+    // the snapshot outlives the session, so lazy collections that are read later are loaded now
+    for (RequisitionTemplateColumn column : template.viewColumns().values()) {
+      AvailableRequisitionColumn definition = column.getColumnDefinition();
+
+      if (null != definition) {
+        Hibernate.initialize(definition.getSources());
+        Hibernate.initialize(definition.getOptions());
+      }
+    }
+
+    return new RequisitionTemplate(template);
+  }
+}
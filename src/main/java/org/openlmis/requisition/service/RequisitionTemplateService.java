@@ -34,10 +34,20 @@ public class RequisitionTemplateService {
   @Autowired
   private RequisitionTemplateRepository requisitionTemplateRepository;
 
+  @Autowired
+  private RequisitionTemplateCache requisitionTemplateCache;
+
   /**
-   * Find template for the given program and facility type.
+   * Find template for the given program and facility type. The returned template is a copy of
+   * the cached one and is not attached to the persistence context.
    */
   public RequisitionTemplate findTemplate(UUID programId, UUID facilityTypeId, boolean reportOnly) {
+    return requisitionTemplateCache.get(programId, facilityTypeId, reportOnly,
+        () -> loadTemplate(programId, facilityTypeId, reportOnly));
+  }
+
+  private RequisitionTemplate loadTemplate(UUID programId, UUID facilityTypeId,
+      boolean reportOnly) {
 
     //check for UI customized report only requisition
     if (reportOnly) {
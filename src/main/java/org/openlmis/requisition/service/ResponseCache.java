@@ -0,0 +1,244 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+import java.io.IOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local read-through cache for responses of other services. Every cache name (usually one per
+ * resource) has its own size-bounded region with a time to live read from the
+ * {@code responseCache.<name>.ttlSeconds} property. When an entry is older than its time to
+ * live, it is revalidated with a conditional GET request (If-None-Match). A negative time to live
+ * means the entry never expires (for example versioned resources that are immutable).
+ *
+ * <p>Entries are stored as serialized JSON so every caller gets its own copy of the object.
+ */
+@Component
+public class ResponseCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResponseCache.class);
+
+  private final Map<String, Region> regions = Maps.newConcurrentMap();
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  @Autowired
+  private Environment environment;
+
+  @Value("${responseCache.enabled}")
+  private boolean enabled;
+
+  @Value("${responseCache.maxSize}")
+  private long maxSize;
+
+  @Value("${responseCache.ttlSeconds}")
+  private long defaultTtlSeconds;
+
+  private Clock clock = Clock.systemUTC();
+
+  /**
+   * Checks if responses for the given cache name should be cached.
+   */
+  public boolean isEnabled(String cacheName) {
+    return enabled && null != cacheName && 0 != getTtlSeconds(cacheName);
+  }
+
+  /**
+   * Returns cached response for the given key. If there is no entry or the entry is stale, the
+   * loader is called with the ETag of the stale entry (or null) to retrieve or revalidate it.
+   *
+   * @param cacheName name of the cache region.
+   * @param key       key of the response, usually the request URI.
+   * @param type      type the response should be converted to.
+   * @param loader    function that executes the (conditional) request for the given ETag.
+   */
+  public <P> P get(String cacheName, String key, Class<P> type,
+      Function<String, ServiceResponse<byte[]>> loader) {
+    Region region = getRegion(cacheName);
+    Entry entry = region.entries.getIfPresent(key);
+    long now = clock.millis();
+
+    if (null != entry && entry.isFresh(region.ttlMillis, now)) {
+      region.hits.incrementAndGet();
+      return read(entry.body, type);
+    }
+
+    ServiceResponse<byte[]> response = loader.apply(null == entry ? null : entry.etag);
+
+    if (null != entry && !response.isModified()) {
+      region.revalidations.incrementAndGet();
+      entry.validatedAt = now;
+      return read(entry.body, type);
+    }
+
+    region.misses.incrementAndGet();
+
+    if (null == response.getBody()) {
+      return null;
+    }
+
+    region.entries.put(key, new Entry(response.getBody(), response.getETag(), now));
+    return read(response.getBody(), type);
+  }
+
+  /**
+   * Returns cached objects for the given keys. Objects that are not in the cache are retrieved
+   * with a single call of the loader and put into the cache. The time to live is not checked,
+   * so this should be only used for immutable resources, like specific versions of orderables.
+   *
+   * @param cacheName    name of the cache region.
+   * @param keys         keys of the objects.
+   * @param type         type of the objects.
+   * @param loader       function that retrieves objects for the keys that are not in the cache.
+   * @param keyExtractor function that returns the key of the given object.
+   */
+  public <K, P> List<P> getAll(String cacheName, Collection<K> keys, Class<P> type,
+      Function<List<K>, List<P>> loader, Function<P, K> keyExtractor) {
+    Region region = getRegion(cacheName);
+    List<P> result = new ArrayList<>(keys.size());
+    List<K> missing = new ArrayList<>();
+
+    for (K key : keys) {
+      Entry entry = region.entries.getIfPresent(key.toString());
+
+      if (null == entry) {
+        missing.add(key);
+      } else {
+        result.add(read(entry.body, type));
+      }
+    }
+
+    region.hits.addAndGet(result.size());
+    region.misses.addAndGet(missing.size());
+
+    if (!missing.isEmpty()) {
+      long now = clock.millis();
+
+      for (P object : loader.apply(missing)) {
+        region.entries.put(keyExtractor.apply(object).toString(),
+            new Entry(write(object), null, now));
+        result.add(object);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns statistics for every cache region that was used so far.
+   */
+  public Map<String, Statistics> getStatistics() {
+    Map<String, Statistics> statistics = Maps.newTreeMap();
+    regions.forEach((name, region) -> statistics.put(name, region.getStatistics()));
+    return statistics;
+  }
+
+  /**
+   * Logs hit, miss and eviction statistics of all cache regions.
+   */
+  @Scheduled(fixedRateString = "${responseCache.statisticsLogIntervalMillis}")
+  public void logStatistics() {
+    if (LOGGER.isDebugEnabled()) {
+      getStatistics().forEach((name, stats) -> LOGGER.debug("Response cache {}: {}", name, stats));
+    }
+  }
+
+  private Region getRegion(String cacheName) {
+    return regions.computeIfAbsent(cacheName,
+        name -> new Region(getTtlSeconds(name), maxSize));
+  }
+
+  private long getTtlSeconds(String cacheName) {
+    return environment.getProperty("responseCache." + cacheName + ".ttlSeconds",
+        Long.class, defaultTtlSeconds);
+  }
+
+  private <P> P read(byte[] body, Class<P> type) {
+    try {
+      return objectMapper.readValue(body, type);
+    } catch (IOException ex) {
+      throw new IllegalStateException("Cached response could not be deserialized", ex);
+    }
+  }
+
+  private byte[] write(Object object) {
+    try {
+      return objectMapper.writeValueAsBytes(object);
+    } catch (IOException ex) {
+      throw new IllegalStateException("Response could not be serialized", ex);
+    }
+  }
+
+  private static final class Region {
+    private final Cache<String, Entry> entries;
+    private final long ttlMillis;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+
+    Region(long ttlSeconds, long maxSize) {
+      this.entries = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+      this.ttlMillis = ttlSeconds < 0 ? -1 : ttlSeconds * 1000;
+    }
+
+    Statistics getStatistics() {
+      return new Statistics(entries.size(), hits.get(), misses.get(), revalidations.get(),
+          entries.stats().evictionCount());
+    }
+  }
+
+  @AllArgsConstructor
+  private static final class Entry {
+    private final byte[] body;
+    private final String etag;
+    private volatile long validatedAt;
+
+    boolean isFresh(long ttlMillis, long now) {
+      return ttlMillis < 0 || now - validatedAt < ttlMillis;
+    }
+  }
+
+  @Getter
+  @ToString
+  @AllArgsConstructor
+  public static final class Statistics {
+    private final long size;
+    private final long hits;
+    private final long misses;
+    private final long revalidations;
+    private final long evictions;
+  }
+}
@@ -0,0 +1,287 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.openlmis.requisition.domain.requisition.Requisition;
+import org.openlmis.requisition.domain.requisition.StatusChangeNotification;
+import org.openlmis.requisition.service.notification.NotificationBatch;
+import org.openlmis.requisition.service.notification.NotificationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends requisition status notifications recorded in {@link StatusChangeNotificationOutbox}.
+ * Due notifications are taken in batches, their messages are composed by a bounded pool of worker
+ * threads and sent together, coalesced per recipient. A failed notification is retried with an
+ * exponential backoff; a notification is sent at least once, so a retry can repeat messages that
+ * were sent before the failure.
+ */
+@Component
+public class StatusChangeNotificationDispatcher {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(StatusChangeNotificationDispatcher.class);
+
+  @Autowired
+  private StatusChangeNotificationOutbox outbox;
+
+  @Autowired
+  private DefaultRequisitionStatusProcessor requisitionStatusProcessor;
+
+  @Autowired
+  private NotificationService notificationService;
+
+  @Value("${statusChangeNotifications.enabled}")
+  private boolean enabled;
+
+  @Value("${statusChangeNotifications.pollIntervalMillis}")
+  private long pollIntervalMillis;
+
+  @Value("${statusChangeNotifications.batchSize}")
+  private int batchSize;
+
+  @Value("${statusChangeNotifications.poolSize}")
+  private int poolSize;
+
+  private ScheduledExecutorService poller;
+  private ThreadPoolExecutor workers;
+
+  private final AtomicLong sent = new AtomicLong();
+  private final AtomicLong sentMessages = new AtomicLong();
+  private final AtomicLong skipped = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong givenUp = new AtomicLong();
+  private final AtomicLong totalSendMillis = new AtomicLong();
+
+  /**
+   * Creates the worker pool and starts polling for due notifications.
+   */
+  @PostConstruct
+  public void init() {
+    workers = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), new CustomizableThreadFactory("status-notifications-"));
+    workers.allowCoreThreadTimeOut(true);
+
+    if (enabled) {
+      poller = Executors.newSingleThreadScheduledExecutor(
+          new CustomizableThreadFactory("status-notifications-poller-"));
+      poller.scheduleWithFixedDelay(this::dispatch, pollIntervalMillis, pollIntervalMillis,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Stops polling and the worker pool when the application is shut down. Notifications that
+   * have been taken but not sent are sent again when their lease expires.
+   */
+  @PreDestroy
+  public void shutdown() {
+    if (null != poller) {
+      poller.shutdownNow();
+    }
+
+    workers.shutdownNow();
+  }
+
+  /**
+   * Sends due notifications until there are no more of them.
+   */
+  public void dispatch() {
+    try {
+      List<StatusChangeNotification> batch;
+
+      do {
+        batch = outbox.claim(batchSize);
+        send(batch);
+      } while (batch.size() == batchSize);
+    } catch (RuntimeException ex) {
+      LOGGER.error("Could not dispatch requisition status notifications", ex);
+    }
+  }
+
+  /**
+   * Returns the outbox backlog and the number of notifications handled so far.
+   */
+  public Statistics getStatistics() {
+    StatusChangeNotificationOutbox.Backlog backlog = outbox.getBacklog();
+    long handled = sent.get() + skipped.get() + failed.get();
+
+    return new Statistics(backlog.getSize(), backlog.getOldestAge().getSeconds(),
+        sent.get(), sentMessages.get(), skipped.get(), failed.get(), givenUp.get(),
+        0 == handled ? 0 : totalSendMillis.get() / handled);
+  }
+
+  /**
+   * Logs the outbox backlog and throughput statistics.
+   */
+  @Scheduled(fixedRateString = "${statusChangeNotifications.statisticsLogIntervalMillis}")
+  public void logStatistics() {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Requisition status notifications: {}", getStatistics());
+    }
+  }
+
+  /**
+   * Composes messages of all the given notifications on the workers, so reference data is
+   * retrieved once per batch, and sends them coalesced per recipient.
+   */
+  private void send(List<StatusChangeNotification> batch) {
+    NotificationBatch messages = new NotificationBatch();
+    Queue<StatusChangeNotification> composed = new ConcurrentLinkedQueue<>();
+
+    CompletableFuture
+        .allOf(batch
+            .stream()
+            .map(notification -> CompletableFuture.runAsync(() -> {
+              if (compose(notification, messages)) {
+                composed.add(notification);
+              }
+            }, workers))
+            .toArray(CompletableFuture[]::new))
+        .join();
+
+    if (composed.isEmpty()) {
+      return;
+    }
+
+    long startedAt = System.currentTimeMillis();
+    List<NotificationBatch.Message> coalesced = messages.getMessages();
+    Map<NotificationBatch.Message, RuntimeException> failures =
+        notificationService.notify(messages);
+    totalSendMillis.addAndGet(System.currentTimeMillis() - startedAt);
+    sentMessages.addAndGet(coalesced.size() - failures.size());
+
+    Map<Object, RuntimeException> failedSources = new HashMap<>();
+    failures.forEach((message, ex) -> message.getSources()
+        .forEach(source -> failedSources.putIfAbsent(source, ex)));
+
+    for (StatusChangeNotification notification : composed) {
+      RuntimeException cause = failedSources.get(notification.getId());
+
+      if (null == cause) {
+        sent.incrementAndGet();
+        complete(notification);
+      } else {
+        failed.incrementAndGet();
+        fail(notification, cause);
+      }
+    }
+  }
+
+  /**
+   * Adds messages of the given notification to the batch.
+   *
+   * @return true if the messages have to be sent before the notification is completed.
+   */
+  private boolean compose(StatusChangeNotification notification, NotificationBatch messages) {
+    long startedAt = System.currentTimeMillis();
+
+    try {
+      Optional<Requisition> requisition = outbox.findRequisition(notification);
+
+      if (!requisition.isPresent()) {
+        LOGGER.warn("Requisition {} no longer exists, its {} notification is dropped",
+            notification.getRequisitionId(), notification.getStatus());
+        skipped.incrementAndGet();
+        complete(notification);
+        return false;
+      }
+
+      // the requisition is detached, so those changes are never saved
+      requisition.get().setStatus(notification.getStatus());
+      requisition.get().setSupervisoryNodeId(notification.getSupervisoryNodeId());
+
+      // messages are added only when all of them were composed
+      NotificationBatch part = messages.part(notification.getId());
+      LocaleContextHolder.setLocale(notification.getLocale());
+      requisitionStatusProcessor
+          .statusChange(requisition.get(), notification.getLocale(), part);
+      messages.merge(part);
+
+      return true;
+    } catch (RuntimeException ex) {
+      failed.incrementAndGet();
+      fail(notification, ex);
+      return false;
+    } finally {
+      LocaleContextHolder.resetLocaleContext();
+      totalSendMillis.addAndGet(System.currentTimeMillis() - startedAt);
+    }
+  }
+
+  private void complete(StatusChangeNotification notification) {
+    try {
+      outbox.complete(notification);
+    } catch (RuntimeException ex) {
+      // the lease expires and the notification is sent again
+      LOGGER.error("Could not complete notification {}", notification.getId(), ex);
+    }
+  }
+
+  private void fail(StatusChangeNotification notification, RuntimeException cause) {
+    try {
+      if (outbox.retry(notification, cause.toString())) {
+        LOGGER.warn("Could not send {} notification of requisition {}, it will be retried",
+            notification.getStatus(), notification.getRequisitionId(), cause);
+      } else {
+        givenUp.incrementAndGet();
+        LOGGER.error("Could not send {} notification of requisition {} after {} attempts",
+            notification.getStatus(), notification.getRequisitionId(),
+            notification.getAttempts(), cause);
+      }
+    } catch (RuntimeException ex) {
+      // the lease expires and the notification is sent again
+      LOGGER.error("Could not record failed notification {}", notification.getId(), ex);
+    }
+  }
+
+  @Getter
+  @ToString
+  @AllArgsConstructor
+  public static final class Statistics {
+    private final long pending;
+    private final long oldestPendingSeconds;
+    private final long sent;
+    private final long messages;
+    private final long skipped;
+    private final long failed;
+    private final long givenUp;
+    private final long averageSendMillis;
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.openlmis.requisition.domain.requisition.Requisition;
+import org.openlmis.requisition.domain.requisition.StatusChangeNotification;
+import org.openlmis.requisition.repository.RequisitionRepository;
+import org.openlmis.requisition.repository.StatusChangeNotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Durable queue of requisition status notifications. A status change is recorded in the
+ * transaction that changes the status, so it is neither lost on restart nor sent for a change
+ * that was rolled back. The notifications are sent later by
+ * {@link StatusChangeNotificationDispatcher}.
+ */
+@Primary
+@Component
+public class StatusChangeNotificationOutbox implements RequisitionStatusProcessor {
+
+  // the retry delay stops growing after this many doublings
+  private static final int MAX_BACKOFF_EXPONENT = 8;
+
+  @Autowired
+  private StatusChangeNotificationRepository statusChangeNotificationRepository;
+
+  @Autowired
+  private RequisitionRepository requisitionRepository;
+
+  @Autowired
+  private Clock clock;
+
+  @Value("${statusChangeNotifications.leaseSeconds}")
+  private long leaseSeconds;
+
+  @Value("${statusChangeNotifications.maxAttempts}")
+  private int maxAttempts;
+
+  @Value("${statusChangeNotifications.retryDelaySeconds}")
+  private long retryDelaySeconds;
+
+  /**
+   * Records that the status of the given requisition has changed.
+   *
+   * @param requisition a requisition that has just changed its status
+   */
+  @Override
+  @Transactional
+  public void statusChange(Requisition requisition, Locale locale) {
+    statusChangeNotificationRepository.save(StatusChangeNotification
+        .newStatusChangeNotification(requisition, locale, ZonedDateTime.now(clock)));
+  }
+
+  /**
+   * Takes up to the given number of due notifications. They are not due again until the lease
+   * expires, so a notification of a dispatcher that stopped in the middle is sent again later.
+   */
+  @Transactional
+  public List<StatusChangeNotification> claim(int limit) {
+    ZonedDateTime now = ZonedDateTime.now(clock);
+    List<StatusChangeNotification> notifications = statusChangeNotificationRepository
+        .lockDue(now, limit);
+    notifications.forEach(notification -> notification.lease(now.plusSeconds(leaseSeconds)));
+
+    return notifications;
+  }
+
+  /**
+   * Finds the requisition of the given notification with its status changes loaded, so that
+   * they can be read after the transaction has ended.
+   */
+  @Transactional(readOnly = true)
+  public Optional<Requisition> findRequisition(StatusChangeNotification notification) {
+    Optional<Requisition> requisition = requisitionRepository
+        .findById(notification.getRequisitionId());
+    requisition.ifPresent(found -> Hibernate.initialize(found.getStatusChanges()));
+
+    return requisition;
+  }
+
+  /**
+   * Removes a notification that has been sent.
+   */
+  @Transactional
+  public void complete(StatusChangeNotification notification) {
+    statusChangeNotificationRepository.deleteById(notification.getId());
+  }
+
+  /**
+   * Records a failed attempt and schedules the next one with an exponential backoff.
+   *
+   * @return true if there will be another attempt, false if the notification was given up
+   */
+  @Transactional
+  public boolean retry(StatusChangeNotification notification, String error) {
+    boolean retry = notification.getAttempts() + 1 < maxAttempts;
+    ZonedDateTime retryDate = retry
+        ? ZonedDateTime.now(clock).plus(getRetryDelay(notification.getAttempts()))
+        : null;
+
+    notification.failed(error, retryDate);
+    statusChangeNotificationRepository.save(notification);
+
+    return retry;
+  }
+
+  /**
+   * Returns the number of notifications waiting to be sent and the age of the oldest one.
+   */
+  @Transactional(readOnly = true)
+  public Backlog getBacklog() {
+    StatusChangeNotification oldest = statusChangeNotificationRepository
+        .findFirstByNextAttemptDateIsNotNullOrderByCreatedDate();
+    Duration age = null == oldest || null == oldest.getCreatedDate()
+        ? Duration.ZERO
+        : Duration.between(oldest.getCreatedDate(), ZonedDateTime.now(clock));
+
+    return new Backlog(statusChangeNotificationRepository.countByNextAttemptDateIsNotNull(), age);
+  }
+
+  private Duration getRetryDelay(int previousAttempts) {
+    int exponent = Math.min(previousAttempts, MAX_BACKOFF_EXPONENT);
+    return Duration.ofSeconds(retryDelaySeconds << exponent);
+  }
+
+  @Getter
+  @ToString
+  @AllArgsConstructor
+  public static final class Backlog {
+    private final long size;
+    private final Duration oldestAge;
+  }
+}
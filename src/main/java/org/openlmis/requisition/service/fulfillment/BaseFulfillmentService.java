@@ -28,6 +28,11 @@ public abstract class BaseFulfillmentService<T> extends BaseCommunicationService
     return "Fulfillment";
   }
 
+  @Override
+  protected String getClientName() {
+    return "fulfillment";
+  }
+
   @Override
   protected String getServiceUrl() {
     return fulfillmentUrl;
@@ -0,0 +1,169 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service.notification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import lombok.Getter;
+import org.openlmis.requisition.dto.UserDto;
+
+/**
+ * Notifications about a group of requisitions (for example all requisitions of a batch approval)
+ * that are sent together. Reference data looked up while composing the notifications is shared
+ * by the whole batch, so it is retrieved once per distinct id. Messages with the same recipient,
+ * tag and subject are coalesced into one notification.
+ *
+ * <p>Notifications about one requisition can be composed in a {@link #part(Object)} and added
+ * to the batch with {@link #merge(NotificationBatch)} only when all of them were composed.
+ */
+public class NotificationBatch {
+  static final String EMAIL_SEPARATOR = "\n\n";
+  static final String SMS_SEPARATOR = "\n";
+
+  private final ConcurrentMap<List<Object>, Object> lookups;
+  private final Object source;
+  private final Map<List<Object>, Message> messages = new LinkedHashMap<>();
+
+  public NotificationBatch() {
+    this(new ConcurrentHashMap<>(), null);
+  }
+
+  private NotificationBatch(ConcurrentMap<List<Object>, Object> lookups, Object source) {
+    this.lookups = lookups;
+    this.source = source;
+  }
+
+  /**
+   * Creates an empty part of this batch. The part shares looked up reference data with the
+   * batch, and its messages remember the given source.
+   */
+  public NotificationBatch part(Object source) {
+    return new NotificationBatch(lookups, source);
+  }
+
+  /**
+   * Returns the object of the given type and key that was already looked up in this batch, or
+   * loads it. Missing (null) objects are not remembered.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T lookup(String type, Object key, Supplier<T> loader) {
+    List<Object> id = Arrays.asList(type, key);
+    Object value = lookups.get(id);
+
+    if (null == value) {
+      value = loader.get();
+
+      if (null != value) {
+        lookups.putIfAbsent(id, value);
+      }
+    }
+
+    return (T) value;
+  }
+
+  /**
+   * Adds a message for the given recipient.
+   */
+  public synchronized void add(UserDto recipient, String subject, String emailContent,
+      String smsContent, String tag) {
+    getMessage(recipient, subject, tag).add(emailContent, smsContent, source);
+  }
+
+  /**
+   * Adds all messages of the given part to this batch.
+   */
+  public void merge(NotificationBatch part) {
+    List<Message> partMessages = part.getMessages();
+
+    synchronized (this) {
+      for (Message message : partMessages) {
+        getMessage(message.recipient, message.subject, message.tag).addAll(message);
+      }
+    }
+  }
+
+  /**
+   * Returns coalesced messages, one per recipient, tag and subject.
+   */
+  public synchronized List<Message> getMessages() {
+    return new ArrayList<>(messages.values());
+  }
+
+  private Message getMessage(UserDto recipient, String subject, String tag) {
+    return messages.computeIfAbsent(Arrays.asList(recipient.getId(), tag, subject),
+        key -> new Message(recipient, subject, tag));
+  }
+
+  public static final class Message {
+    @Getter
+    private final UserDto recipient;
+
+    @Getter
+    private final String subject;
+
+    @Getter
+    private final String tag;
+
+    private final List<String> emailContents = new ArrayList<>();
+    private final List<String> smsContents = new ArrayList<>();
+    private final Set<Object> sources = new LinkedHashSet<>();
+
+    Message(UserDto recipient, String subject, String tag) {
+      this.recipient = recipient;
+      this.subject = subject;
+      this.tag = tag;
+    }
+
+    public String getEmailContent() {
+      return String.join(EMAIL_SEPARATOR, emailContents);
+    }
+
+    public String getSmsContent() {
+      return String.join(SMS_SEPARATOR, smsContents);
+    }
+
+    /**
+     * Returns sources (parts of the batch) the message was composed from.
+     */
+    public Set<Object> getSources() {
+      return Collections.unmodifiableSet(sources);
+    }
+
+    private void add(String emailContent, String smsContent, Object source) {
+      emailContents.add(emailContent);
+      smsContents.add(smsContent);
+
+      if (null != source) {
+        sources.add(source);
+      }
+    }
+
+    private void addAll(Message other) {
+      emailContents.addAll(other.emailContents);
+      smsContents.addAll(other.smsContents);
+      sources.addAll(other.sources);
+    }
+  }
+}
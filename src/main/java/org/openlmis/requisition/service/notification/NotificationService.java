@@ -20,17 +20,25 @@ import static org.openlmis.requisition.service.notification.NotificationChannelD
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import org.openlmis.requisition.dto.UserDto;
 import org.openlmis.requisition.service.AuthService;
+import org.openlmis.requisition.service.HttpClientFactory;
 import org.openlmis.requisition.utils.RequestHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestOperations;
-import org.springframework.web.client.RestTemplate;
 
 @Service
 public class NotificationService {
@@ -43,7 +51,30 @@ public class NotificationService {
   @Value("${notification.url}")
   private String notificationUrl;
 
-  private RestOperations restTemplate = new RestTemplate();
+  @Value("${notification.executor.poolSize}")
+  private int poolSize;
+
+  private RestOperations restTemplate;
+
+  private ThreadPoolExecutor executor;
+
+  /**
+   * Creates the pool of threads that send notifications of a batch.
+   */
+  @PostConstruct
+  public void init() {
+    executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), new CustomizableThreadFactory("notifications-"));
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Stops the pool when the application is shut down.
+   */
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
 
   /**
    * Send an email notification.
@@ -55,29 +86,77 @@ public class NotificationService {
    */
   public boolean notify(UserDto user, String subject, String emailContent, String smsContent,
       String tag) {
-    String url = notificationUrl + "/api/notifications";
-
-    NotificationDto request = buildNotification(user, subject, emailContent, smsContent, tag);
-
     try {
-      restTemplate.postForObject(
-              RequestHelper.createUri(url),
-              RequestHelper.createEntity(request, authService.obtainAccessToken()),
-              Object.class);
+      send(user, subject, emailContent, smsContent, tag);
     } catch (HttpStatusCodeException ex) {
-      logger.error(
-          "Unable to send notification. Error code: {}, response message: {}",
-          ex.getStatusCode(), ex.getResponseBodyAsString()
-      );
+      logRejection(ex);
       return false;
     }
     return true;
   }
 
+  /**
+   * Sends all (coalesced) messages of the given batch, at most the pool size at once, and waits
+   * until they have been sent. Rejected notifications are logged like in
+   * {@link #notify(UserDto, String, String, String, String)} and, unlike there, returned as
+   * failed with the error response.
+   *
+   * @return messages that could not be sent because of an error, with the error.
+   */
+  public Map<NotificationBatch.Message, RuntimeException> notify(NotificationBatch batch) {
+    Map<NotificationBatch.Message, RuntimeException> failed = new ConcurrentHashMap<>();
+
+    CompletableFuture
+        .allOf(batch
+            .getMessages()
+            .stream()
+            .map(message -> CompletableFuture.runAsync(() -> {
+              try {
+                send(message.getRecipient(), message.getSubject(), message.getEmailContent(),
+                    message.getSmsContent(), message.getTag());
+              } catch (HttpStatusCodeException ex) {
+                logRejection(ex);
+                failed.put(message, ex);
+              } catch (RuntimeException ex) {
+                logger.error("Unable to send notification to user {}",
+                    message.getRecipient().getId(), ex);
+                failed.put(message, ex);
+              }
+            }, executor))
+            .toArray(CompletableFuture[]::new))
+        .join();
+
+    return failed;
+  }
+
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("notification");
+  }
+
   void setRestTemplate(RestOperations restTemplate) {
     this.restTemplate = restTemplate;
   }
 
+  private void send(UserDto user, String subject, String emailContent, String smsContent,
+      String tag) {
+    String url = notificationUrl + "/api/notifications";
+
+    NotificationDto request = buildNotification(user, subject, emailContent, smsContent, tag);
+
+    restTemplate.postForObject(
+        RequestHelper.createUri(url),
+        RequestHelper.createEntity(request, authService.obtainAccessToken()),
+        Object.class);
+  }
+
+  private void logRejection(HttpStatusCodeException ex) {
+    logger.error(
+        "Unable to send notification. Error code: {}, response message: {}",
+        ex.getStatusCode(), ex.getResponseBodyAsString()
+    );
+  }
+
   private NotificationDto buildNotification(UserDto user, String subject,
       String emailContent, String smsContent, String tag) {
     Map<String, MessageDto> messages = new HashMap<>();
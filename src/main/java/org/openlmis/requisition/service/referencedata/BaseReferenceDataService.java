@@ -28,6 +28,11 @@ public abstract class BaseReferenceDataService<T> extends BaseCommunicationServi
     return "Reference Data";
   }
 
+  @Override
+  protected String getClientName() {
+    return "referencedata";
+  }
+
   @Override
   protected String getServiceUrl() {
     return referenceDataUrl;
@@ -45,6 +45,11 @@ public class FacilityReferenceDataService extends BaseReferenceDataService<Facil
     return FacilityDto[].class;
   }
 
+  @Override
+  protected String getCacheName() {
+    return "facilities";
+  }
+
   @Override
   public List<FacilityDto> findAll() {
     return getPage(RequestParameters.init()).getContent();
@@ -29,6 +29,7 @@ import org.springframework.stereotype.Service;
 @Service
 public class FacilityTypeApprovedProductReferenceDataService extends
     BaseReferenceDataService<ApprovedProductDto> {
+  static final String VERSIONS_CACHE_NAME = "approvedProductVersions";
 
   @Override
   protected String getUrl() {
@@ -59,6 +60,17 @@ public class FacilityTypeApprovedProductReferenceDataService extends
         .map(ref -> new VersionIdentityDto(ref.getId(), ref.getVersionNumber()))
         .collect(Collectors.toList());
 
+    // a specific version of an approved product never changes so it can be cached without
+    // revalidation
+    if (isResponseCacheEnabled(VERSIONS_CACHE_NAME)) {
+      return responseCache.getAll(VERSIONS_CACHE_NAME, identities, ApprovedProductDto.class,
+          this::searchByIdentities, ApprovedProductDto::getIdentity);
+    }
+
+    return searchByIdentities(identities);
+  }
+
+  private List<ApprovedProductDto> searchByIdentities(List<VersionIdentityDto> identities) {
     FacilityTypeApprovedProductSearchParams payload = new FacilityTypeApprovedProductSearchParams(
         null, null, null, identities, 0, identities.size());
 
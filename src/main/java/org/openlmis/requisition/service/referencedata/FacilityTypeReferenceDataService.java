@@ -36,4 +36,9 @@ public class FacilityTypeReferenceDataService extends BaseReferenceDataService<F
     return FacilityTypeDto[].class;
   }
 
+  @Override
+  protected String getCacheName() {
+    return "facilityTypes";
+  }
+
 }
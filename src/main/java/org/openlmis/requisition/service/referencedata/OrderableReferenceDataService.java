@@ -29,6 +29,7 @@ import org.springframework.util.CollectionUtils;
 @Service
 public class OrderableReferenceDataService
         extends BaseReferenceDataService<OrderableDto> {
+  static final String VERSIONS_CACHE_NAME = "orderableVersions";
 
   @Override
   protected String getUrl() {
@@ -45,6 +46,11 @@ public class OrderableReferenceDataService
     return OrderableDto[].class;
   }
 
+  @Override
+  protected String getCacheName() {
+    return "orderables";
+  }
+
   @Override
   public List<OrderableDto> findAll() {
     return getPage(RequestParameters.init()).getContent();
@@ -63,6 +69,16 @@ public class OrderableReferenceDataService
         .map(ref -> new VersionIdentityDto(ref.getId(), ref.getVersionNumber()))
         .collect(Collectors.toList());
 
+    // a specific version of an orderable never changes so it can be cached without revalidation
+    if (isResponseCacheEnabled(VERSIONS_CACHE_NAME)) {
+      return responseCache.getAll(VERSIONS_CACHE_NAME, identities, OrderableDto.class,
+          this::searchByIdentities, OrderableDto::getIdentity);
+    }
+
+    return searchByIdentities(identities);
+  }
+
+  private List<OrderableDto> searchByIdentities(List<VersionIdentityDto> identities) {
     OrderableSearchParams payload = new OrderableSearchParams(
         null, null, null, identities, 0, identities.size());
 
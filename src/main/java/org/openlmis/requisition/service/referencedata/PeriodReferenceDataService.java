@@ -44,6 +44,11 @@ public class PeriodReferenceDataService extends BaseReferenceDataService<Process
     return ProcessingPeriodDto[].class;
   }
 
+  @Override
+  protected String getCacheName() {
+    return "processingPeriods";
+  }
+
   /**
    * Retrieves periods from the reference data service by schedule ID and end date.
    *
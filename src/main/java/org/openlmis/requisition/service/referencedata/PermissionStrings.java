@@ -15,34 +15,86 @@
 
 package org.openlmis.requisition.service.referencedata;
 
-import com.google.common.collect.Maps;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import org.openlmis.requisition.repository.custom.PermissionStringsRedisRepository;
 import org.openlmis.requisition.service.ServiceResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Component;
 
+/**
+ * Keeps permission strings of users retrieved from the reference data service. Permission
+ * strings are revalidated (with a conditional request) only when they are older than the
+ * freshness window. While one thread revalidates, other threads receive the previous value.
+ * Users that have not been seen for the idle time are evicted. Optionally, permission strings
+ * and their ETags are shared with other instances of the service through Redis.
+ */
 @Component
 public class PermissionStrings {
-  private final Map<UUID, Handler> handlers = Maps.newConcurrentMap();
+  private static final Logger LOGGER = LoggerFactory.getLogger(PermissionStrings.class);
+
+  private Cache<UUID, Handler> handlers;
 
   @Autowired
   private UserReferenceDataService userReferenceDataService;
 
+  @Autowired
+  private PermissionStringsRedisRepository permissionStringsRedisRepository;
+
+  @Value("${permissionStrings.cache.maxSize}")
+  private long maxSize;
+
+  @Value("${permissionStrings.cache.idleSeconds}")
+  private long idleSeconds;
+
+  @Value("${permissionStrings.cache.freshnessSeconds}")
+  private long freshnessSeconds;
+
+  @Value("${permissionStrings.redis.enabled}")
+  private boolean redisEnabled;
+
+  /**
+   * Creates the cache of handlers.
+   */
+  @PostConstruct
+  public void init() {
+    handlers = CacheBuilder
+        .newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterAccess(idleSeconds, TimeUnit.SECONDS)
+        .build();
+  }
+
+  /**
+   * Returns the handler for the given user.
+   */
   public Handler forUser(UUID user) {
-    return handlers.computeIfAbsent(user, Handler::new);
+    try {
+      return handlers.get(user, () -> new Handler(user));
+    } catch (ExecutionException ex) {
+      // the loader does not throw checked exceptions
+      throw new IllegalStateException(ex);
+    }
   }
 
   public class Handler implements Supplier<Set<PermissionStringDto>> {
-    private final Object lock = new Object();
+    private final ReentrantLock lock = new ReentrantLock();
 
     private UUID userId;
 
-    private Set<PermissionStringDto> permissionStrings;
-    private String etag;
+    private volatile State state;
 
     Handler(UUID userId) {
       this.userId = userId;
@@ -50,20 +102,105 @@ public class PermissionStrings {
 
     @Override
     public Set<PermissionStringDto> get() {
-      updatePermissionStrings();
-      return permissionStrings;
+      State current = state;
+
+      if (null != current && current.isFresh()) {
+        return current.permissionStrings;
+      }
+
+      if (null == current) {
+        // nothing to return yet, wait for the thread that retrieves permission strings
+        lock.lock();
+      } else if (!lock.tryLock()) {
+        // another thread revalidates permission strings, return the previous value
+        return current.permissionStrings;
+      }
+
+      try {
+        if (null == state || !state.isFresh()) {
+          state = revalidate(state);
+        }
+
+        return state.permissionStrings;
+      } finally {
+        lock.unlock();
+      }
     }
 
-    private void updatePermissionStrings() {
-      synchronized (lock) {
-        ServiceResponse<List<String>> response = userReferenceDataService
-            .getPermissionStrings(userId, etag);
+    private State revalidate(State current) {
+      State latest = current;
+      PermissionStringsRedisRepository.Entry shared = findShared();
 
-        if (response.isModified()) {
-          permissionStrings = PermissionStringDto.from(response.getBody());
-          etag = response.getETag();
+      if (null != shared && (null == latest || shared.getValidatedAt() > latest.validatedAt)) {
+        latest = new State(shared.getPermissionStrings(), shared.getEtag(),
+            shared.getValidatedAt());
+
+        if (latest.isFresh()) {
+          return latest;
         }
       }
+
+      ServiceResponse<List<String>> response = userReferenceDataService
+          .getPermissionStrings(userId, null == latest ? null : latest.etag);
+
+      State revalidated = response.isModified()
+          ? new State(response.getBody(), response.getETag(), System.currentTimeMillis())
+          : new State(latest.rawPermissionStrings, latest.permissionStrings, latest.etag,
+              System.currentTimeMillis());
+
+      share(revalidated);
+      return revalidated;
+    }
+
+    private PermissionStringsRedisRepository.Entry findShared() {
+      if (!redisEnabled) {
+        return null;
+      }
+
+      try {
+        return permissionStringsRedisRepository.findByUserId(userId);
+      } catch (DataAccessException ex) {
+        LOGGER.warn("Could not retrieve shared permission strings of user {}", userId, ex);
+        return null;
+      }
+    }
+
+    private void share(State revalidated) {
+      if (!redisEnabled) {
+        return;
+      }
+
+      try {
+        permissionStringsRedisRepository.save(userId,
+            new PermissionStringsRedisRepository.Entry(revalidated.rawPermissionStrings,
+                revalidated.etag, revalidated.validatedAt), idleSeconds);
+      } catch (DataAccessException ex) {
+        LOGGER.warn("Could not share permission strings of user {}", userId, ex);
+      }
+    }
+  }
+
+  private final class State {
+    private final List<String> rawPermissionStrings;
+    private final Set<PermissionStringDto> permissionStrings;
+    private final String etag;
+    private final long validatedAt;
+
+    State(List<String> rawPermissionStrings, String etag, long validatedAt) {
+      this(rawPermissionStrings, PermissionStringDto.from(rawPermissionStrings), etag,
+          validatedAt);
+    }
+
+    State(List<String> rawPermissionStrings, Set<PermissionStringDto> permissionStrings,
+        String etag, long validatedAt) {
+      this.rawPermissionStrings = rawPermissionStrings;
+      this.permissionStrings = permissionStrings;
+      this.etag = etag;
+      this.validatedAt = validatedAt;
+    }
+
+    boolean isFresh() {
+      return System.currentTimeMillis() - validatedAt < TimeUnit.SECONDS.toMillis(freshnessSeconds);
     }
   }
 }
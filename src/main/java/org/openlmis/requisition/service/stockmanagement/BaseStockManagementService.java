@@ -28,6 +28,11 @@ public abstract class BaseStockManagementService<T> extends BaseCommunicationSer
     return "Stock Management";
   }
 
+  @Override
+  protected String getClientName() {
+    return "stockmanagement";
+  }
+
   @Override
   protected String getServiceUrl() {
     return stockmanagementUrl;
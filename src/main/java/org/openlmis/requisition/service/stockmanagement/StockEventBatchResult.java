@@ -0,0 +1,45 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service.stockmanagement;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Outcome of sending a batch of stock events, correlated by id of the requisition from which
+ * each event was built.
+ */
+@Getter
+@ToString
+public final class StockEventBatchResult {
+  private final Map<UUID, UUID> stockEventIds = new LinkedHashMap<>();
+  private final Map<UUID, RuntimeException> errors = new LinkedHashMap<>();
+
+  void addStockEventId(UUID requisitionId, UUID stockEventId) {
+    stockEventIds.put(requisitionId, stockEventId);
+  }
+
+  void addError(UUID requisitionId, RuntimeException error) {
+    errors.put(requisitionId, error);
+  }
+
+  public boolean isSuccessful() {
+    return errors.isEmpty();
+  }
+}
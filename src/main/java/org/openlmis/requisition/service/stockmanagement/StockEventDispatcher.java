@@ -0,0 +1,203 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service.stockmanagement;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.openlmis.requisition.domain.requisition.StockEventSubmission;
+import org.openlmis.requisition.dto.stockmanagement.StockEventDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends stock events recorded in {@link StockEventOutbox} to the stock management service. Due
+ * events are taken in batches and sent in chunks by
+ * {@link StockEventStockManagementService#submitAll(Map)}. A failed event is retried with an
+ * exponential backoff, while the other events of the batch are completed.
+ */
+@Component
+public class StockEventDispatcher {
+  private static final Logger LOGGER = LoggerFactory.getLogger(StockEventDispatcher.class);
+
+  @Autowired
+  private StockEventOutbox outbox;
+
+  @Autowired
+  private StockEventStockManagementService stockEventStockManagementService;
+
+  @Value("${stockEventSubmissions.enabled}")
+  private boolean enabled;
+
+  @Value("${stockEventSubmissions.pollIntervalMillis}")
+  private long pollIntervalMillis;
+
+  @Value("${stockEventSubmissions.batchSize}")
+  private int batchSize;
+
+  private ScheduledExecutorService poller;
+
+  private final AtomicLong sent = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong givenUp = new AtomicLong();
+  private final AtomicLong totalSendMillis = new AtomicLong();
+
+  /**
+   * Starts polling for due stock events.
+   */
+  @PostConstruct
+  public void init() {
+    if (enabled) {
+      poller = Executors.newSingleThreadScheduledExecutor(
+          new CustomizableThreadFactory("stock-events-poller-"));
+      poller.scheduleWithFixedDelay(this::dispatch, pollIntervalMillis, pollIntervalMillis,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Stops polling when the application is shut down. Stock events that have been taken but not
+   * sent are sent again when their lease expires.
+   */
+  @PreDestroy
+  public void shutdown() {
+    if (null != poller) {
+      poller.shutdownNow();
+    }
+  }
+
+  /**
+   * Sends due stock events until there are no more of them.
+   */
+  public void dispatch() {
+    try {
+      List<StockEventSubmission> batch;
+
+      do {
+        batch = outbox.claim(batchSize);
+        send(batch);
+      } while (batch.size() == batchSize);
+    } catch (RuntimeException ex) {
+      LOGGER.error("Could not dispatch stock events", ex);
+    }
+  }
+
+  /**
+   * Returns the outbox backlog and the number of stock events handled so far.
+   */
+  public Statistics getStatistics() {
+    StockEventOutbox.Backlog backlog = outbox.getBacklog();
+    long handled = sent.get() + failed.get();
+
+    return new Statistics(backlog.getSize(), backlog.getOldestAge().getSeconds(),
+        sent.get(), failed.get(), givenUp.get(),
+        0 == handled ? 0 : totalSendMillis.get() / handled);
+  }
+
+  /**
+   * Logs the outbox backlog and throughput statistics.
+   */
+  @Scheduled(fixedRateString = "${stockEventSubmissions.statisticsLogIntervalMillis}")
+  public void logStatistics() {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Stock events: {}", getStatistics());
+    }
+  }
+
+  private void send(List<StockEventSubmission> batch) {
+    Map<UUID, StockEventSubmission> submissions = new LinkedHashMap<>();
+    Map<UUID, StockEventDto> stockEvents = new LinkedHashMap<>();
+
+    for (StockEventSubmission submission : batch) {
+      try {
+        stockEvents.put(submission.getRequisitionId(), outbox.getStockEvent(submission));
+        submissions.put(submission.getRequisitionId(), submission);
+      } catch (RuntimeException ex) {
+        failed.incrementAndGet();
+        fail(submission, ex);
+      }
+    }
+
+    if (stockEvents.isEmpty()) {
+      return;
+    }
+
+    long startedAt = System.currentTimeMillis();
+    StockEventBatchResult result = stockEventStockManagementService.submitAll(stockEvents);
+    totalSendMillis.addAndGet(System.currentTimeMillis() - startedAt);
+
+    result.getStockEventIds().keySet().forEach(requisitionId -> {
+      sent.incrementAndGet();
+      complete(submissions.get(requisitionId));
+    });
+    result.getErrors().forEach((requisitionId, cause) -> {
+      failed.incrementAndGet();
+      fail(submissions.get(requisitionId), cause);
+    });
+  }
+
+  private void complete(StockEventSubmission submission) {
+    try {
+      outbox.complete(submission);
+    } catch (RuntimeException ex) {
+      // the lease expires and the stock event is sent again
+      LOGGER.error("Could not complete stock event submission {}", submission.getId(), ex);
+    }
+  }
+
+  private void fail(StockEventSubmission submission, RuntimeException cause) {
+    try {
+      if (outbox.retry(submission, cause.toString())) {
+        LOGGER.warn("Could not send stock event of requisition {}, it will be retried",
+            submission.getRequisitionId(), cause);
+      } else {
+        givenUp.incrementAndGet();
+        LOGGER.error("Could not send stock event of requisition {} after {} attempts",
+            submission.getRequisitionId(), submission.getAttempts(), cause);
+      }
+    } catch (RuntimeException ex) {
+      // the lease expires and the stock event is sent again
+      LOGGER.error("Could not record failed stock event submission {}", submission.getId(), ex);
+    }
+  }
+
+  @Getter
+  @ToString
+  @AllArgsConstructor
+  public static final class Statistics {
+    private final long pending;
+    private final long oldestPendingSeconds;
+    private final long sent;
+    private final long failed;
+    private final long givenUp;
+    private final long averageSendMillis;
+  }
+}
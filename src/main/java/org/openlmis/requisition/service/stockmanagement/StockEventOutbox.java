@@ -0,0 +1,168 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service.stockmanagement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.openlmis.requisition.domain.requisition.StockEventSubmission;
+import org.openlmis.requisition.dto.stockmanagement.StockEventDto;
+import org.openlmis.requisition.exception.ServerException;
+import org.openlmis.requisition.i18n.MessageKeys;
+import org.openlmis.requisition.repository.StockEventSubmissionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Durable queue of stock events of approved requisitions. The events are recorded in the
+ * transaction that approves the requisitions and sent after it has been committed by
+ * {@link StockEventDispatcher}, so an event is neither lost nor sent for an approval that was
+ * rolled back.
+ */
+@Component
+public class StockEventOutbox {
+
+  // the retry delay stops growing after this many doublings
+  private static final int MAX_BACKOFF_EXPONENT = 8;
+
+  @Autowired
+  private StockEventSubmissionRepository stockEventSubmissionRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private Clock clock;
+
+  @Value("${stockEventSubmissions.leaseSeconds}")
+  private long leaseSeconds;
+
+  @Value("${stockEventSubmissions.maxAttempts}")
+  private int maxAttempts;
+
+  @Value("${stockEventSubmissions.retryDelaySeconds}")
+  private long retryDelaySeconds;
+
+  /**
+   * Records the given stock events to be sent.
+   *
+   * @param stockEvents stock events of approved requisitions, keyed by requisition id
+   */
+  @Transactional
+  public void add(Map<UUID, StockEventDto> stockEvents) {
+    ZonedDateTime now = ZonedDateTime.now(clock);
+
+    stockEvents.forEach((requisitionId, stockEvent) -> stockEventSubmissionRepository
+        .save(StockEventSubmission.newStockEventSubmission(requisitionId, write(stockEvent),
+            now)));
+  }
+
+  /**
+   * Takes up to the given number of due submissions. They are not due again until the lease
+   * expires, so a submission of a dispatcher that stopped in the middle is sent again later.
+   */
+  @Transactional
+  public List<StockEventSubmission> claim(int limit) {
+    ZonedDateTime now = ZonedDateTime.now(clock);
+    List<StockEventSubmission> submissions = stockEventSubmissionRepository
+        .lockDue(now, limit);
+    submissions.forEach(submission -> submission.lease(now.plusSeconds(leaseSeconds)));
+
+    return submissions;
+  }
+
+  /**
+   * Returns the stock event of the given submission.
+   */
+  public StockEventDto getStockEvent(StockEventSubmission submission) {
+    try {
+      return objectMapper.readValue(submission.getStockEvent(), StockEventDto.class);
+    } catch (IOException ex) {
+      throw new ServerException(ex, MessageKeys.ERROR_IO, ex.getMessage());
+    }
+  }
+
+  /**
+   * Removes a submission whose stock event has been created.
+   */
+  @Transactional
+  public void complete(StockEventSubmission submission) {
+    stockEventSubmissionRepository.deleteById(submission.getId());
+  }
+
+  /**
+   * Records a failed attempt and schedules the next one with an exponential backoff.
+   *
+   * @return true if there will be another attempt, false if the submission was given up
+   */
+  @Transactional
+  public boolean retry(StockEventSubmission submission, String error) {
+    boolean retry = submission.getAttempts() + 1 < maxAttempts;
+    ZonedDateTime retryDate = retry
+        ? ZonedDateTime.now(clock).plus(getRetryDelay(submission.getAttempts()))
+        : null;
+
+    submission.failed(error, retryDate);
+    stockEventSubmissionRepository.save(submission);
+
+    return retry;
+  }
+
+  /**
+   * Returns the number of stock events waiting to be sent and the age of the oldest one.
+   */
+  @Transactional(readOnly = true)
+  public Backlog getBacklog() {
+    StockEventSubmission oldest = stockEventSubmissionRepository
+        .findFirstByNextAttemptDateIsNotNullOrderByCreatedDate();
+    Duration age = null == oldest || null == oldest.getCreatedDate()
+        ? Duration.ZERO
+        : Duration.between(oldest.getCreatedDate(), ZonedDateTime.now(clock));
+
+    return new Backlog(stockEventSubmissionRepository.countByNextAttemptDateIsNotNull(), age);
+  }
+
+  private String write(StockEventDto stockEvent) {
+    try {
+      return objectMapper.writeValueAsString(stockEvent);
+    } catch (IOException ex) {
+      throw new ServerException(ex, MessageKeys.ERROR_IO, ex.getMessage());
+    }
+  }
+
+  private Duration getRetryDelay(int previousAttempts) {
+    int exponent = Math.min(previousAttempts, MAX_BACKOFF_EXPONENT);
+    return Duration.ofSeconds(retryDelaySeconds << exponent);
+  }
+
+  @Getter
+  @ToString
+  @AllArgsConstructor
+  public static final class Backlog {
+    private final long size;
+    private final Duration oldestAge;
+  }
+}
@@ -18,8 +18,15 @@ package org.openlmis.requisition.service.stockmanagement;
 import static org.openlmis.requisition.utils.RequestHelper.createUri;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Iterables;
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.openlmis.requisition.dto.LocalizedMessageDto;
 import org.openlmis.requisition.dto.stockmanagement.StockEventDto;
 import org.openlmis.requisition.exception.ExternalApiException;
@@ -29,6 +36,7 @@ import org.openlmis.requisition.utils.RequestHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -44,25 +52,71 @@ public class StockEventStockManagementService
   @Autowired
   private ObjectMapper objectMapper;
 
+  @Autowired
+  private StockManagementExecutor stockManagementExecutor;
+
+  @Value("${stockManagement.stockEvents.batchSize}")
+  private int batchSize;
+
   /**
    * Saves the given stock event to the stockmanagement service.
    *
    * @param stockEventDto  the physical inventory to be submitted
    */
-  @SuppressWarnings("PMD.PreserveStackTrace")
   public void submit(StockEventDto stockEventDto) {
+    send(stockEventDto);
+  }
+
+  /**
+   * Saves the given stock events to the stockmanagement service. The events are sent in chunks
+   * of the configured batch size. Events from a single chunk are sent concurrently and the next
+   * chunk is sent once all of them have finished, so a large batch does not take over the whole
+   * stock management executor. A failure of one event does not stop the others.
+   *
+   * @param stockEvents  the stock events to be submitted, keyed by requisition id
+   * @return ids of created stock events and errors, keyed by requisition id
+   */
+  public StockEventBatchResult submitAll(Map<UUID, StockEventDto> stockEvents) {
+    StockEventBatchResult result = new StockEventBatchResult();
+
+    for (List<Entry<UUID, StockEventDto>> chunk
+        : Iterables.partition(stockEvents.entrySet(), batchSize)) {
+      Map<UUID, CompletableFuture<UUID>> futures = new LinkedHashMap<>();
+
+      for (Entry<UUID, StockEventDto> entry : chunk) {
+        futures.put(entry.getKey(),
+            stockManagementExecutor.supplyAsync(() -> send(entry.getValue())));
+      }
+
+      futures.forEach((requisitionId, future) -> {
+        try {
+          result.addStockEventId(requisitionId, future.join());
+        } catch (CompletionException ex) {
+          LOGGER.warn("Could not send stock event for requisition {}", requisitionId, ex);
+          result.addError(requisitionId, ex.getCause() instanceof RuntimeException
+              ? (RuntimeException) ex.getCause()
+              : ex);
+        }
+      });
+    }
+
+    return result;
+  }
+
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  private UUID send(StockEventDto stockEventDto) {
     String url = getServiceUrl() + getUrl();
 
     LOGGER.debug("Sending Stock Events to Stock Management: {}", stockEventDto);
 
     try {
-      runWithRetryAndTokenRetry(() ->
+      return runWithRetryAndTokenRetry(() ->
           restTemplate.exchange(
               createUri(url),
               HttpMethod.POST,
               RequestHelper.createEntity(stockEventDto, authService.obtainAccessToken()),
               UUID.class
-          ));
+          )).getBody();
 
     } catch (HttpStatusCodeException ex) {
       if (ex.getStatusCode() == HttpStatus.BAD_REQUEST) {
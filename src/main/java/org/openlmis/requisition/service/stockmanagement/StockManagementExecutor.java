@@ -0,0 +1,100 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service.stockmanagement;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.openlmis.requisition.service.BoundedExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shared, bounded pool of worker threads for outbound calls to the stock management service.
+ * See {@link BoundedExecutor} for how it behaves when all threads are busy.
+ */
+@Component
+public class StockManagementExecutor {
+  private static final Logger LOGGER = LoggerFactory.getLogger(StockManagementExecutor.class);
+
+  @Value("${stockManagement.executor.poolSize}")
+  private int poolSize;
+
+  @Value("${stockManagement.executor.queueCapacity}")
+  private int queueCapacity;
+
+  private BoundedExecutor executor;
+
+  /**
+   * Creates the worker pool.
+   */
+  @PostConstruct
+  public void init() {
+    executor = new BoundedExecutor("stock-management-", poolSize, queueCapacity);
+  }
+
+  /**
+   * Stops the worker pool when the application is shut down.
+   */
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  /**
+   * Runs the given task on one of the worker threads.
+   *
+   * @param task the call to the stock management service.
+   * @return future that is completed when the task has finished.
+   */
+  public CompletableFuture<Void> runAsync(Runnable task) {
+    return supplyAsync(() -> {
+      task.run();
+      return null;
+    });
+  }
+
+  /**
+   * Runs the given task on one of the worker threads.
+   *
+   * @param task the call to the stock management service.
+   * @return future that is completed with the result of the task.
+   */
+  public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+    return executor.supplyAsync(task);
+  }
+
+  /**
+   * Returns the current queue depth and the latency statistics of executed tasks.
+   */
+  public BoundedExecutor.Statistics getStatistics() {
+    return executor.getStatistics();
+  }
+
+  /**
+   * Logs queue depth and latency statistics.
+   */
+  @Scheduled(fixedRateString = "${stockManagement.executor.statisticsLogIntervalMillis}")
+  public void logStatistics() {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Stock management executor: {}", getStatistics());
+    }
+  }
+}
@@ -74,10 +74,13 @@ import org.openlmis.requisition.dto.stockmanagement.StockEventDto;
 import org.openlmis.requisition.errorhandling.ValidationResult;
 import org.openlmis.requisition.exception.ContentNotFoundMessageException;
 import org.openlmis.requisition.exception.IdempotencyKeyException;
+import org.openlmis.requisition.exception.IdempotencyKeyProcessedException;
 import org.openlmis.requisition.exception.ValidationMessageException;
 import org.openlmis.requisition.i18n.MessageKeys;
 import org.openlmis.requisition.repository.RequisitionRepository;
 import org.openlmis.requisition.repository.custom.ProcessedRequestsRedisRepository;
+import org.openlmis.requisition.repository.custom.ProcessedRequestsRedisRepository.ClaimResult;
+import org.openlmis.requisition.repository.custom.RequisitionSearchCursor;
 import org.openlmis.requisition.service.PeriodService;
 import org.openlmis.requisition.service.PermissionService;
 import org.openlmis.requisition.service.RequisitionService;
@@ -109,12 +112,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
 
 @SuppressWarnings("PMD.TooManyMethods")
 public abstract class BaseRequisitionController extends BaseController {
 
   static final String RESOURCE_URL = "/requisitions";
   static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  private static final String ACCESS_TOKEN_PARAM = "access_token";
+  private static final String PAGE_PARAM = "page";
 
   private final XLogger extLogger = XLoggerFactory.getXLogger(getClass());
   final Logger logger = LoggerFactory.getLogger(getClass());
@@ -426,10 +435,9 @@ public abstract class BaseRequisitionController extends BaseController {
   void submitStockEvent(Requisition requisition, UUID currentUserId,
       Map<VersionIdentityDto, OrderableDto> orderables) {
     Profiler profiler = getProfiler("SUBMIT_STOCK_EVENT", requisition, currentUserId);
-    if (requisition.getStatus().isApproved() && isNotTrue(requisition.getEmergency())) {
+    if (isStockEventRequired(requisition)) {
       profiler.start("BUILD_STOCK_EVENT_FROM_REQUISITION");
-      StockEventDto stockEventDto = stockEventBuilder
-          .fromRequisition(requisition, currentUserId, orderables);
+      StockEventDto stockEventDto = buildStockEvent(requisition, currentUserId, orderables);
 
       profiler.start("SUBMIT_STOCK_EVENT");
       stockEventStockManagementService.submit(stockEventDto);
@@ -437,6 +445,15 @@ public abstract class BaseRequisitionController extends BaseController {
     }
   }
 
+  boolean isStockEventRequired(Requisition requisition) {
+    return requisition.getStatus().isApproved() && isNotTrue(requisition.getEmergency());
+  }
+
+  StockEventDto buildStockEvent(Requisition requisition, UUID currentUserId,
+      Map<VersionIdentityDto, OrderableDto> orderables) {
+    return stockEventBuilder.fromRequisition(requisition, currentUserId, orderables);
+  }
+
   Set<VersionEntityReference> getLineItemOrderableIdentities(Requisition requisition) {
     return requisition
         .getRequisitionLineItems()
@@ -523,6 +540,24 @@ public abstract class BaseRequisitionController extends BaseController {
     extLogger.exit(exitArgs);
   }
 
+  /**
+   * Checks the If-None-Match header of the request against the given version. If it matches,
+   * the response is marked as 304 Not Modified with the current eTag and the profiler is stopped,
+   * so the caller can return without building the response body.
+   */
+  boolean isNotModified(HttpServletRequest request, HttpServletResponse response,
+      Long version, Profiler profiler) {
+    if (!ETagResource.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), version)) {
+      return false;
+    }
+
+    response.setStatus(HttpStatus.NOT_MODIFIED.value());
+    response.setHeader(HttpHeaders.ETAG, ETagResource.buildWeakETag(version));
+    stopProfiler(profiler, HttpStatus.NOT_MODIFIED);
+
+    return true;
+  }
+
   Requisition findRequisition(UUID requisitionId, Profiler profiler) {
     profiler.start("GET_REQUISITION_BY_ID");
     Requisition requisition = requisitionRepository.findById(requisitionId).orElse(null);
@@ -618,10 +653,16 @@ public abstract class BaseRequisitionController extends BaseController {
     profiler.start("VALIDATE_IDEMPOTENCY_KEY");
     UUID key = retrieveIdempotencyKey(request);
     if (null != key) {
-      if (processedRequestsRedisRepository.exists(key)) {
+      ClaimResult claim = processedRequestsRedisRepository.claim(key);
+
+      if (claim.isProcessed()) {
+        throw new IdempotencyKeyProcessedException(new Message(IDEMPOTENCY_KEY_ALREADY_USED),
+            buildLocation(claim.getResourceId()));
+      }
+
+      if (!claim.isClaimed()) {
         throw new IdempotencyKeyException(new Message(IDEMPOTENCY_KEY_ALREADY_USED));
       }
-      processedRequestsRedisRepository.addOrUpdate(key, null);
     }
   }
 
@@ -630,12 +671,30 @@ public abstract class BaseRequisitionController extends BaseController {
     profiler.start("ADD_LOCATION_HEADER");
     UUID key = retrieveIdempotencyKey(request);
     if (null != key) {
-      response.addHeader(HttpHeaders.LOCATION,
-          baseUrl + API_URL + RESOURCE_URL + '/' + requisitionId);
+      response.addHeader(HttpHeaders.LOCATION, buildLocation(requisitionId));
       processedRequestsRedisRepository.addOrUpdate(key, requisitionId);
     }
   }
 
+  private String buildLocation(UUID requisitionId) {
+    return baseUrl + API_URL + RESOURCE_URL + '/' + requisitionId;
+  }
+
+  String buildSearchUrl(MultiValueMap<String, String> queryParams,
+      RequisitionSearchCursor cursor) {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>(queryParams);
+    params.remove(ACCESS_TOKEN_PARAM);
+    params.remove(PAGE_PARAM);
+    params.set(QueryRequisitionSearchParams.CURSOR, cursor.encode());
+
+    return UriComponentsBuilder
+        .fromHttpUrl(baseUrl + API_URL + RESOURCE_URL + "/search")
+        .queryParams(params)
+        .build()
+        .encode()
+        .toUriString();
+  }
+
   private UUID retrieveIdempotencyKey(HttpServletRequest request) {
     String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
     if (isNotEmpty(key)) {
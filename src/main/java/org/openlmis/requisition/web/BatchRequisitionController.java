@@ -15,36 +15,31 @@
 
 package org.openlmis.requisition.web;
 
-import static java.util.concurrent.CompletableFuture.runAsync;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
-import static org.apache.commons.lang3.BooleanUtils.isFalse;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_NO_FOLLOWING_PERMISSION;
 
 import com.google.common.collect.Lists;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.openlmis.requisition.domain.BaseEntity;
-import org.openlmis.requisition.domain.RequisitionTemplateColumn;
+import org.openlmis.requisition.domain.CompiledRequisitionTemplate;
 import org.openlmis.requisition.domain.SourceType;
 import org.openlmis.requisition.domain.requisition.ApprovedProductReference;
 import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.domain.requisition.RequisitionBuilder;
 import org.openlmis.requisition.domain.requisition.RequisitionLineItem;
+import org.openlmis.requisition.domain.requisition.RequisitionLineItemAccessors;
 import org.openlmis.requisition.domain.requisition.VersionEntityReference;
 import org.openlmis.requisition.dto.ApproveRequisitionDto;
 import org.openlmis.requisition.dto.ApproveRequisitionLineItemDto;
@@ -62,6 +57,7 @@ import org.openlmis.requisition.dto.SupervisoryNodeDto;
 import org.openlmis.requisition.dto.SupplyLineDto;
 import org.openlmis.requisition.dto.UserDto;
 import org.openlmis.requisition.dto.VersionIdentityDto;
+import org.openlmis.requisition.dto.stockmanagement.StockEventDto;
 import org.openlmis.requisition.errorhandling.ValidationFailure;
 import org.openlmis.requisition.errorhandling.ValidationResult;
 import org.openlmis.requisition.i18n.MessageKeys;
@@ -70,6 +66,8 @@ import org.openlmis.requisition.service.PermissionService;
 import org.openlmis.requisition.service.referencedata.PeriodReferenceDataService;
 import org.openlmis.requisition.service.referencedata.SupervisoryNodeReferenceDataService;
 import org.openlmis.requisition.service.referencedata.UserReferenceDataService;
+import org.openlmis.requisition.service.stockmanagement.StockEventOutbox;
+import org.openlmis.requisition.service.stockmanagement.StockManagementExecutor;
 import org.openlmis.requisition.utils.Message;
 import org.slf4j.ext.XLogger;
 import org.slf4j.ext.XLoggerFactory;
@@ -107,6 +105,12 @@ public class BatchRequisitionController extends BaseRequisitionController {
   @Autowired
   private PeriodReferenceDataService periodReferenceDataService;
 
+  @Autowired
+  private StockManagementExecutor stockManagementExecutor;
+
+  @Autowired
+  private StockEventOutbox stockEventOutbox;
+
   /**
    * Attempts to retrieve requisitions with the provided UUIDs.
    */
@@ -210,7 +214,7 @@ public class BatchRequisitionController extends BaseRequisitionController {
           facilities, periods, approveParams, approvedProducts);
     }
 
-    submitStockEvent(profiler, user, requisitions, orderables);
+    addStockEvents(profiler, user, requisitions, orderables);
 
     ResponseEntity<RequisitionsProcessingStatusDto> response =
         buildResponse(processingStatus, profiler, HttpStatus.OK);
@@ -423,21 +427,27 @@ public class BatchRequisitionController extends BaseRequisitionController {
     return ValidationResult.success();
   }
 
-  private void submitStockEvent(Profiler profiler, UserDto user, List<Requisition> requisitions,
+  /**
+   * Records stock events of approved requisitions in the approval transaction. They are sent to
+   * the stock management service once the approvals have been committed.
+   */
+  private void addStockEvents(Profiler profiler, UserDto user, List<Requisition> requisitions,
       Map<VersionIdentityDto, OrderableDto> orderables) {
-    profiler.start("SEND_STOCK_EVENT");
-    ExecutorService executor = Executors.newFixedThreadPool(requisitions.size());
-    List<CompletableFuture<Void>> futures = Lists.newArrayList();
-    try {
-      for (Requisition requisition : requisitions) {
-        CompletableFuture<Void> future = runAsync(
-            () -> submitStockEvent(requisition, user.getId(), orderables), executor);
-        futures.add(future);
+    profiler.start("BUILD_STOCK_EVENTS");
+    Map<UUID, CompletableFuture<StockEventDto>> futures = new LinkedHashMap<>();
+    for (Requisition requisition : requisitions) {
+      if (isStockEventRequired(requisition)) {
+        futures.put(requisition.getId(), stockManagementExecutor.supplyAsync(() ->
+            buildStockEvent(requisition, user.getId(), orderables)));
       }
-    } finally {
-      profiler.start("JOIN_RESULTS");
-      futures.forEach(CompletableFuture::join);
     }
+
+    profiler.start("JOIN_STOCK_EVENTS");
+    Map<UUID, StockEventDto> stockEvents = new LinkedHashMap<>();
+    futures.forEach((requisitionId, future) -> stockEvents.put(requisitionId, future.join()));
+
+    profiler.start("ADD_STOCK_EVENTS_TO_OUTBOX");
+    stockEventOutbox.add(stockEvents);
   }
 
   private Requisition buildRequisition(ApproveRequisitionDto dto, Requisition requisitionToUpdate,
@@ -458,12 +468,11 @@ public class BatchRequisitionController extends BaseRequisitionController {
 
   private Requisition updateOne(ApproveRequisitionDto dto, Requisition requisition) {
     for (ApproveRequisitionLineItemDto line : dto.getRequisitionLineItems()) {
-      requisition
-          .getRequisitionLineItems()
-          .stream()
-          .filter(original -> Objects.equals(original.getId(), line.getId()))
-          .findFirst()
-          .ifPresent(original -> original.setApprovedQuantity(line.getApprovedQuantity()));
+      RequisitionLineItem original = requisition.findLineById(line.getId());
+
+      if (null != original) {
+        original.setApprovedQuantity(line.getApprovedQuantity());
+      }
     }
     requisition.setModifiedDate(dto.getModifiedDate());
     setNullForCalculatedFields(requisition);
@@ -490,37 +499,27 @@ public class BatchRequisitionController extends BaseRequisitionController {
   }
 
   private void setNullForCalculatedFields(Requisition requisition) {
-    for (RequisitionLineItem lineItem : requisition.getRequisitionLineItems()) {
-      for (RequisitionTemplateColumn column : requisition.getTemplate().viewColumns().values()) {
-        if (getColumnDisplayConditions(column)) {
-          setNullForField(lineItem, column);
-        }
+    CompiledRequisitionTemplate template = requisition.getTemplate().compile();
+    Set<String> fields = new HashSet<>(template.getColumnNames(SourceType.CALCULATED));
+
+    for (String field : template.getHiddenColumnNames()) {
+      if (getColumnNameConditions(field)) {
+        fields.add(field);
       }
     }
-  }
-
-  private boolean getColumnDisplayConditions(RequisitionTemplateColumn column) {
-    return ((isFalse(column.getIsDisplayed()) && getColumnNameConditions(column))
-        || column.getSource() == SourceType.CALCULATED);
-  }
 
-  private boolean getColumnNameConditions(RequisitionTemplateColumn column) {
-    return !("pricePerPack".equals(column.getName())
-            || "orderable.dispensable.displayUnit".equals(column.getName())
-            || "orderable.productCode".equals(column.getName())
-            || "dosesPerPatient".equals(column.getName()));
+    for (RequisitionLineItem lineItem : requisition.getRequisitionLineItems()) {
+      for (String field : fields) {
+        RequisitionLineItemAccessors.setValue(lineItem, field, null);
+      }
+    }
   }
 
-  private void setNullForField(RequisitionLineItem lineItem, RequisitionTemplateColumn column) {
-    String field = column.getName();
-
-    try {
-      PropertyUtils.setSimpleProperty(lineItem, field, null);
-    } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException exp) {
-      throw new IllegalArgumentException(
-          "Could not set null value for property >" + field + "< in line item", exp
-      );
-    }
+  private boolean getColumnNameConditions(String columnName) {
+    return !("pricePerPack".equals(columnName)
+            || "orderable.dispensable.displayUnit".equals(columnName)
+            || "orderable.productCode".equals(columnName)
+            || "dosesPerPatient".equals(columnName));
   }
 
   private ResponseEntity<RequisitionsProcessingStatusDto> buildResponse(
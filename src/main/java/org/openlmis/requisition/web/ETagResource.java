@@ -17,12 +17,14 @@ package org.openlmis.requisition.web;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
 
 @Getter
 @Setter
 public class ETagResource<T> {
 
   private static final String WEAK_E_TAG_PREFIX = "W/";
+  private static final String ANY_E_TAG = "*";
 
   private T resource;
   private String etag;
@@ -61,4 +63,44 @@ public class ETagResource<T> {
       return Long.valueOf(etag);
     }
   }
+
+  /**
+   * Checks whether the value of an If-None-Match header matches the given version. The header may
+   * contain a comma separated list of weak or strong (quoted or not) eTags or a '*' wildcard.
+   * Entries that do not hold a version are ignored.
+   *
+   * @param ifNoneMatch value of the If-None-Match header, may be null
+   * @param version current version of the resource
+   * @return true if any of the eTags matches the version; false otherwise
+   */
+  public static boolean matches(String ifNoneMatch, Long version) {
+    if (null == ifNoneMatch || null == version) {
+      return false;
+    }
+
+    for (String element : ifNoneMatch.split(",")) {
+      String etag = element.trim();
+
+      if (ANY_E_TAG.equals(etag)) {
+        return true;
+      }
+
+      if (etag.startsWith(WEAK_E_TAG_PREFIX)) {
+        etag = etag.substring(WEAK_E_TAG_PREFIX.length());
+      }
+
+      etag = StringUtils.strip(etag, "\"");
+
+      try {
+        if (version.equals(readVersionFromEtag(etag))) {
+          return true;
+        }
+      } catch (NumberFormatException exp) {
+        // not an eTag built by this service, so it can't match
+        continue;
+      }
+    }
+
+    return false;
+  }
 }
@@ -15,10 +15,13 @@
 
 package org.openlmis.requisition.web;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.UUID;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import org.openlmis.requisition.domain.JasperTemplate;
 import org.openlmis.requisition.dto.JasperTemplateDto;
 import org.openlmis.requisition.exception.ContentNotFoundMessageException;
@@ -36,7 +39,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -156,18 +158,18 @@ public class JasperTemplateController extends BaseController {
   }
 
   /**
-   * Generate a report based on the template, the format and the request parameters.
+   * Generate a report based on the template, the format and the request parameters. The report
+   * is written directly to the response, without keeping the whole output in memory.
    *
    * @param request    request (to get the request parameters)
+   * @param response   response the generated report is written to
    * @param templateId report template ID
    * @param format     report format to generate, default is PDF
-   * @return the generated report
    */
   @RequestMapping(value = "/{id}/{format}", method = RequestMethod.GET)
-  @ResponseBody
-  public ResponseEntity<byte[]> generateReport(HttpServletRequest request,
+  public void generateReport(HttpServletRequest request, HttpServletResponse response,
       @PathVariable("id") UUID templateId,
-      @PathVariable("format") String format) throws JasperReportViewException {
+      @PathVariable("format") String format) throws JasperReportViewException, IOException {
     permissionService.canViewReports().throwExceptionIfHasErrors();
 
     JasperTemplate template = jasperTemplateRepository.findById(templateId)
@@ -180,17 +182,6 @@ public class JasperTemplateController extends BaseController {
     map.put("dateTimeFormat", dateTimeFormat);
     map.put("timeZoneId", timeZoneId);
 
-    byte[] reportData;
-    
-    if (TIMELINESS_REPORT.equals(template.getType())) {
-      reportData = jasperReportsViewService.generateTimelinessReport(template, map);
-    } else if (REPORTING_RATE_REPORT.equals(template.getType())) {
-      map.putIfAbsent("DueDays", String.valueOf(DUE_DAYS));
-      reportData = jasperReportsViewService.generateReportingRateReport(template, map);
-    } else {
-      reportData = jasperReportsViewService.generateReport(template, map);
-    }
-
     MediaType mediaType;
     if ("csv".equals(format)) {
       mediaType = new MediaType("text", "csv", StandardCharsets.UTF_8);
@@ -203,10 +194,22 @@ public class JasperTemplateController extends BaseController {
     }
     String fileName = template.getName().replaceAll("\\s+", "_");
 
-    return ResponseEntity
-        .ok()
-        .contentType(mediaType)
-        .header("Content-Disposition", "inline; filename=" + fileName + "." + format)
-        .body(reportData);
+    OutputStream outputStream = new ReportOutputStream(response, () -> {
+      response.setStatus(HttpStatus.OK.value());
+      response.setContentType(mediaType.toString());
+      response.setHeader("Content-Disposition", "inline; filename=" + fileName + "." + format);
+    });
+
+    if (TIMELINESS_REPORT.equals(template.getType())) {
+      jasperReportsViewService.generateTimelinessReport(template, map, outputStream);
+    } else if (REPORTING_RATE_REPORT.equals(template.getType())) {
+      map.putIfAbsent("DueDays", String.valueOf(DUE_DAYS));
+      jasperReportsViewService.generateReportingRateReport(template, map, outputStream);
+    } else {
+      jasperReportsViewService.generateReport(template, map, outputStream);
+    }
+
+    // not in finally, an error response has to be sent if the report could not be generated
+    outputStream.close();
   }
 }
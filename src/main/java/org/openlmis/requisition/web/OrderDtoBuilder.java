@@ -15,11 +15,13 @@
 
 package org.openlmis.requisition.web;
 
+import com.google.common.collect.Sets;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
@@ -29,16 +31,18 @@ import org.openlmis.requisition.domain.requisition.RequisitionLineItem;
 import org.openlmis.requisition.domain.requisition.StatusChange;
 import org.openlmis.requisition.domain.requisition.StatusMessage;
 import org.openlmis.requisition.domain.requisition.VersionEntityReference;
+import org.openlmis.requisition.dto.FacilityDto;
 import org.openlmis.requisition.dto.ObjectReferenceDto;
 import org.openlmis.requisition.dto.OrderDto;
 import org.openlmis.requisition.dto.OrderLineItemDto;
 import org.openlmis.requisition.dto.OrderableDto;
+import org.openlmis.requisition.dto.ProcessingPeriodDto;
+import org.openlmis.requisition.dto.ProgramDto;
 import org.openlmis.requisition.dto.StatusChangeDto;
 import org.openlmis.requisition.dto.StatusMessageDto;
 import org.openlmis.requisition.dto.UserDto;
 import org.openlmis.requisition.dto.VersionIdentityDto;
 import org.openlmis.requisition.repository.StatusMessageRepository;
-import org.openlmis.requisition.service.referencedata.BaseReferenceDataService;
 import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
 import org.openlmis.requisition.service.referencedata.OrderableReferenceDataService;
 import org.openlmis.requisition.service.referencedata.PeriodReferenceDataService;
@@ -78,30 +82,77 @@ public class OrderDtoBuilder {
       return null;
     }
 
-    OrderDto order = new OrderDto();
-    order.setExternalId(requisition.getId());
-    order.setEmergency(requisition.getEmergency());
-    order.setFacility(getIfPresent(facilities, requisition.getFacilityId()));
-    order.setProcessingPeriod(getIfPresent(periods, requisition.getProcessingPeriodId()));
-    order.setQuotedCost(BigDecimal.ZERO);
+    return build(Collections.singletonList(requisition), user).get(0);
+  }
 
-    order.setReceivingFacility(getIfPresent(facilities, requisition.getFacilityId()));
-    order.setRequestingFacility(getIfPresent(facilities, requisition.getFacilityId()));
+  /**
+   * Create a list of {@link OrderDto} based on passed requisitions. Facilities, periods,
+   * programs, orderables and status messages of all requisitions are retrieved at once.
+   *
+   * @param requisitions a list of requisitions that will be converted into orders.
+   * @return a list of {@link OrderDto} in the order of passed requisitions.
+   */
+  public List<OrderDto> build(Collection<Requisition> requisitions, UserDto user) {
+    if (requisitions.isEmpty()) {
+      return new ArrayList<>();
+    }
 
-    order.setSupplyingFacility(getIfPresent(facilities, requisition.getSupplyingFacilityId()));
-    order.setProgram(getIfPresent(programs, requisition.getProgramId()));
-    order.setStatusMessages(getStatusMessages(requisition));
+    Set<UUID> requisitionIds = Sets.newHashSet();
+    Set<UUID> facilityIds = Sets.newHashSet();
+    Set<UUID> periodIds = Sets.newHashSet();
+    Set<UUID> programIds = Sets.newHashSet();
+    Set<VersionEntityReference> orderableIdentities = Sets.newHashSet();
+
+    for (Requisition requisition : requisitions) {
+      requisitionIds.add(requisition.getId());
+      addIfPresent(facilityIds, requisition.getFacilityId());
+      addIfPresent(facilityIds, requisition.getSupplyingFacilityId());
+      addIfPresent(periodIds, requisition.getProcessingPeriodId());
+      addIfPresent(programIds, requisition.getProgramId());
+
+      requisition
+          .getRequisitionLineItems()
+          .stream()
+          .map(RequisitionLineItem::getOrderable)
+          .forEach(orderableIdentities::add);
+    }
 
-    Set<VersionEntityReference> orderableIdentities = requisition
-        .getRequisitionLineItems()
-        .stream()
-        .map(RequisitionLineItem::getOrderable)
-        .collect(Collectors.toSet());
+    Map<UUID, FacilityDto> facilityMap = toMap(facilities.search(facilityIds),
+        FacilityDto::getId);
+    Map<UUID, ProcessingPeriodDto> periodMap = toMap(periods.search(periodIds),
+        ProcessingPeriodDto::getId);
+    Map<UUID, ProgramDto> programMap = toMap(programs.search(programIds), ProgramDto::getId);
+    Map<VersionIdentityDto, OrderableDto> orderables = toMap(
+        products.findByIdentities(orderableIdentities), OrderableDto::getIdentity);
 
-    Map<VersionIdentityDto, OrderableDto> orderables = products
-        .findByIdentities(orderableIdentities)
+    Map<UUID, List<StatusMessage>> statusMessages = statusMessageRepository
+        .findByRequisitionIdIn(requisitionIds)
         .stream()
-        .collect(Collectors.toMap(OrderableDto::getIdentity, Function.identity()));
+        .collect(Collectors.groupingBy(message -> message.getRequisition().getId()));
+
+    List<OrderDto> orders = new ArrayList<>();
+    for (Requisition requisition : requisitions) {
+      OrderDto order = new OrderDto();
+      order.setFacility(facilityMap.get(requisition.getFacilityId()));
+      order.setProcessingPeriod(periodMap.get(requisition.getProcessingPeriodId()));
+      order.setReceivingFacility(facilityMap.get(requisition.getFacilityId()));
+      order.setRequestingFacility(facilityMap.get(requisition.getFacilityId()));
+      order.setSupplyingFacility(facilityMap.get(requisition.getSupplyingFacilityId()));
+      order.setProgram(programMap.get(requisition.getProgramId()));
+      order.setStatusMessages(getStatusMessages(
+          statusMessages.getOrDefault(requisition.getId(), Collections.emptyList())));
+
+      orders.add(build(order, requisition, orderables, user));
+    }
+
+    return orders;
+  }
+
+  private OrderDto build(OrderDto order, Requisition requisition,
+      Map<VersionIdentityDto, OrderableDto> orderables, UserDto user) {
+    order.setExternalId(requisition.getId());
+    order.setEmergency(requisition.getEmergency());
+    order.setQuotedCost(BigDecimal.ZERO);
 
     order.setOrderLineItems(
         requisition
@@ -130,10 +181,8 @@ public class OrderDtoBuilder {
     return order;
   }
 
-  private List<StatusMessageDto> getStatusMessages(Requisition requisition) {
+  private List<StatusMessageDto> getStatusMessages(List<StatusMessage> statusMessages) {
     List<StatusMessageDto> statusMessageDtoList = new ArrayList<>();
-    List<StatusMessage> statusMessages = statusMessageRepository.findByRequisitionId(
-        requisition.getId());
     for (StatusMessage statusMessage: statusMessages) {
       StatusMessageDto statusMessageDto = new StatusMessageDto();
       statusMessage.export(statusMessageDto);
@@ -143,8 +192,16 @@ public class OrderDtoBuilder {
     return statusMessageDtoList;
   }
 
-  private <T> T getIfPresent(BaseReferenceDataService<T> service, UUID id) {
-    return Optional.ofNullable(id).isPresent() ? service.findOne(id) : null;
+  private <K, V> Map<K, V> toMap(Collection<V> values, Function<V, K> keyMapper) {
+    return values
+        .stream()
+        .collect(Collectors.toMap(keyMapper, Function.identity(), (first, second) -> first));
+  }
+
+  private void addIfPresent(Set<UUID> ids, UUID id) {
+    if (null != id) {
+      ids.add(id);
+    }
   }
 
 }
@@ -18,6 +18,7 @@ package org.openlmis.requisition.web;
 import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.toSet;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_INVALID_REQUISITION_STATUS;
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_SEARCH_INVALID_CURSOR;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_SEARCH_INVALID_PARAMS;
 
 import java.time.LocalDate;
@@ -31,6 +32,7 @@ import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
 import org.openlmis.requisition.exception.ValidationMessageException;
+import org.openlmis.requisition.repository.custom.RequisitionSearchCursor;
 import org.openlmis.requisition.repository.custom.RequisitionSearchParams;
 import org.openlmis.requisition.utils.Message;
 import org.springframework.util.MultiValueMap;
@@ -49,10 +51,12 @@ final class QueryRequisitionSearchParams implements RequisitionSearchParams {
   private static final String EMERGENCY = "emergency";
   private static final String MODIFIED_DATE_FROM = "modifiedDateFrom";
   private static final String MODIFIED_DATE_TO = "modifiedDateTo";
+  static final String CURSOR = "cursor";
+  private static final String SKIP_COUNT = "skipCount";
 
   private static final List<String> ALL_PARAMETERS = asList(FACILITY, PROGRAM, INITIATED_DATE_FROM,
       INITIATED_DATE_TO, MODIFIED_DATE_FROM, MODIFIED_DATE_TO, PROCESSING_PERIOD,
-      SUPERVISORY_NODE, REQUISITION_STATUS, EMERGENCY);
+      SUPERVISORY_NODE, REQUISITION_STATUS, EMERGENCY, CURSOR, SKIP_COUNT);
 
   private SearchParams queryParams;
 
@@ -216,4 +220,39 @@ final class QueryRequisitionSearchParams implements RequisitionSearchParams {
     }
     return queryParams.getZonedDateTime(MODIFIED_DATE_TO);
   }
+
+  /**
+   * Gets {@link RequisitionSearchCursor} for "cursor" key from params.
+   * If the value is not a valid cursor {@link ValidationMessageException} will be thrown.
+   *
+   * @return cursor after which the page starts or null if params doesn't contain "cursor" key.
+   */
+  @Override
+  public RequisitionSearchCursor getCursor() {
+    if (!queryParams.containsKey(CURSOR)) {
+      return null;
+    }
+
+    String value = queryParams.getFirst(CURSOR);
+    try {
+      return RequisitionSearchCursor.decode(value);
+    } catch (IllegalArgumentException cause) {
+      throw new ValidationMessageException(new Message(ERROR_SEARCH_INVALID_CURSOR, value), cause);
+    }
+  }
+
+  /**
+   * Gets value for skipCount parameter. The count is always skipped when a cursor is given.
+   * If param value has incorrect format {@link ValidationMessageException} will be thrown.
+   *
+   * @return true if the total number of requisitions should not be counted; false otherwise.
+   */
+  @Override
+  public boolean isSkipCount() {
+    if (queryParams.containsKey(CURSOR)) {
+      return true;
+    }
+
+    return queryParams.containsKey(SKIP_COUNT) && queryParams.getBoolean(SKIP_COUNT);
+  }
 }
@@ -0,0 +1,68 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Writes a report directly to the HTTP response. The response headers are set just before the
+ * first byte is written (or when the stream is closed), so an error thrown while the report is
+ * filled can still be returned as a regular error response.
+ */
+final class ReportOutputStream extends OutputStream {
+  private final HttpServletResponse response;
+  private final Runnable beforeFirstWrite;
+  private OutputStream delegate;
+
+  ReportOutputStream(HttpServletResponse response, Runnable beforeFirstWrite) {
+    this.response = response;
+    this.beforeFirstWrite = beforeFirstWrite;
+  }
+
+  @Override
+  public void write(int value) throws IOException {
+    getDelegate().write(value);
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) throws IOException {
+    getDelegate().write(bytes, offset, length);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (null != delegate) {
+      delegate.flush();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    // the servlet container is responsible for closing the response stream
+    getDelegate().flush();
+  }
+
+  private OutputStream getDelegate() throws IOException {
+    if (null == delegate) {
+      beforeFirstWrite.run();
+      delegate = response.getOutputStream();
+    }
+
+    return delegate;
+  }
+}
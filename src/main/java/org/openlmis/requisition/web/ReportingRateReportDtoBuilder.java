@@ -15,19 +15,21 @@
 
 package org.openlmis.requisition.web;
 
-import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.openlmis.requisition.domain.requisition.Requisition;
-import org.openlmis.requisition.domain.requisition.RequisitionStatus;
-import org.openlmis.requisition.domain.requisition.StatusChange;
+import org.openlmis.requisition.domain.requisition.RequisitionCompletionCount;
 import org.openlmis.requisition.dto.GeographicZoneDto;
 import org.openlmis.requisition.dto.MinimalFacilityDto;
 import org.openlmis.requisition.dto.ProcessingPeriodDto;
@@ -45,7 +47,6 @@ import org.springframework.stereotype.Component;
 public class ReportingRateReportDtoBuilder {
   private static int LATEST_PERIODS = 3;
   private static int GEOGRAPHIC_ZONE_LEVEL = 3;
-  private static RequisitionStatus REQUIRED_STATUS = RequisitionStatus.APPROVED;
 
   @Autowired
   private PeriodReferenceDataService periodReferenceDataService;
@@ -73,22 +74,57 @@ public class ReportingRateReportDtoBuilder {
 
     Collection<ProcessingPeriodDto> periods = getLatestPeriods(period, LATEST_PERIODS);
     Collection<GeographicZoneDto> zones = getAvailableGeographicZones(zone);
-    Collection<MinimalFacilityDto> facilities = getAvailableFacilities(zones);
 
-    report.setCompletionByPeriod(getCompletionsByPeriod(program, periods, facilities, dueDays));
-    report.setCompletionByZone(getCompletionsByZone(program, periods, zones, dueDays));
+    Map<GeographicZoneDto, Collection<MinimalFacilityDto>> facilitiesByZone =
+        new LinkedHashMap<>();
+    for (GeographicZoneDto available : zones) {
+      facilitiesByZone.put(available, getAvailableFacilities(Collections.singletonList(available)));
+    }
+
+    Collection<MinimalFacilityDto> facilities = facilitiesByZone
+        .values()
+        .stream()
+        .flatMap(Collection::stream)
+        .collect(Collectors.toList());
+
+    Map<UUID, Map<UUID, RequisitionCompletionCount>> counts =
+        getCompletionCounts(program, periods, dueDays);
+
+    report.setCompletionByPeriod(getCompletionsByPeriod(periods, facilities, counts));
+    report.setCompletionByZone(getCompletionsByZone(periods, facilitiesByZone, counts));
 
     return report;
   }
 
+  private Map<UUID, Map<UUID, RequisitionCompletionCount>> getCompletionCounts(
+      ProgramDto program, Collection<ProcessingPeriodDto> periods, Integer dueDays) {
+    // requisition approved on the due date is still on time
+    Map<UUID, ZonedDateTime> deadlines = new HashMap<>();
+    for (ProcessingPeriodDto period : periods) {
+      deadlines.put(period.getId(), period.getEndDate()
+          .plusDays(dueDays + 1L)
+          .atStartOfDay(ZoneId.systemDefault()));
+    }
+
+    Map<UUID, Map<UUID, RequisitionCompletionCount>> counts = new HashMap<>();
+    for (RequisitionCompletionCount count : requisitionRepository
+        .countRequisitionCompletions(program.getId(), deadlines)) {
+      counts
+          .computeIfAbsent(count.getPeriodId(), key -> new HashMap<>())
+          .put(count.getFacilityId(), count);
+    }
+
+    return counts;
+  }
+
   private List<RequisitionCompletionDto> getCompletionsByPeriod(
-      ProgramDto program, Collection<ProcessingPeriodDto> periods,
-      Collection<MinimalFacilityDto> facilities, Integer dueDays) {
+      Collection<ProcessingPeriodDto> periods, Collection<MinimalFacilityDto> facilities,
+      Map<UUID, Map<UUID, RequisitionCompletionCount>> counts) {
     List<RequisitionCompletionDto> completionByPeriod = new ArrayList<>();
 
     for (ProcessingPeriodDto period : periods) {
       RequisitionCompletionDto completion = getCompletionForFacilities(
-          program, Collections.singletonList(period), facilities, dueDays);
+          Collections.singletonList(period), facilities, counts);
       completion.setGrouping(period.getName());
       completionByPeriod.add(completion);
     }
@@ -97,18 +133,19 @@ public class ReportingRateReportDtoBuilder {
   }
 
   private List<RequisitionCompletionDto> getCompletionsByZone(
-      ProgramDto program, Collection<ProcessingPeriodDto> periods,
-      Collection<GeographicZoneDto> zones, Integer dueDays) {
+      Collection<ProcessingPeriodDto> periods,
+      Map<GeographicZoneDto, Collection<MinimalFacilityDto>> facilitiesByZone,
+      Map<UUID, Map<UUID, RequisitionCompletionCount>> counts) {
     List<RequisitionCompletionDto> completionByZone = new ArrayList<>();
 
-    for (GeographicZoneDto zone : zones) {
-      Collection<MinimalFacilityDto> facilities =
-          getAvailableFacilities(Collections.singletonList(zone));
+    for (Map.Entry<GeographicZoneDto, Collection<MinimalFacilityDto>> entry
+        : facilitiesByZone.entrySet()) {
+      Collection<MinimalFacilityDto> facilities = entry.getValue();
 
       if (!facilities.isEmpty()) {
         RequisitionCompletionDto completion =
-            getCompletionForFacilities(program, periods, facilities, dueDays);
-        completion.setGrouping(zone.getName());
+            getCompletionForFacilities(periods, facilities, counts);
+        completion.setGrouping(entry.getKey().getName());
         completionByZone.add(completion);
       }
     }
@@ -121,18 +158,16 @@ public class ReportingRateReportDtoBuilder {
   }
 
   private RequisitionCompletionDto getCompletionForFacilities(
-      ProgramDto program, Collection<ProcessingPeriodDto> periods,
-      Collection<MinimalFacilityDto> facilities, Integer dueDays) {
+      Collection<ProcessingPeriodDto> periods, Collection<MinimalFacilityDto> facilities,
+      Map<UUID, Map<UUID, RequisitionCompletionCount>> counts) {
     CompletionCounter completions = new CompletionCounter();
 
     for (ProcessingPeriodDto period : periods) {
-      LocalDate dueDate = period.getEndDate().plusDays(dueDays);
+      Map<UUID, RequisitionCompletionCount> periodCounts =
+          counts.getOrDefault(period.getId(), Collections.emptyMap());
 
       for (MinimalFacilityDto facility : facilities) {
-        List<Requisition> requisitions = requisitionRepository
-            .searchRequisitions(period.getId(), facility.getId(), program.getId(), false);
-
-        updateCompletionsWithRequisitions(completions, requisitions, dueDate);
+        updateCompletionsWithCount(completions, periodCounts.get(facility.getId()));
       }
     }
 
@@ -156,35 +191,16 @@ public class ReportingRateReportDtoBuilder {
     return completion;
   }
 
-  void updateCompletionsWithRequisitions(
-      CompletionCounter completions, List<Requisition> requisitions, LocalDate dueDate) {
-    int missed = completions.getMissed();
-    int late = completions.getLate();
-    int onTime = completions.getOnTime();
-
-    if (!requisitions.isEmpty()) {
-      for (Requisition requisition : requisitions) {
-        Optional<StatusChange> entry = requisition.getStatusChanges().stream()
-            .filter(statusChange -> statusChange.getStatus() == REQUIRED_STATUS)
-            .findFirst();
-        if (!entry.isPresent()) {
-          missed++;
-        } else {
-          LocalDate submissionDate = entry.get().getCreatedDate().toLocalDate();
-          if (submissionDate.isAfter(dueDate)) {
-            late++;
-          } else {
-            onTime++;
-          }
-        }
-      }
+  void updateCompletionsWithCount(
+      CompletionCounter completions, RequisitionCompletionCount count) {
+    if (count == null) {
+      // facility has not created any requisition for the period
+      completions.setMissed(completions.getMissed() + 1);
     } else {
-      missed++;
+      completions.setMissed(completions.getMissed() + Math.toIntExact(count.getMissed()));
+      completions.setOnTime(completions.getOnTime() + Math.toIntExact(count.getOnTime()));
+      completions.setLate(completions.getLate() + Math.toIntExact(count.getLate()));
     }
-
-    completions.setMissed(missed);
-    completions.setOnTime(onTime);
-    completions.setLate(late);
   }
 
   Collection<MinimalFacilityDto> getAvailableFacilities(Collection<GeographicZoneDto> zones) {
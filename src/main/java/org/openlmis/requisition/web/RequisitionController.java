@@ -48,14 +48,13 @@ import org.openlmis.requisition.dto.VersionIdentityDto;
 import org.openlmis.requisition.exception.ValidationMessageException;
 import org.openlmis.requisition.i18n.MessageKeys;
 import org.openlmis.requisition.repository.custom.DefaultRequisitionSearchParams;
+import org.openlmis.requisition.repository.custom.RequisitionSearchCursor;
 import org.openlmis.requisition.repository.custom.RequisitionSearchParams;
-import org.openlmis.requisition.service.RequisitionStatusNotifier;
 import org.openlmis.requisition.service.referencedata.SupervisoryNodeReferenceDataService;
 import org.openlmis.requisition.utils.Message;
 import org.openlmis.requisition.utils.Pagination;
 import org.slf4j.profiler.Profiler;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort.Direction;
@@ -82,9 +81,6 @@ public class RequisitionController extends BaseRequisitionController {
 
   private static final String BUILD_DTO_LIST = "BUILD_DTO_LIST";
 
-  @Autowired
-  private RequisitionStatusNotifier requisitionStatusNotifier;
-
   @Autowired
   private SupervisoryNodeReferenceDataService supervisoryNodeService;
 
@@ -294,16 +290,20 @@ public class RequisitionController extends BaseRequisitionController {
    * Get chosen requisition.
    *
    * @param requisitionId UUID of requisition whose we want to get
-   * @return Requisition.
+   * @return Requisition or no content if the If-None-Match header matches its current version.
    */
   @GetMapping(RESOURCE_URL + "/{id}")
-  @ResponseStatus(HttpStatus.OK)
   @ResponseBody
   public RequisitionDto getRequisition(@PathVariable("id") UUID requisitionId,
-      HttpServletResponse response) {
+      HttpServletRequest request, HttpServletResponse response) {
     Profiler profiler = getProfiler("GET_REQUISITION", requisitionId);
     Requisition requisition = findRequisition(requisitionId, profiler);
     checkPermission(profiler, () -> permissionService.canViewRequisition(requisition));
+
+    if (isNotModified(request, response, requisition.getVersion(), profiler)) {
+      return null;
+    }
+
     RequisitionDto requisitionDto = buildDto(
         profiler, requisition,
         findOrderables(profiler, requisition::getAllOrderables),
@@ -320,26 +320,45 @@ public class RequisitionController extends BaseRequisitionController {
   }
 
   /**
-   * Finds requisitions matching all of the provided parameters.
+   * Finds requisitions matching all of the provided parameters. If the requisitions are sorted by
+   * the created date (default), the response contains a Link header with a cursor to the next
+   * page which can be used instead of the page number (keyset pagination).
    */
   @GetMapping(RESOURCE_URL + "/search")
   @ResponseStatus(HttpStatus.OK)
   @ResponseBody
   public Page<BasicRequisitionDto> searchRequisitions(
       @RequestParam MultiValueMap<String, String> queryParams,
-      Pageable pageable) {
+      Pageable pageable, HttpServletResponse response) {
 
     RequisitionSearchParams params = new QueryRequisitionSearchParams(queryParams);
 
     Profiler profiler = getProfiler("REQUISITIONS_SEARCH", params);
 
+    boolean keyset = RequisitionSearchCursor.supports(pageable.getSort());
+    if (null != params.getCursor() && !keyset) {
+      stopProfiler(profiler);
+      throw new ValidationMessageException(
+          new Message(MessageKeys.ERROR_SEARCH_CURSOR_SORT_NOT_SUPPORTED));
+    }
+
     profiler.start("REQUISITION_SERVICE_SEARCH");
     Page<Requisition> requisitionPage = requisitionService.searchRequisitions(params, pageable);
 
+    if (keyset && requisitionPage.hasNext() && requisitionPage.hasContent()) {
+      profiler.start("ADD_NEXT_PAGE_LINK");
+      List<Requisition> content = requisitionPage.getContent();
+      RequisitionSearchCursor cursor = RequisitionSearchCursor.of(content.get(content.size() - 1));
+
+      response.addHeader(HttpHeaders.LINK,
+          "<" + buildSearchUrl(queryParams, cursor) + ">; rel=\"next\"");
+    }
+
+    // a search that continues from a cursor ignores the requested page number
     profiler.start("REQUISITION_DTO_BUILD");
     Page<BasicRequisitionDto> requisitionDtoPage = Pagination.getPage(
         basicRequisitionDtoBuilder.build(requisitionPage.getContent()),
-        pageable,
+        requisitionPage.getPageable(),
         requisitionPage.getTotalElements());
 
     stopProfiler(profiler, requisitionDtoPage);
@@ -410,10 +429,6 @@ public class RequisitionController extends BaseRequisitionController {
 
     callStatusChangeProcessor(profiler, rejectedRequisition);
 
-    profiler.start("NOTIFY_STATUS_CHANGED");
-    requisitionStatusNotifier
-        .notifyStatusChanged(rejectedRequisition, LocaleContextHolder.getLocale());
-
     BasicRequisitionDto dto = buildBasicDto(profiler, rejectedRequisition);
 
     addLocationHeader(request, response, dto.getId(), profiler);
@@ -516,7 +531,7 @@ public class RequisitionController extends BaseRequisitionController {
     profiler.start("SEARCH_REQUISITIONS");
     RequisitionSearchParams params = new DefaultRequisitionSearchParams(
         null, null, null, null, null, null, null, null, null,
-        EnumSet.of(RequisitionStatus.SUBMITTED));
+        EnumSet.of(RequisitionStatus.SUBMITTED), null, false);
 
     Page<Requisition> submittedRequisitions = requisitionService
         .searchRequisitions(params, pageable);
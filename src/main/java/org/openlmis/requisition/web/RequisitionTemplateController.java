@@ -29,6 +29,7 @@ import org.openlmis.requisition.repository.AvailableRequisitionColumnRepository;
 import org.openlmis.requisition.repository.RequisitionRepository;
 import org.openlmis.requisition.repository.RequisitionTemplateRepository;
 import org.openlmis.requisition.service.PermissionService;
+import org.openlmis.requisition.service.RequisitionTemplateCache;
 import org.openlmis.requisition.service.RequisitionTemplateService;
 import org.openlmis.requisition.utils.Message;
 import org.openlmis.requisition.validate.RequisitionTemplateDtoValidator;
@@ -73,6 +74,9 @@ public class RequisitionTemplateController extends BaseController {
   @Autowired
   private RequisitionTemplateService templateService;
 
+  @Autowired
+  private RequisitionTemplateCache requisitionTemplateCache;
+
   /**
    * Allows creating a new Requisition Template.
    * If the id is specified, it will be ignored.
@@ -101,6 +105,7 @@ public class RequisitionTemplateController extends BaseController {
     requisitionTemplate.setId(null);
     RequisitionTemplate newRequisitionTemplate =
         requisitionTemplateRepository.save(requisitionTemplate);
+    requisitionTemplateCache.evictAll();
     LOGGER.debug("Created new requisitionTemplate with id: " + requisitionTemplate.getId());
     return dtoBuilder.newInstance(newRequisitionTemplate);
   }
@@ -166,6 +171,7 @@ public class RequisitionTemplateController extends BaseController {
     }
 
     toSave = requisitionTemplateRepository.save(toSave);
+    requisitionTemplateCache.evictAll();
     LOGGER.debug("Saved requisitionTemplate with id: " + toSave.getId());
     return dtoBuilder.newInstance(toSave);
   }
@@ -211,6 +217,7 @@ public class RequisitionTemplateController extends BaseController {
     }
 
     requisitionTemplateRepository.delete(template);
+    requisitionTemplateCache.evictAll();
   }
 
   /**
@@ -157,17 +157,21 @@ public class RequisitionV2Controller extends BaseRequisitionController {
    * Get chosen requisition.
    *
    * @param requisitionId UUID of requisition whose we want to get
-   * @return Requisition.
+   * @return Requisition or no content if the If-None-Match header matches its current version.
    */
   @GetMapping("/{id}")
   public RequisitionV2Dto getRequisition(@PathVariable("id") UUID requisitionId,
-      HttpServletResponse response) {
+      HttpServletRequest request, HttpServletResponse response) {
     Profiler profiler = getProfiler("GET_REQUISITION_V2", requisitionId);
 
     Requisition requisition = findRequisition(requisitionId, profiler);
 
     checkPermission(profiler, () -> permissionService.canViewRequisition(requisition));
 
+    if (isNotModified(request, response, requisition.getVersion(), profiler)) {
+      return null;
+    }
+
     RequisitionV2Dto dto = buildDto(requisition, profiler);
     response.setHeader(HttpHeaders.ETAG, ETagResource.buildWeakETag(requisition.getVersion()));
 
@@ -0,0 +1,18 @@
+CREATE TABLE status_change_notifications (
+    id uuid NOT NULL,
+    createddate timestamp with time zone,
+    modifieddate timestamp with time zone,
+    requisitionid uuid NOT NULL,
+    status character varying(255) NOT NULL,
+    supervisorynodeid uuid,
+    locale character varying(255),
+    attempts integer NOT NULL DEFAULT 0,
+    nextattemptdate timestamp with time zone,
+    lasterror text,
+    CONSTRAINT status_change_notifications_pkey PRIMARY KEY (id)
+);
+
+-- notifications that were given up have no next attempt date and are never picked up again
+CREATE INDEX status_change_notifications_nextattemptdate_idx
+    ON status_change_notifications (nextattemptdate)
+    WHERE nextattemptdate IS NOT NULL;
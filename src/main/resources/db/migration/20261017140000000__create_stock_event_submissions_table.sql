@@ -0,0 +1,16 @@
+CREATE TABLE stock_event_submissions (
+    id uuid NOT NULL,
+    createddate timestamp with time zone,
+    modifieddate timestamp with time zone,
+    requisitionid uuid NOT NULL,
+    stockevent text NOT NULL,
+    attempts integer NOT NULL DEFAULT 0,
+    nextattemptdate timestamp with time zone,
+    lasterror text,
+    CONSTRAINT stock_event_submissions_pkey PRIMARY KEY (id)
+);
+
+-- submissions that were given up have no next attempt date and are never picked up again
+CREATE INDEX stock_event_submissions_nextattemptdate_idx
+    ON stock_event_submissions (nextattemptdate)
+    WHERE nextattemptdate IS NOT NULL;
@@ -0,0 +1,126 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.domain;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlmis.requisition.exception.ValidationMessageException;
+
+public class CompiledRequisitionTemplateTest {
+  private static final String CALCULATED = "calculated";
+  private static final String USER_INPUT = "userInput";
+  private static final String STOCK_BASED = "stockBased";
+  private static final String MISSING = "missing";
+  private static final String TAG = "tag";
+
+  private AvailableRequisitionColumnOption option = new AvailableRequisitionColumnOption(
+      null, "option", "label");
+
+  private CompiledRequisitionTemplate template;
+
+  @Before
+  public void setUp() {
+    Map<String, RequisitionTemplateColumn> columns = new HashMap<>();
+    columns.put(CALCULATED, new RequisitionTemplateColumnDataBuilder()
+        .withName(CALCULATED)
+        .withSource(SourceType.CALCULATED)
+        .withOption(option)
+        .build());
+    columns.put(USER_INPUT, new RequisitionTemplateColumnDataBuilder()
+        .withName(USER_INPUT)
+        .withSource(SourceType.USER_INPUT)
+        .withNotDisplayed()
+        .withoutOption()
+        .build());
+    columns.put(STOCK_BASED, new RequisitionTemplateColumnDataBuilder()
+        .withName(STOCK_BASED)
+        .withSource(SourceType.STOCK_CARDS)
+        .withTag(TAG)
+        .withoutOption()
+        .build());
+
+    template = new CompiledRequisitionTemplate(columns);
+  }
+
+  @Test
+  public void shouldCheckIfColumnIsInTemplate() {
+    assertTrue(template.isColumnInTemplate(CALCULATED));
+    assertFalse(template.isColumnInTemplate(MISSING));
+  }
+
+  @Test
+  public void shouldCheckIfColumnIsDisplayed() {
+    assertTrue(template.isColumnDisplayed(CALCULATED));
+    assertFalse(template.isColumnDisplayed(USER_INPUT));
+  }
+
+  @Test
+  public void shouldCheckIfColumnIsInTemplateAndDisplayed() {
+    assertTrue(template.isColumnInTemplateAndDisplayed(STOCK_BASED));
+    assertFalse(template.isColumnInTemplateAndDisplayed(USER_INPUT));
+    assertFalse(template.isColumnInTemplateAndDisplayed(MISSING));
+  }
+
+  @Test
+  public void shouldCheckColumnSource() {
+    assertTrue(template.isColumnSource(CALCULATED, SourceType.CALCULATED));
+    assertFalse(template.isColumnSource(CALCULATED, SourceType.USER_INPUT));
+    assertTrue(template.isColumnSource(STOCK_BASED, SourceType.STOCK_CARDS));
+    assertEquals(SourceType.USER_INPUT, template.getColumnSource(USER_INPUT));
+  }
+
+  @Test
+  public void shouldReturnColumnOptionAndTag() {
+    assertEquals(option, template.getColumnOption(CALCULATED));
+    assertNull(template.getColumnOption(USER_INPUT));
+    assertEquals(TAG, template.getColumnTag(STOCK_BASED));
+  }
+
+  @Test
+  public void shouldReturnColumnNames() {
+    assertThat(template.getHiddenColumnNames(), contains(USER_INPUT));
+    assertThat(template.getColumnNames(SourceType.STOCK_CARDS), contains(STOCK_BASED));
+    assertThat(template.getColumnNames(SourceType.REFERENCE_DATA), empty());
+  }
+
+  @Test
+  public void shouldReturnAllColumnsAsHiddenIfNoneIsDisplayed() {
+    Map<String, RequisitionTemplateColumn> columns = new HashMap<>();
+    columns.put(CALCULATED, new RequisitionTemplateColumnDataBuilder()
+        .withName(CALCULATED).withNotDisplayed().build());
+    columns.put(USER_INPUT, new RequisitionTemplateColumnDataBuilder()
+        .withName(USER_INPUT).withDisplay(null).build());
+
+    assertThat(new CompiledRequisitionTemplate(columns).getHiddenColumnNames(),
+        containsInAnyOrder(CALCULATED, USER_INPUT));
+  }
+
+  @Test(expected = ValidationMessageException.class)
+  public void shouldThrowExceptionIfColumnIsNotInTemplate() {
+    template.isColumnDisplayed(MISSING);
+  }
+}
@@ -22,6 +22,8 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.openlmis.requisition.domain.RequisitionTemplate.ORDER_RELATED_COLUMNS;
@@ -105,6 +107,26 @@ public class RequisitionTemplateTest {
     Assert.assertEquals(3, mapAfterChange.get(COLUMN_NAMES[2]).getDisplayOrder());
   }
 
+  @Test
+  public void shouldReuseCompiledTemplateUntilColumnsChange() {
+    CompiledRequisitionTemplate compiled = requisitionTemplate.compile();
+    assertSame(compiled, requisitionTemplate.compile());
+
+    requisitionTemplate.changeColumnDisplay(COLUMN_NAMES[1], false);
+
+    assertNotSame(compiled, requisitionTemplate.compile());
+    assertFalse(requisitionTemplate.isColumnDisplayed(COLUMN_NAMES[1]));
+  }
+
+  @Test
+  public void shouldCompileTemplateAgainAfterColumnWasFound() {
+    assertTrue(requisitionTemplate.isColumnDisplayed(COLUMN_NAMES[1]));
+
+    requisitionTemplate.findColumn(COLUMN_NAMES[1]).setIsDisplayed(false);
+
+    assertFalse(requisitionTemplate.isColumnDisplayed(COLUMN_NAMES[1]));
+  }
+
   @Test
   public void shouldCheckIfItHasColumnsDefined() {
     assertTrue(requisitionTemplate.hasColumnsDefined());
@@ -145,8 +167,11 @@ public class RequisitionTemplateTest {
                 new Random().nextBoolean()),
             new RequisitionTemplateAssignment(UUID.randomUUID(), UUID.randomUUID(), null,
                 new Random().nextBoolean()))
+        .withPrefabValues(CompiledRequisitionTemplate.class,
+            new CompiledRequisitionTemplate(new HashMap<>()),
+            new CompiledRequisitionTemplate(requisitionTemplate.viewColumns()))
         .withIgnoredFields("id", "createdDate", "modifiedDate", "programId", "facilityTypeIds",
-            "requisitionReportOnly")
+            "requisitionReportOnly", "compiled")
         .verify();
   }
 
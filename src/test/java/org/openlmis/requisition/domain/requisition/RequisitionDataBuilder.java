@@ -132,7 +132,7 @@ public class RequisitionDataBuilder implements DataBuilder<Requisition>,
         processingPeriodId, supplyingFacilityId, status, statusChanges, emergency, reportOnly,
         numberOfMonthsInPeriod, supervisoryNodeId, previousRequisitions, availableProducts,
         datePhysicalStockCountCompleted, stockAdjustmentReasons, permissionStrings,
-        new ExtraDataEntity(extraData), patientsData
+        new ExtraDataEntity(extraData), patientsData, null
     );
     requisition.setId(id);
     requisition.setCreatedDate(createdDate);
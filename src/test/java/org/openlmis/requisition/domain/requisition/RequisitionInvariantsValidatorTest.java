@@ -32,6 +32,7 @@ import static org.openlmis.requisition.i18n.MessageKeys.ERROR_LINE_ITEM_REMOVED;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_STOCK_BASED_VALUE_MODIFIED;
 
 import com.google.common.collect.Lists;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -178,7 +179,7 @@ public class RequisitionInvariantsValidatorTest {
         .buildAsDto();
 
     orderables.put(newOrderable.getIdentity(), newOrderable);
-    requisitionUpdater.getRequisitionLineItems().add(newLineItem);
+    requisitionUpdater.addLineItem(newLineItem);
     validator = new RequisitionInvariantsValidator(
         requisitionUpdater, requisitionToUpdate, orderables
     );
@@ -198,6 +199,8 @@ public class RequisitionInvariantsValidatorTest {
     requisitionUpdater.setTemplate(requisitionToUpdate.getTemplate());
 
     List<RequisitionLineItem> lineItems = requisitionToUpdate.getRequisitionLineItems();
+    List<RequisitionLineItem> updatedLineItems =
+        new ArrayList<>(requisitionUpdater.getRequisitionLineItems());
     for (int i = 0, size = lineItems.size(); i < size; ++i) {
       lineItems.get(i).setStockOnHand(i % 2 == 0 ? 1000 : null);
 
@@ -205,8 +208,9 @@ public class RequisitionInvariantsValidatorTest {
       element.setRequisition(requisitionUpdater);
       element.setStockOnHand(5000);
 
-      requisitionUpdater.getRequisitionLineItems().set(i, element);
+      updatedLineItems.set(i, element);
     }
+    requisitionUpdater.setRequisitionLineItems(updatedLineItems);
 
     validator.validateCanUpdate(errors);
 
@@ -227,6 +231,8 @@ public class RequisitionInvariantsValidatorTest {
     requisitionUpdater.getTemplate().changeColumnDisplay("totalReceivedQuantity", false);
 
     List<RequisitionLineItem> lineItems = requisitionToUpdate.getRequisitionLineItems();
+    List<RequisitionLineItem> updatedLineItems =
+        new ArrayList<>(requisitionUpdater.getRequisitionLineItems());
     for (int i = 0, size = lineItems.size(); i < size; ++i) {
       lineItems.get(i).setTotalReceivedQuantity(5000);
 
@@ -234,8 +240,9 @@ public class RequisitionInvariantsValidatorTest {
       element.setRequisition(requisitionUpdater);
       element.setTotalReceivedQuantity(null);
 
-      requisitionUpdater.getRequisitionLineItems().set(i, element);
+      updatedLineItems.set(i, element);
     }
+    requisitionUpdater.setRequisitionLineItems(updatedLineItems);
 
     validator.validateCanUpdate(errors);
 
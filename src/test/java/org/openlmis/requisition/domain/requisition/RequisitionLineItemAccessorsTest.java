@@ -0,0 +1,99 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.domain.requisition;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.openlmis.requisition.domain.requisition.RequisitionLineItem.APPROVED_QUANTITY;
+import static org.openlmis.requisition.domain.requisition.RequisitionLineItem.BEGINNING_BALANCE;
+import static org.openlmis.requisition.domain.requisition.RequisitionLineItem.REMARKS_COLUMN;
+import static org.openlmis.requisition.domain.requisition.RequisitionLineItem.SKIPPED_COLUMN;
+import static org.openlmis.requisition.domain.requisition.RequisitionLineItem.STOCK_ON_HAND;
+
+import org.junit.Test;
+
+public class RequisitionLineItemAccessorsTest {
+  private static final String UNKNOWN = "unknownProperty";
+
+  private RequisitionLineItem lineItem = new RequisitionLineItemDataBuilder()
+      .withBeginningBalance(10)
+      .withStockOnHand(15)
+      .withPacksToShip(3L)
+      .withRemarks("remarks")
+      .withSkippedFlag(false)
+      .build();
+
+  @Test
+  public void shouldGetPropertyValues() {
+    assertEquals(10, RequisitionLineItemAccessors.getValue(lineItem, BEGINNING_BALANCE));
+    assertEquals(15, RequisitionLineItemAccessors.getValue(lineItem, STOCK_ON_HAND));
+    assertEquals(3L, RequisitionLineItemAccessors.getValue(lineItem, "packsToShip"));
+    assertEquals("remarks", RequisitionLineItemAccessors.getValue(lineItem, REMARKS_COLUMN));
+    assertEquals(false, RequisitionLineItemAccessors.getValue(lineItem, SKIPPED_COLUMN));
+    assertEquals(lineItem.getId(), RequisitionLineItemAccessors.getValue(lineItem, "id"));
+  }
+
+  @Test
+  public void shouldSetPropertyValues() {
+    RequisitionLineItemAccessors.setValue(lineItem, BEGINNING_BALANCE, 20);
+    RequisitionLineItemAccessors.setValue(lineItem, APPROVED_QUANTITY, 5);
+    RequisitionLineItemAccessors.setValue(lineItem, SKIPPED_COLUMN, true);
+
+    assertEquals(Integer.valueOf(20), lineItem.getBeginningBalance());
+    assertEquals(Integer.valueOf(5), lineItem.getApprovedQuantity());
+    assertTrue(lineItem.getSkipped());
+  }
+
+  @Test
+  public void shouldSetNullValues() {
+    RequisitionLineItemAccessors.setValue(lineItem, STOCK_ON_HAND, null);
+    RequisitionLineItemAccessors.setValue(lineItem, REMARKS_COLUMN, null);
+
+    assertNull(lineItem.getStockOnHand());
+    assertNull(lineItem.getRemarks());
+  }
+
+  @Test
+  public void shouldNotExposeObjectClass() {
+    assertFalse(RequisitionLineItemAccessors.isReadable("class"));
+    assertFalse(RequisitionLineItemAccessors.isWritable("class"));
+  }
+
+  @Test
+  public void shouldCheckIfPropertyIsAccessible() {
+    assertTrue(RequisitionLineItemAccessors.isReadable(BEGINNING_BALANCE));
+    assertTrue(RequisitionLineItemAccessors.isWritable(BEGINNING_BALANCE));
+    assertFalse(RequisitionLineItemAccessors.isReadable(UNKNOWN));
+    assertFalse(RequisitionLineItemAccessors.isWritable(UNKNOWN));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowExceptionIfPropertyIsNotReadable() {
+    RequisitionLineItemAccessors.getValue(lineItem, UNKNOWN);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowExceptionIfPropertyIsNotWritable() {
+    RequisitionLineItemAccessors.setValue(lineItem, UNKNOWN, null);
+  }
+
+  @Test(expected = ClassCastException.class)
+  public void shouldThrowExceptionIfValueHasWrongType() {
+    RequisitionLineItemAccessors.setValue(lineItem, BEGINNING_BALANCE, "10");
+  }
+}
@@ -77,7 +77,6 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.openlmis.requisition.domain.RequisitionTemplate;
-import org.openlmis.requisition.domain.RequisitionTemplateColumn;
 import org.openlmis.requisition.dto.ApprovedProductDto;
 import org.openlmis.requisition.dto.ObjectReferenceDto;
 import org.openlmis.requisition.dto.OrderableDto;
@@ -136,18 +135,6 @@ public class RequisitionTest {
   @Mock
   private RequisitionTemplate template;
 
-  @Mock
-  private RequisitionTemplateColumn totalReceivedQuantity;
-
-  @Mock
-  private RequisitionTemplateColumn totalConsumedQuantity;
-
-  @Mock
-  private RequisitionTemplateColumn totalLossesAndAdjustments;
-
-  @Mock
-  private RequisitionTemplateColumn totalStockoutDays;
-
   @Before
   public void setUp() {
     requisitionLineItem = new RequisitionLineItemDataBuilder()
@@ -587,6 +574,61 @@ public class RequisitionTest {
     assertEquals(requisitionLineItem, found);
   }
 
+  @Test
+  public void shouldFindRequisitionLineItemById() {
+    assertEquals(requisitionLineItem, requisition.findLineById(requisitionLineItem.getId()));
+    assertNull(requisition.findLineById(UUID.randomUUID()));
+    assertNull(requisition.findLineById(null));
+  }
+
+  @Test
+  public void shouldFindRequisitionLineItemAddedAfterPreviousLookup() {
+    assertNull(requisition.findLineByProduct(orderable.getId(), 2L));
+
+    RequisitionLineItem added = new RequisitionLineItemDataBuilder()
+        .withOrderable(orderable.getId(), 2L)
+        .build();
+    requisition.addLineItem(added);
+
+    assertEquals(added, requisition.findLineByProduct(orderable.getId(), 2L));
+    assertEquals(added, requisition.findLineById(added.getId()));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void shouldNotAllowToModifyReturnedRequisitionLineItems() {
+    requisition.getRequisitionLineItems().add(new RequisitionLineItemDataBuilder().build());
+  }
+
+  @Test
+  public void shouldNotFindRequisitionLineItemReplacedAfterPreviousLookup() {
+    assertEquals(requisitionLineItem, requisition.findLineById(requisitionLineItem.getId()));
+
+    RequisitionLineItem replacement = new RequisitionLineItemDataBuilder()
+        .withOrderable(orderable.getId(), 2L)
+        .build();
+    requisition.setRequisitionLineItems(Lists.newArrayList(replacement));
+
+    assertNull(requisition.findLineById(requisitionLineItem.getId()));
+    assertNull(requisition.findLineByProduct(orderable.getId(), orderable.getVersionNumber()));
+    assertEquals(replacement, requisition.findLineById(replacement.getId()));
+  }
+
+  @Test
+  public void shouldFindRequisitionLineItemThatGotIdAfterPreviousLookup() {
+    RequisitionLineItem added = new RequisitionLineItemDataBuilder()
+        .withOrderable(orderable.getId(), 2L)
+        .build();
+    added.setId(null);
+    requisition.addLineItem(added);
+    UUID lineItemId = UUID.randomUUID();
+
+    assertNull(requisition.findLineById(lineItemId));
+
+    added.setId(lineItemId);
+
+    assertEquals(added, requisition.findLineById(lineItemId));
+  }
+
   @Test
   public void shouldSetRequisitionFieldForLineItemsAfterUpdate() {
     // given
@@ -854,7 +896,7 @@ public class RequisitionTest {
     RequisitionLineItem nullSkippedValueLine = getRequisitionLineItem(null);
 
     Requisition requisition = getRequisition(notSkipped, skipped);
-    requisition.getRequisitionLineItems().add(nullSkippedValueLine);
+    requisition.addLineItem(nullSkippedValueLine);
 
     List<RequisitionLineItem> nonSkippedRequisitionLineItems = requisition
             .getNonSkippedFullSupplyRequisitionLineItems(orderables);
@@ -1354,6 +1396,31 @@ public class RequisitionTest {
     assertThat(req.findLineByProduct(orderable.getId(), 1L).getTotalStockoutDays(), is(3));
   }
 
+  @Test
+  public void shouldUseStockCardRangeSummaryOfLineItemOrderable() {
+    Map<UUID, Integer> orderableSoh = Maps.newHashMap();
+    orderableSoh.put(orderable.getId(), 1000);
+
+    stockCardRangeSummaryDto.getOrderable().setId(orderable.getId());
+    StockCardRangeSummaryDto otherSummary = new StockCardRangeSummaryDtoDataBuilder()
+        .withStockOutDays(10)
+        .buildAsDto();
+    List<StockCardRangeSummaryDto> summaries = Lists
+        .newArrayList(otherSummary, stockCardRangeSummaryDto);
+
+    RequisitionTemplate requisitionTemplate = mockStockBasedRequisitionTemplate();
+
+    Requisition req = createRequisitionWithStatusOf(RequisitionStatus.INITIATED);
+    req.setNumberOfMonthsInPeriod(1);
+
+    req.initiate(requisitionTemplate, singletonList(product), emptyList(), 0, null, emptyMap(),
+        UUID.randomUUID(), new StockData(orderableSoh, emptyMap()), summaries, summaries,
+        singletonList(period));
+
+    assertThat(req.getRequisitionLineItems(), hasSize(1));
+    assertThat(req.findLineByProduct(orderable.getId(), 1L).getTotalStockoutDays(), is(3));
+  }
+
   @Test
   public void shouldNotExceedNumberOfDaysInPeriod() {
     Map<UUID, Integer> orderableSoh = Maps.newHashMap();
@@ -1715,9 +1782,7 @@ public class RequisitionTest {
     RequisitionLineItem nonFullSupplyItem = getRequisitionLineItem(false, false);
     nonFullSupplyItem.setTotalCost(Money.of(currency, nonFullSupplyCost));
 
-    requisition.getRequisitionLineItems().clear();
-    requisition.getRequisitionLineItems().add(fullSupplyItem);
-    requisition.getRequisitionLineItems().add(nonFullSupplyItem);
+    requisition.setRequisitionLineItems(Lists.newArrayList(fullSupplyItem, nonFullSupplyItem));
   }
 
   private void setUpTestUpdatePacksToShip(OrderableDto productMock, long packsToShip) {
@@ -1860,15 +1925,10 @@ public class RequisitionTest {
     when(requisitionTemplate.isColumnStockBased(TOTAL_LOSSES_AND_ADJUSTMENTS)).thenReturn(true);
     when(requisitionTemplate.isColumnStockBased(TOTAL_STOCKOUT_DAYS)).thenReturn(true);
 
-    when(requisitionTemplate.findColumn(TOTAL_CONSUMED_QUANTITY)).thenReturn(totalConsumedQuantity);
-    when(requisitionTemplate.findColumn(TOTAL_RECEIVED_QUANTITY)).thenReturn(totalReceivedQuantity);
-    when(requisitionTemplate.findColumn(TOTAL_LOSSES_AND_ADJUSTMENTS))
-        .thenReturn(totalLossesAndAdjustments);
-    when(requisitionTemplate.findColumn(TOTAL_STOCKOUT_DAYS)).thenReturn(totalStockoutDays);
-
-    when(totalConsumedQuantity.getTag()).thenReturn(CONSUMED_TAG);
-    when(totalReceivedQuantity.getTag()).thenReturn(RECEIVED_TAG);
-    when(totalLossesAndAdjustments.getTag()).thenReturn(ADJUSTMENT_TAG);
+    when(requisitionTemplate.getColumnTag(TOTAL_CONSUMED_QUANTITY)).thenReturn(CONSUMED_TAG);
+    when(requisitionTemplate.getColumnTag(TOTAL_RECEIVED_QUANTITY)).thenReturn(RECEIVED_TAG);
+    when(requisitionTemplate.getColumnTag(TOTAL_LOSSES_AND_ADJUSTMENTS))
+        .thenReturn(ADJUSTMENT_TAG);
 
     return requisitionTemplate;
   }
@@ -19,7 +19,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.when;
 
+import java.net.URI;
 import java.util.Locale;
+import java.util.UUID;
 import org.hibernate.exception.ConstraintViolationException;
 import org.junit.Before;
 import org.junit.Test;
@@ -27,6 +29,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.openlmis.requisition.exception.IdempotencyKeyProcessedException;
 import org.openlmis.requisition.exception.ValidationMessageException;
 import org.openlmis.requisition.i18n.MessageKeys;
 import org.openlmis.requisition.i18n.MessageService;
@@ -34,6 +37,8 @@ import org.openlmis.requisition.utils.Message;
 import org.openlmis.requisition.utils.Message.LocalizedMessage;
 import org.springframework.context.MessageSource;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 
 @SuppressWarnings("PMD.TooManyMethods")
 @RunWith(MockitoJUnitRunner.class)
@@ -120,6 +125,23 @@ public class GlobalErrorHandlingTest {
     assertMessage(message, messageKey);
   }
 
+  @Test
+  public void shouldRedirectToProcessedResourceForUsedIdempotencyKey() {
+    // given
+    String location = "http://localhost/api/requisitions/" + UUID.randomUUID();
+    IdempotencyKeyProcessedException exp = new IdempotencyKeyProcessedException(
+        new Message(MessageKeys.IDEMPOTENCY_KEY_ALREADY_USED), location);
+
+    // when
+    mockMessage(MessageKeys.IDEMPOTENCY_KEY_ALREADY_USED);
+    ResponseEntity<LocalizedMessage> response = errorHandler.handleProcessedIdempotencyKey(exp);
+
+    // then
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SEE_OTHER);
+    assertThat(response.getHeaders().getLocation()).isEqualTo(URI.create(location));
+    assertMessage(response.getBody(), MessageKeys.IDEMPOTENCY_KEY_ALREADY_USED);
+  }
+
   private void assertMessage(LocalizedMessage localized, String key) {
     assertThat(localized).hasFieldOrPropertyWithValue("messageKey", key);
     assertThat(localized).hasFieldOrPropertyWithValue("message", ERROR_MESSAGE);
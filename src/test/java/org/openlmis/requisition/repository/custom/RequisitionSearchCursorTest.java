@@ -0,0 +1,88 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.repository.custom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import org.junit.Test;
+import org.openlmis.requisition.domain.requisition.Requisition;
+import org.openlmis.requisition.domain.requisition.RequisitionDataBuilder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+
+public class RequisitionSearchCursorTest {
+
+  private static final String CREATED_DATE = "createdDate";
+
+  @Test
+  public void shouldDecodeEncodedCursor() {
+    RequisitionSearchCursor cursor = new RequisitionSearchCursor(
+        ZonedDateTime.parse("2019-03-01T10:15:30.123456Z"), UUID.randomUUID());
+
+    RequisitionSearchCursor decoded = RequisitionSearchCursor.decode(cursor.encode());
+
+    assertEquals(cursor.getId(), decoded.getId());
+    assertTrue(cursor.getCreatedDate().isEqual(decoded.getCreatedDate()));
+  }
+
+  @Test
+  public void shouldCreateCursorFromRequisition() {
+    Requisition requisition = new RequisitionDataBuilder().build();
+    requisition.setCreatedDate(ZonedDateTime.now());
+
+    RequisitionSearchCursor cursor = RequisitionSearchCursor.of(requisition);
+
+    assertEquals(requisition.getId(), cursor.getId());
+    assertEquals(requisition.getCreatedDate(), cursor.getCreatedDate());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldNotDecodeInvalidCursor() {
+    RequisitionSearchCursor.decode("invalid");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldNotDecodeCursorWithInvalidDate() {
+    RequisitionSearchCursor cursor = new RequisitionSearchCursor(
+        ZonedDateTime.now(), UUID.randomUUID());
+
+    RequisitionSearchCursor.decode(cursor.encode().substring(2));
+  }
+
+  @Test
+  public void shouldSupportDefaultAndCreatedDateSort() {
+    assertTrue(RequisitionSearchCursor.supports(null));
+    assertTrue(RequisitionSearchCursor.supports(Sort.unsorted()));
+    assertTrue(RequisitionSearchCursor.supports(Sort.by(Direction.DESC, CREATED_DATE)));
+  }
+
+  @Test
+  public void shouldNotSupportOtherSort() {
+    assertFalse(RequisitionSearchCursor.supports(Sort.by("emergency")));
+    assertFalse(RequisitionSearchCursor.supports(Sort.by(CREATED_DATE, "emergency")));
+  }
+
+  @Test
+  public void shouldReturnSortDirection() {
+    assertEquals(Direction.ASC, RequisitionSearchCursor.getDirection(Sort.unsorted()));
+    assertEquals(Direction.DESC,
+        RequisitionSearchCursor.getDirection(Sort.by(Direction.DESC, CREATED_DATE)));
+  }
+}
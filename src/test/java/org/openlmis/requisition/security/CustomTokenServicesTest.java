@@ -15,8 +15,13 @@
 
 package org.openlmis.requisition.security;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.HashMap;
@@ -88,4 +93,84 @@ public class CustomTokenServicesTest {
     this.customTokenServices.setRestTemplate(restTemplate);
     this.customTokenServices.loadAuthentication(ACCESS_TOKEN);
   }
+
+  @Test
+  public void shouldCheckTokenOnlyOnceIfCacheIsEnabled() {
+    CustomTokenServices cachingTokenServices = prepareCachingTokenServices();
+    mockActiveTokenResponse(null);
+
+    OAuth2Authentication first = cachingTokenServices.loadAuthentication(ACCESS_TOKEN);
+    OAuth2Authentication second = cachingTokenServices.loadAuthentication(ACCESS_TOKEN);
+
+    assertNotSame(first, second);
+    assertEquals(first.getOAuth2Request(), second.getOAuth2Request());
+    verifyTokenChecked(1);
+    assertEquals(1, cachingTokenServices.getStatistics().getHits());
+    assertEquals(1, cachingTokenServices.getStatistics().getMisses());
+  }
+
+  @Test
+  public void shouldNotCacheTokenPastItsExpiration() {
+    CustomTokenServices cachingTokenServices = prepareCachingTokenServices();
+    mockActiveTokenResponse(System.currentTimeMillis() / 1000 - 1);
+
+    cachingTokenServices.loadAuthentication(ACCESS_TOKEN);
+    cachingTokenServices.loadAuthentication(ACCESS_TOKEN);
+
+    verifyTokenChecked(2);
+  }
+
+  @Test
+  public void shouldNotCacheInvalidToken() {
+    CustomTokenServices cachingTokenServices = prepareCachingTokenServices();
+    Map responseAttributes = new HashMap();
+    responseAttributes.put("error", "no_active_token");
+
+    when(restTemplate.exchange(
+        anyString(), Matchers.any(HttpMethod.class), Matchers.any(HttpEntity.class),
+        Matchers.any(Class.class)
+    )).thenReturn(new ResponseEntity<>(responseAttributes, HttpStatus.OK));
+
+    for (int i = 0; i < 2; ++i) {
+      try {
+        cachingTokenServices.loadAuthentication(ACCESS_TOKEN);
+        fail("token should be rejected");
+      } catch (InvalidTokenException ex) {
+        assertNotNull(ex.getMessage());
+      }
+    }
+
+    verifyTokenChecked(2 * (INVALID_TOKEN_RETRY_LIMIT + 1));
+  }
+
+  private CustomTokenServices prepareCachingTokenServices() {
+    CustomTokenServices cachingTokenServices =
+        new CustomTokenServices(INVALID_TOKEN_RETRY_LIMIT, 10, 60);
+    cachingTokenServices.setClientId(CLIENT_ID);
+    cachingTokenServices.setClientSecret(CLIENT_SECRET);
+    cachingTokenServices.setCheckTokenEndpointUrl(CLIENT_CHECK_TOKEN_ENDPOINT_URI);
+    cachingTokenServices.setRestTemplate(restTemplate);
+    return cachingTokenServices;
+  }
+
+  private void mockActiveTokenResponse(Long expiration) {
+    Map responseAttributes = new HashMap();
+    responseAttributes.put("active", true);
+    responseAttributes.put("client_id", CLIENT_ID);
+
+    if (null != expiration) {
+      responseAttributes.put("exp", expiration);
+    }
+
+    when(restTemplate.exchange(
+        anyString(), Matchers.any(HttpMethod.class), Matchers.any(HttpEntity.class),
+        Matchers.any(Class.class)
+    )).thenReturn(new ResponseEntity<>(responseAttributes, HttpStatus.OK));
+  }
+
+  private void verifyTokenChecked(int times) {
+    verify(restTemplate, times(times)).exchange(
+        anyString(), Matchers.any(HttpMethod.class), Matchers.any(HttpEntity.class),
+        Matchers.any(Class.class));
+  }
 }
@@ -126,6 +126,24 @@ public abstract class BaseCommunicationServiceTest<T> {
         .isUriStartsWith(service.getServiceUrl() + service.getUrl() + id);
   }
 
+  @Test
+  public void shouldFindByIdThroughRequestCoalescer() {
+    // given
+    UUID id = UUID.randomUUID();
+    RequestCoalescer requestCoalescer = new RequestCoalescer();
+    ReflectionTestUtils.setField(requestCoalescer, "enabled", true);
+    service.setRequestCoalescer(requestCoalescer);
+
+    // when
+    T instance = mockResponseEntityAndGetDto();
+    T found = service.findOne(id);
+
+    // then
+    assertThat(found, is(instance));
+    assertThat(requestCoalescer.getStatistics().getExecuted(), is(1L));
+    assertThat(requestCoalescer.getStatistics().getInFlight(), is(0));
+  }
+
   @Test
   public void shouldReturnNullIfEntityCannotBeFoundById() {
     // given
@@ -0,0 +1,123 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.After;
+import org.junit.Test;
+
+public class BoundedExecutorTest {
+
+  private BoundedExecutor executor = new BoundedExecutor("test-", 1, 1);
+
+  @After
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  public void shouldInterruptTaskWhenItIsCancelled() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch interrupted = new CountDownLatch(1);
+
+    CompletableFuture<Object> future = executor.supplyAsync(() -> {
+      started.countDown();
+      try {
+        new CountDownLatch(1).await();
+      } catch (InterruptedException ex) {
+        interrupted.countDown();
+      }
+      return null;
+    });
+
+    assertTrue(started.await(1, TimeUnit.SECONDS));
+    assertTrue(future.cancel(true));
+    assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void shouldNotRunTaskCancelledBeforeItStarted() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    AtomicBoolean run = new AtomicBoolean();
+
+    final CompletableFuture<Object> running = executor.supplyAsync(() -> {
+      await(latch);
+      return null;
+    });
+    CompletableFuture<Object> queued = executor.supplyAsync(() -> run.getAndSet(true));
+
+    queued.cancel(true);
+    latch.countDown();
+    running.join();
+    executor.supplyAsync(() -> null).join();
+
+    assertFalse(run.get());
+    assertEquals(3, executor.getStatistics().getCompleted());
+  }
+
+  @Test
+  public void shouldNotLeaveWorkerInterruptedAfterCancelledTask() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+
+    CompletableFuture<Object> future = executor.supplyAsync(() -> {
+      started.countDown();
+      while (!Thread.currentThread().isInterrupted()) {
+        Thread.yield();
+      }
+      return null;
+    });
+
+    assertTrue(started.await(1, TimeUnit.SECONDS));
+    future.cancel(true);
+
+    assertFalse(executor.supplyAsync(() -> Thread.currentThread().isInterrupted()).join());
+  }
+
+  @Test
+  public void shouldCompleteFutureWhenTaskThrowsError() throws Exception {
+    AssertionError error = new AssertionError("test");
+
+    CompletableFuture<Object> future = executor.supplyAsync(() -> {
+      throw error;
+    });
+
+    try {
+      future.get(1, TimeUnit.SECONDS);
+      fail("Expected the future to complete exceptionally");
+    } catch (ExecutionException ex) {
+      assertSame(error, ex.getCause());
+    }
+    assertEquals(1, executor.getStatistics().getFailed());
+  }
+
+  private void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
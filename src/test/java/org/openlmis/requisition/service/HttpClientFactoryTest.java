@@ -0,0 +1,163 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.config.RequestConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+public class HttpClientFactoryTest {
+  private static final String CLIENT = "referencedata";
+  private static final int CONNECT_TIMEOUT = 5000;
+  private static final int READ_TIMEOUT = 60000;
+
+  private HttpClientFactory factory = new HttpClientFactory();
+  private MockEnvironment environment = new MockEnvironment();
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(factory, "environment", environment);
+    ReflectionTestUtils.setField(factory, "maxConnections", 20);
+    ReflectionTestUtils.setField(factory, "maxConnectionsPerRoute", 10);
+    ReflectionTestUtils.setField(factory, "keepAliveSeconds", 30L);
+    ReflectionTestUtils.setField(factory, "connectionRequestTimeoutMillis", 1000);
+    ReflectionTestUtils.setField(factory, "connectTimeoutMillis", CONNECT_TIMEOUT);
+    ReflectionTestUtils.setField(factory, "readTimeoutMillis", READ_TIMEOUT);
+    factory.init();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    factory.shutdown();
+  }
+
+  @Test
+  public void shouldCreateTemplateWithDefaultTimeouts() {
+    RequestConfig config = getRequestConfig(factory.createRestTemplate(CLIENT));
+
+    assertThat(config.getConnectionRequestTimeout(), is(1000));
+    assertThat(config.getConnectTimeout(), is(CONNECT_TIMEOUT));
+    assertThat(config.getSocketTimeout(), is(READ_TIMEOUT));
+  }
+
+  @Test
+  public void shouldCreateTemplateWithTimeoutsOfClient() {
+    environment.setProperty("http.client.referencedata.connectTimeoutMillis", "100");
+    environment.setProperty("http.client.referencedata.readTimeoutMillis", "200");
+
+    RequestConfig config = getRequestConfig(factory.createRestTemplate(CLIENT));
+    RequestConfig otherConfig = getRequestConfig(factory.createRestTemplate("notification"));
+
+    assertThat(config.getConnectTimeout(), is(100));
+    assertThat(config.getSocketTimeout(), is(200));
+    assertThat(otherConfig.getConnectTimeout(), is(CONNECT_TIMEOUT));
+    assertThat(otherConfig.getSocketTimeout(), is(READ_TIMEOUT));
+  }
+
+  @Test
+  public void shouldShareConnectionPool() {
+    Object client = getRequestFactory(factory.createRestTemplate(CLIENT)).getHttpClient();
+    Object otherClient = getRequestFactory(factory.createRestTemplate("auth")).getHttpClient();
+
+    assertThat(client, is(otherClient));
+  }
+
+  @Test
+  public void shouldCompressRequestsOnlyIfEnabledForClient() {
+    environment.setProperty("http.client.notification.compressRequests", "true");
+
+    assertThat(factory.createRestTemplate(CLIENT).getInterceptors(), is(empty()));
+    assertThat(factory.createRestTemplate("notification").getInterceptors(), hasSize(1));
+    assertThat(factory.createRestTemplate("notification").getInterceptors().get(0),
+        instanceOf(HttpClientFactory.GzipRequestInterceptor.class));
+  }
+
+  @Test
+  public void shouldCompressLargeRequestBody() throws IOException {
+    byte[] body = new byte[4096];
+    Arrays.fill(body, (byte) 'a');
+    MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.POST,
+        URI.create("http://localhost"));
+    ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+
+    new HttpClientFactory.GzipRequestInterceptor().intercept(request, body, execution);
+
+    ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+    verify(execution).execute(any(), captor.capture());
+    assertThat(request.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+    assertThat(request.getHeaders().getContentLength(), is((long) captor.getValue().length));
+    assertThat(IOUtils.toByteArray(
+        new GZIPInputStream(new ByteArrayInputStream(captor.getValue()))), is(body));
+  }
+
+  @Test
+  public void shouldNotCompressSmallRequestBody() throws IOException {
+    byte[] body = "{}".getBytes();
+    MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.POST,
+        URI.create("http://localhost"));
+    ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+
+    new HttpClientFactory.GzipRequestInterceptor().intercept(request, body, execution);
+
+    verify(execution).execute(request, body);
+    assertThat(request.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), is(nullValue()));
+  }
+
+  @Test
+  public void shouldReturnStatistics() {
+    HttpClientFactory.Statistics statistics = factory.getStatistics();
+
+    assertThat(statistics.getMax(), is(20));
+    assertThat(statistics.getLeased(), is(0));
+    assertThat(statistics.getPending(), is(0));
+  }
+
+  private HttpComponentsClientHttpRequestFactory getRequestFactory(RestTemplate template) {
+    return (HttpComponentsClientHttpRequestFactory) ReflectionTestUtils
+        .getField(template, "requestFactory");
+  }
+
+  private RequestConfig getRequestConfig(RestTemplate template) {
+    return (RequestConfig) ReflectionTestUtils
+        .getField(getRequestFactory(template), "requestConfig");
+  }
+}
@@ -15,9 +15,12 @@
 
 package org.openlmis.requisition.service;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
+import java.io.ByteArrayOutputStream;
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.JasperPrint;
 import org.junit.Test;
@@ -41,4 +44,24 @@ public class JasperExporterTest {
     JasperHtmlExporter exporter = new JasperHtmlExporter(mock(JasperPrint.class));
     assertNotNull(exporter.exportReport());
   }
+
+  @Test
+  public void xlsExportReportShouldWriteDataToStream() throws JRException {
+    JasperXlsExporter exporter = new JasperXlsExporter(new JasperPrint());
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    exporter.exportReport(outputStream);
+
+    assertArrayEquals(exporter.exportReport(), outputStream.toByteArray());
+  }
+
+  @Test
+  public void htmlExportReportShouldWriteDataToStream() throws JRException {
+    JasperHtmlExporter exporter = new JasperHtmlExporter(mock(JasperPrint.class));
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    exporter.exportReport(outputStream);
+
+    assertTrue(outputStream.size() > 0);
+  }
 }
@@ -0,0 +1,103 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+import net.sf.jasperreports.engine.JasperReport;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlmis.requisition.domain.JasperTemplate;
+import org.openlmis.requisition.domain.RequisitionTemplate;
+import org.openlmis.requisition.domain.RequisitionTemplateDataBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class JasperReportCacheTest {
+
+  private JasperReportCache cache = new JasperReportCache();
+  private JasperReportCache.Loader loader = mock(JasperReportCache.Loader.class);
+  private JasperReport report = mock(JasperReport.class);
+  private JasperTemplate jasperTemplate = new JasperTemplate();
+
+  @Before
+  public void setUp() throws Exception {
+    ReflectionTestUtils.setField(cache, "maxSize", 10L);
+    cache.init();
+
+    when(loader.load()).thenReturn(report);
+
+    jasperTemplate.setId(UUID.randomUUID());
+    jasperTemplate.setData(new byte[]{1, 2, 3});
+  }
+
+  @Test
+  public void shouldReuseCompiledTemplateReport() throws Exception {
+    assertSame(report, cache.getTemplateReport(jasperTemplate, loader));
+    assertSame(report, cache.getTemplateReport(jasperTemplate, loader));
+
+    verify(loader, times(1)).load();
+  }
+
+  @Test
+  public void shouldLoadTemplateReportAgainIfTemplateDataChanged() throws Exception {
+    cache.getTemplateReport(jasperTemplate, loader);
+    jasperTemplate.setData(new byte[]{3, 2, 1});
+    cache.getTemplateReport(jasperTemplate, loader);
+
+    verify(loader, times(2)).load();
+  }
+
+  @Test
+  public void shouldLoadTemplateReportAgainIfEvicted() throws Exception {
+    cache.getTemplateReport(jasperTemplate, loader);
+    cache.evictTemplateReport(jasperTemplate.getId());
+    cache.getTemplateReport(jasperTemplate, loader);
+
+    verify(loader, times(2)).load();
+  }
+
+  @Test
+  public void shouldReuseResourceReport() throws Exception {
+    cache.getResourceReport("/report.jrxml", loader);
+    cache.getResourceReport("/report.jrxml", loader);
+
+    verify(loader, times(1)).load();
+  }
+
+  @Test
+  public void shouldKeepLineSubreportsPerTemplateVersionAndColumns() throws Exception {
+    RequisitionTemplate template = new RequisitionTemplateDataBuilder().build();
+    template.setModifiedDate(ZonedDateTime.now());
+
+    cache.getLineSubreport(template, Arrays.asList("a", "b"), loader);
+    cache.getLineSubreport(template, Arrays.asList("a", "b"), loader);
+    verify(loader, times(1)).load();
+
+    cache.getLineSubreport(template, Arrays.asList("a", "b", "c"), loader);
+    verify(loader, times(2)).load();
+
+    template.setModifiedDate(template.getModifiedDate().plusMinutes(1));
+    cache.getLineSubreport(template, Arrays.asList("a", "b"), loader);
+    verify(loader, times(3)).load();
+  }
+}
@@ -15,15 +15,22 @@
 
 package org.openlmis.requisition.service;
 
-import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.openlmis.requisition.domain.requisition.RequisitionStatus.APPROVED;
@@ -32,9 +39,11 @@ import static org.openlmis.requisition.domain.requisition.RequisitionStatus.INIT
 import static org.openlmis.requisition.domain.requisition.RequisitionStatus.RELEASED;
 import static org.openlmis.requisition.domain.requisition.RequisitionStatus.RELEASED_WITHOUT_ORDER;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.sql.Connection;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
@@ -45,20 +54,25 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRParameter;
 import net.sf.jasperreports.engine.JasperPrint;
 import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.fill.JRAbstractLRUVirtualizer;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -78,8 +92,7 @@ import org.openlmis.requisition.dto.ProgramDto;
 import org.openlmis.requisition.dto.RequisitionReportDto;
 import org.openlmis.requisition.dto.SupervisoryNodeDto;
 import org.openlmis.requisition.exception.JasperReportViewException;
-import org.openlmis.requisition.repository.custom.DefaultRequisitionSearchParams;
-import org.openlmis.requisition.repository.custom.RequisitionSearchParams;
+import org.openlmis.requisition.repository.RequisitionRepository;
 import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
 import org.openlmis.requisition.service.referencedata.GeographicZoneReferenceDataService;
 import org.openlmis.requisition.service.referencedata.PeriodReferenceDataService;
@@ -87,7 +100,6 @@ import org.openlmis.requisition.service.referencedata.ProgramReferenceDataServic
 import org.openlmis.requisition.testutils.DtoGenerator;
 import org.openlmis.requisition.web.ReportingRateReportDtoBuilder;
 import org.openlmis.requisition.web.RequisitionReportDtoBuilder;
-import org.springframework.data.domain.Page;
 import org.springframework.test.util.ReflectionTestUtils;
 
 @SuppressWarnings({"PMD.TooManyMethods"})
@@ -120,7 +132,7 @@ public class JasperReportsViewServiceTest {
   private ReportingRateReportDtoBuilder reportingRateReportDtoBuilder; //NOPMD
 
   @Mock
-  private RequisitionService requisitionService;
+  private RequisitionRepository requisitionRepository;
 
   @Mock
   private ObjectInputStream objectInputStream;
@@ -162,8 +174,10 @@ public class JasperReportsViewServiceTest {
   private Locale locale = new Locale(DEFAULT_LOCALE, CURRENCY_LOCALE);
 
   private Map<String, Object> reportParams = new HashMap<>();
+  private Set<UUID> facilityIdsWithRnR = new HashSet<>();
 
   private byte[] expectedReportData;
+  private JasperReportCache jasperReportCache = new JasperReportCache();
 
   @Before
   public void setUp() throws Exception {
@@ -187,6 +201,15 @@ public class JasperReportsViewServiceTest {
     doReturn(expectedReportData).when(service).exportJasperReportToPdf(any(JasperPrint.class));
 
     MockitoAnnotations.initMocks(this);
+
+    ReflectionTestUtils.setField(jasperReportCache, "maxSize", 10L);
+    jasperReportCache.init();
+    ReflectionTestUtils.setField(service, "jasperReportCache", jasperReportCache);
+
+    when(requisitionRepository.findFacilityIdsWithRequisitions(anyCollection(),
+        eq(program.getId()), eq(period.getId()),
+        eq(EnumSet.of(APPROVED, RELEASED, RELEASED_WITHOUT_ORDER))))
+        .thenReturn(facilityIdsWithRnR);
   }
 
   @Test
@@ -200,6 +223,71 @@ public class JasperReportsViewServiceTest {
     assertEquals(expectedReportData, reportData);
   }
 
+  @Test
+  public void generateReportShouldReuseCompiledReportOfTheSameTemplate() throws Exception {
+    //given
+    when(jasperTemplate.getId()).thenReturn(UUID.randomUUID());
+    when(jasperTemplate.getData()).thenReturn(new byte[]{1, 2, 3});
+
+    //when
+    service.generateReport(jasperTemplate, reportParams);
+    service.generateReport(jasperTemplate, reportParams);
+
+    //then
+    verify(service, times(1)).createObjectInputStream(jasperTemplate);
+  }
+
+  @Test
+  public void generateReportShouldWriteReportToStream() throws Exception {
+    //given
+    reportParams.put(PARAM_KEY_FORMAT, "csv");
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    doNothing().when(service)
+        .exportJasperReportToCsv(any(JasperPrint.class), any(OutputStream.class));
+
+    //when
+    service.generateReport(jasperTemplate, reportParams, outputStream);
+
+    //then
+    verify(service).exportJasperReportToCsv(any(JasperPrint.class), eq(outputStream));
+    verify(service, never()).exportJasperReportToCsv(any(JasperPrint.class));
+  }
+
+  @Test
+  public void generateReportShouldUseAndCleanUpVirtualizerWhenWritingToStream()
+      throws Exception {
+    //given
+    JRAbstractLRUVirtualizer virtualizer = mock(JRAbstractLRUVirtualizer.class);
+    doReturn(virtualizer).when(service).createVirtualizer();
+    doNothing().when(service)
+        .exportJasperReportToPdf(any(JasperPrint.class), any(OutputStream.class));
+
+    Map<String, Object> fillParams = new HashMap<>();
+    doAnswer(invocation -> {
+      fillParams.putAll(invocation.getArgument(1));
+      return jasperPrint;
+    }).when(service).fillJasperReport(any(JasperReport.class), anyMap(),
+        nullable(Connection.class));
+
+    //when
+    service.generateReport(jasperTemplate, reportParams, new ByteArrayOutputStream());
+
+    //then
+    assertEquals(virtualizer, fillParams.get(JRParameter.REPORT_VIRTUALIZER));
+
+    InOrder inOrder = inOrder(virtualizer, service);
+    inOrder.verify(virtualizer).setReadOnly(true);
+    inOrder.verify(service).exportJasperReportToPdf(any(JasperPrint.class),
+        any(OutputStream.class));
+    inOrder.verify(virtualizer).cleanup();
+    assertFalse(reportParams.containsKey(JRParameter.REPORT_VIRTUALIZER));
+  }
+
+  @Test
+  public void generateReportShouldNotUseVirtualizerIfDisabled() {
+    assertNull(service.createVirtualizer());
+  }
+
   @Test
   public void generateReportShouldReturnCsvReport() throws Exception {
     //given
@@ -512,17 +600,9 @@ public class JasperReportsViewServiceTest {
 
     when(geographicZoneReferenceDataService.findOne(districtId)).thenReturn(geographicZoneDto);
 
-    Requisition mockRequisition = mock(Requisition.class);
-    Page<Requisition> requisitionPage = mock(Page.class);
-    when(requisitionPage.getContent()).thenReturn(
-        (isMissingRnR) ? Collections.emptyList() : singletonList(mockRequisition));
-
-    RequisitionSearchParams params = new DefaultRequisitionSearchParams(
-        facilityId, program.getId(), period.getId(), null, null, null, null,
-        null, null, EnumSet.of(APPROVED, RELEASED, RELEASED_WITHOUT_ORDER));
-
-    when(requisitionService.searchRequisitions(eq(params), any()))
-        .thenReturn(requisitionPage);
+    if (!isMissingRnR) {
+      facilityIdsWithRnR.add(facilityId);
+    }
 
     return geographicZoneDto;
   }
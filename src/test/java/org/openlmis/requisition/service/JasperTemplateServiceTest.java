@@ -46,6 +46,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletRequest;
 import net.sf.jasperreports.engine.JRExpression;
@@ -82,6 +83,9 @@ public class JasperTemplateServiceTest {
   @Mock
   private JasperTemplateRepository jasperTemplateRepository;
 
+  @Mock
+  private JasperReportCache jasperReportCache;
+
   @InjectMocks
   private JasperTemplateService jasperTemplateService;
 
@@ -106,6 +110,17 @@ public class JasperTemplateServiceTest {
     template = mock(JasperTemplate.class);
   }
   
+  @Test
+  public void shouldEvictCompiledReportWhenTemplateIsSaved() {
+    UUID templateId = UUID.randomUUID();
+    when(template.getId()).thenReturn(templateId);
+
+    jasperTemplateService.saveWithParameters(template);
+
+    verify(jasperTemplateRepository).save(template);
+    verify(jasperReportCache).evictTemplateReport(templateId);
+  }
+
   @Test
   public void shouldThrowErrorIfFileNotOfTypeJasperXml() throws Exception {
     expectedException.expect(ReportingException.class);
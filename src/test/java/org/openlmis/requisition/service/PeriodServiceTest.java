@@ -336,6 +336,74 @@ public class PeriodServiceTest {
     assertNull(periods.iterator().next().getRequisitionId());
   }
 
+  @Test
+  public void shouldReturnEmergencyRequisitionsOfPastPeriodsWithCurrentPeriod() {
+    doReturn(Arrays.asList(currentPeriod, period1))
+        .when(periodReferenceDataService)
+        .searchByProgramAndFacility(programId, facilityId);
+    mockSupportedProgramStartDateNotSet();
+
+    RequisitionPeriod requisitionPeriodCurrent =
+        createRequisitionPeriod(UUID.randomUUID(), INITIATED, currentPeriod.getId());
+    RequisitionPeriod requisitionPeriodPast =
+        createRequisitionPeriod(UUID.randomUUID(), INITIATED, period1.getId());
+
+    doReturn(Arrays.asList(requisitionPeriodCurrent, requisitionPeriodPast))
+        .when(requisitionRepository)
+        .searchRequisitionIdAndStatusPairs(facilityId, programId, true);
+
+    Collection<RequisitionPeriodDto> periods =
+        periodService.getPeriods(programId, facilityId, true);
+
+    assertThat(periods, hasSize(3));
+    for (RequisitionPeriodDto period : periods) {
+      assertEquals(currentPeriod.getId(), period.getId());
+    }
+    List<UUID> requisitionIds = periods
+        .stream()
+        .map(RequisitionPeriodDto::getRequisitionId)
+        .collect(Collectors.toList());
+    assertThat(requisitionIds, contains(null, requisitionPeriodCurrent.getRequisitionId(),
+        requisitionPeriodPast.getRequisitionId()));
+  }
+
+  @Test
+  public void shouldMergeRequisitionsWithLongScheduleOfWeeklyPeriods() {
+    LocalDate startDate = LocalDate.now().minusYears(20);
+    List<ProcessingPeriodDto> weeklyPeriods = new ArrayList<>();
+    List<RequisitionPeriod> requisitionPeriods = new ArrayList<>();
+
+    for (int week = 0; week < 52 * 20; ++week) {
+      ProcessingPeriodDto period = new ProcessingPeriodDtoDataBuilder()
+          .withStartDate(startDate.plusWeeks(week))
+          .withEndDate(startDate.plusWeeks(week + 1L).minusDays(1))
+          .withProcessingSchedule(schedule)
+          .buildAsDto();
+      weeklyPeriods.add(period);
+
+      // all but the last period have an approved requisition, the last one is in progress
+      RequisitionStatus status = week < 52 * 20 - 1 ? APPROVED : INITIATED;
+      requisitionPeriods.add(createRequisitionPeriod(UUID.randomUUID(), status, period.getId()));
+    }
+
+    doReturn(weeklyPeriods)
+        .when(periodReferenceDataService)
+        .searchByProgramAndFacility(programId, facilityId);
+    doReturn(requisitionPeriods)
+        .when(requisitionRepository)
+        .searchRequisitionIdAndStatusPairs(facilityId, programId, false);
+
+    Collection<RequisitionPeriodDto> periods =
+        periodService.getPeriods(programId, facilityId, false);
+
+    assertThat(periods, hasSize(1));
+    RequisitionPeriodDto period = periods.iterator().next();
+    RequisitionPeriod lastRequisition = requisitionPeriods.get(requisitionPeriods.size() - 1);
+    assertEquals(lastRequisition.getPeriodId(), period.getId());
+    assertEquals(lastRequisition.getRequisitionId(), period.getRequisitionId());
+    assertEquals(INITIATED, period.getRequisitionStatus());
+  }
+
   @Test
   public void shouldReturnPreviousPeriods() throws Exception {
     doReturn(period4)
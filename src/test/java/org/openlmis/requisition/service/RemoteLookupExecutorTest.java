@@ -0,0 +1,105 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlmis.requisition.exception.ServerException;
+import org.openlmis.requisition.exception.ValidationMessageException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class RemoteLookupExecutorTest {
+
+  private RemoteLookupExecutor executor = new RemoteLookupExecutor();
+
+  private Authentication authentication = new TestingAuthenticationToken("user", "password");
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(executor, "asyncEnabled", true);
+    ReflectionTestUtils.setField(executor, "poolSize", 2);
+    ReflectionTestUtils.setField(executor, "queueCapacity", 2);
+    ReflectionTestUtils.setField(executor, "timeoutSeconds", 1L);
+    executor.init();
+
+    SecurityContextHolder.getContext().setAuthentication(authentication);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdown();
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  public void shouldRunLookupInSeparateThreadWithSecurityContext() {
+    Thread caller = Thread.currentThread();
+
+    CompletableFuture<Thread> thread = executor.submit(Thread::currentThread);
+    CompletableFuture<Authentication> auth = executor
+        .submit(() -> SecurityContextHolder.getContext().getAuthentication());
+
+    assertNotEquals(caller, executor.join(thread));
+    assertSame(authentication, executor.join(auth));
+    assertSame(authentication, SecurityContextHolder.getContext().getAuthentication());
+  }
+
+  @Test
+  public void shouldRunLookupInCallerThreadIfAsyncModeIsDisabled() {
+    RemoteLookupExecutor syncExecutor = new RemoteLookupExecutor();
+    syncExecutor.init();
+
+    assertEquals(Thread.currentThread(), syncExecutor.join(
+        syncExecutor.submit(Thread::currentThread)));
+  }
+
+  @Test(expected = ValidationMessageException.class)
+  public void shouldRethrowRuntimeExceptionFromLookup() {
+    CompletableFuture<Object> future = executor.submit(() -> {
+      throw new ValidationMessageException("key");
+    });
+
+    executor.join(future);
+  }
+
+  @Test(expected = ServerException.class)
+  public void shouldThrowExceptionIfLookupTimedOut() {
+    CountDownLatch latch = new CountDownLatch(1);
+
+    try {
+      executor.join(executor.submit(() -> {
+        try {
+          latch.await();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+        return null;
+      }));
+    } finally {
+      latch.countDown();
+    }
+  }
+}
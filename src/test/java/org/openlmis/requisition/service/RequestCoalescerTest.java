@@ -0,0 +1,195 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlmis.requisition.dto.FacilityDto;
+import org.openlmis.requisition.testutils.FacilityDtoDataBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+public class RequestCoalescerTest {
+  private static final URI FACILITY_URI = URI.create("http://localhost/api/facilities/1");
+  private static final String ETAG = "W/\"1\"";
+
+  private RequestCoalescer coalescer = new RequestCoalescer();
+  private ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  private FacilityDto facility = new FacilityDtoDataBuilder().buildAsDto();
+  private AtomicInteger calls = new AtomicInteger();
+  private CountDownLatch started = new CountDownLatch(1);
+  private CountDownLatch released = new CountDownLatch(1);
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(coalescer, "enabled", true);
+    ReflectionTestUtils.setField(coalescer, "timeoutMillis", 10000L);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldShareResponseOfRequestInFlight() throws Exception {
+    final Future<ResponseEntity<FacilityDto>> first = executor.submit(() -> get(ETAG, blocking()));
+    started.await(5, TimeUnit.SECONDS);
+    final Future<ResponseEntity<FacilityDto>> second = executor.submit(() -> get(ETAG, blocking()));
+    awaitCoalesced();
+    released.countDown();
+
+    assertThat(first.get().getBody(), is(facility));
+    assertThat(second.get().getBody(), is(facility));
+    assertThat(second.get().getBody(), is(not(sameInstance(first.get().getBody()))));
+    assertThat(calls.get(), is(1));
+    assertThat(coalescer.getStatistics().getExecuted(), is(1L));
+    assertThat(coalescer.getStatistics().getInFlight(), is(0));
+  }
+
+  @Test
+  public void shouldPassErrorToWaitingRequests() throws Exception {
+    HttpClientErrorException error = new HttpClientErrorException(HttpStatus.NOT_FOUND);
+    Supplier<ResponseEntity<FacilityDto>> failing = () -> {
+      blocking().get();
+      throw error;
+    };
+
+    final Future<ResponseEntity<FacilityDto>> first = executor.submit(() -> get(ETAG, failing));
+    started.await(5, TimeUnit.SECONDS);
+    final Future<ResponseEntity<FacilityDto>> second = executor.submit(() -> get(ETAG, failing));
+    awaitCoalesced();
+    released.countDown();
+
+    assertThat(getError(first), is(sameInstance(error)));
+    assertThat(getError(second), is(sameInstance(error)));
+    assertThat(calls.get(), is(1));
+  }
+
+  @Test
+  public void shouldExecuteRequestItselfWhenWaitingTimedOut() throws Exception {
+    ReflectionTestUtils.setField(coalescer, "timeoutMillis", 10L);
+
+    final Future<ResponseEntity<FacilityDto>> first = executor.submit(() -> get(ETAG, blocking()));
+    started.await(5, TimeUnit.SECONDS);
+    ResponseEntity<FacilityDto> second = get(ETAG, this::respond);
+    released.countDown();
+
+    assertThat(second.getBody(), is(facility));
+    assertThat(first.get().getBody(), is(facility));
+    assertThat(calls.get(), is(2));
+    assertThat(coalescer.getStatistics().getTimedOut(), is(1L));
+  }
+
+  @Test
+  public void shouldNotShareRequestsWithDifferentEtag() throws Exception {
+    final Future<ResponseEntity<FacilityDto>> first = executor.submit(() -> get(ETAG, blocking()));
+    started.await(5, TimeUnit.SECONDS);
+    get(null, this::respond);
+    released.countDown();
+    first.get();
+
+    assertThat(calls.get(), is(2));
+    assertThat(coalescer.getStatistics().getCoalesced(), is(0L));
+  }
+
+  @Test
+  public void shouldExecuteRequestAgainWhenPreviousOneCompleted() {
+    get(ETAG, this::respond);
+    get(ETAG, this::respond);
+
+    assertThat(calls.get(), is(2));
+  }
+
+  @Test
+  public void shouldExecuteRequestDirectlyWhenDisabled() throws Exception {
+    ReflectionTestUtils.setField(coalescer, "enabled", false);
+
+    final Future<ResponseEntity<FacilityDto>> first = executor.submit(() -> get(ETAG, blocking()));
+    started.await(5, TimeUnit.SECONDS);
+    get(ETAG, this::respond);
+    released.countDown();
+    first.get();
+
+    assertThat(calls.get(), is(2));
+    assertThat(coalescer.getStatistics().getExecuted(), is(0L));
+  }
+
+  private ResponseEntity<FacilityDto> get(String etag,
+      Supplier<ResponseEntity<FacilityDto>> request) {
+    return coalescer.get(FACILITY_URI, etag, FacilityDto.class, request);
+  }
+
+  private ResponseEntity<FacilityDto> respond() {
+    calls.incrementAndGet();
+    return new ResponseEntity<>(facility, HttpStatus.OK);
+  }
+
+  private Supplier<ResponseEntity<FacilityDto>> blocking() {
+    return () -> {
+      started.countDown();
+
+      try {
+        released.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+
+      return respond();
+    };
+  }
+
+  private void awaitCoalesced() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+
+    while (0 == coalescer.getStatistics().getCoalesced()) {
+      if (System.currentTimeMillis() > deadline) {
+        fail("The second request did not wait for the first one");
+      }
+      Thread.sleep(5);
+    }
+  }
+
+  private Throwable getError(Future<?> future) throws InterruptedException {
+    try {
+      future.get();
+    } catch (ExecutionException ex) {
+      return ex.getCause();
+    }
+
+    fail("The request should have failed");
+    return null;
+  }
+}
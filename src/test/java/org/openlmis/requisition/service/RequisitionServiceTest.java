@@ -22,6 +22,7 @@ import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -33,7 +34,9 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -95,6 +98,7 @@ import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.domain.requisition.RequisitionDataBuilder;
 import org.openlmis.requisition.domain.requisition.RequisitionLineItem;
 import org.openlmis.requisition.domain.requisition.RequisitionLineItemDataBuilder;
+import org.openlmis.requisition.domain.requisition.RequisitionPeriod;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
 import org.openlmis.requisition.domain.requisition.StatusChange;
 import org.openlmis.requisition.domain.requisition.StatusMessage;
@@ -104,7 +108,6 @@ import org.openlmis.requisition.dto.ApprovedProductDto;
 import org.openlmis.requisition.dto.BasicRequisitionDto;
 import org.openlmis.requisition.dto.DetailedRoleAssignmentDto;
 import org.openlmis.requisition.dto.FacilityDto;
-import org.openlmis.requisition.dto.OrderDto;
 import org.openlmis.requisition.dto.OrderLineItemDto;
 import org.openlmis.requisition.dto.OrderableDto;
 import org.openlmis.requisition.dto.ProcessingPeriodDto;
@@ -273,6 +276,9 @@ public class RequisitionServiceTest {
   @Mock
   private FacilitySupportsProgramHelper facilitySupportsProgramHelper;
 
+  @Spy
+  private RemoteLookupExecutor remoteLookupExecutor = new RemoteLookupExecutor();
+
   @Spy
   private RequisitionTemplate requisitionTemplate = new RequisitionTemplateDataBuilder()
       .withAllColumns().build();
@@ -365,18 +371,30 @@ public class RequisitionServiceTest {
     when(secondPeriod.getId()).thenReturn(UUID.randomUUID());
     when(periodService.searchByProgramAndFacility(program.getId(), facility.getId()))
         .thenReturn(Arrays.asList(processingPeriod, secondPeriod));
-    when(requisitionRepository
-        .searchRequisitions(processingPeriod.getId(), facility.getId(), program.getId(), false))
-        .thenReturn(singletonList(requisition));
-    when(requisitionRepository
-        .searchRequisitions(secondPeriod.getId(), facility.getId(), program.getId(), false))
-        .thenReturn(emptyList());
+    stubRegularRequisitionPeriods(
+        new RequisitionPeriod(requisition.getId(), INITIATED, processingPeriod.getId()));
     mockSupportedProgramStartDateNotSet();
 
     requisitionService.delete(requisition);
     verify(requisitionRepository).delete(requisition);
   }
 
+  @Test(expected = ValidationMessageException.class)
+  public void shouldNotDeleteRequisitionIfRequisitionForNextPeriodExists() {
+    requisition.setStatus(INITIATED);
+
+    ProcessingPeriodDto nextPeriod = mock(ProcessingPeriodDto.class);
+    when(nextPeriod.getId()).thenReturn(UUID.randomUUID());
+    when(periodService.searchByProgramAndFacility(program.getId(), facility.getId()))
+        .thenReturn(Arrays.asList(processingPeriod, nextPeriod));
+    stubRegularRequisitionPeriods(
+        new RequisitionPeriod(UUID.randomUUID(), INITIATED, nextPeriod.getId()),
+        new RequisitionPeriod(requisition.getId(), INITIATED, processingPeriod.getId()));
+    mockSupportedProgramStartDateNotSet();
+
+    requisitionService.delete(requisition);
+  }
+
   @Test
   public void shouldDeleteStatusMessagesWhenDeletingRequisition() {
     requisition.setStatus(INITIATED);
@@ -738,8 +756,7 @@ public class RequisitionServiceTest {
   @Test
   public void shouldInitiatePreviousAdjustedConsumptions() {
     prepareForTestInitiate(SETTING);
-    when(periodService.findPreviousPeriods(any(UUID.class), eq(SETTING - 1)))
-        .thenReturn(singletonList(new ProcessingPeriodDto()));
+    stubPreviousPeriod();
     mockPreviousRequisition();
     ApproveProductsAggregator aggregator = mockApprovedProduct(
         new UUID[]{PRODUCT_ID}, new boolean[]{true});
@@ -756,8 +773,7 @@ public class RequisitionServiceTest {
   @Test
   public void shouldInitiateReportOnlyRequisition() {
     prepareForTestInitiate(SETTING);
-    when(periodService.findPreviousPeriods(any(UUID.class), eq(SETTING - 1)))
-        .thenReturn(singletonList(new ProcessingPeriodDto()));
+    stubPreviousPeriod();
     mockPreviousRequisition();
     ApproveProductsAggregator aggregator = mockApprovedProduct(
         new UUID[]{PRODUCT_ID}, new boolean[]{true});
@@ -774,8 +790,7 @@ public class RequisitionServiceTest {
   @Test
   public void shouldInitiateRegularRequisitionIfItIsEmergencyForReportOnlyPeriod() {
     prepareForTestInitiate(SETTING);
-    when(periodService.findPreviousPeriods(any(UUID.class), eq(SETTING - 1)))
-        .thenReturn(singletonList(new ProcessingPeriodDto()));
+    stubPreviousPeriod();
     mockPreviousRequisition();
     ApproveProductsAggregator aggregator = mockApprovedProduct(
         new UUID[]{PRODUCT_ID}, new boolean[]{true});
@@ -804,8 +819,8 @@ public class RequisitionServiceTest {
     RequisitionLineItem requisitionLineItem = initiatedRequisition.getRequisitionLineItems().get(0);
     assertEquals(Integer.valueOf(ADJUSTED_CONSUMPTION),
         requisitionLineItem.getPreviousAdjustedConsumptions().get(0));
-    verify(requisitionRepository).findRegularRequisition(
-        PERIOD_ID, facility.getId(), program.getId());
+    verify(requisitionRepository).findRegularRequisitions(
+        singleton(PERIOD_ID), facility.getId(), program.getId());
   }
 
   @Test
@@ -822,8 +837,41 @@ public class RequisitionServiceTest {
 
     UUID previousRequisitionId = initiatedRequisition.getPreviousRequisitions().get(0).getId();
     assertEquals(previousRequisition.getId(), previousRequisitionId);
-    verify(requisitionRepository).findRegularRequisition(
-        PERIOD_ID, facility.getId(), program.getId());
+    verify(requisitionRepository).findRegularRequisitions(
+        singleton(PERIOD_ID), facility.getId(), program.getId());
+  }
+
+  @Test
+  public void shouldAssignPreviousRegularRequisitionsInOrderOfPreviousPeriods() {
+    prepareForTestInitiate(SETTING);
+    ProcessingPeriodDto olderPeriod = new ProcessingPeriodDtoDataBuilder().buildAsDto();
+    ProcessingPeriodDto periodWithoutRequisition = new ProcessingPeriodDtoDataBuilder()
+        .buildAsDto();
+    ProcessingPeriodDto previousPeriod = new ProcessingPeriodDtoDataBuilder()
+        .withId(PERIOD_ID)
+        .buildAsDto();
+    when(periodService.findPreviousPeriods(any(UUID.class), eq(SETTING - 1)))
+        .thenReturn(Arrays.asList(previousPeriod, periodWithoutRequisition, olderPeriod));
+
+    mockPreviousRequisition();
+    Requisition olderRequisition = new RequisitionDataBuilder()
+        .withProcessingPeriodId(olderPeriod.getId())
+        .build();
+    when(requisitionRepository
+        .findRegularRequisitions(any(), eq(facility.getId()), eq(program.getId())))
+        .thenReturn(Arrays.asList(olderRequisition, previousRequisition));
+    ApproveProductsAggregator aggregator = mockApprovedProduct(
+        new UUID[]{PRODUCT_ID}, new boolean[]{true});
+
+    Requisition initiatedRequisition = requisitionService.initiate(
+        program, facility, processingPeriod, false,
+        stockAdjustmentReasons, requisitionTemplate, aggregator);
+
+    assertThat(initiatedRequisition.getPreviousRequisitions(),
+        contains(previousRequisition, olderRequisition));
+    verify(requisitionRepository).findRegularRequisitions(
+        asSet(PERIOD_ID, periodWithoutRequisition.getId(), olderPeriod.getId()),
+        facility.getId(), program.getId());
   }
 
   @Test
@@ -1148,7 +1196,7 @@ public class RequisitionServiceTest {
         requisition.getEmergency(), requisition.getCreatedDate().minusDays(2).toLocalDate(),
         requisition.getCreatedDate().plusDays(2).toLocalDate(),
         requisition.getModifiedDate().minusDays(2), requisition.getModifiedDate().plusDays(2),
-        EnumSet.of(requisition.getStatus()));
+        EnumSet.of(requisition.getStatus()), null, false);
 
     given(permissionService.getPermissionStrings(user.getId()))
         .willReturn(permissionStringsHandler);
@@ -1210,7 +1258,7 @@ public class RequisitionServiceTest {
         requisition.getEmergency(), requisition.getCreatedDate().minusDays(2).toLocalDate(),
         requisition.getCreatedDate().plusDays(2).toLocalDate(),
         requisition.getModifiedDate().minusDays(2), requisition.getModifiedDate().plusDays(2),
-        EnumSet.of(requisition.getStatus()));
+        EnumSet.of(requisition.getStatus()), null, false);
 
     given(authenticationHelper.getCurrentUser()).willReturn(user);
     given(permissionStringsHandler.get()).willReturn(emptySet());
@@ -1327,6 +1375,27 @@ public class RequisitionServiceTest {
   }
 
 
+  @Test
+  public void shouldBuildOrdersAndSaveRequisitionsOfBatchAtOnce() {
+    List<ReleasableRequisitionDto> list = setUpReleaseRequisitionsAsOrder(5, APPROVED);
+
+    List<FacilityDto> facilities = list.stream()
+        .map(r -> facilityReferenceDataService.findOne(r.getSupplyingDepotId()))
+        .collect(toList());
+
+    when(fulfillmentFacilitiesReferenceDataService.getFulfillmentFacilities(user.getId(),
+        convertToOrderRight.getId())).thenReturn(facilities);
+    when(requisitionForConvertBuilder.getAvailableSupplyingDepots(any(UUID.class)))
+        .thenReturn(facilities);
+
+    List<Requisition> released = requisitionService.convertToOrder(list, user);
+
+    verify(orderDtoBuilder).build(released, user);
+    verify(requisitionRepository).saveAll(released);
+    verify(requisitionRepository, never()).save(any(Requisition.class));
+    verify(orderFulfillmentService).create(argThat(orders -> orders.size() == 5));
+  }
+
   @Test(expected = ValidationMessageException.class)
   public void shouldNotSwallowExceptionsFromFulfillmentService() {
     // given
@@ -1604,12 +1673,13 @@ public class RequisitionServiceTest {
         .withOrderable(PRODUCT_ID, 1L)
         .build();
     previousRequisition = new RequisitionDataBuilder()
+        .withProcessingPeriodId(PERIOD_ID)
         .withRequisitionLineItems(singletonList(previousRequisitionLineItem))
         .build();
 
     when(requisitionRepository
-        .findRegularRequisition(any(), eq(facility.getId()), eq(program.getId())))
-        .thenReturn(Optional.of(previousRequisition));
+        .findRegularRequisitions(any(), eq(facility.getId()), eq(program.getId())))
+        .thenReturn(singletonList(previousRequisition));
   }
 
   private ApproveProductsAggregator mockApprovedProduct(UUID[] products, boolean[] fullSupply) {
@@ -1676,34 +1746,32 @@ public class RequisitionServiceTest {
         .thenReturn(singletonList(processingPeriod));
 
     when(requisitionRepository
-        .searchRequisitions(any(UUID.class), any(UUID.class), any(UUID.class), any(Boolean.class)))
+        .searchRequisitionIdAndStatusPairs(any(UUID.class), any(UUID.class), any(Boolean.class)))
         .thenReturn(new ArrayList<>());
 
     when(idealStockAmountReferenceDataService.search(facility.getId(), processingPeriod.getId()))
         .thenReturn(Lists.newArrayList());
 
-    when(orderDtoBuilder.build(any(Requisition.class), any(UserDto.class)))
+    when(orderDtoBuilder.build(anyListOf(Requisition.class), any(UserDto.class)))
         .thenAnswer(invocation -> {
-          Requisition requisition = (Requisition) invocation.getArguments()[0];
-
-          if (null == requisition) {
-            return null;
-          }
-
-          OrderDto order = new OrderDtoDataBuilder()
-              .withExternalId(requisition.getId())
-              .withEmergency(requisition.getEmergency())
-              .withQuotedCost(BigDecimal.ZERO)
-              .withOrderLineItems(
-                  requisition
-                      .getRequisitionLineItems()
-                      .stream()
-                      .map(line -> OrderLineItemDto.newOrderLineItem(line, null))
-                      .collect(toList())
-              )
-              .withCreatedBy((UserDto) invocation.getArguments()[1])
-              .buildAsDto();
-          return order;
+          List<Requisition> requisitions = invocation.getArgument(0);
+
+          return requisitions
+              .stream()
+              .map(requisition -> new OrderDtoDataBuilder()
+                  .withExternalId(requisition.getId())
+                  .withEmergency(requisition.getEmergency())
+                  .withQuotedCost(BigDecimal.ZERO)
+                  .withOrderLineItems(
+                      requisition
+                          .getRequisitionLineItems()
+                          .stream()
+                          .map(line -> OrderLineItemDto.newOrderLineItem(line, null))
+                          .collect(toList())
+                  )
+                  .withCreatedBy(invocation.getArgument(1))
+                  .buildAsDto())
+              .collect(toList());
         });
 
     when(authenticationHelper.getCurrentUser()).thenReturn(user);
@@ -1718,9 +1786,14 @@ public class RequisitionServiceTest {
   private void stubRecentRequisition() {
     when(periodService.searchByProgramAndFacility(program.getId(), facility.getId()))
         .thenReturn(singleton(processingPeriod));
+    stubRegularRequisitionPeriods(
+        new RequisitionPeriod(requisition.getId(), INITIATED, processingPeriod.getId()));
+  }
+
+  private void stubRegularRequisitionPeriods(RequisitionPeriod... requisitionPeriods) {
     when(requisitionRepository
-        .searchRequisitions(processingPeriod.getId(), facility.getId(), program.getId(), false))
-        .thenReturn(singletonList(requisition));
+        .searchRequisitionIdAndStatusPairs(facility.getId(), program.getId(), false))
+        .thenReturn(Arrays.asList(requisitionPeriods));
   }
 
   private void stubPreviousPeriod() {
@@ -1734,11 +1807,8 @@ public class RequisitionServiceTest {
   private void prepareRequisitionIsNotNewest() {
     when(periodService.searchByProgramAndFacility(program.getId(), facility.getId()))
         .thenReturn(singleton(processingPeriod));
-    Requisition newestRequisition = mock(Requisition.class);
-    when(newestRequisition.getId()).thenReturn(UUID.randomUUID());
-    when(requisitionRepository
-        .searchRequisitions(processingPeriod.getId(), facility.getId(), program.getId(), false))
-        .thenReturn(singletonList(newestRequisition));
+    stubRegularRequisitionPeriods(
+        new RequisitionPeriod(UUID.randomUUID(), INITIATED, processingPeriod.getId()));
   }
 
   private OngoingStubbing<List<StockCardSummaryDto>> whenGetStockCardSummaries() {
@@ -15,6 +15,8 @@
 
 package org.openlmis.requisition.service;
 
+import static java.util.Collections.singletonMap;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -25,14 +27,20 @@ import java.util.Locale;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
 import org.openlmis.requisition.dto.SupervisoryNodeDto;
+import org.openlmis.requisition.service.notification.NotificationBatch;
+import org.openlmis.requisition.service.notification.NotificationService;
 import org.openlmis.requisition.service.referencedata.SupervisoryNodeReferenceDataService;
 import org.openlmis.requisition.testutils.SupervisoryNodeDtoDataBuilder;
+import org.openlmis.requisition.testutils.UserDtoDataBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
 
 @SuppressWarnings({"PMD.UnusedPrivateField"})
 @RunWith(MockitoJUnitRunner.class)
@@ -50,6 +58,9 @@ public class RequisitionStatusProcessorTest {
   @Mock
   private ApprovedRequisitionNotifier approvedRequisitionNotifier;
 
+  @Mock
+  private NotificationService notificationService;
+
   @Mock
   private SupervisoryNodeReferenceDataService supervisoryNodeReferenceDataService;
 
@@ -72,7 +83,8 @@ public class RequisitionStatusProcessorTest {
 
     requisitionStatusProcessor.statusChange(requisition, locale);
 
-    verify(convertToOrderNotifier).notifyConvertToOrder(eq(requisition), eq(locale));
+    verify(convertToOrderNotifier).notifyConvertToOrder(eq(requisition), eq(locale),
+        any(NotificationBatch.class));
   }
 
   @Test
@@ -82,7 +94,8 @@ public class RequisitionStatusProcessorTest {
 
     requisitionStatusProcessor.statusChange(requisition, locale);
 
-    verify(requisitionStatusNotifier, never()).notifyStatusChanged(eq(requisition), eq(locale));
+    verify(requisitionStatusNotifier, never()).notifyStatusChanged(eq(requisition), eq(locale),
+        any(NotificationBatch.class));
   }
 
   @Test
@@ -92,7 +105,20 @@ public class RequisitionStatusProcessorTest {
 
     requisitionStatusProcessor.statusChange(requisition, locale);
 
-    verify(requisitionStatusNotifier).notifyStatusChanged(eq(requisition), eq(locale));
+    verify(requisitionStatusNotifier).notifyStatusChanged(eq(requisition), eq(locale),
+        any(NotificationBatch.class));
+  }
+
+  @Test
+  public void shouldNotifyForRequisitionStatusWhenRejected() {
+    Requisition requisition = mock(Requisition.class);
+    when(requisition.isPreAuthorize()).thenReturn(true);
+    when(requisition.getStatus()).thenReturn(RequisitionStatus.REJECTED);
+
+    requisitionStatusProcessor.statusChange(requisition, locale);
+
+    verify(requisitionStatusNotifier).notifyStatusChanged(eq(requisition), eq(locale),
+        any(NotificationBatch.class));
   }
 
   @Test
@@ -102,7 +128,8 @@ public class RequisitionStatusProcessorTest {
 
     requisitionStatusProcessor.statusChange(requisition, locale);
 
-    verify(approvalNotifier).notifyApprovers(eq(requisition), eq(locale));
+    verify(approvalNotifier).notifyApprovers(eq(requisition), eq(locale),
+        any(NotificationBatch.class));
   }
 
   @Test
@@ -112,6 +139,36 @@ public class RequisitionStatusProcessorTest {
 
     requisitionStatusProcessor.statusChange(requisition, locale);
 
-    verify(approvedRequisitionNotifier).notifyClerks(eq(requisition), eq(locale));
+    verify(approvedRequisitionNotifier).notifyClerks(eq(requisition), eq(locale),
+        any(NotificationBatch.class));
+  }
+
+  @Test
+  public void shouldSendNotificationsOfStatusChangeInOneBatch() {
+    Requisition requisition = mock(Requisition.class);
+    when(requisition.getStatus()).thenReturn(RequisitionStatus.APPROVED);
+    when(requisition.isApprovable()).thenReturn(true);
+
+    requisitionStatusProcessor.statusChange(requisition, locale);
+
+    ArgumentCaptor<NotificationBatch> batch = ArgumentCaptor.forClass(NotificationBatch.class);
+    verify(notificationService).notify(batch.capture());
+    verify(requisitionStatusNotifier)
+        .notifyStatusChanged(requisition, locale, batch.getValue());
+    verify(approvalNotifier).notifyApprovers(requisition, locale, batch.getValue());
+    verify(approvedRequisitionNotifier).notifyClerks(requisition, locale, batch.getValue());
+  }
+
+  @Test(expected = HttpServerErrorException.class)
+  public void shouldThrowExceptionWhenNotificationCouldNotBeSent() {
+    Requisition requisition = mock(Requisition.class);
+    when(requisition.getStatus()).thenReturn(RequisitionStatus.APPROVED);
+    NotificationBatch rejected = new NotificationBatch();
+    rejected.add(new UserDtoDataBuilder().buildAsDto(), "subject", "content", "sms", "tag");
+    when(notificationService.notify(any(NotificationBatch.class))).thenReturn(singletonMap(
+        rejected.getMessages().get(0),
+        new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE)));
+
+    requisitionStatusProcessor.statusChange(requisition, locale);
   }
 }
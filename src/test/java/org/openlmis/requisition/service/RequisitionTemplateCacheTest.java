@@ -0,0 +1,219 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.requisition.domain.RequisitionTemplate;
+import org.openlmis.requisition.domain.RequisitionTemplateDataBuilder;
+import org.openlmis.requisition.exception.ContentNotFoundMessageException;
+import org.openlmis.requisition.utils.Message;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@SuppressWarnings("PMD.TooManyMethods")
+@RunWith(MockitoJUnitRunner.class)
+public class RequisitionTemplateCacheTest {
+
+  @Mock
+  private RedisTemplate<String, String> redisTemplate;
+
+  @Mock
+  private RedisMessageListenerContainer listenerContainer;
+
+  @Mock
+  private Supplier<RequisitionTemplate> loader;
+
+  @InjectMocks
+  private RequisitionTemplateCache cache;
+
+  private UUID programId = UUID.randomUUID();
+  private UUID facilityTypeId = UUID.randomUUID();
+
+  private RequisitionTemplate template = new RequisitionTemplateDataBuilder()
+      .withAllColumns()
+      .build();
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(cache, "maxSize", 10L);
+    ReflectionTestUtils.setField(cache, "ttlSeconds", 600L);
+    cache.init();
+
+    when(loader.get()).thenReturn(template);
+  }
+
+  @After
+  public void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  public void shouldSubscribeToEvictionChannel() {
+    verify(listenerContainer)
+        .addMessageListener(cache, new ChannelTopic(RequisitionTemplateCache.CHANNEL));
+  }
+
+  @Test
+  public void shouldLoadTemplateOnce() {
+    RequisitionTemplate first = cache.get(programId, facilityTypeId, false, loader);
+    RequisitionTemplate second = cache.get(programId, facilityTypeId, false, loader);
+
+    assertThat(first, is(template));
+    assertThat(second, is(template));
+    verify(loader).get();
+  }
+
+  @Test
+  public void shouldReturnCopiesOfCachedTemplate() {
+    RequisitionTemplate first = cache.get(programId, facilityTypeId, false, loader);
+    first.hideOrderRelatedColumns();
+
+    RequisitionTemplate second = cache.get(programId, facilityTypeId, false, loader);
+
+    assertThat(first, is(not(sameInstance(template))));
+    assertThat(second, is(not(sameInstance(first))));
+    assertThat(second, is(template));
+  }
+
+  @Test
+  public void shouldKeepTemplateFlagsInCachedCopies() {
+    template.setPatientsTabEnabled(true);
+    template.requisitionReportingOnly();
+
+    cache.get(programId, facilityTypeId, false, loader);
+    RequisitionTemplate cached = cache.get(programId, facilityTypeId, false, loader);
+
+    assertThat(cached, is(not(sameInstance(template))));
+    assertThat(cached.isPatientsTabEnabled(), is(true));
+    assertThat(cached.isRequisitionReportingOnly(), is(true));
+  }
+
+  @Test
+  public void shouldCacheTemplatesPerReportOnlyFlag() {
+    cache.get(programId, facilityTypeId, false, loader);
+    cache.get(programId, facilityTypeId, true, loader);
+    cache.get(programId, UUID.randomUUID(), false, loader);
+
+    verify(loader, times(3)).get();
+  }
+
+  @Test(expected = ContentNotFoundMessageException.class)
+  public void shouldNotCacheExceptions() {
+    when(loader.get())
+        .thenThrow(new ContentNotFoundMessageException(new Message("test")))
+        .thenReturn(template);
+
+    try {
+      cache.get(programId, facilityTypeId, false, loader);
+    } finally {
+      assertThat(cache.get(programId, facilityTypeId, false, loader), is(template));
+    }
+  }
+
+  @Test
+  public void shouldEvictAndNotifyOtherInstances() {
+    cache.get(programId, facilityTypeId, false, loader);
+
+    cache.evictAll();
+    cache.get(programId, facilityTypeId, false, loader);
+
+    verify(loader, times(2)).get();
+    verify(redisTemplate).convertAndSend(eq(RequisitionTemplateCache.CHANNEL), anyString());
+  }
+
+  @Test
+  public void shouldEvictAfterTransactionCommit() {
+    cache.get(programId, facilityTypeId, false, loader);
+    TransactionSynchronizationManager.initSynchronization();
+
+    cache.evictAll();
+    cache.get(programId, facilityTypeId, false, loader);
+
+    verify(loader).get();
+    verify(redisTemplate, never()).convertAndSend(anyString(), any());
+
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(TransactionSynchronization::afterCommit);
+    cache.get(programId, facilityTypeId, false, loader);
+
+    verify(loader, times(2)).get();
+    verify(redisTemplate).convertAndSend(eq(RequisitionTemplateCache.CHANNEL), anyString());
+  }
+
+  @Test
+  public void shouldEvictWhenOtherInstanceChangedTemplates() {
+    cache.get(programId, facilityTypeId, false, loader);
+
+    cache.onMessage(null, null);
+    cache.get(programId, facilityTypeId, false, loader);
+
+    verify(loader, times(2)).get();
+    verify(redisTemplate, never()).convertAndSend(anyString(), any());
+  }
+
+  @Test
+  public void shouldEvictLocallyIfOtherInstancesCouldNotBeNotified() {
+    doThrow(new RedisConnectionFailureException("test"))
+        .when(redisTemplate).convertAndSend(anyString(), any());
+    cache.get(programId, facilityTypeId, false, loader);
+
+    cache.evictAll();
+    cache.get(programId, facilityTypeId, false, loader);
+
+    verify(loader, times(2)).get();
+  }
+
+  @Test
+  public void shouldNotKeepTemplateLoadedWhileEvicting() {
+    when(loader.get()).thenAnswer(invocation -> {
+      cache.onMessage(null, null);
+      return template;
+    });
+
+    assertThat(cache.get(programId, facilityTypeId, false, loader), is(template));
+    cache.get(programId, facilityTypeId, false, loader);
+
+    verify(loader, times(2)).get();
+  }
+}
@@ -20,13 +20,18 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.openlmis.requisition.domain.RequisitionTemplate.ORDER_RELATED_COLUMNS;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_REQUISITION_TEMPLATE_NOT_DEFINED;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_REQUISITION_TEMPLATE_NOT_FOUND;
 
 import java.util.UUID;
-
+import java.util.function.Supplier;
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -49,6 +54,9 @@ public class RequisitionTemplateServiceTest {
   @Mock
   private RequisitionTemplateRepository requisitionTemplateRepository;
 
+  @Mock
+  private RequisitionTemplateCache requisitionTemplateCache;
+
   @InjectMocks
   private RequisitionTemplateService requisitionTemplateService;
 
@@ -60,6 +68,12 @@ public class RequisitionTemplateServiceTest {
       .withAdditionalQuantityRequiredColumnDisplayed()
       .build();
 
+  @Before
+  public void setUp() {
+    when(requisitionTemplateCache.get(eq(programId), eq(facilityTypeId), anyBoolean(), any()))
+        .thenAnswer(invocation -> invocation.<Supplier<RequisitionTemplate>>getArgument(3).get());
+  }
+
   @Test
   public void findTemplateShouldReturnTemplate() {
     when(requisitionTemplateRepository.findTemplate(programId,
@@ -71,6 +85,7 @@ public class RequisitionTemplateServiceTest {
     );
 
     assertThat(found, is(template));
+    verify(requisitionTemplateCache).get(eq(programId), eq(facilityTypeId), eq(false), any());
   }
   
   @Test
@@ -0,0 +1,172 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlmis.requisition.dto.FacilityDto;
+import org.openlmis.requisition.dto.OrderableDto;
+import org.openlmis.requisition.dto.VersionIdentityDto;
+import org.openlmis.requisition.testutils.FacilityDtoDataBuilder;
+import org.openlmis.requisition.testutils.OrderableDtoDataBuilder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ResponseCacheTest {
+  private static final String CACHE_NAME = "facilities";
+  private static final String KEY = "http://localhost/api/facilities/1";
+  private static final String ETAG = "W/\"1\"";
+  private static final long TTL_SECONDS = 60;
+
+  private ResponseCache cache = new ResponseCache();
+  private Environment environment = mock(Environment.class);
+  private Function<String, ServiceResponse<byte[]>> loader = mock(Function.class);
+
+  private FacilityDto facility = new FacilityDtoDataBuilder().buildAsDto();
+  private byte[] facilityJson;
+
+  @Before
+  public void setUp() throws Exception {
+    ReflectionTestUtils.setField(cache, "environment", environment);
+    ReflectionTestUtils.setField(cache, "enabled", true);
+    ReflectionTestUtils.setField(cache, "maxSize", 2L);
+    ReflectionTestUtils.setField(cache, "defaultTtlSeconds", TTL_SECONDS);
+    setTime(0);
+
+    when(environment.getProperty(anyString(), eq(Long.class), eq(TTL_SECONDS)))
+        .thenReturn(TTL_SECONDS);
+
+    facilityJson = Jackson2ObjectMapperBuilder.json().build().writeValueAsBytes(facility);
+    HttpHeaders headers = new HttpHeaders();
+    headers.setETag(ETAG);
+    when(loader.apply(any())).thenReturn(new ServiceResponse<>(facilityJson, headers, true));
+  }
+
+  @Test
+  public void shouldReturnCopyOfCachedResponseWithinTimeToLive() {
+    FacilityDto first = cache.get(CACHE_NAME, KEY, FacilityDto.class, loader);
+    FacilityDto second = cache.get(CACHE_NAME, KEY, FacilityDto.class, loader);
+
+    assertThat(first.getId(), is(facility.getId()));
+    assertThat(second.getId(), is(facility.getId()));
+    assertThat(second, is(not(sameInstance(first))));
+    verify(loader, times(1)).apply(any());
+    assertStatistics(1, 1, 0);
+  }
+
+  @Test
+  public void shouldRevalidateStaleEntryWithETag() {
+    cache.get(CACHE_NAME, KEY, FacilityDto.class, loader);
+    setTime(TTL_SECONDS * 1000);
+    when(loader.apply(ETAG)).thenReturn(new ServiceResponse<>(null, new HttpHeaders(), false));
+
+    FacilityDto result = cache.get(CACHE_NAME, KEY, FacilityDto.class, loader);
+
+    assertThat(result.getId(), is(facility.getId()));
+    verify(loader).apply(ETAG);
+    assertThat(cache.getStatistics().get(CACHE_NAME).getRevalidations(), is(1L));
+
+    cache.get(CACHE_NAME, KEY, FacilityDto.class, loader);
+    verify(loader, times(2)).apply(any());
+  }
+
+  @Test
+  public void shouldNotCacheMissingResponse() {
+    when(loader.apply(any())).thenReturn(new ServiceResponse<>(null, new HttpHeaders(), true));
+
+    assertThat(cache.get(CACHE_NAME, KEY, FacilityDto.class, loader), is(nullValue()));
+    assertThat(cache.get(CACHE_NAME, KEY, FacilityDto.class, loader), is(nullValue()));
+    verify(loader, times(2)).apply(any());
+  }
+
+  @Test
+  public void shouldEvictEntriesWhenMaxSizeIsExceeded() {
+    cache.get(CACHE_NAME, KEY, FacilityDto.class, loader);
+    cache.get(CACHE_NAME, KEY + "2", FacilityDto.class, loader);
+    cache.get(CACHE_NAME, KEY + "3", FacilityDto.class, loader);
+
+    assertThat(cache.getStatistics().get(CACHE_NAME).getEvictions(), is(1L));
+  }
+
+  @Test
+  public void shouldLoadOnlyMissingVersionedObjects() {
+    OrderableDto cached = new OrderableDtoDataBuilder().buildAsDto();
+    OrderableDto missing = new OrderableDtoDataBuilder().buildAsDto();
+    Function<List<VersionIdentityDto>, List<OrderableDto>> versionLoader = mock(Function.class);
+    when(versionLoader.apply(singletonList(cached.getIdentity())))
+        .thenReturn(singletonList(cached));
+    when(versionLoader.apply(singletonList(missing.getIdentity())))
+        .thenReturn(singletonList(missing));
+
+    cache.getAll("orderableVersions", singletonList(cached.getIdentity()), OrderableDto.class,
+        versionLoader, OrderableDto::getIdentity);
+    List<OrderableDto> result = cache.getAll("orderableVersions",
+        Arrays.asList(cached.getIdentity(), missing.getIdentity()), OrderableDto.class,
+        versionLoader, OrderableDto::getIdentity);
+
+    assertThat(result, hasSize(2));
+    assertThat(Arrays.asList(result.get(0).getIdentity(), result.get(1).getIdentity()),
+        containsInAnyOrder(cached.getIdentity(), missing.getIdentity()));
+    verify(versionLoader).apply(singletonList(missing.getIdentity()));
+  }
+
+  @Test
+  public void shouldBeDisabledForZeroTimeToLive() {
+    when(environment.getProperty("responseCache.users.ttlSeconds", Long.class, TTL_SECONDS))
+        .thenReturn(0L);
+
+    assertThat(cache.isEnabled(CACHE_NAME), is(true));
+    assertThat(cache.isEnabled("users"), is(false));
+    assertThat(cache.isEnabled(null), is(false));
+  }
+
+  private void setTime(long millis) {
+    ReflectionTestUtils.setField(cache, "clock",
+        Clock.fixed(Instant.ofEpochMilli(millis), ZoneOffset.UTC));
+  }
+
+  private void assertStatistics(long hits, long misses, long evictions) {
+    ResponseCache.Statistics statistics = cache.getStatistics().get(CACHE_NAME);
+    assertThat(statistics.getHits(), is(hits));
+    assertThat(statistics.getMisses(), is(misses));
+    assertThat(statistics.getEvictions(), is(evictions));
+  }
+
+}
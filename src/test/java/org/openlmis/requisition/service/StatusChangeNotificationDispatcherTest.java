@@ -0,0 +1,314 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.requisition.domain.requisition.Requisition;
+import org.openlmis.requisition.domain.requisition.RequisitionDataBuilder;
+import org.openlmis.requisition.domain.requisition.RequisitionStatus;
+import org.openlmis.requisition.domain.requisition.StatusChangeNotification;
+import org.openlmis.requisition.dto.UserDto;
+import org.openlmis.requisition.repository.RequisitionRepository;
+import org.openlmis.requisition.repository.StatusChangeNotificationRepository;
+import org.openlmis.requisition.service.notification.NotificationBatch;
+import org.openlmis.requisition.service.notification.NotificationService;
+import org.openlmis.requisition.testutils.UserDtoDataBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestOperations;
+
+@SuppressWarnings("PMD.TooManyMethods")
+@RunWith(MockitoJUnitRunner.class)
+public class StatusChangeNotificationDispatcherTest {
+
+  @Mock
+  private StatusChangeNotificationOutbox outbox;
+
+  @Mock
+  private DefaultRequisitionStatusProcessor requisitionStatusProcessor;
+
+  @Mock
+  private NotificationService notificationService;
+
+  @InjectMocks
+  private StatusChangeNotificationDispatcher dispatcher;
+
+  private UUID supervisoryNodeId = UUID.randomUUID();
+
+  private UserDto recipient = new UserDtoDataBuilder().buildAsDto();
+
+  private Requisition requisition = new RequisitionDataBuilder()
+      .withStatus(RequisitionStatus.IN_APPROVAL)
+      .withSupervisoryNodeId(supervisoryNodeId)
+      .build();
+
+  private StatusChangeNotification notification = StatusChangeNotification
+      .newStatusChangeNotification(requisition, Locale.FRENCH, ZonedDateTime.now());
+
+  @Before
+  public void setUp() {
+    notification.setId(UUID.randomUUID());
+
+    ReflectionTestUtils.setField(dispatcher, "enabled", false);
+    ReflectionTestUtils.setField(dispatcher, "batchSize", 2);
+    ReflectionTestUtils.setField(dispatcher, "poolSize", 2);
+    dispatcher.init();
+
+    when(outbox.claim(2)).thenReturn(Collections.singletonList(notification));
+    when(outbox.findRequisition(notification)).thenReturn(Optional.of(requisition));
+  }
+
+  @After
+  public void tearDown() {
+    dispatcher.shutdown();
+  }
+
+  @Test
+  public void shouldSendAndCompleteNotification() {
+    dispatcher.dispatch();
+
+    verify(requisitionStatusProcessor)
+        .statusChange(eq(requisition), eq(Locale.FRENCH), any(NotificationBatch.class));
+    verify(outbox).complete(notification);
+    verify(outbox, never()).retry(any(), anyString());
+  }
+
+  @Test
+  public void shouldSendNotificationAboutRecordedStatus() {
+    requisition.setStatus(RequisitionStatus.APPROVED);
+    requisition.setSupervisoryNodeId(UUID.randomUUID());
+
+    ArgumentCaptor<Requisition> captor = ArgumentCaptor.forClass(Requisition.class);
+    dispatcher.dispatch();
+
+    verify(requisitionStatusProcessor).statusChange(captor.capture(), eq(Locale.FRENCH),
+        any(NotificationBatch.class));
+    assertThat(captor.getValue().getStatus(), is(RequisitionStatus.IN_APPROVAL));
+    assertThat(captor.getValue().getSupervisoryNodeId(), is(supervisoryNodeId));
+  }
+
+  @Test
+  public void shouldSendMessagesOfBatchTogether() {
+    StatusChangeNotification another = StatusChangeNotification
+        .newStatusChangeNotification(requisition, Locale.FRENCH, ZonedDateTime.now());
+    another.setId(UUID.randomUUID());
+    when(outbox.claim(2)).thenReturn(Arrays.asList(notification, another), emptyList());
+    when(outbox.findRequisition(another)).thenReturn(Optional.of(requisition));
+    doAnswer(invocation -> {
+      invocation.getArgument(2, NotificationBatch.class)
+          .add(recipient, "subject", "content", "sms", "tag");
+      return null;
+    }).when(requisitionStatusProcessor).statusChange(any(), any(), any());
+
+    dispatcher.dispatch();
+
+    ArgumentCaptor<NotificationBatch> captor = ArgumentCaptor.forClass(NotificationBatch.class);
+    verify(notificationService).notify(captor.capture());
+    assertThat(captor.getValue().getMessages(), hasSize(1));
+    assertThat(captor.getValue().getMessages().get(0).getSources(),
+        containsInAnyOrder(notification.getId(), another.getId()));
+    verify(outbox).complete(notification);
+    verify(outbox).complete(another);
+    assertThat(getStatistics().getMessages(), is(1L));
+  }
+
+  @Test
+  public void shouldRetryNotificationWhenItsMessageCouldNotBeSent() {
+    doAnswer(invocation -> {
+      invocation.getArgument(2, NotificationBatch.class)
+          .add(recipient, "subject", "content", "sms", "tag");
+      return null;
+    }).when(requisitionStatusProcessor).statusChange(any(), any(), any());
+    when(notificationService.notify(any(NotificationBatch.class)))
+        .thenAnswer(invocation -> singletonMap(
+            invocation.getArgument(0, NotificationBatch.class).getMessages().get(0),
+            new IllegalStateException("rejected")));
+    when(outbox.retry(eq(notification), anyString())).thenReturn(true);
+
+    dispatcher.dispatch();
+
+    verify(outbox, never()).complete(notification);
+    verify(outbox).retry(notification, "java.lang.IllegalStateException: rejected");
+    assertThat(getStatistics().getFailed(), is(1L));
+    assertThat(getStatistics().getMessages(), is(0L));
+  }
+
+  @Test
+  public void shouldKeepNotificationPendingWhenNotificationServiceIsUnavailable() {
+    final ZonedDateTime now = ZonedDateTime.of(2026, 10, 17, 12, 0, 0, 0, ZoneOffset.UTC);
+    StatusChangeNotificationRepository repository = mock(StatusChangeNotificationRepository.class);
+    RequisitionRepository requisitionRepository = mock(RequisitionRepository.class);
+    when(repository.lockDue(any(ZonedDateTime.class), eq(2)))
+        .thenReturn(Collections.singletonList(notification));
+    when(requisitionRepository.findById(requisition.getId())).thenReturn(Optional.of(requisition));
+
+    StatusChangeNotificationOutbox realOutbox = new StatusChangeNotificationOutbox();
+    ReflectionTestUtils.setField(realOutbox, "statusChangeNotificationRepository", repository);
+    ReflectionTestUtils.setField(realOutbox, "requisitionRepository", requisitionRepository);
+    ReflectionTestUtils.setField(realOutbox, "clock",
+        Clock.fixed(now.toInstant(), ZoneOffset.UTC));
+    ReflectionTestUtils.setField(realOutbox, "leaseSeconds", 300L);
+    ReflectionTestUtils.setField(realOutbox, "maxAttempts", 3);
+    ReflectionTestUtils.setField(realOutbox, "retryDelaySeconds", 30L);
+
+    RestOperations restTemplate = mock(RestOperations.class);
+    when(restTemplate.postForObject(any(URI.class), any(HttpEntity.class), eq(Object.class)))
+        .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+    NotificationService realNotificationService = new NotificationService();
+    ReflectionTestUtils.setField(realNotificationService, "authService", mock(AuthService.class));
+    ReflectionTestUtils.setField(realNotificationService, "notificationUrl", "http://localhost");
+    ReflectionTestUtils.setField(realNotificationService, "poolSize", 2);
+    ReflectionTestUtils.setField(realNotificationService, "restTemplate", restTemplate);
+    realNotificationService.init();
+
+    ReflectionTestUtils.setField(dispatcher, "outbox", realOutbox);
+    ReflectionTestUtils.setField(dispatcher, "notificationService", realNotificationService);
+    doAnswer(invocation -> {
+      invocation.getArgument(2, NotificationBatch.class)
+          .add(recipient, "subject", "content", "sms", "tag");
+      return null;
+    }).when(requisitionStatusProcessor).statusChange(any(), any(), any());
+
+    dispatcher.dispatch();
+    realNotificationService.shutdown();
+
+    verify(repository, never()).deleteById(notification.getId());
+    verify(repository).save(notification);
+    assertThat(notification.getAttempts(), is(1));
+    assertThat(notification.getNextAttemptDate(), is(now.plusSeconds(30)));
+    assertThat(notification.getLastError(), containsString("503"));
+  }
+
+  @Test
+  public void shouldDropNotificationOfDeletedRequisition() {
+    when(outbox.findRequisition(notification)).thenReturn(Optional.empty());
+
+    dispatcher.dispatch();
+
+    verify(requisitionStatusProcessor, never()).statusChange(any(), any(), any());
+    verify(outbox).complete(notification);
+    assertThat(getStatistics().getSkipped(), is(1L));
+  }
+
+  @Test
+  public void shouldRetryFailedNotification() {
+    doThrow(new IllegalStateException("notification service is down"))
+        .when(requisitionStatusProcessor)
+        .statusChange(eq(requisition), eq(Locale.FRENCH), any(NotificationBatch.class));
+    when(outbox.retry(eq(notification), anyString())).thenReturn(true);
+
+    dispatcher.dispatch();
+
+    verify(outbox, never()).complete(notification);
+    verify(outbox).retry(notification,
+        "java.lang.IllegalStateException: notification service is down");
+    assertThat(getStatistics().getFailed(), is(1L));
+    assertThat(getStatistics().getGivenUp(), is(0L));
+  }
+
+  @Test
+  public void shouldCountNotificationsThatWereGivenUp() {
+    doThrow(new IllegalStateException("notification service is down"))
+        .when(requisitionStatusProcessor)
+        .statusChange(eq(requisition), eq(Locale.FRENCH), any(NotificationBatch.class));
+    when(outbox.retry(eq(notification), anyString())).thenReturn(false);
+
+    dispatcher.dispatch();
+
+    assertThat(getStatistics().getGivenUp(), is(1L));
+  }
+
+  @Test
+  public void shouldTakeNextBatchWhenBatchWasFull() {
+    StatusChangeNotification another = StatusChangeNotification
+        .newStatusChangeNotification(requisition, Locale.FRENCH, ZonedDateTime.now());
+    another.setId(UUID.randomUUID());
+    when(outbox.claim(2))
+        .thenReturn(Arrays.asList(notification, another))
+        .thenReturn(Collections.singletonList(notification));
+    when(outbox.findRequisition(another)).thenReturn(Optional.of(requisition));
+
+    dispatcher.dispatch();
+
+    verify(outbox, times(2)).claim(2);
+    verify(outbox, times(2)).complete(notification);
+    verify(outbox).complete(another);
+  }
+
+  @Test
+  public void shouldNotFailWhenNotificationsCouldNotBeClaimed() {
+    when(outbox.claim(2)).thenThrow(new IllegalStateException("database is down"));
+
+    dispatcher.dispatch();
+
+    verify(requisitionStatusProcessor, never()).statusChange(any(), any(), any());
+  }
+
+  @Test
+  public void shouldReturnStatistics() {
+    dispatcher.dispatch();
+
+    StatusChangeNotificationDispatcher.Statistics statistics = getStatistics();
+
+    assertThat(statistics.getPending(), is(3L));
+    assertThat(statistics.getOldestPendingSeconds(), is(42L));
+    assertThat(statistics.getSent(), is(1L));
+  }
+
+  private StatusChangeNotificationDispatcher.Statistics getStatistics() {
+    when(outbox.getBacklog())
+        .thenReturn(new StatusChangeNotificationOutbox.Backlog(3, Duration.ofSeconds(42)));
+    return dispatcher.getStatistics();
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.requisition.domain.requisition.Requisition;
+import org.openlmis.requisition.domain.requisition.RequisitionDataBuilder;
+import org.openlmis.requisition.domain.requisition.RequisitionStatus;
+import org.openlmis.requisition.domain.requisition.StatusChangeNotification;
+import org.openlmis.requisition.repository.RequisitionRepository;
+import org.openlmis.requisition.repository.StatusChangeNotificationRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StatusChangeNotificationOutboxTest {
+
+  @Mock
+  private StatusChangeNotificationRepository statusChangeNotificationRepository;
+
+  @Mock
+  private RequisitionRepository requisitionRepository;
+
+  @InjectMocks
+  private StatusChangeNotificationOutbox outbox;
+
+  private ZonedDateTime now = ZonedDateTime.of(2026, 10, 17, 12, 0, 0, 0, ZoneOffset.UTC);
+
+  private Requisition requisition = new RequisitionDataBuilder()
+      .withStatus(RequisitionStatus.IN_APPROVAL)
+      .withSupervisoryNodeId(UUID.randomUUID())
+      .build();
+
+  private StatusChangeNotification notification = StatusChangeNotification
+      .newStatusChangeNotification(requisition, Locale.FRENCH, now);
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(outbox, "clock", Clock.fixed(now.toInstant(), ZoneOffset.UTC));
+    ReflectionTestUtils.setField(outbox, "leaseSeconds", 300L);
+    ReflectionTestUtils.setField(outbox, "maxAttempts", 3);
+    ReflectionTestUtils.setField(outbox, "retryDelaySeconds", 30L);
+  }
+
+  @Test
+  public void shouldRecordStatusChange() {
+    outbox.statusChange(requisition, Locale.FRENCH);
+
+    ArgumentCaptor<StatusChangeNotification> captor =
+        ArgumentCaptor.forClass(StatusChangeNotification.class);
+    verify(statusChangeNotificationRepository).save(captor.capture());
+
+    StatusChangeNotification saved = captor.getValue();
+    assertThat(saved.getRequisitionId(), is(requisition.getId()));
+    assertThat(saved.getStatus(), is(RequisitionStatus.IN_APPROVAL));
+    assertThat(saved.getSupervisoryNodeId(), is(requisition.getSupervisoryNodeId()));
+    assertThat(saved.getLocale(), is(Locale.FRENCH));
+    assertThat(saved.getAttempts(), is(0));
+    assertThat(saved.getNextAttemptDate(), is(now));
+  }
+
+  @Test
+  public void shouldLeaseClaimedNotifications() {
+    when(statusChangeNotificationRepository.lockDue(now, 10))
+        .thenReturn(Collections.singletonList(notification));
+
+    List<StatusChangeNotification> claimed = outbox.claim(10);
+
+    assertThat(claimed, contains(notification));
+    assertThat(notification.getNextAttemptDate(), is(now.plusSeconds(300)));
+  }
+
+  @Test
+  public void shouldFindRequisitionOfNotification() {
+    when(requisitionRepository.findById(requisition.getId())).thenReturn(Optional.of(requisition));
+
+    assertThat(outbox.findRequisition(notification), is(Optional.of(requisition)));
+  }
+
+  @Test
+  public void shouldRetryWithExponentialBackoff() {
+    assertThat(outbox.retry(notification, "first"), is(true));
+    assertThat(notification.getNextAttemptDate(), is(now.plusSeconds(30)));
+
+    assertThat(outbox.retry(notification, "second"), is(true));
+    assertThat(notification.getNextAttemptDate(), is(now.plusSeconds(60)));
+    assertThat(notification.getAttempts(), is(2));
+    assertThat(notification.getLastError(), is("second"));
+    verify(statusChangeNotificationRepository, times(2)).save(notification);
+  }
+
+  @Test
+  public void shouldGiveUpAfterMaxAttempts() {
+    outbox.retry(notification, "first");
+    outbox.retry(notification, "second");
+
+    assertThat(outbox.retry(notification, "third"), is(false));
+    assertThat(notification.getNextAttemptDate(), is(nullValue()));
+    assertThat(notification.getAttempts(), is(3));
+    assertThat(notification.getLastError(), is("third"));
+  }
+
+  @Test
+  public void shouldReturnBacklog() {
+    notification.setCreatedDate(now.minusMinutes(5));
+    when(statusChangeNotificationRepository.findFirstByNextAttemptDateIsNotNullOrderByCreatedDate())
+        .thenReturn(notification);
+    when(statusChangeNotificationRepository.countByNextAttemptDateIsNotNull()).thenReturn(7L);
+
+    StatusChangeNotificationOutbox.Backlog backlog = outbox.getBacklog();
+
+    assertThat(backlog.getSize(), is(7L));
+    assertThat(backlog.getOldestAge(), is(Duration.ofMinutes(5)));
+  }
+
+  @Test
+  public void shouldReturnEmptyBacklog() {
+    StatusChangeNotificationOutbox.Backlog backlog = outbox.getBacklog();
+
+    assertThat(backlog.getSize(), is(0L));
+    assertThat(backlog.getOldestAge(), is(Duration.ZERO));
+  }
+}
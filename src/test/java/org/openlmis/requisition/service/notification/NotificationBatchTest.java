@@ -0,0 +1,127 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service.notification;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.openlmis.requisition.dto.UserDto;
+import org.openlmis.requisition.testutils.UserDtoDataBuilder;
+
+public class NotificationBatchTest {
+  private static final String SUBJECT = "subject";
+  private static final String TAG = "tag";
+  private static final String EMAIL = "email";
+  private static final String SMS = "sms";
+  private static final String TYPE = "type";
+  private static final String FIRST = "first";
+  private static final String SECOND = "second";
+
+  private UserDto user = new UserDtoDataBuilder().buildAsDto();
+  private NotificationBatch batch = new NotificationBatch();
+
+  @Test
+  public void shouldCoalesceMessagesWithSameRecipientTagAndSubject() {
+    batch.add(user, SUBJECT, "first email", "first sms", TAG);
+    batch.add(user, SUBJECT, "second email", "second sms", TAG);
+
+    List<NotificationBatch.Message> messages = batch.getMessages();
+
+    assertThat(messages, hasSize(1));
+    assertThat(messages.get(0).getRecipient(), is(user));
+    assertThat(messages.get(0).getEmailContent(), is("first email\n\nsecond email"));
+    assertThat(messages.get(0).getSmsContent(), is("first sms\nsecond sms"));
+  }
+
+  @Test
+  public void shouldNotCoalesceMessagesWithDifferentSubjectOrTag() {
+    batch.add(user, SUBJECT, EMAIL, SMS, TAG);
+    batch.add(user, "other subject", EMAIL, SMS, TAG);
+    batch.add(user, SUBJECT, EMAIL, SMS, "other tag");
+    batch.add(new UserDtoDataBuilder().buildAsDto(), SUBJECT, EMAIL, SMS, TAG);
+
+    assertThat(batch.getMessages(), hasSize(4));
+  }
+
+  @Test
+  public void shouldLookUpObjectOnce() {
+    AtomicInteger loads = new AtomicInteger();
+    UUID id = UUID.randomUUID();
+
+    batch.lookup(TYPE, id, loads::incrementAndGet);
+    batch.part("source").lookup(TYPE, id, loads::incrementAndGet);
+    Integer loaded = batch.lookup(TYPE, id, loads::incrementAndGet);
+
+    assertThat(loaded, is(1));
+    assertThat(loads.get(), is(1));
+  }
+
+  @Test
+  public void shouldLookUpObjectsOfDifferentTypesSeparately() {
+    UUID id = UUID.randomUUID();
+
+    batch.lookup(TYPE, id, () -> FIRST);
+    String loaded = batch.lookup("other type", id, () -> SECOND);
+
+    assertThat(loaded, is(SECOND));
+  }
+
+  @Test
+  public void shouldNotRememberMissingObjects() {
+    UUID id = UUID.randomUUID();
+
+    batch.lookup(TYPE, id, () -> null);
+    String loaded = batch.lookup(TYPE, id, () -> "found");
+
+    assertThat(loaded, is("found"));
+  }
+
+  @Test
+  public void shouldAddMessagesOfPartWhenItIsMerged() {
+    NotificationBatch part = batch.part("source");
+    part.add(user, SUBJECT, EMAIL, SMS, TAG);
+
+    assertThat(batch.getMessages(), is(empty()));
+
+    batch.merge(part);
+
+    assertThat(batch.getMessages(), hasSize(1));
+    assertThat(batch.getMessages().get(0).getSources(), contains("source"));
+  }
+
+  @Test
+  public void shouldRememberSourcesOfCoalescedMessages() {
+    NotificationBatch first = batch.part(FIRST);
+    first.add(user, SUBJECT, EMAIL, SMS, TAG);
+    NotificationBatch second = batch.part(SECOND);
+    second.add(user, SUBJECT, EMAIL, SMS, TAG);
+
+    batch.merge(first);
+    batch.merge(second);
+    batch.add(user, SUBJECT, EMAIL, SMS, TAG);
+
+    assertThat(batch.getMessages(), hasSize(1));
+    assertThat(batch.getMessages().get(0).getSources(), contains(FIRST, SECOND));
+    assertThat(batch.getMessages().get(0).getSmsContent(), is(SMS + "\n" + SMS + "\n" + SMS));
+  }
+}
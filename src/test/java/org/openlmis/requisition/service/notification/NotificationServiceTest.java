@@ -16,12 +16,16 @@
 package org.openlmis.requisition.service.notification;
 
 import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.URI;
+import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -34,7 +38,9 @@ import org.openlmis.requisition.service.AuthService;
 import org.openlmis.requisition.testutils.DtoGenerator;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -78,4 +84,57 @@ public class NotificationServiceTest {
     assertEquals(singletonList("Bearer " + ACCESS_TOKEN), captor.getValue().getHeaders()
             .get(HttpHeaders.AUTHORIZATION));
   }
+
+  @Test
+  public void shouldSendCoalescedMessagesOfBatch() throws Exception {
+    UserDto user = DtoGenerator.of(UserDto.class);
+    NotificationBatch batch = new NotificationBatch();
+    batch.add(user, MAIL_SUBJECT, MAIL_CONTENT, SMS_CONTENT, MAIL_TAG);
+    batch.add(user, MAIL_SUBJECT, MAIL_CONTENT, SMS_CONTENT, MAIL_TAG);
+
+    ReflectionTestUtils.setField(notificationService, "poolSize", 2);
+    notificationService.init();
+    Map<NotificationBatch.Message, RuntimeException> failed = notificationService.notify(batch);
+    notificationService.shutdown();
+
+    assertTrue(failed.isEmpty());
+    verify(restTemplate).postForObject(eq(
+        new URI(BASE_URL + "/api/notifications")),
+        any(HttpEntity.class), eq(Object.class));
+  }
+
+  @Test
+  public void shouldReturnMessagesOfBatchThatCouldNotBeSent() {
+    UserDto user = DtoGenerator.of(UserDto.class);
+    NotificationBatch batch = new NotificationBatch();
+    batch.add(user, MAIL_SUBJECT, MAIL_CONTENT, SMS_CONTENT, MAIL_TAG);
+    IllegalStateException exception = new IllegalStateException("connection refused");
+    when(restTemplate.postForObject(any(URI.class), any(HttpEntity.class), eq(Object.class)))
+        .thenThrow(exception);
+
+    ReflectionTestUtils.setField(notificationService, "poolSize", 2);
+    notificationService.init();
+    Map<NotificationBatch.Message, RuntimeException> failed = notificationService.notify(batch);
+    notificationService.shutdown();
+
+    assertEquals(singletonMap(batch.getMessages().get(0), exception), failed);
+  }
+
+  @Test
+  public void shouldReturnMessagesOfBatchRejectedByNotificationService() {
+    UserDto user = DtoGenerator.of(UserDto.class);
+    NotificationBatch batch = new NotificationBatch();
+    batch.add(user, MAIL_SUBJECT, MAIL_CONTENT, SMS_CONTENT, MAIL_TAG);
+    HttpServerErrorException exception =
+        new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+    when(restTemplate.postForObject(any(URI.class), any(HttpEntity.class), eq(Object.class)))
+        .thenThrow(exception);
+
+    ReflectionTestUtils.setField(notificationService, "poolSize", 2);
+    notificationService.init();
+    Map<NotificationBatch.Message, RuntimeException> failed = notificationService.notify(batch);
+    notificationService.shutdown();
+
+    assertEquals(singletonMap(batch.getMessages().get(0), exception), failed);
+  }
 }
@@ -19,24 +19,37 @@ import static java.util.Collections.singletonList;
 import static java.util.UUID.randomUUID;
 import static org.apache.commons.lang3.RandomStringUtils.random;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import com.google.common.cache.Cache;
 import java.lang.reflect.Field;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.openlmis.requisition.repository.custom.PermissionStringsRedisRepository;
 import org.openlmis.requisition.service.ServiceResponse;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PermissionStringsTest {
@@ -49,23 +62,33 @@ public class PermissionStringsTest {
   @InjectMocks
   private PermissionStrings permissionStrings;
 
+  @Mock
+  private PermissionStringsRedisRepository permissionStringsRedisRepository;
+
   @Mock
   private ServiceResponse<List<String>> response;
 
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(permissionStrings, "maxSize", 10L);
+    ReflectionTestUtils.setField(permissionStrings, "idleSeconds", 60L);
+    permissionStrings.init();
+  }
+
   @Test
   public void shouldCreateHandlerIfNotExist() throws Exception {
     Field handlers = PermissionStrings.class.getDeclaredField(HANDLERS_FIELD_NAME);
     handlers.setAccessible(true);
 
-    Map map = (Map) handlers.get(permissionStrings);
-    assertThat(map.size(), is(0));
+    Cache cache = (Cache) handlers.get(permissionStrings);
+    assertThat(cache.size(), is(0L));
 
     PermissionStrings.Handler handler = permissionStrings.forUser(USER);
 
     assertThat(handler, is(notNullValue()));
 
-    map = (Map) handlers.get(permissionStrings);
-    assertThat(map.size(), is(1));
+    cache = (Cache) handlers.get(permissionStrings);
+    assertThat(cache.size(), is(1L));
   }
 
   @Test
@@ -78,8 +101,8 @@ public class PermissionStringsTest {
     permissionStrings.forUser(USER);
     permissionStrings.forUser(USER);
 
-    Map map = (Map) handlers.get(permissionStrings);
-    assertThat(map.size(), is(1));
+    Cache cache = (Cache) handlers.get(permissionStrings);
+    assertThat(cache.size(), is(1L));
   }
 
   @Test
@@ -129,4 +152,102 @@ public class PermissionStringsTest {
 
     assertThat(one, is(equalTo(two)));
   }
+
+  @Test
+  public void shouldEvictHandlersWhenMaxSizeIsExceeded() throws Exception {
+    ReflectionTestUtils.setField(permissionStrings, "maxSize", 1L);
+    permissionStrings.init();
+
+    PermissionStrings.Handler handler = permissionStrings.forUser(USER);
+    permissionStrings.forUser(randomUUID());
+
+    assertThat(permissionStrings.forUser(USER), is(not(sameInstance(handler))));
+  }
+
+  @Test
+  public void shouldNotRevalidateDataWithinFreshnessWindow() {
+    ReflectionTestUtils.setField(permissionStrings, "freshnessSeconds", 60L);
+    PermissionStrings.Handler handler = permissionStrings.forUser(USER);
+
+    when(userReferenceDataService.getPermissionStrings(USER, null)).thenReturn(response);
+    when(response.isModified()).thenReturn(true);
+    when(response.getBody()).thenReturn(singletonList(random(5)));
+
+    Set<PermissionStringDto> one = handler.get();
+    Set<PermissionStringDto> two = handler.get();
+
+    assertThat(two, is(sameInstance(one)));
+    verify(userReferenceDataService, times(1))
+        .getPermissionStrings(eq(USER), nullable(String.class));
+  }
+
+  @Test
+  public void shouldReturnPreviousDataWhileAnotherThreadRevalidates() throws Exception {
+    String etag = random(5);
+    PermissionStrings.Handler handler = permissionStrings.forUser(USER);
+
+    when(userReferenceDataService.getPermissionStrings(USER, null)).thenReturn(response);
+    when(response.isModified()).thenReturn(true);
+    when(response.getETag()).thenReturn(etag);
+    when(response.getBody()).thenReturn(singletonList(random(5)));
+    final Set<PermissionStringDto> one = handler.get();
+
+    CountDownLatch revalidating = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(userReferenceDataService.getPermissionStrings(USER, etag)).thenAnswer(invocation -> {
+      revalidating.countDown();
+      release.await();
+      return response;
+    });
+    when(response.isModified()).thenReturn(false);
+
+    final CompletableFuture<Set<PermissionStringDto>> revalidated = CompletableFuture
+        .supplyAsync(handler);
+    revalidating.await();
+
+    assertThat(handler.get(), is(sameInstance(one)));
+
+    release.countDown();
+    assertThat(revalidated.get(), is(equalTo(one)));
+  }
+
+  @Test
+  public void shouldUseFreshDataSharedByAnotherInstance() {
+    ReflectionTestUtils.setField(permissionStrings, "redisEnabled", true);
+    ReflectionTestUtils.setField(permissionStrings, "freshnessSeconds", 60L);
+    String permissionString = "REQUISITION_VIEW|" + randomUUID() + "|" + randomUUID();
+
+    when(permissionStringsRedisRepository.findByUserId(USER))
+        .thenReturn(new PermissionStringsRedisRepository.Entry(
+            singletonList(permissionString), random(5), System.currentTimeMillis()));
+
+    Set<PermissionStringDto> result = permissionStrings.forUser(USER).get();
+
+    assertThat(result, is(equalTo(PermissionStringDto.from(singletonList(permissionString)))));
+    verifyZeroInteractions(userReferenceDataService);
+  }
+
+  @Test
+  public void shouldRevalidateStaleSharedDataWithItsEtagAndShareResult() {
+    ReflectionTestUtils.setField(permissionStrings, "redisEnabled", true);
+    ReflectionTestUtils.setField(permissionStrings, "freshnessSeconds", 60L);
+    String etag = random(5);
+    List<String> shared = singletonList(random(5));
+
+    when(permissionStringsRedisRepository.findByUserId(USER))
+        .thenReturn(new PermissionStringsRedisRepository.Entry(shared, etag, 0));
+    when(userReferenceDataService.getPermissionStrings(USER, etag)).thenReturn(response);
+    when(response.isModified()).thenReturn(false);
+
+    Set<PermissionStringDto> result = permissionStrings.forUser(USER).get();
+
+    assertThat(result, is(equalTo(PermissionStringDto.from(shared))));
+
+    ArgumentCaptor<PermissionStringsRedisRepository.Entry> captor = ArgumentCaptor
+        .forClass(PermissionStringsRedisRepository.Entry.class);
+    verify(permissionStringsRedisRepository).save(eq(USER), captor.capture(), eq(60L));
+    assertThat(captor.getValue().getPermissionStrings(), is(shared));
+    assertThat(captor.getValue().getEtag(), is(etag));
+    assertThat(captor.getValue().getValidatedAt(), is(greaterThan(0L)));
+  }
 }
@@ -0,0 +1,197 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service.stockmanagement;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import java.time.Clock;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openlmis.requisition.domain.requisition.StockEventSubmission;
+import org.openlmis.requisition.dto.stockmanagement.StockEventDto;
+import org.openlmis.requisition.exception.ExternalApiException;
+import org.openlmis.requisition.repository.StockEventSubmissionRepository;
+import org.openlmis.requisition.service.AuthService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Sends stock events to a local stub of the stock management endpoint.
+ */
+public class StockEventBatchSubmissionTest {
+
+  private static final String STOCK_EVENTS_URL = "/api/stockEvents";
+  private static final String TOKEN = UUID.randomUUID().toString();
+
+  @Rule
+  public WireMockRule stockManagement = new WireMockRule(wireMockConfig().dynamicPort());
+
+  private StockEventStockManagementService service = new StockEventStockManagementService();
+  private StockManagementExecutor executor = new StockManagementExecutor();
+
+  private UUID facilityId = UUID.randomUUID();
+  private UUID failingFacilityId = UUID.randomUUID();
+  private UUID stockEventId = UUID.randomUUID();
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(executor, "poolSize", 2);
+    ReflectionTestUtils.setField(executor, "queueCapacity", 10);
+    executor.init();
+
+    AuthService authService = mock(AuthService.class);
+    when(authService.obtainAccessToken()).thenReturn(TOKEN);
+
+    ReflectionTestUtils.setField(service, "authService", authService);
+    ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+    ReflectionTestUtils.setField(service, "restTemplate", new RestTemplate());
+    ReflectionTestUtils.setField(service, "stockManagementExecutor", executor);
+    ReflectionTestUtils.setField(service, "batchSize", 2);
+    ReflectionTestUtils.setField(service, "stockmanagementUrl",
+        "http://localhost:" + stockManagement.port());
+
+    stockManagement.stubFor(post(urlEqualTo(STOCK_EVENTS_URL))
+        .withRequestBody(containing(facilityId.toString()))
+        .willReturn(aResponse()
+            .withStatus(201)
+            .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .withBody("\"" + stockEventId + "\"")));
+    stockManagement.stubFor(post(urlEqualTo(STOCK_EVENTS_URL))
+        .withRequestBody(containing(failingFacilityId.toString()))
+        .willReturn(aResponse()
+            .withStatus(400)
+            .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .withBody("{\"messageKey\": \"stockmanagement.error\", \"message\": \"error\"}")));
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  public void shouldSendAllStockEventsAndCorrelateResultsWithRequisitions() {
+    Map<UUID, StockEventDto> stockEvents = new LinkedHashMap<>();
+    UUID failingRequisitionId = UUID.randomUUID();
+    stockEvents.put(failingRequisitionId, stockEvent(failingFacilityId));
+    for (int i = 0; i < 4; ++i) {
+      stockEvents.put(UUID.randomUUID(), stockEvent(facilityId));
+    }
+
+    StockEventBatchResult result = service.submitAll(stockEvents);
+
+    assertFalse(result.isSuccessful());
+    assertEquals(4, result.getStockEventIds().size());
+    result.getStockEventIds().values().forEach(id -> assertEquals(stockEventId, id));
+    assertEquals(1, result.getErrors().size());
+    assertThat(result.getErrors().get(failingRequisitionId),
+        instanceOf(ExternalApiException.class));
+
+    // a failed request is retried once
+    stockManagement.verify(6, postRequestedFor(urlEqualTo(STOCK_EVENTS_URL))
+        .withHeader(HttpHeaders.AUTHORIZATION, equalTo("Bearer " + TOKEN)));
+  }
+
+  @Test
+  public void shouldCompleteSentChunkAndRetryFailedChunkOfRecordedStockEvents() {
+    final ZonedDateTime now = ZonedDateTime.of(2026, 10, 17, 12, 0, 0, 0, ZoneOffset.UTC);
+    List<StockEventSubmission> submissions = new ArrayList<>();
+    StockEventSubmissionRepository repository = mock(StockEventSubmissionRepository.class);
+    when(repository.save(any(StockEventSubmission.class))).thenAnswer(invocation -> {
+      StockEventSubmission submission = invocation.getArgument(0);
+      if (null == submission.getId()) {
+        submission.setId(UUID.randomUUID());
+        submissions.add(submission);
+      }
+      return submission;
+    });
+    when(repository.lockDue(any(ZonedDateTime.class), anyInt())).thenReturn(submissions);
+
+    StockEventOutbox outbox = new StockEventOutbox();
+    ReflectionTestUtils.setField(outbox, "stockEventSubmissionRepository", repository);
+    ReflectionTestUtils.setField(outbox, "objectMapper", new ObjectMapper());
+    ReflectionTestUtils.setField(outbox, "clock", Clock.fixed(now.toInstant(), ZoneOffset.UTC));
+    ReflectionTestUtils.setField(outbox, "leaseSeconds", 300L);
+    ReflectionTestUtils.setField(outbox, "maxAttempts", 3);
+    ReflectionTestUtils.setField(outbox, "retryDelaySeconds", 30L);
+
+    StockEventDispatcher dispatcher = new StockEventDispatcher();
+    ReflectionTestUtils.setField(dispatcher, "outbox", outbox);
+    ReflectionTestUtils.setField(dispatcher, "stockEventStockManagementService", service);
+    ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+
+    // with the batch size of 2 the first chunk is accepted and the second one is rejected
+    Map<UUID, StockEventDto> stockEvents = new LinkedHashMap<>();
+    stockEvents.put(UUID.randomUUID(), stockEvent(facilityId));
+    stockEvents.put(UUID.randomUUID(), stockEvent(facilityId));
+    stockEvents.put(UUID.randomUUID(), stockEvent(failingFacilityId));
+    stockEvents.put(UUID.randomUUID(), stockEvent(failingFacilityId));
+    outbox.add(stockEvents);
+
+    dispatcher.dispatch();
+
+    for (StockEventSubmission submission : submissions.subList(0, 2)) {
+      verify(repository).deleteById(submission.getId());
+      assertThat(submission.getAttempts(), is(0));
+    }
+    for (StockEventSubmission submission : submissions.subList(2, 4)) {
+      verify(repository, never()).deleteById(submission.getId());
+      assertThat(submission.getAttempts(), is(1));
+      assertThat(submission.getNextAttemptDate(), is(now.plusSeconds(30)));
+      assertThat(submission.getLastError(), containsString("ExternalApiException"));
+    }
+    assertThat(dispatcher.getStatistics().getSent(), is(2L));
+    assertThat(dispatcher.getStatistics().getFailed(), is(2L));
+  }
+
+  private StockEventDto stockEvent(UUID facilityId) {
+    StockEventDto stockEvent = new StockEventDto();
+    stockEvent.setFacilityId(facilityId);
+    stockEvent.setProgramId(UUID.randomUUID());
+    return stockEvent;
+  }
+}
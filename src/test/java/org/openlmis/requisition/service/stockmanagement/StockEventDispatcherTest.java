@@ -0,0 +1,206 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service.stockmanagement;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.requisition.domain.requisition.StockEventSubmission;
+import org.openlmis.requisition.dto.stockmanagement.StockEventDto;
+import org.openlmis.requisition.exception.ServerException;
+import org.openlmis.requisition.i18n.MessageKeys;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@SuppressWarnings("PMD.TooManyMethods")
+@RunWith(MockitoJUnitRunner.class)
+public class StockEventDispatcherTest {
+
+  @Mock
+  private StockEventOutbox outbox;
+
+  @Mock
+  private StockEventStockManagementService stockEventStockManagementService;
+
+  @InjectMocks
+  private StockEventDispatcher dispatcher;
+
+  private StockEventSubmission submission = newSubmission();
+  private StockEventSubmission failingSubmission = newSubmission();
+
+  private StockEventDto stockEvent = new StockEventDto();
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(dispatcher, "enabled", false);
+    ReflectionTestUtils.setField(dispatcher, "batchSize", 2);
+    dispatcher.init();
+
+    when(outbox.claim(2)).thenReturn(Collections.singletonList(submission));
+    when(outbox.getStockEvent(any(StockEventSubmission.class))).thenReturn(stockEvent);
+    when(stockEventStockManagementService.submitAll(any()))
+        .thenAnswer(invocation -> succeed(invocation.getArgument(0)));
+  }
+
+  @After
+  public void tearDown() {
+    dispatcher.shutdown();
+  }
+
+  @Test
+  public void shouldSendAndCompleteStockEvent() {
+    dispatcher.dispatch();
+
+    verify(stockEventStockManagementService)
+        .submitAll(Collections.singletonMap(submission.getRequisitionId(), stockEvent));
+    verify(outbox).complete(submission);
+    verify(outbox, never()).retry(any(), anyString());
+    assertThat(getStatistics().getSent(), is(1L));
+  }
+
+  @Test
+  public void shouldCompleteSentStockEventsAndRetryFailedOnes() {
+    when(outbox.claim(2)).thenReturn(Arrays.asList(submission, failingSubmission),
+        Collections.emptyList());
+    doAnswer(invocation -> {
+      StockEventBatchResult result = succeed(invocation.getArgument(0));
+      result.getStockEventIds().remove(failingSubmission.getRequisitionId());
+      result.addError(failingSubmission.getRequisitionId(),
+          new IllegalStateException("rejected"));
+      return result;
+    }).when(stockEventStockManagementService).submitAll(any());
+    when(outbox.retry(eq(failingSubmission), anyString())).thenReturn(true);
+
+    dispatcher.dispatch();
+
+    verify(outbox).complete(submission);
+    verify(outbox, never()).complete(failingSubmission);
+    verify(outbox).retry(failingSubmission, "java.lang.IllegalStateException: rejected");
+    assertThat(getStatistics().getSent(), is(1L));
+    assertThat(getStatistics().getFailed(), is(1L));
+    assertThat(getStatistics().getGivenUp(), is(0L));
+  }
+
+  @Test
+  public void shouldRetryStockEventThatCouldNotBeRead() {
+    ServerException exception = new ServerException(new IllegalStateException(),
+        MessageKeys.ERROR_IO, "broken");
+    when(outbox.getStockEvent(submission)).thenThrow(exception);
+
+    dispatcher.dispatch();
+
+    verify(stockEventStockManagementService, never()).submitAll(any());
+    verify(outbox).retry(submission, exception.toString());
+    assertThat(getStatistics().getFailed(), is(1L));
+  }
+
+  @Test
+  public void shouldCountStockEventsThatWereGivenUp() {
+    doAnswer(invocation -> {
+      StockEventBatchResult result = new StockEventBatchResult();
+      result.addError(submission.getRequisitionId(), new IllegalStateException("rejected"));
+      return result;
+    }).when(stockEventStockManagementService).submitAll(any());
+    when(outbox.retry(eq(submission), anyString())).thenReturn(false);
+
+    dispatcher.dispatch();
+
+    assertThat(getStatistics().getGivenUp(), is(1L));
+  }
+
+  @Test
+  public void shouldNotFailWhenSubmissionCouldNotBeCompleted() {
+    doAnswer(invocation -> {
+      throw new IllegalStateException("database is down");
+    }).when(outbox).complete(submission);
+
+    dispatcher.dispatch();
+
+    verify(outbox, never()).retry(any(), anyString());
+  }
+
+  @Test
+  public void shouldTakeNextBatchWhenBatchWasFull() {
+    when(outbox.claim(2))
+        .thenReturn(Arrays.asList(submission, failingSubmission))
+        .thenReturn(Collections.singletonList(submission));
+
+    dispatcher.dispatch();
+
+    verify(outbox, times(2)).claim(2);
+    verify(outbox, times(2)).complete(submission);
+    verify(outbox).complete(failingSubmission);
+  }
+
+  @Test
+  public void shouldNotFailWhenSubmissionsCouldNotBeClaimed() {
+    when(outbox.claim(2)).thenThrow(new IllegalStateException("database is down"));
+
+    dispatcher.dispatch();
+
+    verify(stockEventStockManagementService, never()).submitAll(any());
+  }
+
+  @Test
+  public void shouldReturnStatistics() {
+    dispatcher.dispatch();
+
+    StockEventDispatcher.Statistics statistics = getStatistics();
+
+    assertThat(statistics.getPending(), is(3L));
+    assertThat(statistics.getOldestPendingSeconds(), is(42L));
+    assertThat(statistics.getSent(), is(1L));
+  }
+
+  private StockEventDispatcher.Statistics getStatistics() {
+    when(outbox.getBacklog()).thenReturn(new StockEventOutbox.Backlog(3, Duration.ofSeconds(42)));
+    return dispatcher.getStatistics();
+  }
+
+  private StockEventBatchResult succeed(Map<UUID, StockEventDto> stockEvents) {
+    StockEventBatchResult result = new StockEventBatchResult();
+    stockEvents.keySet().forEach(requisitionId ->
+        result.addStockEventId(requisitionId, UUID.randomUUID()));
+    return result;
+  }
+
+  private static StockEventSubmission newSubmission() {
+    StockEventSubmission submission = StockEventSubmission
+        .newStockEventSubmission(UUID.randomUUID(), "{}", ZonedDateTime.now());
+    submission.setId(UUID.randomUUID());
+    return submission;
+  }
+}
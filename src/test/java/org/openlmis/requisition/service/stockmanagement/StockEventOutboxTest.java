@@ -0,0 +1,143 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service.stockmanagement;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.requisition.domain.requisition.StockEventSubmission;
+import org.openlmis.requisition.dto.stockmanagement.StockEventDto;
+import org.openlmis.requisition.exception.ServerException;
+import org.openlmis.requisition.repository.StockEventSubmissionRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StockEventOutboxTest {
+
+  @Mock
+  private StockEventSubmissionRepository stockEventSubmissionRepository;
+
+  @InjectMocks
+  private StockEventOutbox outbox;
+
+  private ZonedDateTime now = ZonedDateTime.of(2026, 10, 17, 12, 0, 0, 0, ZoneOffset.UTC);
+
+  private UUID requisitionId = UUID.randomUUID();
+
+  private StockEventDto stockEvent = StockEventDto.builder()
+      .facilityId(UUID.randomUUID())
+      .programId(UUID.randomUUID())
+      .userId(UUID.randomUUID())
+      .lineItems(Collections.emptyList())
+      .build();
+
+  private StockEventSubmission submission = StockEventSubmission
+      .newStockEventSubmission(requisitionId, "{}", now);
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(outbox, "objectMapper", new ObjectMapper());
+    ReflectionTestUtils.setField(outbox, "clock", Clock.fixed(now.toInstant(), ZoneOffset.UTC));
+    ReflectionTestUtils.setField(outbox, "leaseSeconds", 300L);
+    ReflectionTestUtils.setField(outbox, "maxAttempts", 3);
+    ReflectionTestUtils.setField(outbox, "retryDelaySeconds", 30L);
+  }
+
+  @Test
+  public void shouldRecordStockEvents() {
+    outbox.add(Collections.singletonMap(requisitionId, stockEvent));
+
+    ArgumentCaptor<StockEventSubmission> captor =
+        ArgumentCaptor.forClass(StockEventSubmission.class);
+    verify(stockEventSubmissionRepository).save(captor.capture());
+
+    StockEventSubmission saved = captor.getValue();
+    assertThat(saved.getRequisitionId(), is(requisitionId));
+    assertThat(saved.getAttempts(), is(0));
+    assertThat(saved.getNextAttemptDate(), is(now));
+    assertThat(outbox.getStockEvent(saved), is(stockEvent));
+  }
+
+  @Test(expected = ServerException.class)
+  public void shouldThrowExceptionIfStockEventCouldNotBeRead() {
+    outbox.getStockEvent(StockEventSubmission.newStockEventSubmission(requisitionId, "{", now));
+  }
+
+  @Test
+  public void shouldLeaseClaimedSubmissions() {
+    when(stockEventSubmissionRepository.lockDue(now, 10))
+        .thenReturn(Collections.singletonList(submission));
+
+    List<StockEventSubmission> claimed = outbox.claim(10);
+
+    assertThat(claimed, contains(submission));
+    assertThat(submission.getNextAttemptDate(), is(now.plusSeconds(300)));
+  }
+
+  @Test
+  public void shouldRetryWithExponentialBackoff() {
+    assertThat(outbox.retry(submission, "first"), is(true));
+    assertThat(submission.getNextAttemptDate(), is(now.plusSeconds(30)));
+
+    assertThat(outbox.retry(submission, "second"), is(true));
+    assertThat(submission.getNextAttemptDate(), is(now.plusSeconds(60)));
+    assertThat(submission.getAttempts(), is(2));
+    assertThat(submission.getLastError(), is("second"));
+  }
+
+  @Test
+  public void shouldGiveUpAfterMaxAttempts() {
+    outbox.retry(submission, "first");
+    outbox.retry(submission, "second");
+
+    assertThat(outbox.retry(submission, "third"), is(false));
+    assertThat(submission.getNextAttemptDate(), is(nullValue()));
+    assertThat(submission.getAttempts(), is(3));
+    assertThat(submission.getLastError(), is("third"));
+  }
+
+  @Test
+  public void shouldReturnBacklog() {
+    submission.setCreatedDate(now.minusMinutes(5));
+    when(stockEventSubmissionRepository.findFirstByNextAttemptDateIsNotNullOrderByCreatedDate())
+        .thenReturn(submission);
+    when(stockEventSubmissionRepository.countByNextAttemptDateIsNotNull()).thenReturn(7L);
+
+    StockEventOutbox.Backlog backlog = outbox.getBacklog();
+
+    assertThat(backlog.getSize(), is(7L));
+    assertThat(backlog.getOldestAge(), is(Duration.ofMinutes(5)));
+  }
+}
@@ -15,13 +15,21 @@
 
 package org.openlmis.requisition.service.stockmanagement;
 
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -31,8 +39,11 @@ import static org.mockito.Mockito.when;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -60,6 +71,7 @@ public class StockEventStockManagementServiceTest
       ResponseEntity.ok(UUID.randomUUID());
   private StockEventStockManagementService service;
   private StockEventDto stockEventDto;
+  private StockManagementExecutor executor = new StockManagementExecutor();
 
   @Mock
   private ObjectMapper objectMapper;
@@ -70,6 +82,12 @@ public class StockEventStockManagementServiceTest
 
     service = (StockEventStockManagementService) prepareService();
     ReflectionTestUtils.setField(service, "objectMapper", objectMapper);
+    ReflectionTestUtils.setField(service, "batchSize", 2);
+
+    ReflectionTestUtils.setField(executor, "poolSize", 2);
+    ReflectionTestUtils.setField(executor, "queueCapacity", 2);
+    executor.init();
+    ReflectionTestUtils.setField(service, "stockManagementExecutor", executor);
 
     stockEventDto = generateInstance();
   }
@@ -118,6 +136,61 @@ public class StockEventStockManagementServiceTest
     andEntityIsCorrect();
   }
 
+  @After
+  public void shutdownExecutor() {
+    executor.shutdown();
+  }
+
+  @Test
+  public void shouldSubmitStockEventsInChunksAndCorrelateResultsWithRequisitions() {
+    UUID stockEventId = UUID.randomUUID();
+    given(restTemplate.exchange(any(URI.class), any(HttpMethod.class), any(HttpEntity.class),
+        any(Class.class))).willReturn(ResponseEntity.ok(stockEventId));
+
+    Map<UUID, StockEventDto> stockEvents = new LinkedHashMap<>();
+    for (StockEventDto stockEvent : DtoGenerator.of(StockEventDto.class, 5)) {
+      stockEvents.put(UUID.randomUUID(), stockEvent);
+    }
+
+    StockEventBatchResult result = service.submitAll(stockEvents);
+
+    assertTrue(result.isSuccessful());
+    assertEquals(stockEvents.keySet(), result.getStockEventIds().keySet());
+    assertThat(result.getStockEventIds().values(), everyItem(is(stockEventId)));
+    verifyRequest(5);
+    assertThat(entityCaptor.getAllValues().stream().map(HttpEntity::getBody).collect(toList()),
+        containsInAnyOrder(stockEvents.values().toArray()));
+  }
+
+  @Test
+  public void shouldReturnErrorsOfFailedStockEventsAndSubmitOthers() {
+    List<StockEventDto> events = DtoGenerator.of(StockEventDto.class, 2);
+    StockEventDto failing = events.get(0);
+    StockEventDto passing = events.get(1);
+    HttpStatusCodeException exp = mock(HttpStatusCodeException.class);
+    when(exp.getStatusCode()).thenReturn(HttpStatus.INTERNAL_SERVER_ERROR);
+
+    given(restTemplate.exchange(any(URI.class), any(HttpMethod.class),
+        argThat(entity -> failing.equals(entity.getBody())), any(Class.class))).willThrow(exp);
+    given(restTemplate.exchange(any(URI.class), any(HttpMethod.class),
+        argThat(entity -> passing.equals(entity.getBody())), any(Class.class)))
+        .willReturn(RESPONSE_ENTITY_OK);
+
+    UUID failingRequisitionId = UUID.randomUUID();
+    UUID passingRequisitionId = UUID.randomUUID();
+    Map<UUID, StockEventDto> stockEvents = new LinkedHashMap<>();
+    stockEvents.put(failingRequisitionId, failing);
+    stockEvents.put(passingRequisitionId, passing);
+
+    StockEventBatchResult result = service.submitAll(stockEvents);
+
+    assertFalse(result.isSuccessful());
+    assertThat(result.getErrors().get(failingRequisitionId),
+        instanceOf(DataRetrievalException.class));
+    assertEquals(RESPONSE_ENTITY_OK.getBody(),
+        result.getStockEventIds().get(passingRequisitionId));
+  }
+
   @Test
   public void shouldPassErrorMessageFromExternalService() throws IOException {
     HttpStatusCodeException exp = mock(HttpStatusCodeException.class);
@@ -0,0 +1,117 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service.stockmanagement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlmis.requisition.service.BoundedExecutor.Statistics;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class StockManagementExecutorTest {
+
+  private StockManagementExecutor executor = new StockManagementExecutor();
+
+  private Authentication authentication = new TestingAuthenticationToken("user", "password");
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(executor, "poolSize", 1);
+    ReflectionTestUtils.setField(executor, "queueCapacity", 1);
+    executor.init();
+
+    SecurityContextHolder.getContext().setAuthentication(authentication);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdown();
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  public void shouldRunTaskInSeparateThreadWithSecurityContext() {
+    AtomicReference<Thread> thread = new AtomicReference<>();
+    AtomicReference<Authentication> auth = new AtomicReference<>();
+
+    executor.runAsync(() -> {
+      thread.set(Thread.currentThread());
+      auth.set(SecurityContextHolder.getContext().getAuthentication());
+    }).join();
+
+    assertNotEquals(Thread.currentThread(), thread.get());
+    assertSame(authentication, auth.get());
+  }
+
+  @Test
+  public void shouldRunTaskInCallerThreadIfQueueIsFull() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    AtomicReference<Thread> thread = new AtomicReference<>();
+
+    final CompletableFuture<Void> running = executor.runAsync(() -> await(latch));
+    final CompletableFuture<Void> queued = executor.runAsync(() -> { });
+    executor.runAsync(() -> thread.set(Thread.currentThread())).join();
+
+    assertSame(Thread.currentThread(), thread.get());
+    assertSame(authentication, SecurityContextHolder.getContext().getAuthentication());
+    assertEquals(1, executor.getStatistics().getQueueDepth());
+    assertEquals(1, executor.getStatistics().getCallerRuns());
+
+    latch.countDown();
+    CompletableFuture.allOf(running, queued).join();
+  }
+
+  @Test(expected = CompletionException.class)
+  public void shouldCompleteFutureExceptionallyIfTaskFails() {
+    executor.runAsync(() -> {
+      throw new IllegalStateException();
+    }).join();
+  }
+
+  @Test
+  public void shouldCollectStatistics() {
+    executor.runAsync(() -> { }).join();
+    executor.runAsync(() -> {
+      throw new IllegalStateException();
+    }).handle((result, ex) -> ex).join();
+
+    Statistics statistics = executor.getStatistics();
+
+    assertEquals(2, statistics.getSubmitted());
+    assertEquals(2, statistics.getCompleted());
+    assertEquals(1, statistics.getFailed());
+    assertEquals(0, statistics.getQueueDepth());
+  }
+
+  private void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -21,6 +21,7 @@ import java.util.Set;
 import java.util.UUID;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
 import org.openlmis.requisition.repository.custom.DefaultRequisitionSearchParams;
+import org.openlmis.requisition.repository.custom.RequisitionSearchCursor;
 import org.openlmis.requisition.testutils.api.DataBuilder;
 
 @SuppressWarnings("PMD.TooManyMethods")
@@ -42,6 +43,9 @@ public class DefaultRequisitionSearchParamsDataBuilder implements
 
   private Set<RequisitionStatus> requisitionStatuses;
 
+  private RequisitionSearchCursor cursor;
+  private boolean skipCount;
+
   /**
    * Create new instance of {@link DefaultRequisitionSearchParams}.
    */
@@ -57,7 +61,9 @@ public class DefaultRequisitionSearchParamsDataBuilder implements
         initiatedDateTo,
         modifiedDateFrom,
         modifiedDateTo,
-        requisitionStatuses
+        requisitionStatuses,
+        cursor,
+        skipCount
     );
   }
 
@@ -114,4 +120,14 @@ public class DefaultRequisitionSearchParamsDataBuilder implements
     this.requisitionStatuses = requisitionStatuses;
     return this;
   }
+
+  public DefaultRequisitionSearchParamsDataBuilder withCursor(RequisitionSearchCursor cursor) {
+    this.cursor = cursor;
+    return this;
+  }
+
+  public DefaultRequisitionSearchParamsDataBuilder withSkipCount(boolean skipCount) {
+    this.skipCount = skipCount;
+    return this;
+  }
 }
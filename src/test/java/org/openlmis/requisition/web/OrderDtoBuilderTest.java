@@ -0,0 +1,165 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.web;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.Sets;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.requisition.domain.requisition.Requisition;
+import org.openlmis.requisition.domain.requisition.RequisitionDataBuilder;
+import org.openlmis.requisition.domain.requisition.RequisitionLineItemDataBuilder;
+import org.openlmis.requisition.domain.requisition.StatusMessage;
+import org.openlmis.requisition.dto.FacilityDto;
+import org.openlmis.requisition.dto.OrderDto;
+import org.openlmis.requisition.dto.OrderableDto;
+import org.openlmis.requisition.dto.ProcessingPeriodDto;
+import org.openlmis.requisition.dto.ProgramDto;
+import org.openlmis.requisition.dto.UserDto;
+import org.openlmis.requisition.repository.StatusMessageRepository;
+import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
+import org.openlmis.requisition.service.referencedata.OrderableReferenceDataService;
+import org.openlmis.requisition.service.referencedata.PeriodReferenceDataService;
+import org.openlmis.requisition.service.referencedata.ProgramReferenceDataService;
+import org.openlmis.requisition.testutils.FacilityDtoDataBuilder;
+import org.openlmis.requisition.testutils.OrderableDtoDataBuilder;
+import org.openlmis.requisition.testutils.ProcessingPeriodDtoDataBuilder;
+import org.openlmis.requisition.testutils.ProgramDtoDataBuilder;
+import org.openlmis.requisition.testutils.StatusMessageDataBuilder;
+import org.openlmis.requisition.testutils.UserDtoDataBuilder;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OrderDtoBuilderTest {
+
+  @Mock
+  private FacilityReferenceDataService facilities;
+
+  @Mock
+  private PeriodReferenceDataService periods;
+
+  @Mock
+  private StatusMessageRepository statusMessageRepository;
+
+  @Mock
+  private ProgramReferenceDataService programs;
+
+  @Mock
+  private OrderableReferenceDataService products;
+
+  @InjectMocks
+  private OrderDtoBuilder orderDtoBuilder;
+
+  private FacilityDto facility = new FacilityDtoDataBuilder().buildAsDto();
+  private FacilityDto supplyingFacility = new FacilityDtoDataBuilder().buildAsDto();
+  private ProcessingPeriodDto period = new ProcessingPeriodDtoDataBuilder().buildAsDto();
+  private ProgramDto program = new ProgramDtoDataBuilder().buildAsDto();
+  private OrderableDto orderable = new OrderableDtoDataBuilder().buildAsDto();
+  private UserDto user = new UserDtoDataBuilder().buildAsDto();
+
+  private Requisition first;
+  private Requisition second;
+
+  @Before
+  public void setUp() {
+    first = newRequisition();
+    second = newRequisition();
+
+    when(facilities.search(Sets.newHashSet(facility.getId(), supplyingFacility.getId())))
+        .thenReturn(Arrays.asList(facility, supplyingFacility));
+    when(periods.search(Sets.newHashSet(period.getId()))).thenReturn(singletonList(period));
+    when(programs.search(Sets.newHashSet(program.getId()))).thenReturn(singletonList(program));
+    when(products.findByIdentities(anySet())).thenReturn(singletonList(orderable));
+  }
+
+  @Test
+  public void shouldRetrieveReferenceDataOfAllRequisitionsAtOnce() {
+    StatusMessage message = new StatusMessageDataBuilder().withRequisition(second).build();
+    when(statusMessageRepository.findByRequisitionIdIn(anyCollection()))
+        .thenReturn(singletonList(message));
+
+    List<OrderDto> orders = orderDtoBuilder.build(Arrays.asList(first, second), user);
+
+    assertThat(orders, hasSize(2));
+    assertThat(orders.get(0).getExternalId(), is(first.getId()));
+    assertThat(orders.get(1).getExternalId(), is(second.getId()));
+    assertThat(orders.get(0).getFacility(), is(facility));
+    assertThat(orders.get(0).getSupplyingFacility(), is(supplyingFacility));
+    assertThat(orders.get(1).getProcessingPeriod(), is(period));
+    assertThat(orders.get(1).getProgram(), is(program));
+    assertThat(orders.get(1).getOrderLineItems().get(0).getOrderable(), is(orderable));
+    assertThat(orders.get(0).getStatusMessages(), is(empty()));
+    assertThat(orders.get(1).getStatusMessages(), hasSize(1));
+    assertThat(orders.get(1).getStatusMessages().get(0).getId(), is(nullValue()));
+
+    verify(statusMessageRepository)
+        .findByRequisitionIdIn(Sets.newHashSet(first.getId(), second.getId()));
+    verify(products).findByIdentities(Sets.newHashSet(
+        first.getRequisitionLineItems().get(0).getOrderable(),
+        second.getRequisitionLineItems().get(0).getOrderable()));
+  }
+
+  @Test
+  public void shouldBuildOrderOfSingleRequisition() {
+    OrderDto order = orderDtoBuilder.build(first, user);
+
+    assertThat(order.getExternalId(), is(first.getId()));
+    assertThat(order.getCreatedBy(), is(user));
+    assertThat(order.getRequestingFacility(), is(facility));
+    assertThat(order.getOrderLineItems(), hasSize(1));
+  }
+
+  @Test
+  public void shouldNotIncludeSkippedLineItems() {
+    first.addLineItem(new RequisitionLineItemDataBuilder()
+        .withSkippedFlag()
+        .build());
+
+    OrderDto order = orderDtoBuilder.build(first, user);
+
+    assertThat(order.getOrderLineItems(), hasSize(1));
+    assertThat(order.getOrderLineItems().get(0).getOrderable(), is(orderable));
+  }
+
+  private Requisition newRequisition() {
+    Requisition requisition = new RequisitionDataBuilder()
+        .withFacilityId(facility.getId())
+        .withSupplyingFacilityId(supplyingFacility.getId())
+        .withProcessingPeriodId(period.getId())
+        .withProgramId(program.getId())
+        .build();
+    requisition.addLineItem(new RequisitionLineItemDataBuilder()
+        .withOrderable(orderable.getId(), orderable.getVersionNumber())
+        .withRequisition(requisition)
+        .build());
+    return requisition;
+  }
+}
@@ -23,6 +23,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_INVALID_REQUISITION_STATUS;
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_SEARCH_INVALID_CURSOR;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_SEARCH_INVALID_PARAMS;
 
 import be.joengenduvel.java.verifiers.ToStringVerifier;
@@ -38,6 +39,7 @@ import org.junit.rules.ExpectedException;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
 import org.openlmis.requisition.dto.ToStringContractTest;
 import org.openlmis.requisition.exception.ValidationMessageException;
+import org.openlmis.requisition.repository.custom.RequisitionSearchCursor;
 import org.springframework.util.LinkedMultiValueMap;
 
 @SuppressWarnings("PMD.TooManyMethods")
@@ -57,6 +59,8 @@ public class QueryRequisitionSearchParamsTest
   private static final String EMERGENCY = "emergency";
   private static final String MODIFIED_DATE_FROM = "modifiedDateFrom";
   private static final String MODIFIED_DATE_TO = "modifiedDateTo";
+  private static final String CURSOR = "cursor";
+  private static final String SKIP_COUNT = "skipCount";
 
   private LinkedMultiValueMap<String, String> queryMap;
   private UUID id = UUID.randomUUID();
@@ -239,6 +243,55 @@ public class QueryRequisitionSearchParamsTest
     assertNull(params.getModifiedDateTo());
   }
 
+  @Test
+  public void shouldGetCursorValueFromParameters() {
+    RequisitionSearchCursor cursor = new RequisitionSearchCursor(dateTime, id);
+    queryMap.add(CURSOR, cursor.encode());
+    QueryRequisitionSearchParams params = new QueryRequisitionSearchParams(queryMap);
+
+    assertEquals(cursor, params.getCursor());
+  }
+
+  @Test
+  public void shouldGetNullIfMapHasNoCursorProperty() {
+    QueryRequisitionSearchParams params = new QueryRequisitionSearchParams(queryMap);
+
+    assertNull(params.getCursor());
+  }
+
+  @Test
+  public void shouldThrowExceptionIfCursorIsNotValid() {
+    exception.expect(ValidationMessageException.class);
+    exception.expectMessage(ERROR_SEARCH_INVALID_CURSOR);
+
+    queryMap.add(CURSOR, "invalid");
+    new QueryRequisitionSearchParams(queryMap).getCursor();
+  }
+
+  @Test
+  public void shouldGetSkipCountValueFromParameters() {
+    queryMap.add(SKIP_COUNT, "true");
+    QueryRequisitionSearchParams params = new QueryRequisitionSearchParams(queryMap);
+
+    assertTrue(params.isSkipCount());
+  }
+
+  @Test
+  public void shouldNotSkipCountIfMapHasNoSkipCountProperty() {
+    QueryRequisitionSearchParams params = new QueryRequisitionSearchParams(queryMap);
+
+    assertFalse(params.isSkipCount());
+  }
+
+  @Test
+  public void shouldSkipCountIfCursorIsGiven() {
+    queryMap.add(CURSOR, new RequisitionSearchCursor(dateTime, id).encode());
+    queryMap.add(SKIP_COUNT, "false");
+    QueryRequisitionSearchParams params = new QueryRequisitionSearchParams(queryMap);
+
+    assertTrue(params.isSkipCount());
+  }
+
   @Test
   public void shouldThrowExceptionIfThereIsUnknownParameterInParameters() {
     exception.expect(ValidationMessageException.class);
@@ -262,6 +315,7 @@ public class QueryRequisitionSearchParamsTest
   protected void prepare(ToStringVerifier<QueryRequisitionSearchParams> verifier) {
     verifier.ignore("FACILITY", "PROGRAM", "INITIATED_DATE_FROM", "INITIATED_DATE_TO",
         "MODIFIED_DATE_FROM", "MODIFIED_DATE_TO", "PROCESSING_PERIOD",
-        "SUPERVISORY_NODE", "REQUISITION_STATUS", "EMERGENCY", "ALL_PARAMETERS");
+        "SUPERVISORY_NODE", "REQUISITION_STATUS", "EMERGENCY", "CURSOR", "SKIP_COUNT",
+        "ALL_PARAMETERS");
   }
 }
@@ -19,11 +19,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -42,14 +43,16 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
-import org.openlmis.requisition.domain.requisition.Requisition;
-import org.openlmis.requisition.domain.requisition.RequisitionStatus;
-import org.openlmis.requisition.domain.requisition.StatusChange;
+import org.openlmis.requisition.domain.requisition.RequisitionCompletionCount;
 import org.openlmis.requisition.dto.BasicProcessingPeriodDto;
 import org.openlmis.requisition.dto.GeographicZoneDto;
 import org.openlmis.requisition.dto.MinimalFacilityDto;
 import org.openlmis.requisition.dto.ProcessingPeriodDto;
 import org.openlmis.requisition.dto.ProcessingScheduleDto;
+import org.openlmis.requisition.dto.ProgramDto;
+import org.openlmis.requisition.dto.ReportingRateReportDto;
+import org.openlmis.requisition.dto.RequisitionCompletionDto;
+import org.openlmis.requisition.repository.RequisitionRepository;
 import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
 import org.openlmis.requisition.service.referencedata.GeographicZoneReferenceDataService;
 import org.openlmis.requisition.service.referencedata.PeriodReferenceDataService;
@@ -71,6 +74,9 @@ public class ReportingRateDtoBuilderTest {
   @Mock
   private GeographicZoneReferenceDataService geographicZoneReferenceDataService;
 
+  @Mock
+  private RequisitionRepository requisitionRepository;
+
   @Test
   public void shouldGetLatestPeriods() {
     // given
@@ -185,48 +191,84 @@ public class ReportingRateDtoBuilderTest {
   }
 
   @Test
-  public void shouldUpdateCompletionsWithRequisitions() {
+  public void shouldUpdateCompletionsWithCount() {
     // given
-    LocalDateTime dueDate = LocalDate.of(1994, 8, 10).atStartOfDay();
-    ZoneId zoneId = ZoneId.systemDefault();
-
-    List<Requisition> requisitions = new ArrayList<>();
-
-    // on-time requisition
-    requisitions.add(mockRequisitionWithStatusChanges(
-        RequisitionStatus.APPROVED, ZonedDateTime.of(dueDate, zoneId)));
+    RequisitionCompletionCount count =
+        new RequisitionCompletionCount(UUID.randomUUID(), UUID.randomUUID(), 2, 1, 3);
 
-    // late requisition
-    requisitions.add(mockRequisitionWithStatusChanges(
-        RequisitionStatus.APPROVED, ZonedDateTime.of(dueDate.plusDays(5), zoneId)));
+    // when
+    ReportingRateReportDtoBuilder.CompletionCounter counter = builder.new CompletionCounter();
+    builder.updateCompletionsWithCount(counter, count);
+    builder.updateCompletionsWithCount(counter, count);
 
-    // missed requisition
-    requisitions.add(mockRequisitionWithStatusChanges(
-        RequisitionStatus.SUBMITTED, ZonedDateTime.of(dueDate.minusDays(5), zoneId)));
+    // then
+    assertEquals(2, counter.getLate());
+    assertEquals(4, counter.getOnTime());
+    assertEquals(6, counter.getMissed());
+  }
 
+  @Test
+  public void shouldUpdateCompletionsWithMissedIfNoRequisitionsFound() {
     // when
     ReportingRateReportDtoBuilder.CompletionCounter counter = builder.new CompletionCounter();
-    builder.updateCompletionsWithRequisitions(counter, requisitions, dueDate.toLocalDate());
+    builder.updateCompletionsWithCount(counter, null);
 
     // then
-    assertEquals(1, counter.getLate());
-    assertEquals(1, counter.getOnTime());
+    assertEquals(0, counter.getLate());
+    assertEquals(0, counter.getOnTime());
     assertEquals(1, counter.getMissed());
   }
 
   @Test
-  public void shouldUpdateCompletionsWithMissedIfNoRequisitionsProvided() {
+  public void shouldBuildReportFromSingleCompletionCountQuery() {
     // given
-    List<Requisition> requisitions = new ArrayList<>();
+    ProcessingPeriodDto period = generateProcessingPeriods(1, null).get(0);
+    period.setName("period");
+    when(periodReferenceDataService.search(any(UUID.class), nullable(LocalDate.class)))
+        .thenReturn(Collections.singletonList(period));
+
+    GeographicZoneDto zone1 = mockGeographicZoneWithFacility(true);
+    GeographicZoneDto zone2 = mockGeographicZoneWithFacility(true);
+    when(zone1.getName()).thenReturn("zone1");
+    when(zone2.getName()).thenReturn("zone2");
+    when(geographicZoneReferenceDataService.search(GEOGRAPHIC_LEVEL_NUMBER, null))
+        .thenReturn(Arrays.asList(zone2, zone1));
+
+    UUID facilityId = facilityReferenceDataService
+        .search(null, null, zone1.getId(), true)
+        .get(0)
+        .getId();
+
+    ProgramDto program = new ProgramDto();
+    program.setId(UUID.randomUUID());
+
+    ZonedDateTime deadline = period.getEndDate().plusDays(4).atStartOfDay(ZoneId.systemDefault());
+    when(requisitionRepository.countRequisitionCompletions(program.getId(),
+        Collections.singletonMap(period.getId(), deadline)))
+        .thenReturn(Collections.singletonList(
+            new RequisitionCompletionCount(period.getId(), facilityId, 1, 2, 0)));
 
     // when
-    ReportingRateReportDtoBuilder.CompletionCounter counter = builder.new CompletionCounter();
-    builder.updateCompletionsWithRequisitions(counter, requisitions, LocalDate.of(1994, 8, 10));
+    ReportingRateReportDto report = builder.build(program, period, null, 3);
 
     // then
-    assertEquals(0, counter.getLate());
-    assertEquals(0, counter.getOnTime());
-    assertEquals(1, counter.getMissed());
+    verify(requisitionRepository).countRequisitionCompletions(any(UUID.class), anyMap());
+
+    RequisitionCompletionDto byPeriod = report.getCompletionByPeriod().get(0);
+    assertEquals("period", byPeriod.getGrouping());
+    assertEquals(1, byPeriod.getOnTime());
+    assertEquals(2, byPeriod.getLate());
+    assertEquals(1, byPeriod.getMissed());
+    assertEquals(3, byPeriod.getCompleted());
+    assertEquals(4, byPeriod.getTotal());
+
+    List<RequisitionCompletionDto> byZone = report.getCompletionByZone();
+    assertEquals(2, byZone.size());
+    assertEquals("zone1", byZone.get(0).getGrouping());
+    assertEquals(3, byZone.get(0).getCompleted());
+    assertEquals("zone2", byZone.get(1).getGrouping());
+    assertEquals(1, byZone.get(1).getMissed());
+    assertEquals(0, byZone.get(1).getCompleted());
   }
 
   private GeographicZoneDto mockGeographicZoneWithFacility(boolean facilityActive) {
@@ -236,6 +278,9 @@ public class ReportingRateDtoBuilderTest {
     when(zone.getId()).thenReturn(zoneId);
 
     MinimalFacilityDto facility = mock(MinimalFacilityDto.class);
+    UUID facilityId = UUID.randomUUID();
+
+    when(facility.getId()).thenReturn(facilityId);
 
     when(facility.getActive()).thenReturn(facilityActive);
     when(facility.getGeographicZone()).thenReturn(zone);
@@ -247,19 +292,6 @@ public class ReportingRateDtoBuilderTest {
     return zone;
   }
 
-  private Requisition mockRequisitionWithStatusChanges(
-      RequisitionStatus status, ZonedDateTime date) {
-    StatusChange entry = mock(StatusChange.class);
-    when(entry.getStatus()).thenReturn(status);
-    when(entry.getCreatedDate()).thenReturn(date);
-    List<StatusChange> changes = Collections.singletonList(entry);
-
-    Requisition requisition = mock(Requisition.class);
-    when(requisition.getStatusChanges()).thenReturn(changes);
-
-    return requisition;
-  }
-
   private List<ProcessingPeriodDto> generateProcessingPeriods(
       int amount, ProcessingScheduleDto schedule) {
     List<ProcessingPeriodDto> periods = new ArrayList<>();
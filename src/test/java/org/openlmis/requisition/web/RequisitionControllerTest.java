@@ -20,6 +20,8 @@ import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.util.Maps.newHashMap;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
@@ -77,6 +79,7 @@ import org.mockito.MockitoAnnotations;
 import org.openlmis.requisition.domain.RequisitionTemplate;
 import org.openlmis.requisition.domain.RequisitionTemplateDataBuilder;
 import org.openlmis.requisition.domain.requisition.Requisition;
+import org.openlmis.requisition.domain.requisition.RequisitionDataBuilder;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
 import org.openlmis.requisition.domain.requisition.RequisitionValidationService;
 import org.openlmis.requisition.domain.requisition.StockAdjustmentReason;
@@ -103,15 +106,17 @@ import org.openlmis.requisition.dto.stockmanagement.StockEventDto;
 import org.openlmis.requisition.errorhandling.ValidationResult;
 import org.openlmis.requisition.exception.BindingResultException;
 import org.openlmis.requisition.exception.IdempotencyKeyException;
+import org.openlmis.requisition.exception.IdempotencyKeyProcessedException;
 import org.openlmis.requisition.exception.ValidationMessageException;
 import org.openlmis.requisition.exception.VersionMismatchException;
 import org.openlmis.requisition.repository.RequisitionRepository;
 import org.openlmis.requisition.repository.RequisitionTemplateRepository;
 import org.openlmis.requisition.repository.custom.ProcessedRequestsRedisRepository;
+import org.openlmis.requisition.repository.custom.ProcessedRequestsRedisRepository.ClaimResult;
+import org.openlmis.requisition.repository.custom.RequisitionSearchCursor;
 import org.openlmis.requisition.service.PeriodService;
 import org.openlmis.requisition.service.PermissionService;
 import org.openlmis.requisition.service.RequisitionService;
-import org.openlmis.requisition.service.RequisitionStatusNotifier;
 import org.openlmis.requisition.service.RequisitionStatusProcessor;
 import org.openlmis.requisition.service.RequisitionTemplateService;
 import org.openlmis.requisition.service.referencedata.ApproveProductsAggregator;
@@ -138,13 +143,19 @@ import org.openlmis.requisition.utils.AuthenticationHelper;
 import org.openlmis.requisition.utils.DateHelper;
 import org.openlmis.requisition.utils.DatePhysicalStockCountCompletedEnabledPredicate;
 import org.openlmis.requisition.utils.Message;
+import org.openlmis.requisition.utils.Pagination;
 import org.openlmis.requisition.utils.StockEventBuilder;
 import org.openlmis.requisition.validate.ReasonsValidator;
 import org.openlmis.requisition.validate.RequisitionVersionValidator;
 import org.slf4j.profiler.Profiler;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 
 @SuppressWarnings({"PMD.TooManyMethods", "PMD.UnusedPrivateField"})
 public class RequisitionControllerTest {
@@ -211,9 +222,6 @@ public class RequisitionControllerTest {
   @Mock
   private RequisitionStatusProcessor requisitionStatusProcessor;
 
-  @Mock
-  private RequisitionStatusNotifier requisitionStatusNotifier;
-
   @Mock
   private DatePhysicalStockCountCompletedEnabledPredicate predicate;
 
@@ -338,8 +346,8 @@ public class RequisitionControllerTest {
     currentUser = DtoGenerator.of(UserDto.class);
     when(authenticationHelper.getCurrentUser()).thenReturn(currentUser);
 
-    when(processedRequestsRedisRepository.exists(any()))
-        .thenReturn(false);
+    when(processedRequestsRedisRepository.claim(any()))
+        .thenReturn(ClaimResult.claimed());
 
     when(request.getHeader(IDEMPOTENCY_KEY_HEADER))
         .thenReturn(null);
@@ -394,6 +402,25 @@ public class RequisitionControllerTest {
     assertTrue(periodUuids.contains(uuid1));
   }
 
+  @Test
+  public void shouldReturnPageOfSearchResultsIfSearchContinuesFromCursor() {
+    Requisition requisition = new RequisitionDataBuilder().build();
+    when(requisitionService.searchRequisitions(any(), any(Pageable.class)))
+        .thenReturn(Pagination.getPage(singletonList(requisition), PageRequest.of(0, 1), 2));
+    when(basicRequisitionDtoBuilder.build(anyListOf(Requisition.class)))
+        .thenReturn(singletonList(basicRequisitionDto));
+
+    MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
+    queryParams.add("cursor", RequisitionSearchCursor.of(requisition).encode());
+
+    Page<BasicRequisitionDto> page = requisitionController
+        .searchRequisitions(queryParams, PageRequest.of(5, 1), response);
+
+    assertEquals(0, page.getNumber());
+    assertEquals(2, page.getTotalElements());
+    assertEquals(singletonList(basicRequisitionDto), page.getContent());
+  }
+
   @Test
   public void shouldThrowExceptionIfFacilityIdIsNotProvided() {
     exception.expect(ValidationMessageException.class);
@@ -489,7 +516,7 @@ public class RequisitionControllerTest {
 
     verify(response, times(1)).addHeader(
         HttpHeaders.LOCATION, baseUrl + API_URL + RESOURCE_URL + '/' + uuid1.toString());
-    verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, null);
+    verify(processedRequestsRedisRepository, times(1)).claim(key);
     verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, uuid1);
   }
 
@@ -511,7 +538,22 @@ public class RequisitionControllerTest {
 
     mockDependenciesForSubmit();
     when(request.getHeader(IDEMPOTENCY_KEY_HEADER)).thenReturn(key.toString());
-    when(processedRequestsRedisRepository.exists(key)).thenReturn(true);
+    when(processedRequestsRedisRepository.claim(key))
+        .thenReturn(ClaimResult.alreadyClaimed(null));
+
+    requisitionController.submitRequisition(uuid1, request, response);
+  }
+
+  @Test
+  public void shouldRedirectToRequisitionIfIdempotencyKeyWasAlreadyProcessed() {
+    exception.expect(IdempotencyKeyProcessedException.class);
+    exception.expect(hasProperty("location",
+        is(baseUrl + API_URL + RESOURCE_URL + '/' + uuid1.toString())));
+
+    mockDependenciesForSubmit();
+    when(request.getHeader(IDEMPOTENCY_KEY_HEADER)).thenReturn(key.toString());
+    when(processedRequestsRedisRepository.claim(key))
+        .thenReturn(ClaimResult.alreadyClaimed(uuid1));
 
     requisitionController.submitRequisition(uuid1, request, response);
   }
@@ -786,7 +828,7 @@ public class RequisitionControllerTest {
 
     verify(response, times(1)).addHeader(
         HttpHeaders.LOCATION, baseUrl + API_URL + RESOURCE_URL + '/' + uuid1.toString());
-    verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, null);
+    verify(processedRequestsRedisRepository, times(1)).claim(key);
     verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, uuid1);
   }
 
@@ -819,7 +861,8 @@ public class RequisitionControllerTest {
     supervisoryNode.setParentNode(parentNode);
     when(authorizedRequsition.getStatus()).thenReturn(RequisitionStatus.IN_APPROVAL);
     when(request.getHeader(IDEMPOTENCY_KEY_HEADER)).thenReturn(key.toString());
-    when(processedRequestsRedisRepository.exists(key)).thenReturn(true);
+    when(processedRequestsRedisRepository.claim(key))
+        .thenReturn(ClaimResult.alreadyClaimed(null));
     setUpApprover();
 
     requisitionController.approveRequisition(authorizedRequsition.getId(), request, response);
@@ -1107,7 +1150,7 @@ public class RequisitionControllerTest {
 
     verify(response, times(1)).addHeader(
         HttpHeaders.LOCATION, baseUrl + API_URL + RESOURCE_URL + '/' + uuid1.toString());
-    verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, null);
+    verify(processedRequestsRedisRepository, times(1)).claim(key);
     verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, uuid1);
   }
 
@@ -1138,14 +1181,15 @@ public class RequisitionControllerTest {
             generateRejections()))
         .thenReturn(initiatedRequsition);
     when(request.getHeader(IDEMPOTENCY_KEY_HEADER)).thenReturn(key.toString());
-    when(processedRequestsRedisRepository.exists(key)).thenReturn(true);
+    when(processedRequestsRedisRepository.claim(key))
+        .thenReturn(ClaimResult.alreadyClaimed(null));
 
     requisitionController.rejectRequisition(authorizedRequsition.getId(), request,
             response, generateRejections());
   }
 
   @Test
-  public void shouldCallRequisitionStatusNotifierWhenReject() {
+  public void shouldProcessStatusChangeWhenRejectingRequisition() {
     when(permissionService.canApproveRequisition(authorizedRequsition))
         .thenReturn(ValidationResult.success());
     when(requisitionService.reject(authorizedRequsition, Collections.emptyMap(),
@@ -1155,8 +1199,8 @@ public class RequisitionControllerTest {
     requisitionController.rejectRequisition(authorizedRequsition.getId(), request,
             response, generateRejections());
 
-    verify(requisitionStatusNotifier)
-        .notifyStatusChanged(initiatedRequsition, LocaleContextHolder.getLocale());
+    verify(requisitionStatusProcessor)
+        .statusChange(initiatedRequsition, LocaleContextHolder.getLocale());
   }
 
   @Test
@@ -1184,7 +1228,7 @@ public class RequisitionControllerTest {
 
     verify(response, times(1)).addHeader(
         HttpHeaders.LOCATION, baseUrl + API_URL + RESOURCE_URL + '/' + uuid1.toString());
-    verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, null);
+    verify(processedRequestsRedisRepository, times(1)).claim(key);
     verify(processedRequestsRedisRepository, times(1)).addOrUpdate(key, uuid1);
   }
 
@@ -1206,7 +1250,8 @@ public class RequisitionControllerTest {
 
     setUpAuthorizer();
     when(request.getHeader(IDEMPOTENCY_KEY_HEADER)).thenReturn(key.toString());
-    when(processedRequestsRedisRepository.exists(key)).thenReturn(true);
+    when(processedRequestsRedisRepository.claim(key))
+        .thenReturn(ClaimResult.alreadyClaimed(null));
 
     requisitionController.authorizeRequisition(submittedRequsition.getId(), request, response);
   }